@@ -0,0 +1,380 @@
+package de.unidue.ltl.ctest.difficulty.experiments;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.unidue.ltl.ctest.core.CTestObject;
+import de.unidue.ltl.ctest.core.CTestToken;
+
+/**
+ * A {@code Model}, which caches the predictions of another model.
+ * <p>
+ * Predictions are keyed by a SHA-256 fingerprint of the content of a CTest, i.e. its language and the text,
+ * gap status, gap index and sentence boundary of each token, and of the identity of the model.
+ * Token ids, error rates and previous predictions are not part of the fingerprint.
+ * At most {@code maxEntries} fingerprints are held; the least recently used ones are evicted first,
+ * and entries older than the time to live are discarded on lookup.
+ * <p>
+ * Optionally, predictions are also cached per sentence. If a CTest is not cached as a whole,
+ * only its sentences with gaps, which are not cached, are predicted together as a shorter CTest,
+ * and the predictions of the other sentences are reused. This is only exact for models, whose features
+ * do not look beyond the sentence of a gap, and is therefore disabled by default.
+ * <p>
+ * All methods are thread-safe, if the cached model is. The cached model is called outside of any lock.
+ */
+public class CachingModel implements Model {
+
+	/**
+	 * The default maximum number of cached fingerprints.
+	 */
+	public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+	private static class Entry {
+		private final List<Double> predictions;
+		private final long created;
+
+		private Entry(List<Double> predictions, long created) {
+			this.predictions = predictions;
+			this.created = created;
+		}
+	}
+
+	/**
+	 * The cached parts of a CTest and the shorter CTest to predict for the others.
+	 */
+	private class Lookup {
+		private final CTestObject ctest;
+		private final String key;
+		private final List<List<CTestToken>> sentences = new ArrayList<>();
+		private final List<String> sentenceKeys = new ArrayList<>();
+		private final List<List<Double>> sentencePredictions = new ArrayList<>();
+		private List<Double> predictions;
+		private CTestObject missing;
+
+		private Lookup(CTestObject ctest) {
+			this.ctest = ctest;
+			this.key = getKey(ctest.getLanguage(), ctest.getTokens());
+		}
+
+		/**
+		 * Returns the predictions, merging the cached ones with the given ones for the missing sentences.
+		 */
+		private List<Double> merge(List<Double> missingPredictions) {
+			if (sentences.isEmpty())
+				return missingPredictions;
+			if (missingPredictions.size() != missing.getGapCount())
+				return missing == ctest ? missingPredictions : new ArrayList<>();
+
+			List<Double> merged = new ArrayList<>();
+			int next = 0;
+			for (int i = 0; i < sentences.size(); i++) {
+				List<Double> cached = sentencePredictions.get(i);
+				if (cached != null) {
+					merged.addAll(cached);
+					continue;
+				}
+				int gaps = countGaps(sentences.get(i));
+				List<Double> predicted = missingPredictions.subList(next, next + gaps);
+				put(sentenceKeys.get(i), predicted);
+				merged.addAll(predicted);
+				next += gaps;
+			}
+			return merged;
+		}
+	}
+
+	private final Model model;
+	private final String modelId;
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private final int maxEntries;
+	private final long timeToLive;
+	private boolean sentenceReuse = false;
+
+	private long hits;
+	private long sentenceHits;
+	private long misses;
+	private long evictions;
+
+	/**
+	 * Creates a new {@code CachingModel} for the given model with the default size and no time to live.
+	 * The model is identified by its instance, so the cache is only valid as long as the model does not change.
+	 */
+	public CachingModel(Model model) {
+		this(model, model.getClass().getName() + "@" + System.identityHashCode(model), DEFAULT_MAX_ENTRIES, 0);
+	}
+
+	/**
+	 * Creates a new {@code CachingModel} for the given model.
+	 *
+	 * @param  model The model, whose predictions are cached.
+	 * @param  modelId An identifier of the model, for instance its path and version, which changes whenever its predictions may change.
+	 * @param  maxEntries The maximum number of cached fingerprints.
+	 * @param  timeToLive The time in milliseconds, after which an entry is discarded, or 0 if entries do not expire.
+	 */
+	public CachingModel(Model model, String modelId, int maxEntries, long timeToLive) {
+		if (maxEntries < 1) {
+			throw new IllegalArgumentException("The maximum number of entries must be positive.");
+		}
+		if (timeToLive < 0) {
+			throw new IllegalArgumentException("The time to live must not be negative.");
+		}
+		this.model = model;
+		this.modelId = modelId;
+		this.maxEntries = maxEntries;
+		this.timeToLive = timeToLive;
+	}
+
+	@Override
+	public List<Double> predict(CTestObject ctest) {
+		Lookup lookup = lookup(ctest);
+		if (lookup.predictions != null)
+			return new ArrayList<>(lookup.predictions);
+
+		List<Double> predictions = lookup.merge(model.predict(lookup.missing));
+		put(lookup.key, predictions, ctest.getGapCount());
+		return new ArrayList<>(predictions);
+	}
+
+	/**
+	 * Predicts the difficulties of the given CTests, passing all CTests, which are not cached, to the cached model at once.
+	 */
+	@Override
+	public List<List<Double>> predictAll(List<CTestObject> ctests) {
+		List<Lookup> lookups = new ArrayList<>();
+		List<CTestObject> missing = new ArrayList<>();
+		for (CTestObject ctest : ctests) {
+			Lookup lookup = lookup(ctest);
+			lookups.add(lookup);
+			if (lookup.predictions == null)
+				missing.add(lookup.missing);
+		}
+
+		List<List<Double>> predicted = missing.isEmpty() ? Collections.emptyList() : model.predictAll(missing);
+		List<List<Double>> results = new ArrayList<>();
+		int next = 0;
+		for (Lookup lookup : lookups) {
+			List<Double> predictions = lookup.predictions;
+			if (predictions == null) {
+				predictions = lookup.merge(next < predicted.size() ? predicted.get(next) : new ArrayList<>());
+				put(lookup.key, predictions, lookup.ctest.getGapCount());
+				next++;
+			}
+			predictions = new ArrayList<>(predictions);
+			Model.setPredictions(lookup.ctest, predictions);
+			results.add(predictions);
+		}
+		return results;
+	}
+
+	private Lookup lookup(CTestObject ctest) {
+		Lookup lookup = new Lookup(ctest);
+		synchronized (this) {
+			lookup.predictions = get(lookup.key);
+			if (lookup.predictions != null) {
+				hits++;
+				return lookup;
+			}
+			misses++;
+		}
+		lookup.missing = ctest;
+		if (!sentenceReuse)
+			return lookup;
+
+		CTestObject missing = new CTestObject(ctest.getLanguage());
+		boolean reused = false;
+		for (List<CTestToken> sentence : getSentences(ctest)) {
+			String sentenceKey = getKey(ctest.getLanguage(), sentence);
+			List<Double> cached = null;
+			if (countGaps(sentence) > 0) {
+				synchronized (this) {
+					cached = get(sentenceKey);
+				}
+				if (cached == null)
+					missing.addTokens(sentence);
+				else
+					reused = true;
+			}
+			lookup.sentences.add(sentence);
+			lookup.sentenceKeys.add(sentenceKey);
+			lookup.sentencePredictions.add(countGaps(sentence) > 0 ? cached : Collections.emptyList());
+		}
+
+		if (!reused) {
+			// the whole CTest is predicted, so that the sentences are cached with their full context
+			missing = ctest;
+		} else {
+			synchronized (this) {
+				sentenceHits++;
+			}
+		}
+		lookup.missing = missing;
+		if (missing.getGapCount() == 0) {
+			// all sentences with gaps are cached
+			lookup.predictions = lookup.merge(new ArrayList<>());
+			put(lookup.key, lookup.predictions, ctest.getGapCount());
+		}
+		return lookup;
+	}
+
+	/**
+	 * Returns the fingerprint of the given tokens in the given language for the cached model.
+	 */
+	private String getKey(String language, List<CTestToken> tokens) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			update(digest, modelId);
+			update(digest, language);
+			for (CTestToken token : tokens) {
+				update(digest, token.getText());
+				update(digest, token.isGap() + ":" + token.getGapIndex() + ":" + token.isLastTokenInSentence());
+			}
+			StringBuilder key = new StringBuilder();
+			for (byte b : digest.digest()) {
+				key.append(String.format("%02x", b));
+			}
+			return key.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available.", e);
+		}
+	}
+
+	private static void update(MessageDigest digest, String part) {
+		byte[] bytes = String.valueOf(part).getBytes(StandardCharsets.UTF_8);
+		digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+		digest.update(bytes);
+	}
+
+	private static List<List<CTestToken>> getSentences(CTestObject ctest) {
+		List<List<CTestToken>> sentences = new ArrayList<>();
+		List<CTestToken> sentence = new ArrayList<>();
+		for (CTestToken token : ctest.getTokens()) {
+			sentence.add(token);
+			if (token.isLastTokenInSentence()) {
+				sentences.add(sentence);
+				sentence = new ArrayList<>();
+			}
+		}
+		if (!sentence.isEmpty())
+			sentences.add(sentence);
+		return sentences;
+	}
+
+	private static int countGaps(List<CTestToken> tokens) {
+		int gaps = 0;
+		for (CTestToken token : tokens) {
+			if (token.isGap())
+				gaps++;
+		}
+		return gaps;
+	}
+
+	private List<Double> get(String key) {
+		Entry entry = entries.get(key);
+		if (entry == null)
+			return null;
+		if (timeToLive > 0 && System.currentTimeMillis() - entry.created > timeToLive) {
+			entries.remove(key);
+			evictions++;
+			return null;
+		}
+		return entry.predictions;
+	}
+
+	/**
+	 * Caches the given predictions, unless they do not have one prediction per gap, e.g. because the model failed.
+	 */
+	private void put(String key, List<Double> predictions, int gaps) {
+		if (predictions.size() == gaps)
+			put(key, predictions);
+	}
+
+	private synchronized void put(String key, List<Double> predictions) {
+		entries.put(key, new Entry(Collections.unmodifiableList(new ArrayList<>(predictions)), System.currentTimeMillis()));
+		Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+		while (entries.size() > maxEntries && eldest.hasNext()) {
+			eldest.next();
+			eldest.remove();
+			evictions++;
+		}
+	}
+
+	/**
+	 * Indicates whether predictions are reused per sentence.
+	 */
+	public boolean isSentenceReuse() {
+		return sentenceReuse;
+	}
+
+	/**
+	 * Sets whether predictions are reused per sentence, see above. Defaults to false.
+	 */
+	public void setSentenceReuse(boolean sentenceReuse) {
+		this.sentenceReuse = sentenceReuse;
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * Returns the number of cached fingerprints, including those of sentences.
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns the number of CTests answered from the cache as a whole.
+	 */
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of CTests not cached as a whole, for which the predictions of some sentences were reused.
+	 */
+	public synchronized long getSentenceHitCount() {
+		return sentenceHits;
+	}
+
+	/**
+	 * Returns the number of CTests not cached as a whole.
+	 */
+	public synchronized long getMissCount() {
+		return misses;
+	}
+
+	/**
+	 * Returns the number of entries evicted, because the cache was full or they expired.
+	 */
+	public synchronized long getEvictionCount() {
+		return evictions;
+	}
+
+	/**
+	 * Returns the fraction of CTests answered from the cache as a whole, or 0 if there were no lookups.
+	 */
+	public synchronized double getHitRate() {
+		long lookups = hits + misses;
+		if (lookups == 0)
+			return 0.0;
+		return (double) hits / lookups;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("CachingModel[entries=%d/%d, hits=%d, sentenceHits=%d, misses=%d, evictions=%d, hitRate=%.3f]",
+				entries.size(), maxEntries, hits, sentenceHits, misses, evictions, getHitRate());
+	}
+}
@@ -2,66 +2,507 @@ package de.unidue.ltl.ctest.difficulty.experiments;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.apache.uima.UIMAException;
+import org.apache.uima.UIMAFramework;
 import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.analysis_engine.AnalysisEngineDescription;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.fit.factory.JCasFactory;
 import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
+import org.apache.uima.resource.ResourceInitializationException;
+import org.apache.uima.resource.ResourceManager;
 import org.dkpro.tc.api.type.TextClassificationOutcome;
 
 import de.unidue.ltl.ctest.core.CTestObject;
+import de.unidue.ltl.ctest.core.CTestToken;
 import de.unidue.ltl.ctest.util.Transformation;
 
+/**
+ * A {@code Model}, which predicts difficulties with a DKPro TC estimator and an optional preprocessing engine.
+ * <p>
+ * Analysis engines are not thread-safe. Each call therefore leases a pipeline, consisting of an estimator
+ * and its preprocessing, from a pool and returns it afterwards, so that the model may be used concurrently.
+ * If the model is created from engine descriptions, up to {@code getPoolSize()} pipelines are created on demand,
+ * and further calls wait for a pipeline to be returned. The preprocessing engines of all pipelines share one
+ * {@code ResourceManager}, so that their shared resources are loaded once per model, not once per pipeline.
+ * Each estimator has its own {@code ResourceManager}, since feature extractors keep state per document.
+ * The classifier and feature space are only shared, if the estimator shares them itself, as the {@link LinearModelEstimator} does;
+ * a {@code PreTrainedModelProviderUnitMode} holds its own copy per pipeline.
+ * If the model is created from engine instances, these form the only pipeline and concurrent calls are serialized.
+ * <p>
+ * If a CTest cannot be processed, an {@code IllegalStateException} is thrown, with the cause of the failure.
+ */
 public class DKProTCModel implements Model {
 
+	/**
+	 * The default number of {@code JCas} objects reused by {@code predictAll}.
+	 */
+	public static final int DEFAULT_CAS_POOL_SIZE = 4;
+	
+	// the estimators annotate outcomes as strings, each distinct outcome is converted once
+	private static final int MAX_OUTCOMES = 10000;
+	private final Map<String, Double> outcomes = new ConcurrentHashMap<>();
+
+	/**
+	 * An estimator with its preprocessing and the {@code JCas} objects reused by {@code predictAll}.
+	 */
+	private static class Pipeline {
+		private final AnalysisEngine estimator;
+		private final AnalysisEngine preprocessing;
+		private final List<JCas> casPool = new ArrayList<>();
+		private final int generation;
+		
+		private Pipeline(AnalysisEngine estimator, AnalysisEngine preprocessing, int generation) {
+			this.estimator = estimator;
+			this.preprocessing = preprocessing;
+			this.generation = generation;
+		}
+		
+		private List<JCas> getCasPool(int size) throws UIMAException {
+			while (casPool.size() < size)
+				casPool.add(JCasFactory.createJCas());
+			return casPool.subList(0, size);
+		}
+	}
+
 	private AnalysisEngine estimator;
 	private AnalysisEngine preprocessing;
+	private final AnalysisEngineDescription estimatorDescription;
+	private final AnalysisEngineDescription preprocessingDescription;
+	private final ResourceManager resourceManager;
+	
+	private final BlockingQueue<Pipeline> idle = new LinkedBlockingQueue<>();
+	private int poolSize;
+	private int created = 0;
+	// pipelines of an older generation are discarded, when they are returned
+	private int generation = 0;
+	private int casPoolSize = DEFAULT_CAS_POOL_SIZE;
 	
 	public DKProTCModel(AnalysisEngine estimator) {
+		this.estimatorDescription = null;
+		this.preprocessingDescription = null;
+		this.resourceManager = null;
+		this.poolSize = 1;
 		this.setEstimator(estimator);
 	}
 	
+	/**
+	 * Creates a new {@code DKProTCModel}, which creates its pipelines from the given descriptions.
+	 * The first pipeline is created immediately, so that a model, which cannot be loaded, is noticed early.
+	 * 
+	 * @param estimator the description of the estimator, usually a {@link LinearModelEstimator} or a {@code PreTrainedModelProviderUnitMode}.
+	 * @param preprocessing the description of the preprocessing, may be null.
+	 * @param poolSize the maximum number of pipelines, i.e. of concurrent predictions.
+	 * 
+	 * @throws ResourceInitializationException if the first pipeline cannot be created.
+	 */
+	public DKProTCModel(AnalysisEngineDescription estimator, AnalysisEngineDescription preprocessing, int poolSize)
+			throws ResourceInitializationException {
+		if (poolSize < 1) {
+			throw new IllegalArgumentException("The pool size must be positive.");
+		}
+		this.estimatorDescription = estimator;
+		this.preprocessingDescription = preprocessing;
+		this.resourceManager = UIMAFramework.newDefaultResourceManager();
+		this.poolSize = poolSize;
+		
+		Pipeline pipeline = createPipeline(0);
+		synchronized (this) {
+			created++;
+		}
+		release(pipeline);
+	}
+	
+	/**
+	 * Returns the estimator, or null if the pipelines are created from descriptions.
+	 */
 	public AnalysisEngine getEstimator() {
 		return estimator;
 	}
 
-	public void setEstimator(AnalysisEngine estimator) {
+	/**
+	 * Sets the estimator. Must not be called while predictions are running.
+	 * 
+	 * @throws IllegalStateException if the pipelines are created from descriptions.
+	 */
+	public synchronized void setEstimator(AnalysisEngine estimator) {
 		//TODO: Typecheck for TcAnnotator
+		checkInstanceMode();
 		this.estimator = estimator;
+		resetPool();
 	}
 
-	public void setPreprocessing(AnalysisEngine preprocessing) {
+	/**
+	 * Sets the preprocessing. Must not be called while predictions are running.
+	 * 
+	 * @throws IllegalStateException if the pipelines are created from descriptions, 
+	 *         whose preprocessing is given to {@link #DKProTCModel(AnalysisEngineDescription, AnalysisEngineDescription, int)}.
+	 */
+	public synchronized void setPreprocessing(AnalysisEngine preprocessing) {
+		checkInstanceMode();
 		this.preprocessing = preprocessing;
+		resetPool();
 	}
 	
+	/**
+	 * Returns the preprocessing, or null if there is none or the pipelines are created from descriptions.
+	 */
 	public AnalysisEngine getPreprocessing() {
 		return this.preprocessing;
 	}
 	
+	/**
+	 * Returns the maximum number of pipelines, i.e. of concurrent predictions.
+	 */
+	public synchronized int getPoolSize() {
+		return poolSize;
+	}
+	
+	/**
+	 * Sets the maximum number of pipelines, i.e. of concurrent predictions.
+	 * If the pool shrinks, surplus pipelines are destroyed, when they are returned.
+	 * 
+	 * @throws IllegalStateException if the model is created from engine instances, which form a single pipeline.
+	 */
+	public synchronized void setPoolSize(int poolSize) {
+		if (estimatorDescription == null) {
+			throw new IllegalStateException("A model created from engine instances has a single pipeline.");
+		}
+		if (poolSize < 1) {
+			throw new IllegalArgumentException("The pool size must be positive.");
+		}
+		this.poolSize = poolSize;
+		while (created > poolSize && !idle.isEmpty()) {
+			destroy(idle.poll());
+			created--;
+		}
+	}
+	
+	/**
+	 * Returns the number of {@code JCas} objects reused by {@code predictAll}.
+	 */
+	public int getCasPoolSize() {
+		return casPoolSize;
+	}
+
+	/**
+	 * Sets the number of {@code JCas} objects reused by {@code predictAll}, i.e. the maximum number of CTests in flight.
+	 * Must be at least 2, so that one CTest can be preprocessed, while another one is estimated.
+	 */
+	public void setCasPoolSize(int casPoolSize) {
+		if (casPoolSize < 2) {
+			throw new IllegalArgumentException("The CAS pool size must be at least 2.");
+		}
+		this.casPoolSize = casPoolSize;
+	}
+	
+	/**
+	 * @throws IllegalStateException if the CTest cannot be processed.
+	 */
 	@Override
 	public List<Double> predict(CTestObject ctest) {
+		Pipeline pipeline = leaseOrFail();
 		try {
-			JCas jcas = Transformation.toJCas(ctest);
-			if (preprocessing != null) {
-				preprocessing.process(jcas);
+			return predict(pipeline, ctest);
+		}
+		finally {
+			release(pipeline);
+		}
+	}
+	
+	private List<Double> predict(Pipeline pipeline, CTestObject ctest) {
+		JCas jcas;
+		try {
+			jcas = Transformation.toJCas(ctest);
+		} 
+		catch (UIMAException e) {
+			throw new IllegalStateException("Could not transform the C-Test to a JCas.", e);
+		}
+		try {
+			if (pipeline.preprocessing != null) {
+				pipeline.preprocessing.process(jcas);
 			}
-			estimator.process(jcas);
-			return JCasUtil.select(jcas, TextClassificationOutcome.class)
-					.stream()
-					.map(outcome -> Double.parseDouble(outcome.getOutcome()))
-					.collect(Collectors.toList());
+			pipeline.estimator.process(jcas);
 		} 
 		catch (AnalysisEngineProcessException e) {
-			System.out.println("Could not process the JCas with the estimator.");
-			e.printStackTrace();
+			throw new IllegalStateException("Could not process the JCas with the estimator.", e);
 		} 
-		catch (UIMAException e) {
-			System.out.println("Could not transform given C-Test to JCas format.");
-			e.printStackTrace();
+		return JCasUtil.select(jcas, TextClassificationOutcome.class)
+				.stream()
+				.map(this::toPrediction)
+				.collect(Collectors.toList());
+	}
+	
+	/**
+	 * Predicts the difficulties of the given CTests with up to {@code getPoolSize()} pipelines at once.
+	 * <p>
+	 * The CTests are split into one consecutive part per pipeline. Each part is processed in two stages:
+	 * while the estimator runs on one CTest, the next ones are converted and preprocessed on a second thread.
+	 * Instead of creating a new {@code JCas} per CTest, a fixed number of {@code JCas} objects is reused per pipeline,
+	 * see {@link #setCasPoolSize(int)}. The outcomes are written to the gapped tokens as soon as a CTest is estimated.
+	 * <p>
+	 * Concurrent calls share the pipelines of the pool, so a part may wait for a pipeline to be returned.
+	 * 
+	 * @throws IllegalStateException if a CTest cannot be processed.
+	 */
+	@Override
+	public List<List<Double>> predictAll(List<CTestObject> ctests) {
+		int parts = Math.min(getPoolSize(), ctests.size());
+		if (parts <= 1) {
+			return predictPart(ctests);
 		}
 		
-		return new ArrayList<Double>();
+		ExecutorService executor = Executors.newFixedThreadPool(parts, runnable -> {
+			Thread thread = new Thread(runnable, "model-estimation");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			List<Future<List<List<Double>>>> results = new ArrayList<>();
+			for (int i = 0; i < parts; i++) {
+				List<CTestObject> part = ctests.subList(i * ctests.size() / parts, (i + 1) * ctests.size() / parts);
+				results.add(executor.submit(() -> predictPart(part)));
+			}
+			List<List<Double>> predictions = new ArrayList<>(ctests.size());
+			for (Future<List<List<Double>>> result : results) {
+				predictions.addAll(result.get());
+			}
+			return predictions;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while predicting.", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	private List<List<Double>> predictPart(List<CTestObject> ctests) {
+		Pipeline pipeline = leaseOrFail();
+		try {
+			return predictAll(pipeline, ctests);
+		} finally {
+			release(pipeline);
+		}
+	}
+	
+	private List<List<Double>> predictAll(Pipeline pipeline, List<CTestObject> ctests) {
+		int casPoolSize = this.casPoolSize;
+		BlockingQueue<JCas> free = new ArrayBlockingQueue<>(casPoolSize);
+		BlockingQueue<Object> preprocessed = new ArrayBlockingQueue<>(casPoolSize);
+		try {
+			free.addAll(pipeline.getCasPool(casPoolSize));
+		} catch (UIMAException e) {
+			throw new IllegalStateException("Could not create the JCas pool.", e);
+		}
+		
+		ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "model-preprocessing");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.execute(() -> {
+			for (CTestObject ctest : ctests) {
+				try {
+					JCas jcas = free.take();
+					try {
+						Transformation.addToJCas(ctest, jcas);
+						if (pipeline.preprocessing != null) {
+							pipeline.preprocessing.process(jcas);
+						}
+						preprocessed.put(jcas);
+					} catch (AnalysisEngineProcessException | RuntimeException e) {
+						free.put(reset(jcas));
+						preprocessed.put(e);
+					}
+				} catch (InterruptedException e) {
+					return;
+				}
+			}
+		});
+		
+		List<List<Double>> predictions = new ArrayList<>();
+		try {
+			for (CTestObject ctest : ctests) {
+				Object next = preprocessed.take();
+				if (!(next instanceof JCas)) {
+					throw new IllegalStateException("Could not preprocess the JCas.", (Exception) next);
+				}
+				
+				JCas jcas = (JCas) next;
+				try {
+					pipeline.estimator.process(jcas);
+					predictions.add(readPredictions(jcas, ctest));
+				} catch (AnalysisEngineProcessException e) {
+					throw new IllegalStateException("Could not process the JCas with the estimator.", e);
+				} finally {
+					free.put(reset(jcas));
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while predicting.", e);
+		} finally {
+			executor.shutdownNow();
+			// the preprocessing thread must not use the pipeline, once it is returned to the pool
+			try {
+				executor.awaitTermination(1, TimeUnit.MINUTES);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			// a failed run may leave preprocessed CASes behind, which are cleared for the next run
+			if (predictions.size() < ctests.size()) {
+				for (JCas jcas : pipeline.casPool) {
+					reset(jcas);
+				}
+			}
+		}
+		return predictions;
+	}
+	
+	/**
+	 * Reads the outcomes of the estimator, in the order of the gaps, and sets them on the gapped tokens of the CTest.
+	 * 
+	 * @throws IllegalStateException if the number of outcomes differs from the number of gaps.
+	 */
+	private List<Double> readPredictions(JCas jcas, CTestObject ctest) {
+		List<CTestToken> gaps = ctest.getGappedTokens();
+		List<Double> predictions = new ArrayList<>(gaps.size());
+		for (TextClassificationOutcome outcome : JCasUtil.select(jcas, TextClassificationOutcome.class)) {
+			predictions.add(toPrediction(outcome));
+		}
+		if (predictions.size() != gaps.size()) {
+			throw new IllegalStateException(String.format(
+					"The estimator returned %d outcomes for %d gaps.", predictions.size(), gaps.size()));
+		}
+		for (int i = 0; i < gaps.size(); i++) {
+			gaps.get(i).setPrediction(predictions.get(i));
+		}
+		return predictions;
+	}
+	
+	/**
+	 * Returns the prediction of the given outcome. Outcomes are converted once and looked up afterwards, 
+	 * which spares the conversion for the recurring outcomes of classification models.
+	 */
+	private double toPrediction(TextClassificationOutcome outcome) {
+		String value = outcome.getOutcome();
+		Double prediction = outcomes.get(value);
+		if (prediction == null) {
+			prediction = Double.valueOf(value);
+			if (outcomes.size() < MAX_OUTCOMES) {
+				outcomes.put(value, prediction);
+			}
+		}
+		return prediction;
+	}
+	
+	private Pipeline leaseOrFail() {
+		try {
+			return lease();
+		} catch (ResourceInitializationException e) {
+			throw new IllegalStateException("Could not create a pipeline for the model.", e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for a pipeline.", e);
+		}
+	}
+	
+	/**
+	 * Takes an idle pipeline, creates a new one if the pool is not yet full, or waits for a pipeline to be returned.
+	 */
+	private Pipeline lease() throws ResourceInitializationException, InterruptedException {
+		Pipeline pipeline = idle.poll();
+		if (pipeline != null) {
+			return pipeline;
+		}
+		
+		int pipelineGeneration = -1;
+		synchronized (this) {
+			if (created < poolSize) {
+				created++;
+				pipelineGeneration = generation;
+				if (estimatorDescription == null) {
+					return new Pipeline(estimator, preprocessing, pipelineGeneration);
+				}
+			}
+		}
+		if (pipelineGeneration < 0) {
+			return idle.take();
+		}
+		
+		// engines are created outside of the lock, since loading a model takes a while
+		try {
+			return createPipeline(pipelineGeneration);
+		} catch (ResourceInitializationException | RuntimeException e) {
+			synchronized (this) {
+				created--;
+			}
+			throw e;
+		}
+	}
+	
+	private synchronized void release(Pipeline pipeline) {
+		if (pipeline.generation != generation) {
+			return;
+		}
+		if (created > poolSize) {
+			destroy(pipeline);
+			created--;
+			return;
+		}
+		idle.add(pipeline);
+	}
+	
+	private Pipeline createPipeline(int generation) throws ResourceInitializationException {
+		AnalysisEngine estimator = UIMAFramework.produceAnalysisEngine(estimatorDescription,
+				UIMAFramework.newDefaultResourceManager(), null);
+		AnalysisEngine preprocessing = null;
+		if (preprocessingDescription != null) {
+			preprocessing = UIMAFramework.produceAnalysisEngine(preprocessingDescription, resourceManager, null);
+		}
+		return new Pipeline(estimator, preprocessing, generation);
+	}
+	
+	private void destroy(Pipeline pipeline) {
+		pipeline.estimator.destroy();
+		if (pipeline.preprocessing != null) {
+			pipeline.preprocessing.destroy();
+		}
+	}
+	
+	private void checkInstanceMode() {
+		if (estimatorDescription != null) {
+			throw new IllegalStateException("The engines of a pooled model are created from descriptions, "
+					+ "pass the preprocessing description when the model is created.");
+		}
+	}
+	
+	private void resetPool() {
+		generation++;
+		idle.clear();
+		created = 0;
+	}
+	
+	private static JCas reset(JCas jcas) {
+		jcas.reset();
+		return jcas;
 	}
 }
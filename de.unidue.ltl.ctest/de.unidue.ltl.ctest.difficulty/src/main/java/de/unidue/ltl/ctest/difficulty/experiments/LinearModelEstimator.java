@@ -0,0 +1,156 @@
+package de.unidue.ltl.ctest.difficulty.experiments;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.uima.UimaContext;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
+import org.apache.uima.fit.descriptor.ExternalResource;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.resource.ResourceInitializationException;
+import org.dkpro.tc.api.exception.TextClassificationException;
+import org.dkpro.tc.api.features.Feature;
+import org.dkpro.tc.api.features.FeatureExtractorResource_ImplBase;
+import org.dkpro.tc.api.type.TextClassificationOutcome;
+import org.dkpro.tc.api.type.TextClassificationTarget;
+import org.dkpro.tc.core.Constants;
+
+import de.unidue.ltl.ctest.difficulty.train.ModelExporter;
+import de.unidue.ltl.ctest.type.Gap;
+
+/**
+ * An estimator for linear regression models saved by {@code DefaultTrainer#saveModel},
+ * which shares the classifier and feature space of a model between all its instances.
+ * <p>
+ * A {@code PreTrainedModelProviderUnitMode} deserializes the classifier and the feature space per instance.
+ * This estimator instead exports the classifier of the model as a {@link LinearPredictor}, once per model directory,
+ * and all instances score with the same immutable predictor. The predictor is loaded again,
+ * if the classifier file of the model changes.
+ * <p>
+ * The feature extractors are bound per instance, since they keep state per document.
+ * For each {@code Gap}, a {@code TextClassificationTarget} is added, unless there is one already,
+ * and the predicted difficulty is annotated as {@code TextClassificationOutcome}, replacing any previous outcome.
+ */
+public class LinearModelEstimator extends JCasAnnotator_ImplBase {
+
+	/**
+	 * The model directory, as written by {@code DefaultTrainer#saveModel}.
+	 */
+	public static final String PARAM_TC_MODEL_LOCATION = "tcModelLocation";
+	@ConfigurationParameter(name = PARAM_TC_MODEL_LOCATION, mandatory = true)
+	private File modelLocation;
+
+	/**
+	 * The feature extractors of the model.
+	 */
+	public static final String RES_FEATURE_EXTRACTORS = "featureExtractors";
+	@ExternalResource(key = RES_FEATURE_EXTRACTORS, mandatory = true)
+	private FeatureExtractorResource_ImplBase[] featureExtractors;
+
+	private static class Entry {
+		private final long lastModified;
+		private final LinearPredictor predictor;
+
+		private Entry(long lastModified, LinearPredictor predictor) {
+			this.lastModified = lastModified;
+			this.predictor = predictor;
+		}
+	}
+
+	private static final Map<String, Entry> PREDICTORS = new ConcurrentHashMap<>();
+
+	private LinearPredictor predictor;
+
+	@Override
+	public void initialize(UimaContext context) throws ResourceInitializationException {
+		super.initialize(context);
+		try {
+			predictor = getPredictor(modelLocation.getPath());
+		} catch (IOException | IllegalArgumentException e) {
+			throw new ResourceInitializationException(e);
+		}
+	}
+
+	/**
+	 * Returns the shared predictor of the model in the given directory and exports it, if it is not loaded yet
+	 * or the classifier file has changed since.
+	 *
+	 * @throws IOException if the model cannot be read.
+	 * @throws IllegalArgumentException if the model is not linear in its features.
+	 */
+	public static LinearPredictor getPredictor(String modelPath) throws IOException {
+		File classifier = new File(modelPath, Constants.MODEL_CLASSIFIER);
+		String key = classifier.getCanonicalPath();
+		long lastModified = classifier.lastModified();
+		Entry entry = PREDICTORS.get(key);
+		if (entry == null || entry.lastModified != lastModified) {
+			// concurrent first loads of a model export it twice, but only one predictor is kept
+			entry = new Entry(lastModified, ModelExporter.export(modelPath));
+			Entry current = PREDICTORS.merge(key, entry,
+					(old, loaded) -> old.lastModified == loaded.lastModified ? old : loaded);
+			entry = current;
+		}
+		return entry.predictor;
+	}
+
+	@Override
+	public void process(JCas aJCas) throws AnalysisEngineProcessException {
+		// all targets are added first, since extractors may plan their lookups for all targets of the document
+		List<TextClassificationTarget> targets = new ArrayList<>();
+		for (Gap gap : JCasUtil.select(aJCas, Gap.class)) {
+			targets.add(getTarget(gap, aJCas));
+		}
+
+		for (TextClassificationTarget target : targets) {
+			Map<String, Double> values = new HashMap<>();
+			try {
+				for (FeatureExtractorResource_ImplBase extractor : featureExtractors) {
+					for (Feature feature : extractor.extract(aJCas, target)) {
+						values.put(feature.getName(), toValue(feature));
+					}
+				}
+			} catch (TextClassificationException | IllegalArgumentException e) {
+				throw new AnalysisEngineProcessException(e);
+			}
+
+			for (TextClassificationOutcome outcome : JCasUtil.selectCovered(TextClassificationOutcome.class, target)) {
+				outcome.removeFromIndexes();
+			}
+			TextClassificationOutcome outcome = new TextClassificationOutcome(aJCas, target.getBegin(), target.getEnd());
+			outcome.setOutcome(Double.toString(predictor.predict(predictor.toVector(values))));
+			outcome.addToIndexes();
+		}
+	}
+
+	private static TextClassificationTarget getTarget(Gap gap, JCas aJCas) {
+		for (TextClassificationTarget target : JCasUtil.selectCovered(TextClassificationTarget.class, gap)) {
+			if (target.getBegin() == gap.getBegin() && target.getEnd() == gap.getEnd()) {
+				return target;
+			}
+		}
+		TextClassificationTarget target = new TextClassificationTarget(aJCas, gap.getBegin(), gap.getEnd());
+		target.setId(gap.getId());
+		target.setSuffix(gap.getCoveredText());
+		target.addToIndexes();
+		return target;
+	}
+
+	private static double toValue(Feature feature) {
+		Object value = feature.getValue();
+		if (value instanceof Boolean) {
+			return (Boolean) value ? 1.0 : 0.0;
+		}
+		if (value instanceof Number) {
+			return ((Number) value).doubleValue();
+		}
+		throw new IllegalArgumentException("Only numeric and boolean features can be scored: " + feature.getName());
+	}
+}
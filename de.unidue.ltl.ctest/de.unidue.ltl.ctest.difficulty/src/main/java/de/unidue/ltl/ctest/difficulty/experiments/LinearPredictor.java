@@ -0,0 +1,158 @@
+package de.unidue.ltl.ctest.difficulty.experiments;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A self-contained difficulty predictor, which scores a dense feature vector with a linear function.
+ * <p>
+ * A predictor is exported from a trained model by the {@link de.unidue.ltl.ctest.difficulty.train.ModelExporter},
+ * with the normalization of the features folded into the weights, so that raw feature values are scored directly.
+ * Scoring needs neither UIMA nor Weka and takes one multiplication per feature.
+ * <p>
+ * Feature vectors hold the values in the order of {@code getFeatureNames()}; boolean features are given as 1.0 or 0.0.
+ * Predictors are immutable and may be shared between threads.
+ */
+public class LinearPredictor {
+
+	private static final String BIAS = "bias";
+	private static final String FEATURE = "feature";
+
+	private final String[] featureNames;
+	private final double[] weights;
+	private final double bias;
+	private final Map<String, Integer> featureIndex = new HashMap<>();
+
+	/**
+	 * Creates a new {@code LinearPredictor}.
+	 *
+	 * @param  featureNames The names of the features, in the order of the feature vectors.
+	 * @param  weights The weight of each feature.
+	 * @param  bias The prediction for a vector of zeros.
+	 */
+	public LinearPredictor(String[] featureNames, double[] weights, double bias) {
+		if (featureNames.length != weights.length) {
+			throw new IllegalArgumentException("There must be one weight per feature.");
+		}
+		this.featureNames = featureNames.clone();
+		this.weights = weights.clone();
+		this.bias = bias;
+		for (int i = 0; i < featureNames.length; i++)
+			featureIndex.put(featureNames[i], i);
+	}
+
+	/**
+	 * Predicts the difficulty for the given feature vector.
+	 *
+	 * @throws IllegalArgumentException if the vector does not have one value per feature.
+	 */
+	public double predict(double[] features) {
+		if (features.length != weights.length) {
+			throw new IllegalArgumentException("Expected " + weights.length + " features, but got " + features.length + ".");
+		}
+		double prediction = bias;
+		for (int i = 0; i < weights.length; i++)
+			prediction += weights[i] * features[i];
+		return prediction;
+	}
+
+	/**
+	 * Predicts the difficulties for the given feature vectors, e.g. one per gap of a CTest.
+	 */
+	public List<Double> predict(List<double[]> features) {
+		List<Double> predictions = new ArrayList<>(features.size());
+		for (double[] vector : features)
+			predictions.add(predict(vector));
+		return predictions;
+	}
+
+	/**
+	 * Returns the dense feature vector of the given named feature values.
+	 * Features, which are not given, are 0; names, which are not features of this predictor, are ignored.
+	 */
+	public double[] toVector(Map<String, ? extends Number> features) {
+		double[] vector = new double[featureNames.length];
+		for (Map.Entry<String, ? extends Number> feature : features.entrySet()) {
+			Integer index = featureIndex.get(feature.getKey());
+			if (index != null)
+				vector[index] = feature.getValue().doubleValue();
+		}
+		return vector;
+	}
+
+	/**
+	 * Returns the index of the given feature in the feature vectors, or -1 if it is not a feature of this predictor.
+	 */
+	public int getFeatureIndex(String featureName) {
+		return featureIndex.getOrDefault(featureName, -1);
+	}
+
+	public String[] getFeatureNames() {
+		return featureNames.clone();
+	}
+
+	public double[] getWeights() {
+		return weights.clone();
+	}
+
+	public double getBias() {
+		return bias;
+	}
+
+	/**
+	 * Writes the predictor to the given file, as UTF-8 text with one tab separated line for the bias and for each feature.
+	 * Values are written with full precision, so that a predictor read back scores exactly the same.
+	 */
+	public void write(Path file) throws IOException {
+		try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			writer.write(BIAS + "\t" + Double.toString(bias));
+			writer.newLine();
+			for (int i = 0; i < featureNames.length; i++) {
+				writer.write(FEATURE + "\t" + featureNames[i] + "\t" + Double.toString(weights[i]));
+				writer.newLine();
+			}
+		}
+	}
+
+	/**
+	 * Reads a predictor written by {@link #write(Path)}.
+	 *
+	 * @throws IOException if the file cannot be read or is not a predictor.
+	 */
+	public static LinearPredictor read(Path file) throws IOException {
+		List<String> names = new ArrayList<>();
+		List<Double> weights = new ArrayList<>();
+		Double bias = null;
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] fields = line.split("\t");
+				try {
+					if (fields.length == 2 && fields[0].equals(BIAS)) {
+						bias = Double.parseDouble(fields[1]);
+					} else if (fields.length == 3 && fields[0].equals(FEATURE)) {
+						names.add(fields[1]);
+						weights.add(Double.parseDouble(fields[2]));
+					} else if (!line.isEmpty()) {
+						throw new IOException("Malformed line in predictor@" + file + ": " + line);
+					}
+				} catch (NumberFormatException e) {
+					throw new IOException("Malformed number in predictor@" + file + ": " + line, e);
+				}
+			}
+		}
+		if (bias == null) {
+			throw new IOException("No bias in predictor@" + file);
+		}
+		return new LinearPredictor(names.toArray(new String[names.size()]),
+				weights.stream().mapToDouble(Double::doubleValue).toArray(), bias);
+	}
+}
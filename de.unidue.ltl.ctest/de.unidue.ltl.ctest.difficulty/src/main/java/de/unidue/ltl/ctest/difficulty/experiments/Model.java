@@ -1,12 +1,45 @@
 package de.unidue.ltl.ctest.difficulty.experiments;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import de.unidue.ltl.ctest.core.CTestObject;
+import de.unidue.ltl.ctest.core.CTestToken;
 
 public interface Model {
 	/**
 	 * Predicts the difficulties for each gap in the CTest and returns the difficulty values.
 	 */
 	public List<Double> predict(CTestObject ctest);
+
+	/**
+	 * Predicts the difficulties for each gap in each of the given CTests.
+	 * The predictions are returned in the order of the CTests and are also set on the gapped tokens of each CTest.
+	 * <p>
+	 * By default, {@code predict} is called for one CTest after another.
+	 * Implementations may process the CTests concurrently or in batches.
+	 */
+	public default List<List<Double>> predictAll(List<CTestObject> ctests) {
+		List<List<Double>> predictions = new ArrayList<>();
+		for (CTestObject ctest : ctests) {
+			List<Double> prediction = predict(ctest);
+			setPredictions(ctest, prediction);
+			predictions.add(prediction);
+		}
+		return predictions;
+	}
+
+	/**
+	 * Sets the given predictions on the gapped tokens of the CTest, if there is one prediction per gap.
+	 *
+	 * @return whether the predictions were set.
+	 */
+	public static boolean setPredictions(CTestObject ctest, List<Double> predictions) {
+		List<CTestToken> gaps = ctest.getGappedTokens();
+		if (gaps.size() != predictions.size())
+			return false;
+		for (int i = 0; i < gaps.size(); i++)
+			gaps.get(i).setPrediction(predictions.get(i));
+		return true;
+	}
 }
@@ -2,20 +2,25 @@ package de.unidue.ltl.ctest.difficulty.features.candidate;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.uima.UimaContext;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
 import org.apache.uima.fit.descriptor.ConfigurationParameter;
+import org.apache.uima.fit.descriptor.ExternalResource;
 import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.resource.ResourceInitializationException;
 
 import de.unidue.ltl.ctest.core.TestType;
+import de.unidue.ltl.ctest.difficulty.features.util.LexicalResourceRegistry;
+import de.unidue.ltl.ctest.difficulty.features.util.LexiconCompiler;
+import de.unidue.ltl.ctest.difficulty.features.util.Web1TProviderRegistry;
+import de.unidue.ltl.ctest.difficulty.features.util.Web1TProviderRegistryResource;
 import de.unidue.ltl.ctest.difficulty.types.GapCandidate;
 import de.unidue.ltl.ctest.type.Gap;
 
@@ -38,11 +43,23 @@ public class CandidateAnnotator
     // threshold.
     // Currently, all candidates are annotated
     
+    // the lexicon index supports prefix and suffix gaps, so the test type no longer affects it
     public static final String PARAM_TESTTYPE = "testtype";
     @ConfigurationParameter(name = PARAM_TESTTYPE, mandatory = true)
     private TestType testType;
 
-    private static HashMap<String, Set<String>> wordsMap;
+    /**
+     * The Web1T providers used to filter the candidates of French contractions and English
+     * compounds. If not given, the annotator opens its own providers, which are shared by all
+     * gaps and documents it processes.
+     */
+    public static final String RES_WEB1T_PROVIDERS = "Web1TProviders";
+    @ExternalResource(key = RES_WEB1T_PROVIDERS, mandatory = false)
+    private Web1TProviderRegistryResource web1TProvidersResource;
+
+    private Web1TProviderRegistry web1TProviders;
+
+    private LexicalResourceRegistry.Handle<LexiconIndex> lexicon;
     private String lang;
 
     // private double threshold;
@@ -53,7 +70,6 @@ public class CandidateAnnotator
     {
 
         super.initialize(aContext);
-        wordsMap = new HashMap<String, Set<String>>();
         try {
             initializeLexiconResource();
         }
@@ -62,6 +78,28 @@ public class CandidateAnnotator
             e.printStackTrace();
             throw new ResourceInitializationException(e);
         }
+
+        if (web1TProvidersResource != null) {
+            web1TProviders = web1TProvidersResource.getRegistry();
+        }
+    }
+
+    @Override
+    public void destroy()
+    {
+        if (lexicon != null) {
+            lexicon.close();
+        }
+        // shared providers are released by their resource
+        if (web1TProvidersResource == null && web1TProviders != null) {
+            try {
+                web1TProviders.close();
+            }
+            catch (IOException e) {
+                System.err.println("WARNING: Could not close the Web1T providers: " + e.getMessage());
+            }
+        }
+        super.destroy();
     }
 
     @Override
@@ -76,12 +114,13 @@ public class CandidateAnnotator
             try {
                 if (item.getPrefix().length() > 0) {
                     candidates = CandidateAnnotatorUtils.getCtestCandidates(item.getPrefix(), item
-                            .getCoveredText().toLowerCase(), lengthVariability, wordsMap, lang);
+                            .getCoveredText().toLowerCase(), lengthVariability, lexicon.get(), lang,
+                            getWeb1TProviders());
 
                 }
                 else if (item.getPostfix().length() > 0) {
                     candidates = CandidateAnnotatorUtils.getSimpleCandidatesPrefixGap(item.getPostfix(),
-                            item.getCoveredText(), lengthVariability, wordsMap);
+                            item.getCoveredText(), lengthVariability, lexicon.get());
                 }
             }
             catch (Exception e) {
@@ -105,6 +144,16 @@ public class CandidateAnnotator
 
     }
 
+    private Web1TProviderRegistry getWeb1TProviders()
+    {
+        // the registry opens the providers and determines the Web1T workspace on first use,
+        // as only French contractions and compounds need them
+        if (web1TProviders == null) {
+            web1TProviders = new Web1TProviderRegistry();
+        }
+        return web1TProviders;
+    }
+
     private boolean isGoodCandidate(String cand, Gap item)
     {
         // TODO currently no filtering but might be useful
@@ -114,53 +163,22 @@ public class CandidateAnnotator
     private void initializeLexiconResource()
         throws ResourceInitializationException, IOException
     {
-        // sort words by prefix to enable faster lookup
-        // this could be probably be done a lot faster
-
-        // store short words with extra key in case of empty prefix e.g. d'(une)
-        wordsMap.put("prefix0", new HashSet<String>());
+        // short French words match an empty prefix e.g. d'(une)
+        int maxEmptyPrefixLength = language.equals("fr") ? 3 : 0;
 
-        for (String line : FileUtils.readLines(new File(lexiconFile))) {
-            String word = line.trim().toLowerCase();
-            
-            if (word.length() == 0) {
-            	continue;
-            }
-
-            String part = "";
-            if (testType.equals(TestType.ctest)) {
-                try {
-                    part = word.substring(0, 1);
-                }
-                catch (StringIndexOutOfBoundsException e) {
-                    throw new ResourceInitializationException(e);
-                }
-            }
-            
-            if (testType.equals(TestType.xtest)) {
-                part = word.substring(word.length() - 1, word.length());
-            }
-
-            Set<String> words;
-            if (wordsMap.containsKey(part)) {
-                words = wordsMap.get(part);
-            }
-            else {
-                words = new HashSet<String>();
-            }
-            words.add(word);
-            wordsMap.put(part, words);
-
-            if (language.equals("fr") && word.length() <= 3) {
-                // store short words with extra key in case of empty prefix e.g. d'(une)
-                Set<String> shortwords = wordsMap.get("prefix0");
-
-                shortwords.add(word);
-                wordsMap.put("prefix0", shortwords);
-
-            }
-
-        }
+        // the index is shared by all instances
+        lexicon = LexicalResourceRegistry.acquire(new File(lexiconFile),
+                "lexiconIndex:emptyPrefix=" + maxEmptyPrefixLength,
+                file -> readLexicon(file, maxEmptyPrefixLength));
+    }
 
+    private static LexiconIndex readLexicon(File lexiconFile, int maxEmptyPrefixLength)
+        throws IOException
+    {
+        // the compiled lexicon is mapped, if present
+        List<String> words = new ArrayList<String>();
+        LexiconCompiler.load(lexiconFile, LexiconCompiler.Format.LOWERCASE_WORDS)
+                .forEach((word, value) -> words.add(word));
+        return new LexiconIndex(words, maxEmptyPrefixLength);
     }
 }
\ No newline at end of file
@@ -1,24 +1,44 @@
 package de.unidue.ltl.ctest.difficulty.features.candidate;
 
-import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
 
 import org.apache.commons.lang.WordUtils;
 
 import de.tudarmstadt.ukp.dkpro.core.api.frequency.provider.FrequencyCountProvider;
-import de.tudarmstadt.ukp.dkpro.core.api.resources.DkproContext;
-import de.tudarmstadt.ukp.dkpro.core.frequency.Web1TFileAccessProvider;
+import de.unidue.ltl.ctest.difficulty.features.util.Web1TProviderRegistry;
 
 //TODO: Check applicability of de.unidue.ltl.ctest.gapscheme.preprocessing
 public class CandidateAnnotatorUtils
 
 {
 
+    /**
+     * Returns the candidates for a gap with the given prefix, opening the Web1T files for this call only.
+     * 
+     * @deprecated Use {@link #getCtestCandidates(String, String, int, LexiconIndex, String, Web1TProviderRegistry)}
+     *             with a registry shared by all gaps.
+     */
+    @Deprecated
     public static Set<String> getCtestCandidates(String prefix, String word, int lengthVariability,
-            HashMap<String, Set<String>> wordsMap, String lang)
+            LexiconIndex lexicon, String lang)
+        throws Exception
+    {
+        try (Web1TProviderRegistry web1TProviders = new Web1TProviderRegistry()) {
+            return getCtestCandidates(prefix, word, lengthVariability, lexicon, lang,
+                    web1TProviders);
+        }
+    }
+
+    /**
+     * Returns the candidates for a gap with the given prefix. French contractions and English
+     * compounds are filtered by the n-gram probabilities of the Web1T providers of the given
+     * registry.
+     */
+    public static Set<String> getCtestCandidates(String prefix, String word, int lengthVariability,
+            LexiconIndex lexicon, String lang,
+            Web1TProviderRegistry web1TProviders)
         throws Exception
     {
 
@@ -46,12 +66,10 @@ public class CandidateAnnotatorUtils
                         min_length = 2;
                         max_length = 3;
                     }
-                    // FIXME: Brittle approach
-                    Web1TFileAccessProvider frequencyProvider = new Web1TFileAccessProvider("fr",
-                            new File(new DkproContext().getWorkspace("web1t").getAbsolutePath()
-                                    + "/fr"), 1, 3);
+                    FrequencyCountProvider frequencyProvider = web1TProviders.getProvider("fr",
+                            1, 3);
                     for (String cand : getSimpleCtestCandidates(newPrefix, min_length, max_length,
-                            wordsMap)) {
+                            lexicon)) {
 
                         String candidate = prefixparts[0] + "'" + cand;
 
@@ -64,7 +82,7 @@ public class CandidateAnnotatorUtils
                 }
                 else {
                     possibleCandidates = getSimpleCtestCandidates(prefix, lengthVariability,
-                            wordsMap);
+                            lexicon);
                 }
             }
 
@@ -73,7 +91,7 @@ public class CandidateAnnotatorUtils
                 if (!isCompound(prefix)) {
                     // normal treatment here
                     possibleCandidates = getSimpleCtestCandidates(prefix, lengthVariability,
-                            wordsMap);
+                            lexicon);
                 }
 
                 else {
@@ -92,7 +110,7 @@ public class CandidateAnnotatorUtils
                             - lengthVariability);
                     max_length = prefix.length() + lengthAddition + 1 + lengthVariability;
                     possibleCandidates = getSimpleCtestCandidates(prefix, min_length, max_length,
-                            wordsMap);
+                            lexicon);
 
                     // remove the "-"
                     // get candidates for carbonfr__
@@ -101,24 +119,22 @@ public class CandidateAnnotatorUtils
                     max_length = prefix.length() - 1 + lengthAddition + 1 + lengthVariability;
                     if (prefixElems.length > 1) {
                         possibleCandidates.addAll(getSimpleCtestCandidates(prefixElems[0]
-                                + prefixElems[1], min_length, max_length, wordsMap));
+                                + prefixElems[1], min_length, max_length, lexicon));
                     }
                     else {
                         possibleCandidates.addAll(getSimpleCtestCandidates(prefixElems[0],
-                                min_length, max_length, wordsMap));
+                                min_length, max_length, lexicon));
                     }
                     // if candidate list is small, get candidates for fr__
                     if ((!possibleCandidates.contains(word) || possibleCandidates.size() < 4)
                             && prefixElems.length > 1) {
 
                         Set<String> singleCandidates = getSimpleCtestCandidates(prefixElems[1],
-                                lengthVariability, wordsMap);
+                                lengthVariability, lexicon);
 
                         // filter by bigram probability with carbon
-                        File web1TDir = new File(new DkproContext().getWorkspace("web1t")
-                                .getAbsolutePath() + "/" + lang);
-                        FrequencyCountProvider frequencyProvider = new Web1TFileAccessProvider(
-                                lang, web1TDir, 1, 2);
+                        FrequencyCountProvider frequencyProvider = web1TProviders.getProvider(
+                                lang, 1, 2);
                         for (String cand : singleCandidates) {
 
                             Double biprob = frequencyProvider.getLogProbability(prefixElems[0]
@@ -147,53 +163,28 @@ public class CandidateAnnotatorUtils
     }
 
     public static Set<String> getSimpleCtestCandidates(String prefix, int lengthVariability,
-            HashMap<String, Set<String>> wordsMap)
+            LexiconIndex lexicon)
         throws IOException
     {
         int min_length = Math.max(prefix.length() * 2 - lengthVariability, prefix.length() + 1);
         int max_length = prefix.length() * 2 + 1 + lengthVariability;
 
-        return getSimpleCtestCandidates(prefix, min_length, max_length, wordsMap);
+        return getSimpleCtestCandidates(prefix, min_length, max_length, lexicon);
     }
 
     private static Set<String> getSimpleCtestCandidates(String prefix, int minLength,
-            int maxLength, HashMap<String, Set<String>> wordsMap)
+            int maxLength, LexiconIndex lexicon)
         throws IOException
     {
         Set<String> possibleCandidates = new HashSet<String>();
-        String key;
-
-        if (prefix.length() > 0) {
-            key = prefix.toLowerCase().substring(0, 1);
+        // lexicon is in lowercase, recase if necessary
+        if (prefix.length() > 0 && Character.isUpperCase(prefix.charAt(0))) {
+            lexicon.forEachWithPrefix(prefix.toLowerCase(), minLength, maxLength,
+                    word -> possibleCandidates.add(WordUtils.capitalize(word)));
         }
         else {
-            // empty prefix
-            key = "prefix0";
-
-        }
-        try {
-            for (String word : wordsMap.get(key)) {
-                // select candidates with correct prefix and length)
-
-                if ((key.equals("prefix0") || word.startsWith(prefix.toLowerCase()))
-                        && (word.length() >= minLength) && (word.length() <= maxLength)) {
-
-                    // lexicon is in lowercase, recase if necessary
-                    if (prefix.length() > 0 && Character.isUpperCase(prefix.charAt(0))) {
-                        possibleCandidates.add(WordUtils.capitalize(word.trim()));
-                    }
-
-                    else {
-                        possibleCandidates.add(word.trim());
-                    }
-                }
-            }
-        }
-        catch (NullPointerException e) {
-            System.out.println("No candidates for " + prefix);
-            // maybe re-run candidate calculation with higher length variability in this case?
-            // in the german tests, the length constraint is not always respected for compounds
-
+            lexicon.forEachWithPrefix(prefix.toLowerCase(), minLength, maxLength,
+                    possibleCandidates::add);
         }
         return possibleCandidates;
     }
@@ -208,43 +199,28 @@ public class CandidateAnnotatorUtils
     }
 
     public static Set<String> getSimpleCandidatesPrefixGap(String postfix, String word,
-            int lengthVariability, HashMap<String, Set<String>> wordsMap)
+            int lengthVariability, LexiconIndex lexicon)
         throws IOException
     {
         int min_length = Math.max(postfix.length() * 2 - lengthVariability, postfix.length() + 1);
         int max_length = postfix.length() * 2 + 1 + lengthVariability;
-        return getSimpleCandidatesPrefixGap(postfix, word, min_length, max_length, wordsMap);
+        return getSimpleCandidatesPrefixGap(postfix, word, min_length, max_length, lexicon);
     }
 
     private static Set<String> getSimpleCandidatesPrefixGap(String postfix, String word,
-            int minLength, int maxLength, HashMap<String, Set<String>> wordsMap)
+            int minLength, int maxLength, LexiconIndex lexicon)
         throws IOException
     {
         Set<String> possibleCandidates = new HashSet<String>();
-        String part = postfix.toLowerCase().substring(postfix.length() - 1, postfix.length());
-
-        if (wordsMap.containsKey(part)) {
-            for (String candidateWord : wordsMap.get(part)) {
-
-                // select candidates with correct prefix and length)
-
-                if (candidateWord.endsWith(postfix.toLowerCase())
-                        && (candidateWord.length() >= minLength)
-                        && (candidateWord.length() <= maxLength)) {
-
-                    // lexicon is in lowercase, recase if necessary
-                    if (Character.isUpperCase(word.charAt(0))) {
-                        possibleCandidates.add(WordUtils.capitalize(candidateWord.trim()));
-                    }
-
-                    else {
-                        possibleCandidates.add(candidateWord.trim());
-                    }
-
-                }
-            }
+        // lexicon is in lowercase, recase if necessary
+        if (Character.isUpperCase(word.charAt(0))) {
+            lexicon.forEachWithSuffix(postfix.toLowerCase(), minLength, maxLength,
+                    candidateWord -> possibleCandidates.add(WordUtils.capitalize(candidateWord)));
+        }
+        else {
+            lexicon.forEachWithSuffix(postfix.toLowerCase(), minLength, maxLength,
+                    possibleCandidates::add);
         }
-
         return possibleCandidates;
     }
 }
\ No newline at end of file
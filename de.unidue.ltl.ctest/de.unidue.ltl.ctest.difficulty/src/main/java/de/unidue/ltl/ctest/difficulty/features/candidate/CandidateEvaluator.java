@@ -17,11 +17,12 @@
  ******************************************************************************/
 package de.unidue.ltl.ctest.difficulty.features.candidate;
 
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.TreeSet;
 
 import org.apache.uima.fit.descriptor.ConfigurationParameter;
 import org.apache.uima.fit.descriptor.ExternalResource;
@@ -37,7 +38,9 @@ import org.dkpro.tc.api.type.TextClassificationTarget;
 import de.tudarmstadt.ukp.dkpro.core.api.frequency.provider.FrequencyCountProvider;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
 import de.unidue.ltl.ctest.difficulty.features.util.CTestFeaturesUtil;
+import de.unidue.ltl.ctest.difficulty.features.util.CandidateRanking;
 import de.unidue.ltl.ctest.difficulty.features.util.ContextProvider;
+import de.unidue.ltl.ctest.difficulty.features.util.NgramPlanner;
 import de.unidue.ltl.ctest.difficulty.types.GapCandidate;
 import de.unidue.ltl.ctest.type.Gap;
 
@@ -74,10 +77,23 @@ public class CandidateEvaluator extends FeatureExtractorResource_ImplBase implem
 	public static final String BIGRAM_SOLUTION_RANK = "BigramSolutionRank";
 	public static final String TRIGRAM_SOLUTION_RANK = "TrigramSolutionRank";
 
+	// the rankings are reused for each gap
+	private final CandidateRanking unigramCandidates = new CandidateRanking();
+	private final CandidateRanking bigramCandidates = new CandidateRanking();
+	private final CandidateRanking trigramCandidates = new CandidateRanking();
+
+	private final NgramPlanner planner = new NgramPlanner();
+
 	@Override
 	public Set<Feature> extract(JCas jcas, TextClassificationTarget classificationTarget)
 			throws TextClassificationException {
 
+		try {
+			planner.planCandidates(jcas, language, provider, unigramThreshold);
+		} catch (IOException e) {
+			throw new TextClassificationException(e);
+		}
+
 		Set<Feature> featList = new HashSet<Feature>();
 		List<Gap> gaps = JCasUtil.selectCovered(Gap.class, classificationTarget);
 		
@@ -102,9 +118,9 @@ public class CandidateEvaluator extends FeatureExtractorResource_ImplBase implem
 		String right = ContextProvider.getRightContextString(jcas, Token.class, classificationTarget, 1);
 
 		// initialize collectors
-		TreeSet<GapCandidate> unigramCandidates = new TreeSet<GapCandidate>();
-		TreeSet<GapCandidate> bigramCandidates = new TreeSet<GapCandidate>();
-		TreeSet<GapCandidate> trigramCandidates = new TreeSet<GapCandidate>();
+		unigramCandidates.clear();
+		bigramCandidates.clear();
+		trigramCandidates.clear();
 
 		// iterate through candidates
 		for (GapCandidate cand : candidates) {
@@ -123,10 +139,7 @@ public class CandidateEvaluator extends FeatureExtractorResource_ImplBase implem
 
 				if (wordProb > unigramThreshold) {
 					// collect unigram candidates above threshold
-					GapCandidate uni = new GapCandidate(jcas, cand.getBegin(), cand.getEnd());
-					uni.setCandidateWord(cand.getCandidateWord());
-					uni.setSuitability(wordProb);
-					unigramCandidates.add(uni);
+					unigramCandidates.add(word, wordProb);
 
 					// get bigram and trigram probabilities
 					trigramProb = provider.getProbability(CTestFeaturesUtil.getWeb1TFormat(trigram, language))
@@ -144,19 +157,11 @@ public class CandidateEvaluator extends FeatureExtractorResource_ImplBase implem
 
 			// collect trigram candidates
 			if (trigramProb > trigramThreshold) {
-				// generate new candidates so that we can order them according to their
-				// probability
-				GapCandidate tri = new GapCandidate(jcas, cand.getBegin(), cand.getEnd());
-				tri.setCandidateWord(cand.getCandidateWord());
-				tri.setSuitability(trigramProb);
-				trigramCandidates.add(tri);
+				trigramCandidates.add(word, trigramProb);
 			}
 			// collect bigram candidates
 			if (bigramModel > bigramThreshold) {
-				GapCandidate bi = new GapCandidate(jcas, cand.getBegin(), cand.getEnd());
-				bi.setCandidateWord(cand.getCandidateWord());
-				bi.setSuitability(bigramModel);
-				bigramCandidates.add(bi);
+				bigramCandidates.add(word, bigramModel);
 			}
 
 		}
@@ -168,9 +173,10 @@ public class CandidateEvaluator extends FeatureExtractorResource_ImplBase implem
 		featList.add(new Feature(TRIGRAM_CANDIDATES_SIZE, trigramCandidates.size(), FeatureType.NUMERIC));
 
 		// extract rank of solution in the candidate space
-		int unigramSolutionRank = CTestFeaturesUtil.getSolutionRank(gap.getSolutions().toArray(), unigramCandidates);
-		int bigramSolutionRank = CTestFeaturesUtil.getSolutionRank(gap.getSolutions().toArray(), bigramCandidates);
-		int trigramSolutionRank = CTestFeaturesUtil.getSolutionRank(gap.getSolutions().toArray(), trigramCandidates);
+		Set<String> solutions = new HashSet<String>(Arrays.asList(gap.getSolutions().toArray()));
+		int unigramSolutionRank = unigramCandidates.getSolutionRank(solutions);
+		int bigramSolutionRank = bigramCandidates.getSolutionRank(solutions);
+		int trigramSolutionRank = trigramCandidates.getSolutionRank(solutions);
 
 		// if the solution is not in the candidate space, return the last position in
 		// the candidate
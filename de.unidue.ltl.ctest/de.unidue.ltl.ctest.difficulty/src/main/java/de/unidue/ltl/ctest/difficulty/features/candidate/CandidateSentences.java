@@ -0,0 +1,75 @@
+package de.unidue.ltl.ctest.difficulty.features.candidate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.uima.fit.util.JCasUtil;
+
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+import de.unidue.ltl.ctest.difficulty.features.util.CandidateRanking;
+import de.unidue.ltl.ctest.difficulty.features.util.CandidateSentenceScorer;
+import de.unidue.ltl.ctest.difficulty.types.GapCandidate;
+import de.unidue.ltl.ctest.type.Gap;
+
+/**
+ * The sentences resulting from filling a gap with each of its candidates, copied from the CAS,
+ * so that they can be ranked by another thread.
+ */
+class CandidateSentences {
+
+	private final List<String> left = new ArrayList<String>();
+	private final List<String> right = new ArrayList<String>();
+	private final List<String> candidates;
+	private final Set<String> solutions;
+
+	private CandidateSentences(List<String> candidates, Set<String> solutions) {
+		this.candidates = candidates;
+		this.solutions = solutions;
+	}
+
+	/**
+	 * Returns the candidate sentences of the given gap.
+	 */
+	static CandidateSentences of(Gap gap, Sentence sentence) {
+		String[] solutions = gap.getSolutions().toArray();
+
+		// solution might not be part of the candidate list because it was not in the
+		// vocabulary, add it (or them if multiple solutions are possible)
+		Set<String> words = new LinkedHashSet<String>();
+		for (GapCandidate cand : JCasUtil.selectCovering(GapCandidate.class, gap)) {
+			words.add(cand.getCandidateWord());
+		}
+		Collections.addAll(words, solutions);
+		CandidateSentences sentences = new CandidateSentences(new ArrayList<String>(words),
+				new HashSet<String>(Arrays.asList(solutions)));
+
+		// all candidate sentences share the tokens before and after the gap
+		for (Token t : JCasUtil.selectCovered(Token.class, sentence)) {
+			if (t.getBegin() < gap.getBegin()) {
+				Collections.addAll(sentences.left, t.getCoveredText().split(" "));
+			} else if (t.getBegin() > gap.getBegin()) {
+				Collections.addAll(sentences.right, t.getCoveredText().split(" "));
+			}
+		}
+		return sentences;
+	}
+
+	/**
+	 * Returns the rank of the best ranked solution among the candidates, or -1 if the gap has no solution.
+	 * Candidates with equal scores are ranked in the order of the candidates.
+	 */
+	int getSolutionRank(CandidateSentenceScorer scorer) {
+		double[] scores = scorer.score(left, right, candidates);
+		CandidateRanking ranking = new CandidateRanking();
+		for (int i = 0; i < scores.length; i++) {
+			ranking.add(candidates.get(i), scores[i]);
+		}
+		return ranking.getSolutionRank(solutions);
+	}
+}
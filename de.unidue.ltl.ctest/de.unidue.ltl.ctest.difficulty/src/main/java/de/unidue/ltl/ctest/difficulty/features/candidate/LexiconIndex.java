@@ -0,0 +1,168 @@
+package de.unidue.ltl.ctest.difficulty.features.candidate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * An immutable index of a lowercased lexicon for the retrieval of gap candidates by prefix or suffix.
+ * <p>
+ * The words are partitioned by length and sorted within each partition, so the words with a given
+ * prefix and length form a range, which is found by binary search. For suffixes, the words are
+ * additionally sorted by their reversed spelling. A lookup takes O(log n + k) time for each length
+ * in the requested range and allocates nothing but the reversed suffix.
+ */
+public class LexiconIndex
+{
+
+    private static final String[] NO_WORDS = new String[0];
+
+    /**
+     * The words of each length, sorted.
+     */
+    private final String[][] words;
+
+    /**
+     * The reversed words of each length, sorted, and the words in the same order.
+     */
+    private final String[][] reversedWords;
+    private final String[][] wordsByReversal;
+
+    private final int maxEmptyPrefixLength;
+    private final int size;
+
+    /**
+     * Creates a new index of the given words, none of which matches an empty prefix.
+     */
+    public LexiconIndex(Collection<String> lexicon)
+    {
+        this(lexicon, 0);
+    }
+
+    /**
+     * Creates a new index of the given words.
+     *
+     * @param lexicon
+     *            The lowercased and trimmed words. Duplicates and empty words are ignored.
+     * @param maxEmptyPrefixLength
+     *            The maximum length of the words matching an empty prefix, e.g. 3 for the French
+     *            d'(une), or 0 if no word matches an empty prefix.
+     */
+    public LexiconIndex(Collection<String> lexicon, int maxEmptyPrefixLength)
+    {
+        this.maxEmptyPrefixLength = maxEmptyPrefixLength;
+
+        List<List<String>> partitions = new ArrayList<List<String>>();
+        int count = 0;
+        for (String word : new TreeSet<String>(lexicon)) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            while (partitions.size() <= word.length()) {
+                partitions.add(new ArrayList<String>());
+            }
+            // the words are added in sorted order
+            partitions.get(word.length()).add(word);
+            count++;
+        }
+        this.size = count;
+
+        words = new String[partitions.size()][];
+        reversedWords = new String[partitions.size()][];
+        wordsByReversal = new String[partitions.size()][];
+        for (int length = 0; length < partitions.size(); length++) {
+            List<String> partition = partitions.get(length);
+            words[length] = partition.toArray(NO_WORDS);
+
+            String[] reversed = new String[partition.size()];
+            for (int i = 0; i < reversed.length; i++) {
+                reversed[i] = reverse(partition.get(i));
+            }
+            Integer[] order = new Integer[reversed.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparing(i -> reversed[i]));
+            reversedWords[length] = new String[order.length];
+            wordsByReversal[length] = new String[order.length];
+            for (int i = 0; i < order.length; i++) {
+                reversedWords[length][i] = reversed[order[i]];
+                wordsByReversal[length][i] = partition.get(order[i]);
+            }
+        }
+    }
+
+    /**
+     * Passes each word with the given lowercased prefix and a length in the given range to the
+     * given action, in order of length and then alphabetically.
+     */
+    public void forEachWithPrefix(String prefix, int minLength, int maxLength,
+            Consumer<String> action)
+    {
+        if (prefix.isEmpty()) {
+            maxLength = Math.min(maxLength, maxEmptyPrefixLength);
+        }
+        forEachInRange(words, words, prefix, minLength, maxLength, action);
+    }
+
+    /**
+     * Passes each word with the given lowercased suffix and a length in the given range to the
+     * given action.
+     */
+    public void forEachWithSuffix(String suffix, int minLength, int maxLength,
+            Consumer<String> action)
+    {
+        forEachInRange(reversedWords, wordsByReversal, reverse(suffix), minLength, maxLength,
+                action);
+    }
+
+    private static void forEachInRange(String[][] keys, String[][] values, String prefix,
+            int minLength, int maxLength, Consumer<String> action)
+    {
+        int first = Math.max(minLength, prefix.length());
+        int last = Math.min(maxLength, keys.length - 1);
+        for (int length = first; length <= last; length++) {
+            String[] partition = keys[length];
+            for (int i = lowerBound(partition, prefix); i < partition.length
+                    && partition[i].startsWith(prefix); i++) {
+                action.accept(values[length][i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the first key not smaller than the given one.
+     */
+    private static int lowerBound(String[] keys, String key)
+    {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                lo = mid + 1;
+            }
+            else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static String reverse(String word)
+    {
+        return new StringBuilder(word).reverse().toString();
+    }
+
+    /**
+     * Returns the number of distinct words.
+     */
+    public int size()
+    {
+        return size;
+    }
+}
@@ -19,18 +19,23 @@ package de.unidue.ltl.ctest.difficulty.features.candidate;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
 
 import org.apache.uima.fit.descriptor.ConfigurationParameter;
+import org.apache.uima.fit.descriptor.ExternalResource;
 import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
+import org.apache.uima.resource.ResourceInitializationException;
+import org.apache.uima.resource.ResourceSpecifier;
 import org.dkpro.tc.api.exception.TextClassificationException;
 import org.dkpro.tc.api.features.Feature;
 import org.dkpro.tc.api.features.FeatureExtractor;
@@ -41,11 +46,11 @@ import org.dkpro.tc.api.type.TextClassificationTarget;
 import de.tudarmstadt.ukp.dkpro.core.api.metadata.type.DocumentMetaData;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
-import de.unidue.ltl.ctest.difficulty.features.util.CTestFeaturesUtil;
-import de.unidue.ltl.ctest.difficulty.types.GapCandidate;
+import de.unidue.ltl.ctest.difficulty.features.util.CandidateSentenceScorer;
+import de.unidue.ltl.ctest.difficulty.features.util.LanguageModelResource;
+import de.unidue.ltl.ctest.difficulty.features.util.LexicalResourceRegistry;
 import de.unidue.ltl.ctest.type.Gap;
 import edu.berkeley.nlp.lm.NgramLanguageModel;
-import edu.berkeley.nlp.lm.io.LmReaders;
 
 public class LmCandidatesRankerExtractor extends FeatureExtractorResource_ImplBase implements FeatureExtractor {
 	public static final String PARAM_LMFILE = "BinaryLanguageModel";
@@ -56,8 +61,49 @@ public class LmCandidatesRankerExtractor extends FeatureExtractorResource_ImplBa
 	@ConfigurationParameter(name = PARAM_SENTENCESCORES_DIR, mandatory = false)
 	protected static String sentenceScoresDir;
 
+	/**
+	 * A {@link SolutionRankStore} precomputed by the {@link SolutionRankStoreBuilder}.
+	 * Gaps missing in the store are ranked by the sentence scores or the language model, if one of them is specified.
+	 */
+	public static final String PARAM_SOLUTION_RANK_STORE = "SolutionRankStore";
+	@ConfigurationParameter(name = PARAM_SOLUTION_RANK_STORE, mandatory = false)
+	protected String solutionRankStore;
+
+	/**
+	 * A shared {@link LanguageModelResource}; if it is not bound, the model of {@link #PARAM_LMFILE} is used.
+	 */
+	public static final String RES_LANGUAGE_MODEL = "LanguageModel";
+	@ExternalResource(key = RES_LANGUAGE_MODEL, mandatory = false)
+	protected LanguageModelResource languageModel;
+
 	public static final String LM_RANK = "LmRankOfSolution";
-	private static BufferedReader br;
+
+	private LexicalResourceRegistry.Handle<SolutionRankStore> rankStore;
+	private LexicalResourceRegistry.Handle<NgramLanguageModel<String>> lmHandle;
+	private CandidateSentenceScorer scorer;
+
+	// the ids of the sentences and tokens of the current document, computed once per document
+	private String indexedTextId;
+	private String indexedText;
+	private final Map<Sentence, Integer> sentenceIds = new HashMap<>();
+	private final Map<Token, Integer> tokenIds = new HashMap<>();
+
+	@Override
+	public boolean initialize(ResourceSpecifier aSpecifier, Map<String, Object> aAdditionalParams)
+			throws ResourceInitializationException {
+		if (!super.initialize(aSpecifier, aAdditionalParams)) {
+			return false;
+		}
+		if (solutionRankStore != null) {
+			try {
+				rankStore = LexicalResourceRegistry.acquire(new File(solutionRankStore), "solutionRanks",
+						SolutionRankStore::open);
+			} catch (IOException e) {
+				throw new ResourceInitializationException(e);
+			}
+		}
+		return true;
+	}
 
 	@Override
 	public Set<Feature> extract(JCas jcas, TextClassificationTarget target) throws TextClassificationException {
@@ -70,131 +116,160 @@ public class LmCandidatesRankerExtractor extends FeatureExtractorResource_ImplBa
 		return featList;
 	}
 
+	@Override
+	public void destroy() {
+		if (rankStore != null) {
+			rankStore.close();
+		}
+		if (lmHandle != null) {
+			lmHandle.close();
+		}
+		super.destroy();
+	}
+
 	private int getLmRank(Gap gap, JCas jcas, String lmfile) throws TextClassificationException {
-		String[] solutions = gap.getSolutions().toArray();
 		Sentence sentence = JCasUtil.selectCovering(Sentence.class, gap).get(0);
-		List<GapCandidate> candidates = JCasUtil.selectCovering(GapCandidate.class, gap);
-
-		// solution might not be part of the candidate list because it was not in the
-		// vocabulary,
-		// add it (or them if multiple solutions are possible)
-		for (String solution : solutions) {
-			GapCandidate candidate = new GapCandidate(jcas, gap.getBegin(), gap.getEnd());
-			candidate.setCandidateWord(solution);
-			candidates.add(candidate);
+
+		// look up the precomputed rank, gaps missing in the store are ranked as without a store
+		if (rankStore != null) {
+			Token token = JCasUtil.selectCovered(Token.class, gap).get(0);
+			int rank = rankStore.get().getRank(getTextId(jcas), getSentenceId(jcas, sentence), getTokenId(jcas, token));
+			if (rank != 0) {
+				return rank;
+			}
 		}
-		// this is the preferred version, store the sentence scores to a file in advance
-		// and read
-		// them
-		if (new File(sentenceScoresDir).isDirectory()) {
+
+		// read the sentence scores, if they were stored to a directory in advance
+		if (sentenceScoresDir != null && new File(sentenceScoresDir).isDirectory()) {
 			try {
 				return getLmRankFromFile(jcas, gap, sentence);
 			} catch (IOException e) {
 				throw new TextClassificationException(e);
 			}
 		}
-		// scoring the sentences on the fly is much slower
-		else if (new File(lmFile).isFile()) {
-			return getLmRankDynamic(jcas, candidates, gap, sentence);
-		} else {
-			throw new TextClassificationException(
-					"You need to specify either a binary language model or a directory with sentence scores. ");
+		CandidateSentenceScorer scorer = getScorer();
+		if (scorer == null) {
+			String message = "You need to specify either a binary language model or a directory with sentence scores. ";
+			if (rankStore != null) {
+				message += String.format("The gap %s of text %s is not in the solution rank store.",
+						gap.getCoveredText(), getTextId(jcas));
+			}
+			throw new TextClassificationException(message);
 		}
+		return getLmRankDynamic(scorer, gap, sentence);
 	}
 
-	private int getLmRankDynamic(JCas jcas, List<GapCandidate> candidates, Gap gap, Sentence sentence) {
-		TreeSet<GapCandidate> lmCandidates = new TreeSet<GapCandidate>();
-		for (GapCandidate cand : candidates) {
-			GapCandidate lmCandidate = new GapCandidate(jcas, gap.getBegin(), gap.getEnd());
-			double score = getLmScore(cand.getCandidateWord(), gap, sentence, lmFile);
-			lmCandidate.setCandidateWord(cand.getCandidateWord());
-			lmCandidate.setSuitability(score);
-			lmCandidates.add(lmCandidate);
+	/**
+	 * Returns the scorer of the shared language model, or null if no model is specified.
+	 */
+	private CandidateSentenceScorer getScorer() throws TextClassificationException {
+		if (scorer == null) {
+			if (languageModel != null) {
+				scorer = new CandidateSentenceScorer(languageModel.getLanguageModel());
+			} else if (lmFile != null && new File(lmFile).isFile()) {
+				try {
+					lmHandle = LanguageModelResource.acquire(new File(lmFile));
+				} catch (IOException | RuntimeException e) {
+					throw new TextClassificationException(e);
+				}
+				scorer = new CandidateSentenceScorer(lmHandle.get());
+			}
 		}
-		return CTestFeaturesUtil.getSolutionRank(gap.getSolutions().toArray(), lmCandidates);
+		return scorer;
 	}
 
-	private double getLmScore(String candidateWord, Gap gap, Sentence sentence, String lmFile2) {
-		NgramLanguageModel<String> lm = LmReaders.readLmBinary(lmFile);
-		StringBuffer candidateSentence = new StringBuffer();
-		for (Token t : JCasUtil.selectCovered(Token.class, sentence)) {
-			if (t.getBegin() == gap.getBegin()) {
-				candidateSentence.append(candidateWord);
-
-			} else {
-				candidateSentence.append(t.getCoveredText());
-			}
-			candidateSentence.append(" ");
-		}
-		return lm.scoreSentence(Arrays.asList(candidateSentence.toString().trim().split(" ")));
+	private int getLmRankDynamic(CandidateSentenceScorer scorer, Gap gap, Sentence sentence) {
+		return CandidateSentences.of(gap, sentence).getSolutionRank(scorer);
 	}
 
-	private int getLmRankFromFile(JCas jcas, Gap gap, Sentence sentence) throws IOException {
+	/**
+	 * Returns the id of the text of the document, as used in the sentence scores and the {@link SolutionRankStore}.
+	 */
+	static String getTextId(JCas jcas) {
 		String textname = DocumentMetaData.get(jcas).getDocumentId().split(".txt")[0];
 		if (!textname.endsWith(".txt")) {
 			textname += ".txt";
 		}
+		return textname;
+	}
+
+	private int getLmRankFromFile(JCas jcas, Gap gap, Sentence sentence) throws IOException {
+		String textname = getTextId(jcas);
 
 		// get ids of covering sentence and covering token
 		Token token = JCasUtil.selectCovered(Token.class, gap).get(0);
 		int sentenceId = getSentenceId(jcas, sentence);
-		int tokenId = getTokenId(sentence, token);
-
-		int rank = JCasUtil.selectCovering(GapCandidate.class, gap).size();
+		int tokenId = getTokenId(jcas, token);
 
-		setReader(jcas.getDocumentLanguage(), textname, sentenceId);
-		rank = getRank(tokenId, gap.getSolutions().toArray());
-		return rank;
+		return getRank(getSentenceScoresFile(textname, sentenceId), tokenId, gap.getSolutions().toArray());
 	}
 
-	private int getTokenId(Sentence sent, Token gapToken) {
-		int tokenId = 0;
-		for (Token token : JCasUtil.selectCovered(Token.class, sent)) {
-			if (token.equals(gapToken)) {
-				break;
-			}
-			tokenId++;
-		}
-		return tokenId;
+	/**
+	 * Returns the position of the given token in its sentence.
+	 */
+	private int getTokenId(JCas jcas, Token token) {
+		indexDocument(jcas);
+		return tokenIds.get(token);
 	}
 
+	/**
+	 * Returns the position of the given sentence in the document.
+	 */
 	private int getSentenceId(JCas jcas, Sentence sentence) {
+		indexDocument(jcas);
+		return sentenceIds.get(sentence);
+	}
+
+	/**
+	 * Numbers the sentences and their tokens on the first gap of a document, instead of scanning them for every gap.
+	 * A document is identified by its id and its text, so a reused CAS is numbered again.
+	 */
+	private void indexDocument(JCas jcas) {
+		String textId = getTextId(jcas);
+		String text = jcas.getDocumentText();
+		if (text.equals(indexedText) && textId.equals(indexedTextId)) {
+			return;
+		}
+		sentenceIds.clear();
+		tokenIds.clear();
+		Map<Sentence, Collection<Token>> sentenceTokens = JCasUtil.indexCovered(jcas, Sentence.class, Token.class);
 		int sentenceId = 0;
-		for (Sentence sent : JCasUtil.select(jcas, Sentence.class)) {
-			if (sent.equals(sentence)) {
-				break;
+		for (Sentence sentence : JCasUtil.select(jcas, Sentence.class)) {
+			sentenceIds.put(sentence, sentenceId++);
+			int tokenId = 0;
+			for (Token token : sentenceTokens.getOrDefault(sentence, Collections.<Token> emptyList())) {
+				tokenIds.put(token, tokenId++);
 			}
-			sentenceId++;
 		}
-		return sentenceId;
+		indexedTextId = textId;
+		indexedText = text;
 	}
 
-	private void setReader(String language, String textname, int sentenceId) throws FileNotFoundException {
+	private String getSentenceScoresFile(String textname, int sentenceId) {
 		// cloze has only one gap per text
-
 		if (sentenceScoresDir.contains("cloze")) {
-			br = new BufferedReader(new FileReader(sentenceScoresDir + textname));
+			return sentenceScoresDir + textname;
 		} else {
-			br = new BufferedReader(new FileReader(sentenceScoresDir + textname + "_" + sentenceId + ".txt"));
+			return sentenceScoresDir + textname + "_" + sentenceId + ".txt";
 		}
 	}
 
-	private int getRank(int tokenId, String[] solutions) throws IOException
-
-	{
+	private int getRank(String sentenceScoresFile, int tokenId, String[] solutions) throws IOException {
+		List<String> solutionList = Arrays.asList(solutions);
 		String line = "";
 		int rank = 1;
 
-		while ((line = br.readLine()) != null) {
-			String[] elems = line.split("\t");
-			String[] linetokens = elems[0].split(" ");
+		try (BufferedReader br = new BufferedReader(new FileReader(sentenceScoresFile))) {
+			while ((line = br.readLine()) != null) {
+				String[] elems = line.split("\t");
+				String[] linetokens = elems[0].split(" ");
 
-			String chosenCandidate = linetokens[tokenId];
-			if (Arrays.asList(solutions).contains(chosenCandidate)) {
-				return rank;
+				String chosenCandidate = linetokens[tokenId];
+				if (solutionList.contains(chosenCandidate)) {
+					return rank;
+				}
+				rank++;
 			}
-			rank++;
-
 		}
 		return rank;
 	}
@@ -0,0 +1,112 @@
+package de.unidue.ltl.ctest.difficulty.features.candidate;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The language model ranks of the gap solutions of a corpus, as written by the {@link SolutionRankStoreBuilder}.
+ * <p>
+ * A rank is looked up by the id of its text, the index of its sentence in the text and the index of the gap token
+ * in the sentence. The texts are held in a map, the ranks are read from the mapped file in constant time.
+ * The file is closed once it is mapped. Stores are thread-safe.
+ */
+public class SolutionRankStore {
+
+	private final ByteBuffer store;
+	private final Map<String, int[]> texts = new HashMap<>();
+	private final int rankOffsetsStart;
+	private final int ranksStart;
+	private final int gaps;
+
+	SolutionRankStore(ByteBuffer store) throws IOException {
+		this.store = store;
+		try {
+			if (store.getInt(0) != SolutionRankStoreBuilder.MAGIC || store.getInt(4) != SolutionRankStoreBuilder.VERSION) {
+				throw new IOException("Not a solution rank store");
+			}
+			this.gaps = store.getInt(8);
+			int textCount = store.getInt(12);
+			int position = 16;
+			int sentences = 0;
+			for (int i = 0; i < textCount; i++) {
+				byte[] id = new byte[store.getInt(position)];
+				for (int j = 0; j < id.length; j++) {
+					id[j] = store.get(position + 4 + j);
+				}
+				position += 4 + id.length;
+				int sentenceCount = store.getInt(position);
+				// index of the first sentence and number of sentences
+				texts.put(new String(id, StandardCharsets.UTF_8), new int[] { sentences, sentenceCount });
+				sentences += sentenceCount;
+				position += 4;
+			}
+			this.rankOffsetsStart = position;
+			this.ranksStart = rankOffsetsStart + 4 * (sentences + 1);
+			if (ranksStart + 4L * store.getInt(rankOffsetsStart + 4 * sentences) > store.capacity()) {
+				throw new IndexOutOfBoundsException();
+			}
+		} catch (IndexOutOfBoundsException e) {
+			throw new IOException("Truncated solution rank store", e);
+		}
+	}
+
+	/**
+	 * Maps the given store.
+	 *
+	 * @throws IOException if the file cannot be read or was not written by the {@link SolutionRankStoreBuilder}.
+	 */
+	public static SolutionRankStore open(File file) throws IOException {
+		ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Solution rank store too large@" + file);
+			}
+			// the mapping stays valid after the channel is closed
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		try {
+			return new SolutionRankStore(buffer);
+		} catch (IOException e) {
+			throw new IOException(e.getMessage() + "@" + file, e);
+		}
+	}
+
+	/**
+	 * Returns the rank of the solution of the gap at the given token, -1 if the gap has no solution,
+	 * or 0 if the store does not contain the gap.
+	 */
+	public int getRank(String textId, int sentenceId, int tokenId) {
+		int[] text = texts.get(textId);
+		if (text == null || sentenceId < 0 || sentenceId >= text[1] || tokenId < 0) {
+			return 0;
+		}
+		int start = store.getInt(rankOffsetsStart + 4 * (text[0] + sentenceId));
+		int end = store.getInt(rankOffsetsStart + 4 * (text[0] + sentenceId + 1));
+		return tokenId < end - start ? store.getInt(ranksStart + 4 * (start + tokenId)) : 0;
+	}
+
+	/**
+	 * Returns whether the store contains the given text.
+	 */
+	public boolean containsText(String textId) {
+		return texts.containsKey(textId);
+	}
+
+	/**
+	 * Returns the number of gaps.
+	 */
+	public int size() {
+		return gaps;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("SolutionRankStore[texts=%d, gaps=%d, bytes=%d]", texts.size(), gaps, store.capacity());
+	}
+}
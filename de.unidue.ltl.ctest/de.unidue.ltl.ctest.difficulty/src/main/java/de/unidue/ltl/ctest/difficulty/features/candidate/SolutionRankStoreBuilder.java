@@ -0,0 +1,214 @@
+package de.unidue.ltl.ctest.difficulty.features.candidate;
+
+import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngineDescription;
+import static org.apache.uima.fit.factory.CollectionReaderFactory.createReaderDescription;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.uima.analysis_engine.AnalysisEngineDescription;
+import org.apache.uima.collection.CollectionReaderDescription;
+import org.apache.uima.fit.pipeline.SimplePipeline;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+import de.unidue.ltl.ctest.core.TestType;
+import de.unidue.ltl.ctest.difficulty.features.util.CandidateSentenceScorer;
+import de.unidue.ltl.ctest.difficulty.features.util.LanguageModelResource;
+import de.unidue.ltl.ctest.difficulty.features.util.LexicalResourceRegistry;
+import de.unidue.ltl.ctest.io.dkpro.CTestReaderTC;
+import de.unidue.ltl.ctest.type.Gap;
+import edu.berkeley.nlp.lm.NgramLanguageModel;
+
+/**
+ * Precomputes the language model ranks of the gap solutions of a corpus for the {@link LmCandidatesRankerExtractor}
+ * and writes them to a {@link SolutionRankStore}.
+ * <p>
+ * The candidate sentences of each gap are copied from the CAS by the calling thread and ranked by a pool
+ * of threads sharing one language model, so the model must be thread-safe, as the BerkeleyLM models
+ * without a cache are.
+ * <p>
+ * Layout, big-endian:
+ * <pre>
+ * int magic, int version, int gap count, int text count,
+ * per text, sorted by id: int id length, id bytes (UTF-8), int sentence count,
+ * int[sentence count of all texts + 1] offsets of the ranks of each sentence,
+ * int[] per sentence the ranks of its tokens up to the last gap, 0 for tokens without a gap
+ * </pre>
+ * Usage: {@code SolutionRankStoreBuilder corpusDirectory language testType lexiconFile lmFile storeFile [threads]}
+ */
+public class SolutionRankStoreBuilder implements Closeable {
+
+	static final int MAGIC = 0x534F4C52;
+	static final int VERSION = 1;
+
+	private final CandidateSentenceScorer scorer;
+	private final ExecutorService executor;
+
+	// text id -> sentence id -> token id -> rank
+	private final Map<String, SortedMap<Integer, SortedMap<Integer, Future<Integer>>>> ranks = new TreeMap<>();
+
+	/**
+	 * @param scorer The scorer of the shared language model.
+	 * @param threads The number of threads ranking the candidates.
+	 */
+	public SolutionRankStoreBuilder(CandidateSentenceScorer scorer, int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("At least one thread is needed, not " + threads);
+		}
+		this.scorer = scorer;
+		this.executor = Executors.newFixedThreadPool(threads);
+	}
+
+	/**
+	 * Ranks the solutions of all gaps of the given document in the background.
+	 * The CAS is not used after this method returns.
+	 */
+	public void add(JCas jcas) {
+		String textId = LmCandidatesRankerExtractor.getTextId(jcas);
+		SortedMap<Integer, SortedMap<Integer, Future<Integer>>> sentences = new TreeMap<>();
+		if (ranks.put(textId, sentences) != null) {
+			System.err.println("WARNING: Text " + textId + " occurs more than once, keeping the last one.");
+		}
+
+		int sentenceId = 0;
+		for (Sentence sentence : JCasUtil.select(jcas, Sentence.class)) {
+			List<Gap> gaps = JCasUtil.selectCovered(Gap.class, sentence);
+			if (!gaps.isEmpty()) {
+				List<Token> tokens = JCasUtil.selectCovered(Token.class, sentence);
+				SortedMap<Integer, Future<Integer>> tokenRanks = new TreeMap<>();
+				for (Gap gap : gaps) {
+					int tokenId = tokens.indexOf(JCasUtil.selectCovered(Token.class, gap).get(0));
+					if (tokenId < 0) {
+						continue;
+					}
+					CandidateSentences candidateSentences = CandidateSentences.of(gap, sentence);
+					tokenRanks.put(tokenId, executor.submit(() -> candidateSentences.getSolutionRank(scorer)));
+				}
+				if (!tokenRanks.isEmpty()) {
+					sentences.put(sentenceId, tokenRanks);
+				}
+			}
+			sentenceId++;
+		}
+	}
+
+	/**
+	 * Waits until all added gaps are ranked and writes the store.
+	 *
+	 * @return The number of gaps in the store.
+	 * @throws IOException if ranking failed or the store cannot be written.
+	 */
+	public int write(File storeFile) throws IOException {
+		List<int[]> sentenceRanks = new ArrayList<>();
+		List<Integer> sentenceCounts = new ArrayList<>();
+		int gaps = 0;
+		for (SortedMap<Integer, SortedMap<Integer, Future<Integer>>> sentences : ranks.values()) {
+			int sentenceCount = sentences.isEmpty() ? 0 : sentences.lastKey() + 1;
+			for (int sentenceId = 0; sentenceId < sentenceCount; sentenceId++) {
+				SortedMap<Integer, Future<Integer>> tokens = sentences.get(sentenceId);
+				int[] tokenRanks = new int[tokens == null ? 0 : tokens.lastKey() + 1];
+				if (tokens != null) {
+					for (Map.Entry<Integer, Future<Integer>> token : tokens.entrySet()) {
+						tokenRanks[token.getKey()] = await(token.getValue());
+						gaps++;
+					}
+				}
+				sentenceRanks.add(tokenRanks);
+			}
+			sentenceCounts.add(sentenceCount);
+		}
+
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(Files.newOutputStream(storeFile.toPath()), 1 << 16))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(gaps);
+			out.writeInt(ranks.size());
+			int text = 0;
+			for (String textId : ranks.keySet()) {
+				byte[] id = textId.getBytes(StandardCharsets.UTF_8);
+				out.writeInt(id.length);
+				out.write(id);
+				out.writeInt(sentenceCounts.get(text++));
+			}
+			int offset = 0;
+			for (int[] tokenRanks : sentenceRanks) {
+				out.writeInt(offset);
+				offset += tokenRanks.length;
+			}
+			out.writeInt(offset);
+			for (int[] tokenRanks : sentenceRanks) {
+				for (int rank : tokenRanks) {
+					out.writeInt(rank);
+				}
+			}
+		}
+		return gaps;
+	}
+
+	private static int await(Future<Integer> rank) throws IOException {
+		try {
+			return rank.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while ranking");
+		} catch (ExecutionException e) {
+			throw new IOException("Ranking failed", e.getCause());
+		}
+	}
+
+	/**
+	 * Stops the ranking threads.
+	 */
+	@Override
+	public void close() {
+		executor.shutdownNow();
+	}
+
+	public static void main(String[] args) throws Exception {
+		if (args.length < 6) {
+			System.err.println("Usage: SolutionRankStoreBuilder corpusDirectory language testType lexiconFile lmFile storeFile [threads]");
+			System.exit(1);
+		}
+		String language = args[1];
+		TestType testType = TestType.valueOf(args[2]);
+		int threads = args.length > 6 ? Integer.parseInt(args[6]) : Runtime.getRuntime().availableProcessors();
+
+		CollectionReaderDescription reader = createReaderDescription(CTestReaderTC.class,
+				CTestReaderTC.PARAM_SOURCE_LOCATION, args[0], CTestReaderTC.PARAM_LANGUAGE, language,
+				CTestReaderTC.PARAM_PATTERNS, new String[] { CTestReaderTC.INCLUDE_PREFIX + "*.txt" },
+				CTestReaderTC.PARAM_TESTTYPE, testType);
+		AnalysisEngineDescription candidates = createEngineDescription(CandidateAnnotator.class,
+				CandidateAnnotator.PARAM_LEXICON_FILE, args[3], CandidateAnnotator.PARAM_LANGUAGE, language,
+				CandidateAnnotator.PARAM_TESTTYPE, testType);
+
+		long start = System.currentTimeMillis();
+		try (LexicalResourceRegistry.Handle<NgramLanguageModel<String>> lm = LanguageModelResource.acquire(new File(args[4]));
+				SolutionRankStoreBuilder builder = new SolutionRankStoreBuilder(new CandidateSentenceScorer(lm.get()), threads)) {
+			for (JCas jcas : SimplePipeline.iteratePipeline(reader, candidates)) {
+				builder.add(jcas);
+			}
+			int gaps = builder.write(new File(args[5]));
+			System.out.println(String.format("Ranked the solutions of %d gaps into %s (%d threads, %d ms)",
+					gaps, args[5], threads, System.currentTimeMillis() - start));
+		}
+	}
+}
@@ -35,6 +35,7 @@ import de.tudarmstadt.ukp.dkpro.core.api.frequency.provider.FrequencyCountProvid
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
 import de.unidue.ltl.ctest.difficulty.features.util.CTestFeaturesUtil;
 import de.unidue.ltl.ctest.difficulty.features.util.ContextProvider;
+import de.unidue.ltl.ctest.difficulty.features.util.NgramPlanner;
 
 public class NeighbourProbabilityExtractor extends FeatureExtractorResource_ImplBase implements FeatureExtractor {
 	public static final String PARAM_LANGUAGE = "languageCode";
@@ -48,6 +49,8 @@ public class NeighbourProbabilityExtractor extends FeatureExtractorResource_Impl
 	public static final String PROB_OF_LEFT_TRIGRAM = "LeftTrigramLogProbability";
 	public static final String PROB_OF_RIGHT_TRIGRAM = "RightTrigramLogProbability";
 
+	private final NgramPlanner planner = new NgramPlanner();
+
 	// Extracting the left and right trigram probability to account for dependencies
 	// with preceding
 	// or succeeding gaps.
@@ -61,6 +64,8 @@ public class NeighbourProbabilityExtractor extends FeatureExtractorResource_Impl
 		Set<Feature> featList = new HashSet<Feature>();
 
 		try {
+			planner.plan(jcas, language, provider);
+
 			// Get probability of left trigram
 			try {
 				String leftTrigram = ContextProvider.getLeftContextString(jcas, Token.class, target, 3);
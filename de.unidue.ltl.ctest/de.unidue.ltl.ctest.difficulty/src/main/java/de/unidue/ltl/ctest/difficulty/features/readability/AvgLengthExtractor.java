@@ -18,13 +18,9 @@
 
 package de.unidue.ltl.ctest.difficulty.features.readability;
 
-import static de.unidue.ltl.ctest.difficulty.features.readability.ReadabilityFeaturesUtil.numberOfWords;
-
-import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 
-import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
 import org.dkpro.tc.api.exception.TextClassificationException;
 import org.dkpro.tc.api.features.Feature;
@@ -33,14 +29,14 @@ import org.dkpro.tc.api.features.FeatureExtractorResource_ImplBase;
 import org.dkpro.tc.api.features.FeatureType;
 import org.dkpro.tc.api.type.TextClassificationTarget;
 
-import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
-import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
-import de.tudarmstadt.ukp.dkpro.core.readability.measure.WordSyllableCounter;
-import de.unidue.ltl.ctest.difficulty.features.util.ReadabilityUtils;
+import de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics;
+import de.unidue.ltl.ctest.difficulty.types.SentenceStatistics;
 
 /**
  * Computes the average word and average sentence length for the document,
  * ignores punctuation Computes the length of the target's cover sentence
+ * 
+ * @see ReadabilityStatisticsAnnotator
  */
 public class AvgLengthExtractor extends FeatureExtractorResource_ImplBase implements FeatureExtractor {
 
@@ -56,60 +52,34 @@ public class AvgLengthExtractor extends FeatureExtractorResource_ImplBase implem
 
 	public static Set<Feature> averageLengthExtraction(JCas jcas, TextClassificationTarget target) throws TextClassificationException {
 		Set<Feature> featList = new HashSet<Feature>();
+		ReadabilityStatistics statistics = ReadabilityStatisticsAnnotator.getStatistics(jcas);
 
 		// Document Features
-		featList.add(new Feature(FN_AVG_SENTENCE_LENGTH, getAverageSentenceLength(jcas), FeatureType.NUMERIC));
-		featList.add(new Feature(FN_AVG_WORD_LENGTH_IN_CHARACTERS, getAverageWordLengthInCharacters(jcas), FeatureType.NUMERIC));
-		featList.add(new Feature(FN_AVG_WORD_LENGTH_IN_SYLLABLES, getAverageWordLengthInSyllables(jcas), FeatureType.NUMERIC));
+		featList.add(new Feature(FN_AVG_SENTENCE_LENGTH, getAverageSentenceLength(statistics), FeatureType.NUMERIC));
+		featList.add(new Feature(FN_AVG_WORD_LENGTH_IN_CHARACTERS, statistics.getAvgWordLengthInCharacters(), FeatureType.NUMERIC));
+		featList.add(new Feature(FN_AVG_WORD_LENGTH_IN_SYLLABLES, statistics.getAvgWordLengthInSyllables(), FeatureType.NUMERIC));
 
 		// Target Feature
-		Sentence coverSent = JCasUtil.selectCovering(jcas, Sentence.class, target).get(0);
-		featList.add(new Feature(FN_SENTENCE_LENGTH, ReadabilityFeaturesUtil.numberOfWords(coverSent), FeatureType.NUMERIC));
+		SentenceStatistics coverSent = ReadabilityStatisticsAnnotator.getCoveringStatistics(jcas, target).get(0);
+		featList.add(new Feature(FN_SENTENCE_LENGTH, coverSent.getWords(), FeatureType.NUMERIC));
 		return featList;
 	}
 
 	public static double getAverageSentenceLength(JCas jcas) {
-		Collection<Sentence> sentences = JCasUtil.select(jcas, Sentence.class);
-		// avoid division by 0, assume that there is at least one sentence
-		int nrOfSentences = Math.max(1, JCasUtil.select(jcas, Sentence.class).size());
-		int lengthSum = 0;
-		for (Sentence s : sentences) {
-			lengthSum += numberOfWords(s);
-		}
-
-		return lengthSum / (double) nrOfSentences;
+		return getAverageSentenceLength(ReadabilityStatisticsAnnotator.getStatistics(jcas));
+	}
 
+	private static double getAverageSentenceLength(ReadabilityStatistics statistics) {
+		// avoid division by 0, assume that there is at least one sentence
+		int nrOfSentences = Math.max(1, statistics.getSentences());
+		return statistics.getWords() / (double) nrOfSentences;
 	}
 
 	public static double getAverageWordLengthInCharacters(JCas jcas) {
-		Collection<Token> tokens = JCasUtil.select(jcas, Token.class);
-		int nrOfCharacters = 0;
-		int words = 0;
-		for (Token t : tokens) {
-			if (ReadabilityUtils.isWord(t)) {
-				words++;
-				nrOfCharacters += t.getCoveredText().length();
-			}
-		}
-
-		return nrOfCharacters / (double) words;
-
+		return ReadabilityStatisticsAnnotator.getStatistics(jcas).getAvgWordLengthInCharacters();
 	}
 
 	public static double getAverageWordLengthInSyllables(JCas jcas) {
-		Collection<Token> tokens = JCasUtil.select(jcas, Token.class);
-		int nrOfSyllables = 0;
-		int words = 0;
-		WordSyllableCounter counter = new WordSyllableCounter(jcas.getDocumentLanguage());
-
-		for (Token t : tokens) {
-			if (ReadabilityUtils.isWord(t)) {
-				words++;
-				nrOfSyllables += counter.countSyllables(t.getCoveredText());
-			}
-		}
-
-		return nrOfSyllables / (double) words;
-
+		return ReadabilityStatisticsAnnotator.getStatistics(jcas).getAvgWordLengthInSyllables();
 	}
 }
\ No newline at end of file
@@ -18,14 +18,12 @@
 
 package de.unidue.ltl.ctest.difficulty.features.readability;
 
-import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.apache.uima.fit.internal.ExtendedLogger;
-import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
-import org.apache.uima.util.Level;
 import org.dkpro.tc.api.exception.TextClassificationException;
 import org.dkpro.tc.api.features.Feature;
 import org.dkpro.tc.api.features.FeatureExtractor;
@@ -33,7 +31,8 @@ import org.dkpro.tc.api.features.FeatureExtractorResource_ImplBase;
 import org.dkpro.tc.api.features.FeatureType;
 import org.dkpro.tc.api.type.TextClassificationTarget;
 
-import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
+import de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics;
+import de.unidue.ltl.ctest.difficulty.types.SentenceStatistics;
 
 /**
  * Computes the average amount of unique entities per sentence (named entities
@@ -52,27 +51,23 @@ public class EntityMentionsExtractor extends FeatureExtractorResource_ImplBase i
 
 	public static Set<Feature> extractEntityMentions(JCas jcas, ExtendedLogger logger,
 			TextClassificationTarget target) throws TextClassificationException {
-		Collection<Sentence> sents = JCasUtil.select(jcas, Sentence.class);
-		double nrOfSentences = 1.0;
-		try {
-			nrOfSentences = sents.size();
-		} catch (NullPointerException e) {
-			logger.log(Level.INFO, "No sentence annotation found. Assuming a single sentence.");
-		}
+		ReadabilityStatistics statistics = ReadabilityStatisticsAnnotator.getStatistics(jcas);
+		double nrOfSentences = statistics.getSentences();
 
 		Set<Feature> featList = new HashSet<Feature>();
 
 		// Document Feature
 		featList.add(new Feature(FN_UNIQUE_ENTITIES_PER_SENTENCE,
-				ReadabilityFeaturesUtil.getNumberOfUniqueEntities(jcas) / nrOfSentences,
+				statistics.getUniqueEntities() / nrOfSentences,
 				FeatureType.NUMERIC));
 
-		if (JCasUtil.selectCovering(jcas, Sentence.class, target).size() != 0) {
-			Sentence coverSent = JCasUtil.selectCovering(jcas, Sentence.class, target).get(0);
+		List<SentenceStatistics> coverSents = ReadabilityStatisticsAnnotator.getCoveringStatistics(jcas, target);
+		if (coverSents.size() != 0) {
+			SentenceStatistics coverSent = coverSents.get(0);
 
 			// Target Feature
 			featList.add(new Feature(FN_UNIQUE_ENTITIES_IN_COVERING_SENTENCE,
-					ReadabilityFeaturesUtil.getNumberOfUniqueEntities(coverSent), 
+					coverSent.getUniqueEntities(), 
 					FeatureType.NUMERIC));
 		}
 		return featList;
@@ -18,13 +18,9 @@
 
 package de.unidue.ltl.ctest.difficulty.features.readability;
 
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
 
-import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
 import org.dkpro.tc.api.exception.TextClassificationException;
 import org.dkpro.tc.api.features.Feature;
@@ -33,8 +29,7 @@ import org.dkpro.tc.api.features.FeatureExtractorResource_ImplBase;
 import org.dkpro.tc.api.features.FeatureType;
 import org.dkpro.tc.api.type.TextClassificationTarget;
 
-import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
-import de.tudarmstadt.ukp.dkpro.core.api.syntax.type.chunk.Chunk;
+import de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics;
 
 /**
  * This FE extracts the average number of chunks per sentence. If sentence
@@ -47,18 +42,16 @@ public class NumberOfChunksExtractor extends FeatureExtractorResource_ImplBase i
 
 	{
 		Set<Feature> featList = new HashSet<Feature>();
-		List<Sentence> sentences = new ArrayList<Sentence>(JCasUtil.select(jcas, Sentence.class));
+		ReadabilityStatistics statistics = ReadabilityStatisticsAnnotator.getStatistics(jcas);
 		double nrOfSentences;
 
-		if (sentences.size() == 0) {
+		if (statistics.getSentences() == 0) {
 			nrOfSentences = 1.0;
 		} else {
-			nrOfSentences = sentences.size();
+			nrOfSentences = statistics.getSentences();
 		}
 
-		Collection<Chunk> chunks = JCasUtil.select(jcas, Chunk.class);
-
-		featList.add(new Feature("NumberOfChunksPerSentence", ReadabilityFeaturesUtil.getSize(chunks) / nrOfSentences, FeatureType.NUMERIC));
+		featList.add(new Feature("NumberOfChunksPerSentence", statistics.getChunks() / nrOfSentences, FeatureType.NUMERIC));
 
 		return featList;
 
@@ -18,16 +18,13 @@
 
 package de.unidue.ltl.ctest.difficulty.features.readability;
 
-import static de.unidue.ltl.ctest.difficulty.features.readability.ReadabilityFeaturesUtil.getSize;
-
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
+import org.apache.uima.cas.CASException;
 import org.apache.uima.fit.internal.ExtendedLogger;
-import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
 import org.dkpro.tc.api.exception.TextClassificationException;
 import org.dkpro.tc.api.features.Feature;
@@ -37,11 +34,8 @@ import org.dkpro.tc.api.features.FeatureType;
 import org.dkpro.tc.api.type.TextClassificationTarget;
 
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
-import de.tudarmstadt.ukp.dkpro.core.api.syntax.type.chunk.ADVC;
-import de.tudarmstadt.ukp.dkpro.core.api.syntax.type.chunk.Chunk;
-import de.tudarmstadt.ukp.dkpro.core.api.syntax.type.chunk.NC;
-import de.tudarmstadt.ukp.dkpro.core.api.syntax.type.chunk.PC;
-import de.tudarmstadt.ukp.dkpro.core.api.syntax.type.chunk.VC;
+import de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics;
+import de.unidue.ltl.ctest.difficulty.types.SentenceStatistics;
 
 public class PhrasePatternExtractor extends FeatureExtractorResource_ImplBase implements FeatureExtractor
 
@@ -57,17 +51,17 @@ public class PhrasePatternExtractor extends FeatureExtractorResource_ImplBase im
 
 	public static Set<Feature> extractPhraseTypes(JCas jcas, ExtendedLogger logger, TextClassificationTarget target) throws TextClassificationException {
 		Set<Feature> featList = new HashSet<Feature>();
-		Collection<Sentence> sents = JCasUtil.select(jcas, Sentence.class);
-		double nrOfSentences = sents.size();
+		ReadabilityStatistics statistics = ReadabilityStatisticsAnnotator.getStatistics(jcas);
+		double nrOfSentences = statistics.getSentences();
 
 		// counts of phrase types in the complete text
-		Map<String, Integer> phraseTypeCounters = getPhraseTypeCounters(jcas);
+		Map<String, Integer> phraseTypeCounters = getPhraseTypeCounters(statistics);
 		for (String counter : phraseTypeCounters.keySet()) {
 			featList.add(new Feature(counter + "PerSentence", phraseTypeCounters.get(counter) / nrOfSentences, FeatureType.NUMERIC));
 		}
 
 		// counts of phrase types in the cover sentence of the target only
-		Sentence coverSent = JCasUtil.selectCovering(jcas, Sentence.class, target).get(0);
+		SentenceStatistics coverSent = ReadabilityStatisticsAnnotator.getCoveringStatistics(jcas, target).get(0);
 		Map<String, Integer> phraseTypeCountersSentence = getPhraseTypeCountersForSentence(coverSent);
 		for (String sentenceCounter : phraseTypeCountersSentence.keySet()) {
 			featList.add(new Feature(sentenceCounter, phraseTypeCountersSentence.get(sentenceCounter), FeatureType.NUMERIC));
@@ -76,45 +70,35 @@ public class PhrasePatternExtractor extends FeatureExtractorResource_ImplBase im
 		return featList;
 	}
 
-	private static Map<String, Integer> getPhraseTypeCounters(JCas jcas) {
+	private static Map<String, Integer> getPhraseTypeCounters(ReadabilityStatistics statistics) {
 		Map<String, Integer> counters = new HashMap<String, Integer>();
-		Collection<Chunk> chunks = JCasUtil.select(jcas, Chunk.class);
-		counters.put("Chunks", getSize(chunks));
+		counters.put("Chunks", statistics.getChunks());
 		// can be included
-		counters.put("NounChunks", getSize(JCasUtil.select(jcas, NC.class)));
-		counters.put("VerbChunks", getSize(JCasUtil.select(jcas, VC.class)));
-		counters.put("PrepositionalChunks", getSize(JCasUtil.select(jcas, PC.class)));
-		counters.put("AdverbalChunks", getSize(JCasUtil.select(jcas, ADVC.class)));
-
-		int nrOfSbars = 0;
-		// SBARS have the same type as punctuation, namely "0"
-		for (Chunk c : chunks) {
-			if (c.getChunkValue().startsWith("SBAR")) {
-				nrOfSbars++;
-			}
-		}
-		counters.put("SBars", nrOfSbars);
+		counters.put("NounChunks", statistics.getNounChunks());
+		counters.put("VerbChunks", statistics.getVerbChunks());
+		counters.put("PrepositionalChunks", statistics.getPrepositionalChunks());
+		counters.put("AdverbalChunks", statistics.getAdverbialChunks());
+		counters.put("SBars", statistics.getSBars());
 		return counters;
 	}
 
 	public static Map<String, Integer> getPhraseTypeCountersForSentence(Sentence sent) {
-		Map<String, Integer> counters = new HashMap<String, Integer>();
-		Collection<Chunk> chunks = JCasUtil.selectCovered(Chunk.class, sent);
-
-		counters.put("ChunksInSentence", getSize(chunks));
-		counters.put("NounChunksInSentence", getSize(JCasUtil.selectCovered(NC.class, sent)));
-		counters.put("VerbChunksInSentence", getSize(JCasUtil.selectCovered(VC.class, sent)));
-		counters.put("PrepositionalChunksInSentence", getSize(JCasUtil.selectCovered(PC.class, sent)));
-		counters.put("AdverbalChunksInSentence", getSize(JCasUtil.selectCovered(ADVC.class, sent)));
-
-		int nrOfSbars = 0;
-		// SBARS have the same type as punctuation, namely "0"
-		for (Chunk c : chunks) {
-			if (c.getChunkValue().startsWith("SBAR")) {
-				nrOfSbars++;
-			}
+		try {
+			return getPhraseTypeCountersForSentence(
+					ReadabilityStatisticsAnnotator.getCoveringStatistics(sent.getCAS().getJCas(), sent).get(0));
+		} catch (CASException e) {
+			throw new IllegalStateException("No JCas available for the sentence.", e);
 		}
-		counters.put("SBarsInSentence", nrOfSbars);
+	}
+
+	private static Map<String, Integer> getPhraseTypeCountersForSentence(SentenceStatistics sent) {
+		Map<String, Integer> counters = new HashMap<String, Integer>();
+		counters.put("ChunksInSentence", sent.getChunks());
+		counters.put("NounChunksInSentence", sent.getNounChunks());
+		counters.put("VerbChunksInSentence", sent.getVerbChunks());
+		counters.put("PrepositionalChunksInSentence", sent.getPrepositionalChunks());
+		counters.put("AdverbalChunksInSentence", sent.getAdverbialChunks());
+		counters.put("SBarsInSentence", sent.getSBars());
 		return counters;
 	}
 }
\ No newline at end of file
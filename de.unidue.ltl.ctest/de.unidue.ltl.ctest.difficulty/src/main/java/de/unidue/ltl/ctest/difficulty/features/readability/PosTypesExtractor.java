@@ -18,18 +18,14 @@
 
 package de.unidue.ltl.ctest.difficulty.features.readability;
 
-import static de.unidue.ltl.ctest.difficulty.features.readability.ReadabilityFeaturesUtil.getSize;
-
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.apache.uima.fit.internal.ExtendedLogger;
-import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
-import org.apache.uima.util.Level;
 import org.dkpro.tc.api.exception.TextClassificationException;
 import org.dkpro.tc.api.features.Feature;
 import org.dkpro.tc.api.features.FeatureExtractor;
@@ -37,11 +33,8 @@ import org.dkpro.tc.api.features.FeatureExtractorResource_ImplBase;
 import org.dkpro.tc.api.features.FeatureType;
 import org.dkpro.tc.api.type.TextClassificationTarget;
 
-import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS_ADJ;
-import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS_ADV;
-import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS_NOUN;
-import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS_VERB;
-import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
+import de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics;
+import de.unidue.ltl.ctest.difficulty.types.SentenceStatistics;
 
 public class PosTypesExtractor extends FeatureExtractorResource_ImplBase implements FeatureExtractor {
 	/**
@@ -58,26 +51,23 @@ public class PosTypesExtractor extends FeatureExtractorResource_ImplBase impleme
 
 	public static Set<Feature> extractPosTypes(JCas jcas, ExtendedLogger logger, TextClassificationTarget target) throws TextClassificationException {
 		Set<Feature> featList = new HashSet<Feature>();
-		Collection<Sentence> sents = JCasUtil.select(jcas, Sentence.class);
+		ReadabilityStatistics statistics = ReadabilityStatisticsAnnotator.getStatistics(jcas);
 		double nrOfSentences;
 
-		if (sents.size() == 0) {
+		if (statistics.getSentences() == 0) {
 			nrOfSentences = 1.0;
 		} else {
-			nrOfSentences = sents.size();
+			nrOfSentences = statistics.getSentences();
 		}
 
-		try {
-			Map<String, Integer> posTypeCounters = getPosTypeCounters(jcas);
-			for (String counter : posTypeCounters.keySet()) {
-				featList.add(new Feature(counter + "PerSentence", posTypeCounters.get(counter) / nrOfSentences, FeatureType.NUMERIC));
-			}
-		} catch (NullPointerException e) {
-			logger.log(Level.INFO, "POS information not available.");
+		Map<String, Integer> posTypeCounters = getPosTypeCounters(statistics);
+		for (String counter : posTypeCounters.keySet()) {
+			featList.add(new Feature(counter + "PerSentence", posTypeCounters.get(counter) / nrOfSentences, FeatureType.NUMERIC));
 		}
 
-		if (JCasUtil.selectCovering(jcas, Sentence.class, target).size() != 0) {
-			Sentence coverSent = JCasUtil.selectCovering(jcas, Sentence.class, target).get(0);
+		List<SentenceStatistics> coverSents = ReadabilityStatisticsAnnotator.getCoveringStatistics(jcas, target);
+		if (coverSents.size() != 0) {
+			SentenceStatistics coverSent = coverSents.get(0);
 			Map<String, Integer> posTypeCountersSentence = getPosTypeCountersForSentence(coverSent);
 
 			for (String sentenceCounter : posTypeCountersSentence.keySet()) {
@@ -87,26 +77,26 @@ public class PosTypesExtractor extends FeatureExtractorResource_ImplBase impleme
 		return featList;
 	}
 
-	private static Map<String, Integer> getPosTypeCounters(JCas jcas) throws NullPointerException {
-		// This function counts nouns, verbs, adverbs and adjectives in the text
+	private static Map<String, Integer> getPosTypeCounters(ReadabilityStatistics statistics) {
+		// This function returns the counts of nouns, verbs, adverbs and adjectives in the text
 		Map<String, Integer> counters = new HashMap<String, Integer>();
 
-		counters.put("NounsInDocument", getSize(JCasUtil.select(jcas, POS_NOUN.class)));
-		counters.put("VerbsInDocument", getSize(JCasUtil.select(jcas, POS_VERB.class)));
-		counters.put("AdverbsInDocument", getSize(JCasUtil.select(jcas, POS_ADV.class)));
-		counters.put("AdjectivesInDocument", getSize(JCasUtil.select(jcas, POS_ADJ.class)));
+		counters.put("NounsInDocument", statistics.getNouns());
+		counters.put("VerbsInDocument", statistics.getVerbs());
+		counters.put("AdverbsInDocument", statistics.getAdverbs());
+		counters.put("AdjectivesInDocument", statistics.getAdjectives());
 
 		return counters;
 	}
 
-	private static Map<String, Integer> getPosTypeCountersForSentence(Sentence sent) throws NullPointerException {
-		// This function counts nouns, verbs, adverbs and adjectives in the cover
+	private static Map<String, Integer> getPosTypeCountersForSentence(SentenceStatistics sent) {
+		// This function returns the counts of nouns, verbs, adverbs and adjectives in the cover
 		// sentence
 		Map<String, Integer> counters = new HashMap<String, Integer>();
-		counters.put("Nouns", getSize(JCasUtil.selectCovered(POS_NOUN.class, sent)));
-		counters.put("Verbs", getSize(JCasUtil.selectCovered(POS_VERB.class, sent)));
-		counters.put("Adverbs", getSize(JCasUtil.selectCovered(POS_ADV.class, sent)));
-		counters.put("Adjectives", getSize(JCasUtil.selectCovered(POS_ADJ.class, sent)));
+		counters.put("Nouns", sent.getNouns());
+		counters.put("Verbs", sent.getVerbs());
+		counters.put("Adverbs", sent.getAdverbs());
+		counters.put("Adjectives", sent.getAdjectives());
 
 		return counters;
 	}
@@ -30,10 +30,9 @@ import org.dkpro.tc.api.features.FeatureExtractorResource_ImplBase;
 import org.dkpro.tc.api.features.FeatureType;
 import org.dkpro.tc.api.type.TextClassificationTarget;
 
-import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS;
-import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS_PRON;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+import de.unidue.ltl.ctest.difficulty.types.SentenceStatistics;
 
 /**
  * This extractor calculates the pronoun ratio for the complete document as well
@@ -47,11 +46,11 @@ public class PronounRatioExtractor extends FeatureExtractorResource_ImplBase imp
 		Set<Feature> featList = new HashSet<Feature>();
 		
 		try {
-			Sentence coverSent = JCasUtil.selectCovering(jcas, Sentence.class, target).get(0);
+			SentenceStatistics coverSent = ReadabilityStatisticsAnnotator.getCoveringStatistics(jcas, target).get(0);
 			// Pronoun Ratio of document
-			featList.add(new Feature(FN_PRONOUN_RATIO, getPronounRatio(jcas), FeatureType.NUMERIC));
+			featList.add(new Feature(FN_PRONOUN_RATIO, ReadabilityStatisticsAnnotator.getStatistics(jcas).getPronounRatio(), FeatureType.NUMERIC));
 			// Pronoun Ratio of targets cover sentence
-			featList.add(new Feature(FN_PRONOUN_RATIO_TARGET, getPronounRatio(jcas, coverSent), FeatureType.NUMERIC));
+			featList.add(new Feature(FN_PRONOUN_RATIO_TARGET, coverSent.getPronounRatio(), FeatureType.NUMERIC));
 		} catch (IndexOutOfBoundsException e) {
 			featList.add(new Feature(FN_PRONOUN_RATIO, 0, FeatureType.NUMERIC));
 			featList.add(new Feature(FN_PRONOUN_RATIO_TARGET, 0, FeatureType.NUMERIC));
@@ -61,42 +60,10 @@ public class PronounRatioExtractor extends FeatureExtractorResource_ImplBase imp
 	}
 
 	public static double getPronounRatio(JCas jcas) {
-		double nrOfWords = 0.0;
-		int nrOfPronouns = 0;
-
-		for (Token t : JCasUtil.select(jcas, Token.class)) {
-
-			POS pos = t.getPos();
-			if (pos != null) {
-				if (!t.getPos().getType().getShortName().equals("PUNC")) {
-					nrOfWords++;
-					if (pos instanceof POS_PRON) {
-						nrOfPronouns++;
-					}
-				}
-			}
-		}
-
-		double pronounRatio = nrOfPronouns / nrOfWords;
-		return pronounRatio;
+		return ReadabilityStatisticsAnnotator.getPronounRatio(JCasUtil.select(jcas, Token.class));
 	}
 
 	public static double getPronounRatio(JCas jcas, Sentence sent) {
-		double nrOfWords = 0.0;
-		int nrOfPronouns = 0;
-
-		for (Token t : JCasUtil.selectCovered(jcas, Token.class, sent)) {
-			POS pos = t.getPos();
-			if (pos != null) {
-				if (!t.getPos().getType().getShortName().equals("PUNC")) {
-					nrOfWords++;
-					if (pos instanceof POS_PRON) {
-						nrOfPronouns++;
-					}
-				}
-			}
-		}
-		double pronounRatio = nrOfPronouns / nrOfWords;
-		return pronounRatio;
+		return ReadabilityStatisticsAnnotator.getPronounRatio(JCasUtil.selectCovered(jcas, Token.class, sent));
 	}
 }
\ No newline at end of file
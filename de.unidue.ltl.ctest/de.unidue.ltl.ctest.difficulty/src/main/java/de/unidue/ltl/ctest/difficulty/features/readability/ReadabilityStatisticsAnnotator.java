@@ -0,0 +1,293 @@
+package de.unidue.ltl.ctest.difficulty.features.readability;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+
+import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS;
+import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS_ADJ;
+import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS_ADV;
+import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS_NOUN;
+import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS_PRON;
+import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS_VERB;
+import de.tudarmstadt.ukp.dkpro.core.api.ner.type.NamedEntity;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+import de.tudarmstadt.ukp.dkpro.core.api.syntax.type.chunk.ADVC;
+import de.tudarmstadt.ukp.dkpro.core.api.syntax.type.chunk.Chunk;
+import de.tudarmstadt.ukp.dkpro.core.api.syntax.type.chunk.NC;
+import de.tudarmstadt.ukp.dkpro.core.api.syntax.type.chunk.PC;
+import de.tudarmstadt.ukp.dkpro.core.api.syntax.type.chunk.VC;
+import de.tudarmstadt.ukp.dkpro.core.readability.measure.WordSyllableCounter;
+import de.unidue.ltl.ctest.difficulty.features.util.ReadabilityUtils;
+import de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics;
+import de.unidue.ltl.ctest.difficulty.types.SentenceStatistics;
+
+/**
+ * An {@code Annotator}, adding the readability statistics of the document as a {@code ReadabilityStatistics} annotation
+ * and those of each sentence as a {@code SentenceStatistics} annotation covering the sentence.
+ * <p>
+ * The readability feature extractors only read these annotations, so that the statistics are computed once per document
+ * instead of once per gap. The annotator should run at the end of the preprocessing, after the POS tagger, lemmatizer,
+ * chunker and named entity recognizer. If it is not part of the preprocessing, the statistics are computed
+ * by the first extractor, which needs them, see {@link #getStatistics(JCas)}.
+ * A JCas, which already holds statistics, is not annotated again.
+ */
+public class ReadabilityStatisticsAnnotator extends JCasAnnotator_ImplBase {
+
+	private static final String PUNCTUATION = "PUNC";
+
+	@Override
+	public void process(JCas aJCas) throws AnalysisEngineProcessException {
+		getStatistics(aJCas);
+	}
+
+	/**
+	 * Returns the statistics of the document, computing and adding them to the JCas, if it does not hold them yet.
+	 */
+	public static ReadabilityStatistics getStatistics(JCas jcas) {
+		Collection<ReadabilityStatistics> statistics = JCasUtil.select(jcas, ReadabilityStatistics.class);
+		if (!statistics.isEmpty())
+			return statistics.iterator().next();
+		return annotate(jcas);
+	}
+
+	/**
+	 * Returns the statistics of the sentences covering the given annotation, computing them first if necessary.
+	 * The list is empty, if the annotation is not part of a sentence.
+	 */
+	public static List<SentenceStatistics> getCoveringStatistics(JCas jcas, Annotation annotation) {
+		getStatistics(jcas);
+		return JCasUtil.selectCovering(jcas, SentenceStatistics.class, annotation);
+	}
+
+	private static ReadabilityStatistics annotate(JCas jcas) {
+		Collection<Sentence> sentences = JCasUtil.select(jcas, Sentence.class);
+		Map<Sentence, Collection<Token>> sentenceTokens = JCasUtil.indexCovered(jcas, Sentence.class, Token.class);
+		Map<Sentence, Collection<Chunk>> sentenceChunks = JCasUtil.indexCovered(jcas, Sentence.class, Chunk.class);
+		Map<Sentence, Collection<POS>> sentencePos = JCasUtil.indexCovered(jcas, Sentence.class, POS.class);
+		Map<Sentence, Collection<NamedEntity>> sentenceEntities = JCasUtil.indexCovered(jcas, Sentence.class, NamedEntity.class);
+
+		Set<String> types = new HashSet<String>();
+		int typeTokens = 0;
+		int words = 0;
+		for (Sentence sentence : sentences) {
+			Collection<Token> tokens = sentenceTokens.getOrDefault(sentence, Collections.emptyList());
+			Collection<Chunk> chunks = sentenceChunks.getOrDefault(sentence, Collections.emptyList());
+			Collection<POS> pos = sentencePos.getOrDefault(sentence, Collections.emptyList());
+			Collection<NamedEntity> entities = sentenceEntities.getOrDefault(sentence, Collections.emptyList());
+
+			SentenceStatistics statistics = new SentenceStatistics(jcas, sentence.getBegin(), sentence.getEnd());
+			Set<String> sentenceTypes = new HashSet<String>();
+			int sentenceTypeTokens = countTypes(tokens, sentenceTypes);
+			statistics.setTypeTokenRatio(sentenceTypeTokens < 0 ? -1.0 : sentenceTypes.size() / (double) sentenceTypeTokens);
+			if (sentenceTypeTokens < 0 || typeTokens < 0) {
+				typeTokens = -1;
+			} else {
+				typeTokens += sentenceTypeTokens;
+				types.addAll(sentenceTypes);
+			}
+			statistics.setPronounRatio(getPronounRatio(tokens));
+			statistics.setWords(countWords(tokens));
+			words += statistics.getWords();
+			statistics.setUniqueEntities(countUniqueEntities(entities, chunks));
+
+			int[] chunkCounts = countChunks(chunks);
+			statistics.setChunks(chunks.size());
+			statistics.setNounChunks(chunkCounts[0]);
+			statistics.setVerbChunks(chunkCounts[1]);
+			statistics.setPrepositionalChunks(chunkCounts[2]);
+			statistics.setAdverbialChunks(chunkCounts[3]);
+			statistics.setSBars(chunkCounts[4]);
+
+			int[] posCounts = countPos(pos);
+			statistics.setNouns(posCounts[0]);
+			statistics.setVerbs(posCounts[1]);
+			statistics.setAdverbs(posCounts[2]);
+			statistics.setAdjectives(posCounts[3]);
+			statistics.addToIndexes();
+		}
+
+		Collection<Token> tokens = JCasUtil.select(jcas, Token.class);
+		Collection<Chunk> chunks = JCasUtil.select(jcas, Chunk.class);
+
+		ReadabilityStatistics statistics = new ReadabilityStatistics(jcas, 0, jcas.getDocumentText() == null ? 0 : jcas.getDocumentText().length());
+		statistics.setTypeTokenRatio(typeTokens < 0 ? -1.0 : types.size() / (double) typeTokens);
+		statistics.setVerbVariation(typeTokens < 0 ? -1.0 : getVerbVariation(sentences, sentenceTokens));
+		statistics.setPronounRatio(getPronounRatio(tokens));
+		statistics.setSentences(sentences.size());
+		statistics.setWords(words);
+		statistics.setUniqueEntities(countUniqueEntities(JCasUtil.select(jcas, NamedEntity.class), chunks));
+
+		int characters = 0;
+		int syllables = 0;
+		int tokenWords = 0;
+		WordSyllableCounter counter = new WordSyllableCounter(jcas.getDocumentLanguage());
+		for (Token t : tokens) {
+			if (ReadabilityUtils.isWord(t)) {
+				tokenWords++;
+				characters += t.getCoveredText().length();
+				syllables += counter.countSyllables(t.getCoveredText());
+			}
+		}
+		statistics.setAvgWordLengthInCharacters(characters / (double) tokenWords);
+		statistics.setAvgWordLengthInSyllables(syllables / (double) tokenWords);
+
+		int[] chunkCounts = countChunks(chunks);
+		statistics.setChunks(chunks.size());
+		statistics.setNounChunks(chunkCounts[0]);
+		statistics.setVerbChunks(chunkCounts[1]);
+		statistics.setPrepositionalChunks(chunkCounts[2]);
+		statistics.setAdverbialChunks(chunkCounts[3]);
+		statistics.setSBars(chunkCounts[4]);
+
+		int[] posCounts = countPos(JCasUtil.select(jcas, POS.class));
+		statistics.setNouns(posCounts[0]);
+		statistics.setVerbs(posCounts[1]);
+		statistics.setAdverbs(posCounts[2]);
+		statistics.setAdjectives(posCounts[3]);
+		statistics.addToIndexes();
+		return statistics;
+	}
+
+	/**
+	 * Returns the ratio of lemma types to tokens, ignoring punctuation,
+	 * or -1 if a token has no POS or a token, which is not punctuation, has no lemma.
+	 */
+	public static double getTypeTokenRatio(Collection<Token> tokens) {
+		Set<String> types = new HashSet<String>();
+		int count = countTypes(tokens, types);
+		return count < 0 ? -1.0 : types.size() / (double) count;
+	}
+
+	/**
+	 * Adds the lower cased lemmas of the given tokens, which are not punctuation, to the given types.
+	 * Returns the number of these tokens, or -1 if POS or lemma information is missing.
+	 */
+	private static int countTypes(Collection<Token> tokens, Set<String> types) {
+		int count = 0;
+		for (Token t : tokens) {
+			POS pos = t.getPos();
+			if (pos == null)
+				return -1;
+			if (pos.getType().getShortName().equals(PUNCTUATION))
+				continue;
+			if (t.getLemma() == null || t.getLemma().getValue() == null)
+				return -1;
+			count++;
+			types.add(t.getLemma().getValue().toLowerCase());
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the ratio of verb lemma types to verbs in the given sentences, or -1 if a verb has no lemma.
+	 */
+	private static double getVerbVariation(Collection<Sentence> sentences, Map<Sentence, Collection<Token>> sentenceTokens) {
+		int verbs = 0;
+		Set<String> verbTypes = new HashSet<String>();
+		for (Sentence sentence : sentences) {
+			for (Token t : sentenceTokens.getOrDefault(sentence, Collections.emptyList())) {
+				if (t.getPos() instanceof POS_VERB) {
+					if (t.getLemma() == null || t.getLemma().getValue() == null)
+						return -1.0;
+					verbs++;
+					verbTypes.add(t.getLemma().getValue().toLowerCase());
+				}
+			}
+		}
+		return verbTypes.size() / (double) verbs;
+	}
+
+	/**
+	 * Returns the ratio of pronouns to the tokens with a POS, which is not punctuation.
+	 */
+	public static double getPronounRatio(Collection<Token> tokens) {
+		double nrOfWords = 0.0;
+		int nrOfPronouns = 0;
+		for (Token t : tokens) {
+			POS pos = t.getPos();
+			if (pos != null && !pos.getType().getShortName().equals(PUNCTUATION)) {
+				nrOfWords++;
+				if (pos instanceof POS_PRON) {
+					nrOfPronouns++;
+				}
+			}
+		}
+		return nrOfPronouns / nrOfWords;
+	}
+
+	private static int countWords(Collection<Token> tokens) {
+		int words = 0;
+		for (Token t : tokens) {
+			if (ReadabilityUtils.isWord(t)) {
+				words++;
+			}
+		}
+		return words;
+	}
+
+	/**
+	 * Returns the number of distinct texts of the given named entities and noun chunks.
+	 */
+	private static int countUniqueEntities(Collection<NamedEntity> entities, Collection<Chunk> chunks) {
+		Set<String> uniqueEntities = new HashSet<String>();
+		for (NamedEntity ne : entities) {
+			uniqueEntities.add(ne.getCoveredText());
+		}
+		for (Chunk c : chunks) {
+			if (c instanceof NC) {
+				uniqueEntities.add(c.getCoveredText());
+			}
+		}
+		return uniqueEntities.size();
+	}
+
+	/**
+	 * Returns the numbers of noun, verb, prepositional, adverbial and SBAR chunks.
+	 */
+	private static int[] countChunks(Collection<Chunk> chunks) {
+		int[] counts = new int[5];
+		for (Chunk c : chunks) {
+			if (c instanceof NC)
+				counts[0]++;
+			else if (c instanceof VC)
+				counts[1]++;
+			else if (c instanceof PC)
+				counts[2]++;
+			else if (c instanceof ADVC)
+				counts[3]++;
+			// SBARS have the same type as punctuation, namely "O"
+			if (c.getChunkValue() != null && c.getChunkValue().startsWith("SBAR"))
+				counts[4]++;
+		}
+		return counts;
+	}
+
+	/**
+	 * Returns the numbers of nouns, verbs, adverbs and adjectives.
+	 */
+	private static int[] countPos(Collection<POS> pos) {
+		int[] counts = new int[4];
+		for (POS p : pos) {
+			if (p instanceof POS_NOUN)
+				counts[0]++;
+			else if (p instanceof POS_VERB)
+				counts[1]++;
+			else if (p instanceof POS_ADV)
+				counts[2]++;
+			else if (p instanceof POS_ADJ)
+				counts[3]++;
+		}
+		return counts;
+	}
+}
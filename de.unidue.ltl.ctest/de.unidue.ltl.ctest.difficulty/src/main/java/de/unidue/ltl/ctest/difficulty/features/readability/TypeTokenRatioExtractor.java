@@ -17,7 +17,6 @@
  ******************************************************************************/
 package de.unidue.ltl.ctest.difficulty.features.readability;
 
-import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -33,10 +32,10 @@ import org.dkpro.tc.api.features.FeatureExtractorResource_ImplBase;
 import org.dkpro.tc.api.features.FeatureType;
 import org.dkpro.tc.api.type.TextClassificationTarget;
 
-import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS;
-import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS_VERB;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+import de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics;
+import de.unidue.ltl.ctest.difficulty.types.SentenceStatistics;
 
 /**
  * This extractor calculates the ratio between the amount of words and the
@@ -44,6 +43,8 @@ import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
  * calculates how many different verb types occur compared to the overall verb
  * amount. Additionally calculates the Type/Token ratio for the targets cover
  * sentence.
+ * 
+ * @see ReadabilityStatisticsAnnotator
  */
 public class TypeTokenRatioExtractor extends FeatureExtractorResource_ImplBase implements FeatureExtractor {
 	public static final String FN_TYPE_TOKEN_RATIO = "TypeTokenRatio";
@@ -58,12 +59,10 @@ public class TypeTokenRatioExtractor extends FeatureExtractorResource_ImplBase i
 	public Set<Feature> extractTTR(JCas jcas, ExtendedLogger logger, TextClassificationTarget target)
 			throws TextClassificationException {
 		Set<Feature> featList = new HashSet<Feature>();
-		double ttr = -1.0;
-		double vv = -1.0;
-		try {
-			ttr = getTypeTokenRatio(jcas);
-			vv = getVerbVariation(jcas);
-		} catch (NullPointerException e) {
+		ReadabilityStatistics statistics = ReadabilityStatisticsAnnotator.getStatistics(jcas);
+		double ttr = statistics.getTypeTokenRatio();
+		double vv = statistics.getVerbVariation();
+		if (ttr == -1.0) {
 			logger.log(Level.INFO,
 					"Probably empty token input: No POS information available for " + jcas.getDocumentText());
 		}
@@ -72,12 +71,11 @@ public class TypeTokenRatioExtractor extends FeatureExtractorResource_ImplBase i
 		featList.add(new Feature(FN_VERB_VARIATION, vv, FeatureType.NUMERIC));
 
 		double ttr_target = -1.0;
-		List<Sentence> sentences = JCasUtil.selectCovering(jcas, Sentence.class, target);
+		List<SentenceStatistics> sentences = ReadabilityStatisticsAnnotator.getCoveringStatistics(jcas, target);
 		if (sentences.size() > 0) {
-			Sentence coverSent = sentences.get(0);
-			try {
-				ttr_target = getTypeTokenRatio(jcas, coverSent);
-			} catch (NullPointerException e) {
+			SentenceStatistics coverSent = sentences.get(0);
+			ttr_target = coverSent.getTypeTokenRatio();
+			if (ttr_target == -1.0) {
 				logger.log(Level.INFO,
 						"Probably empty token in put: No POS information available for " + jcas.getDocumentText());
 			}
@@ -88,55 +86,11 @@ public class TypeTokenRatioExtractor extends FeatureExtractorResource_ImplBase i
 
 	}
 
-	private double getTypeTokenRatio(JCas jcas) throws NullPointerException {
-		int numberOfTokens = 0;
-		List<String> types = new ArrayList<String>();
-
-		for (Sentence sent : JCasUtil.select(jcas, Sentence.class)) {
-			for (Token t : JCasUtil.selectCovered(jcas, Token.class, sent)) {
-				POS pos = t.getPos();
-
-				if (!t.getPos().getType().getShortName().equals("PUNC") && !pos.equals(null)) {
-					numberOfTokens++;
-					String lemma = t.getLemma().getValue().toLowerCase();
-					if (!types.contains(lemma)) {
-						types.add(lemma);
-					}
-				}
-			}
-
-		}
-		return types.size() / (double) numberOfTokens;
-	}
-
-	private double getVerbVariation(JCas jcas) throws NullPointerException {
-		int numberOfVerbs = 0;
-		List<String> verbtypes = new ArrayList<String>();
-		for (Sentence sent : JCasUtil.select(jcas, Sentence.class)) {
-			for (Token t : JCasUtil.selectCovered(jcas, Token.class, sent)) {
-				POS pos = t.getPos();
-				if (pos instanceof POS_VERB) {
-					numberOfVerbs++;
-					String lemma = t.getLemma().getValue().toLowerCase();
-					if (!verbtypes.contains(lemma)) {
-						verbtypes.add(lemma);
-					}
-				}
-			}
-		}
-		return verbtypes.size() / (double) numberOfVerbs;
-	}
-
 	public Set<Feature> extractTTR_Target(JCas jcas, Sentence sent, ExtendedLogger logger)
 			throws TextClassificationException {
 		Set<Feature> featList = new HashSet<Feature>();
-		double ttr = -1.0;
-
-		try {
-			ttr = getTypeTokenRatio(jcas, sent);
-		}
-
-		catch (NullPointerException e) {
+		double ttr = ReadabilityStatisticsAnnotator.getTypeTokenRatio(JCasUtil.selectCovered(jcas, Token.class, sent));
+		if (ttr == -1.0) {
 			logger.log(Level.INFO,
 					"Probably empty token in put: No POS information available for " + jcas.getDocumentText());
 		}
@@ -144,21 +98,4 @@ public class TypeTokenRatioExtractor extends FeatureExtractorResource_ImplBase i
 		featList.add(new Feature(FN_TYPE_TOKEN_RATIO_TARGET, ttr, FeatureType.NUMERIC));
 		return featList;
 	}
-
-	private double getTypeTokenRatio(JCas jcas, Sentence sent) throws NullPointerException {
-		int numberOfTokens = 0;
-
-		List<String> types = new ArrayList<String>();
-		for (Token t : JCasUtil.selectCovered(jcas, Token.class, sent)) {
-			POS pos = t.getPos();
-			if (!t.getPos().getType().getShortName().equals("PUNC") && !pos.equals(null)) {
-				numberOfTokens++;
-				String lemma = t.getLemma().getValue().toLowerCase();
-				if (!types.contains(lemma)) {
-					types.add(lemma);
-				}
-			}
-		}
-		return types.size() / (double) numberOfTokens;
-	}
 }
@@ -0,0 +1,34 @@
+package de.unidue.ltl.ctest.difficulty.features.util;
+
+import java.io.IOException;
+
+import de.tudarmstadt.ukp.dkpro.core.api.frequency.provider.FrequencyCountProvider;
+
+/**
+ * A {@code FrequencyCountProvider}, which resolves the log probabilities or probabilities of many n-grams at once.
+ * <p>
+ * In the first phase, the n-grams needed for a document or a batch of documents are registered,
+ * e.g. by an {@link NgramPlanner}. In the second phase, {@link #resolve()} looks them up
+ * in sorted order and keeps the values in memory, so that the following calls of {@link #getLogProbability(String)}
+ * and {@link #getProbability(String)} do not access the disk. Whether the lookups share a single pass over the n-grams
+ * or only benefit from their order depends on the implementation, see {@link CachingFrequencyCountProvider}.
+ */
+public interface BatchFrequencyCountProvider extends FrequencyCountProvider {
+
+	/**
+	 * Registers the log probability of the given phrase for the next call of {@link #resolve()}.
+	 */
+	void register(String phrase);
+
+	/**
+	 * Registers the probability of the given phrase for the next call of {@link #resolve()}.
+	 */
+	void registerProbability(String phrase);
+
+	/**
+	 * Looks up the values of all registered phrases, which are not in memory yet.
+	 *
+	 * @return The number of phrases looked up.
+	 */
+	int resolve() throws IOException;
+}
@@ -2,10 +2,8 @@ package de.unidue.ltl.ctest.difficulty.features.util;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
-import java.util.TreeSet;
 
 import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
@@ -18,42 +16,11 @@ import org.dkpro.tc.api.type.TextClassificationTarget;
 import de.tudarmstadt.ukp.dkpro.core.api.frequency.provider.FrequencyCountProvider;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
-import de.unidue.ltl.ctest.difficulty.types.GapCandidate;
-import edu.stanford.nlp.util.ArraySet;
 
 // TODO all public methods should be documented
 public class CTestFeaturesUtil
 {
 
-    public static Set<String> getTopN(TreeSet<GapCandidate> candidates, int n)
-    {
-        TreeSet<GapCandidate> copy = new TreeSet<GapCandidate>(candidates);
-        Set<String> topN = new ArraySet<String>();
-        int limit = Math.min(candidates.size(), n);
-        for (int i = 0; i < limit; i++) {
-            topN.add(copy.pollFirst().getCandidateWord());
-        }
-        return topN;
-    }
-
-    public static int getSolutionRank(String[] solutions, TreeSet<GapCandidate> candidateSet)
-    {
-        int solutionRank = 1;
-
-        for (GapCandidate cand : candidateSet) {
-            // any of the solutions is sufficient
-            if (Arrays.asList(solutions).contains(cand.getCandidateWord())) {
-                return solutionRank;
-
-            }
-            else {
-                solutionRank++;
-            }
-        }
-        // solution is not in list, return default
-        return -1;
-    }
-
     public static Double getProbability(FrequencyCountProvider frequencyProvider, String language,
             String phrase)
         throws IOException
@@ -0,0 +1,356 @@
+package de.unidue.ltl.ctest.difficulty.features.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import de.tudarmstadt.ukp.dkpro.core.api.frequency.provider.FrequencyCountProvider;
+import de.tudarmstadt.ukp.dkpro.core.api.frequency.provider.FrequencyCountProviderBase;
+
+/**
+ * A {@code FrequencyCountProvider}, which caches the probabilities, log probabilities and frequencies
+ * of another provider, e.g. one reading Web1T files from disk.
+ * <p>
+ * At most {@code maxEntries} values are held; the least recently used ones are evicted first.
+ * Concurrent lookups of the same value, which is not cached, are coalesced: only one of them
+ * queries the provider, the others wait for its result. Failed lookups are not cached.
+ * Corpus information, e.g. the number of tokens, is passed through without caching.
+ * <p>
+ * Log probabilities and probabilities can also be resolved in batches, see {@link BatchFrequencyCountProvider}.
+ * If the cached provider is a {@link SortedFrequencyCountProvider}, e.g. an n-gram store, the registered phrases
+ * are looked up together in one pass over its sorted n-grams. Any other provider, e.g. one reading Web1T files,
+ * is only prefetched: the phrases are still looked up one by one, ordered by the number of words and then alphabetically,
+ * which is the order of the Web1T files, so that consecutive lookups mostly hit pages read by the previous ones.
+ * A batch should fit into the cache, otherwise its first values are evicted before they are used.
+ * <p>
+ * All methods are thread-safe, if the cached provider is. The cached provider is called outside of any lock.
+ *
+ * @see CachingFrequencyCountResource
+ */
+public class CachingFrequencyCountProvider extends FrequencyCountProviderBase implements BatchFrequencyCountProvider {
+
+	/**
+	 * The default maximum number of cached values.
+	 */
+	public static final int DEFAULT_MAX_ENTRIES = 1000000;
+
+	private enum Kind {
+		PROBABILITY, LOG_PROBABILITY, FREQUENCY
+	}
+
+	private final FrequencyCountProvider provider;
+	private final LinkedHashMap<String, Double> entries;
+	private final Map<String, CompletableFuture<Double>> pending = new ConcurrentHashMap<>();
+	private final Set<String> registered = new HashSet<>();
+	private final int maxEntries;
+
+	private long hits;
+	private long coalesced;
+	private long misses;
+	private long evictions;
+
+	/**
+	 * Creates a new {@code CachingFrequencyCountProvider} for the given provider with the default size.
+	 */
+	public CachingFrequencyCountProvider(FrequencyCountProvider provider) {
+		this(provider, DEFAULT_MAX_ENTRIES);
+	}
+
+	/**
+	 * Creates a new {@code CachingFrequencyCountProvider} for the given provider.
+	 *
+	 * @param  provider The provider, whose values are cached.
+	 * @param  maxEntries The maximum number of cached values.
+	 */
+	public CachingFrequencyCountProvider(FrequencyCountProvider provider, int maxEntries) {
+		if (maxEntries < 1) {
+			throw new IllegalArgumentException("The maximum number of entries must be positive.");
+		}
+		this.provider = provider;
+		this.maxEntries = maxEntries;
+		this.entries = new LinkedHashMap<String, Double>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Double> eldest) {
+				if (size() <= CachingFrequencyCountProvider.this.maxEntries)
+					return false;
+				evictions++;
+				return true;
+			}
+		};
+	}
+
+	@Override
+	public double getProbability(String phrase) throws IOException {
+		return get(Kind.PROBABILITY, phrase);
+	}
+
+	@Override
+	public double getLogProbability(String phrase) throws IOException {
+		return get(Kind.LOG_PROBABILITY, phrase);
+	}
+
+	@Override
+	protected long getFrequencyFromProvider(String phrase) throws IOException {
+		return (long) get(Kind.FREQUENCY, phrase);
+	}
+
+	@Override
+	public synchronized void register(String phrase) {
+		registered.add(Kind.LOG_PROBABILITY.ordinal() + phrase);
+	}
+
+	@Override
+	public synchronized void registerProbability(String phrase) {
+		registered.add(Kind.PROBABILITY.ordinal() + phrase);
+	}
+
+	@Override
+	public int resolve() throws IOException {
+		List<String> keys = new ArrayList<>();
+		synchronized (this) {
+			for (String key : registered) {
+				if (!entries.containsKey(key))
+					keys.add(key);
+			}
+			registered.clear();
+		}
+		if (keys.size() > maxEntries) {
+			System.err.println(String.format("WARNING: Batch of %d phrases exceeds the cache size (%d)", keys.size(), maxEntries));
+		}
+		// the key is the ordinal of the kind, a single digit, followed by the phrase
+		if (provider instanceof SortedFrequencyCountProvider) {
+			resolveSorted((SortedFrequencyCountProvider) provider, Kind.PROBABILITY, keys);
+			resolveSorted((SortedFrequencyCountProvider) provider, Kind.LOG_PROBABILITY, keys);
+			return keys.size();
+		}
+		keys.sort(Comparator.comparingInt((String key) -> getPhraseLength(key.substring(1)))
+				.thenComparing(key -> key.substring(1)).thenComparing(Comparator.naturalOrder()));
+		for (String key : keys) {
+			get(Kind.values()[key.charAt(0) - '0'], key.substring(1));
+		}
+		return keys.size();
+	}
+
+	/**
+	 * Looks up the values of the given kind among the given keys in one batch and caches them.
+	 */
+	private void resolveSorted(SortedFrequencyCountProvider sortedProvider, Kind kind, List<String> keys) throws IOException {
+		List<String> phrases = new ArrayList<>();
+		for (String key : keys) {
+			if (key.charAt(0) - '0' == kind.ordinal())
+				phrases.add(key.substring(1));
+		}
+		if (phrases.isEmpty()) {
+			return;
+		}
+		double[] values = kind == Kind.PROBABILITY ? sortedProvider.getProbabilities(phrases) : sortedProvider.getLogProbabilities(phrases);
+		synchronized (this) {
+			misses += phrases.size();
+			for (int i = 0; i < phrases.size(); i++)
+				entries.put(kind.ordinal() + phrases.get(i), values[i]);
+		}
+	}
+
+	/**
+	 * Returns the number of space separated words of the given phrase.
+	 */
+	private static int getPhraseLength(String phrase) {
+		int n = 1;
+		for (int i = 0; i < phrase.length(); i++) {
+			if (phrase.charAt(i) == ' ')
+				n++;
+		}
+		return n;
+	}
+
+	private double get(Kind kind, String phrase) throws IOException {
+		String key = kind.ordinal() + phrase;
+		synchronized (this) {
+			Double value = entries.get(key);
+			if (value != null) {
+				hits++;
+				return value;
+			}
+		}
+
+		CompletableFuture<Double> lookup = new CompletableFuture<>();
+		CompletableFuture<Double> running = pending.putIfAbsent(key, lookup);
+		if (running != null) {
+			synchronized (this) {
+				coalesced++;
+			}
+			return await(running);
+		}
+
+		synchronized (this) {
+			// the value may have been added since the first lookup
+			Double value = entries.get(key);
+			if (value != null) {
+				hits++;
+				pending.remove(key);
+				lookup.complete(value);
+				return value;
+			}
+			misses++;
+		}
+		try {
+			double value = query(kind, phrase);
+			synchronized (this) {
+				entries.put(key, value);
+			}
+			lookup.complete(value);
+			return value;
+		} catch (IOException | RuntimeException e) {
+			lookup.completeExceptionally(e);
+			throw e;
+		} finally {
+			pending.remove(key);
+		}
+	}
+
+	private double query(Kind kind, String phrase) throws IOException {
+		switch (kind) {
+		case PROBABILITY:
+			return provider.getProbability(phrase);
+		case LOG_PROBABILITY:
+			return provider.getLogProbability(phrase);
+		default:
+			return provider.getFrequency(phrase);
+		}
+	}
+
+	private static double await(CompletableFuture<Double> lookup) throws IOException {
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					return lookup.get();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException)
+				throw (IOException) e.getCause();
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new IOException(e.getCause());
+		} finally {
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public long getNrOfTokens() throws IOException {
+		return provider.getNrOfTokens();
+	}
+
+	@Override
+	public long getNrOfNgrams(int n) throws IOException {
+		return provider.getNrOfNgrams(n);
+	}
+
+	@Override
+	public long getNrOfDistinctNgrams(int n) throws IOException {
+		return provider.getNrOfDistinctNgrams(n);
+	}
+
+	@Override
+	public Iterator<String> getNgramIterator(int n) throws IOException {
+		return provider.getNgramIterator(n);
+	}
+
+	@Override
+	public String getLanguage() throws IOException {
+		return provider.getLanguage();
+	}
+
+	/**
+	 * Returns the cached provider.
+	 */
+	public FrequencyCountProvider getProvider() {
+		return provider;
+	}
+
+	/**
+	 * Removes all entries and registered phrases and resets the statistics.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		registered.clear();
+		hits = 0;
+		coalesced = 0;
+		misses = 0;
+		evictions = 0;
+	}
+
+	/**
+	 * Returns the number of cached values.
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns the number of lookups answered from the cache.
+	 */
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of lookups, which waited for a concurrent lookup of the same value.
+	 */
+	public synchronized long getCoalescedCount() {
+		return coalesced;
+	}
+
+	/**
+	 * Returns the number of lookups passed to the cached provider.
+	 */
+	public synchronized long getMissCount() {
+		return misses;
+	}
+
+	/**
+	 * Returns the number of lookups, which did not query the cached provider, i.e. the disk seeks saved for Web1T.
+	 */
+	public synchronized long getSavedLookupCount() {
+		return hits + coalesced;
+	}
+
+	/**
+	 * Returns the number of evicted entries.
+	 */
+	public synchronized long getEvictionCount() {
+		return evictions;
+	}
+
+	/**
+	 * Returns the fraction of lookups, which did not query the cached provider, or 0 if there were no lookups.
+	 */
+	public synchronized double getHitRate() {
+		long lookups = hits + coalesced + misses;
+		if (lookups == 0)
+			return 0.0;
+		return (double) (hits + coalesced) / lookups;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("CachingFrequencyCountProvider[entries=%d/%d, hits=%d, coalesced=%d, misses=%d, evictions=%d, hitRate=%.3f]",
+				entries.size(), maxEntries, hits, coalesced, misses, evictions, getHitRate());
+	}
+}
@@ -0,0 +1,69 @@
+package de.unidue.ltl.ctest.difficulty.features.util;
+
+import static org.apache.uima.util.Level.INFO;
+
+import java.io.IOException;
+
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
+import org.apache.uima.fit.descriptor.ExternalResource;
+
+import de.tudarmstadt.ukp.dkpro.core.api.frequency.FrequencyCountResourceBase;
+import de.tudarmstadt.ukp.dkpro.core.api.frequency.provider.FrequencyCountProvider;
+
+/**
+ * A frequency count resource, which caches the values of another frequency count resource
+ * using a {@link CachingFrequencyCountProvider}.
+ * <p>
+ * Bind it in place of the cached resource, e.g. a {@code Web1TFrequencyCountResource}, which is given as nested resource:
+ * <pre>
+ * createExternalResourceDescription(CachingFrequencyCountResource.class,
+ *         CachingFrequencyCountResource.RES_PROVIDER, createExternalResourceDescription(Web1TFrequencyCountResource.class, ...));
+ * </pre>
+ * All extractors bound to the same description share the cache. The statistics of the cache are logged on destruction.
+ * Extractors, which plan their lookups with an {@link NgramPlanner}, resolve the n-grams of each document in one batch.
+ */
+public class CachingFrequencyCountResource extends FrequencyCountResourceBase
+		implements BatchFrequencyCountProvider {
+
+	/**
+	 * The cached frequency count resource.
+	 */
+	public static final String RES_PROVIDER = "CachedProvider";
+	@ExternalResource(key = RES_PROVIDER)
+	protected FrequencyCountProvider cachedProvider;
+
+	/**
+	 * The maximum number of cached values.
+	 */
+	public static final String PARAM_MAX_ENTRIES = "MaxEntries";
+	@ConfigurationParameter(name = PARAM_MAX_ENTRIES, mandatory = false, defaultValue = "1000000")
+	protected int maxEntries;
+
+	@Override
+	protected void initializeProvider() throws Exception {
+		this.provider = new CachingFrequencyCountProvider(cachedProvider, maxEntries);
+	}
+
+	@Override
+	public void register(String phrase) {
+		((CachingFrequencyCountProvider) provider).register(phrase);
+	}
+
+	@Override
+	public void registerProbability(String phrase) {
+		((CachingFrequencyCountProvider) provider).registerProbability(phrase);
+	}
+
+	@Override
+	public int resolve() throws IOException {
+		return ((CachingFrequencyCountProvider) provider).resolve();
+	}
+
+	@Override
+	public void destroy() {
+		if (provider != null) {
+			getLogger().log(INFO, provider.toString());
+		}
+		super.destroy();
+	}
+}
@@ -0,0 +1,109 @@
+package de.unidue.ltl.ctest.difficulty.features.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Ranks candidate words by their scores in primitive arrays, instead of sorting {@code GapCandidate} annotations.
+ * <p>
+ * Higher scores rank first, candidates with equal scores are ranked in the order they were added.
+ * The words are expected to be distinct. A ranking can be cleared and reused for the next gap.
+ */
+public class CandidateRanking {
+
+	private String[] words = new String[16];
+	private double[] scores = new double[16];
+	private int size;
+
+	/**
+	 * Adds a candidate.
+	 */
+	public void add(String word, double score) {
+		if (size == words.length) {
+			words = Arrays.copyOf(words, 2 * size);
+			scores = Arrays.copyOf(scores, 2 * size);
+		}
+		words[size] = word;
+		scores[size] = score;
+		size++;
+	}
+
+	/**
+	 * Removes all candidates.
+	 */
+	public void clear() {
+		Arrays.fill(words, 0, size, null);
+		size = 0;
+	}
+
+	/**
+	 * Returns the number of candidates.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the rank of the best ranked solution, starting at 1, or -1 if no solution is a candidate.
+	 */
+	public int getSolutionRank(Set<String> solutions) {
+		int best = -1;
+		for (int i = 0; i < size; i++) {
+			if (solutions.contains(words[i]) && (best < 0 || before(i, best))) {
+				best = i;
+			}
+		}
+		if (best < 0) {
+			return -1;
+		}
+		int rank = 1;
+		for (int i = 0; i < size; i++) {
+			if (before(i, best)) {
+				rank++;
+			}
+		}
+		return rank;
+	}
+
+	/**
+	 * Returns the n best ranked words, in the order of their ranks.
+	 */
+	public List<String> getTopN(int n) {
+		int[] top = new int[Math.max(0, Math.min(n, size))];
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			if (count < top.length) {
+				count++;
+			} else if (top.length == 0 || !before(i, top[count - 1])) {
+				continue;
+			}
+			// insert into the selection, dropping its last candidate if it is full
+			int position = count - 1;
+			while (position > 0 && before(i, top[position - 1])) {
+				top[position] = top[position - 1];
+				position--;
+			}
+			top[position] = i;
+		}
+		List<String> topN = new ArrayList<String>(count);
+		for (int i = 0; i < count; i++) {
+			topN.add(words[top[i]]);
+		}
+		return topN;
+	}
+
+	/**
+	 * Returns whether the candidate with index i ranks before the one with index j.
+	 */
+	private boolean before(int i, int j) {
+		int cmp = Double.compare(scores[i], scores[j]);
+		return cmp > 0 || (cmp == 0 && i < j);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("CandidateRanking[candidates=%d]", size);
+	}
+}
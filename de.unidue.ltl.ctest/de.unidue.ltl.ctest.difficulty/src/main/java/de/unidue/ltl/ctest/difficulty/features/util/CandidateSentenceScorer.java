@@ -0,0 +1,92 @@
+package de.unidue.ltl.ctest.difficulty.features.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import edu.berkeley.nlp.lm.NgramLanguageModel;
+
+/**
+ * Scores the sentences resulting from filling a gap with each of its candidates.
+ * <p>
+ * Like {@link NgramLanguageModel#scoreSentence(List)}, the score of a sentence is the sum of the log
+ * probabilities of its words and the end symbol, each given up to n-1 preceding words.
+ * The sentences of the candidates of a gap only differ in the n-gram windows covering the gap:
+ * the windows ending before the gap and the windows starting after it are scored once per gap,
+ * only the windows covering the candidate are scored per candidate.
+ * A candidate containing spaces fills the gap with several words.
+ */
+public class CandidateSentenceScorer {
+
+	private final NgramLanguageModel<String> lm;
+	private final int order;
+	private final String startSymbol;
+	private final String endSymbol;
+
+	public CandidateSentenceScorer(NgramLanguageModel<String> lm) {
+		this.lm = lm;
+		this.order = lm.getLmOrder();
+		this.startSymbol = lm.getWordIndexer().getStartSymbol();
+		this.endSymbol = lm.getWordIndexer().getEndSymbol();
+	}
+
+	/**
+	 * Returns the scores of the sentences formed by the left context, each candidate and the right context,
+	 * in the order of the candidates.
+	 */
+	public double[] score(List<String> left, List<String> right, List<String> candidates) {
+		List<String> prefix = new ArrayList<>(left.size() + 1);
+		prefix.add(startSymbol);
+		prefix.addAll(left);
+		List<String> suffix = new ArrayList<>(right.size() + 1);
+		suffix.addAll(right);
+		suffix.add(endSymbol);
+
+		// windows before the candidate, and windows following it by at least n-1 words
+		double shared = sum(prefix, 1, prefix.size()) + sum(suffix, order - 1, suffix.size());
+
+		// the windows covering the candidate only reach n-1 words into each context
+		List<String> leftTail = prefix.subList(Math.max(0, prefix.size() - order + 1), prefix.size());
+		List<String> rightHead = suffix.subList(0, Math.min(suffix.size(), order - 1));
+
+		double[] scores = new double[candidates.size()];
+		List<String> window = new ArrayList<>();
+		for (int i = 0; i < candidates.size(); i++) {
+			window.clear();
+			window.addAll(leftTail);
+			Collections.addAll(window, candidates.get(i).split(" "));
+			int candidateEnd = window.size();
+			window.addAll(rightHead);
+			scores[i] = shared + sum(window, leftTail.size(), Math.min(window.size(), candidateEnd + order - 1));
+		}
+		return scores;
+	}
+
+	/**
+	 * Returns the score of the given sentence.
+	 */
+	public double score(List<String> sentence) {
+		List<String> bounded = new ArrayList<>(sentence.size() + 2);
+		bounded.add(startSymbol);
+		bounded.addAll(sentence);
+		bounded.add(endSymbol);
+		return sum(bounded, 1, bounded.size());
+	}
+
+	/**
+	 * Sums the log probabilities of the words from the start index (inclusive) to the end index (exclusive),
+	 * each given up to n-1 preceding words of the list.
+	 */
+	private double sum(List<String> words, int start, int end) {
+		double score = 0.0;
+		for (int i = start; i < end; i++) {
+			score += lm.getLogProb(words.subList(Math.max(0, i - order + 1), i + 1));
+		}
+		return score;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("CandidateSentenceScorer[order=%d]", order);
+	}
+}
@@ -0,0 +1,71 @@
+package de.unidue.ltl.ctest.difficulty.features.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+import org.apache.uima.fit.component.Resource_ImplBase;
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
+import org.apache.uima.resource.ResourceInitializationException;
+import org.apache.uima.resource.ResourceSpecifier;
+
+import edu.berkeley.nlp.lm.NgramLanguageModel;
+import edu.berkeley.nlp.lm.io.LmReaders;
+
+/**
+ * An external resource holding a binary BerkeleyLM {@link NgramLanguageModel}, so that all components
+ * bound to the same description share the loaded model for the whole pipeline.
+ * The model itself is shared through the {@link LexicalResourceRegistry}, so components loading
+ * the same file with {@link #acquire(File)} share it as well.
+ */
+public class LanguageModelResource extends Resource_ImplBase {
+
+	/**
+	 * The binary language model.
+	 */
+	public static final String PARAM_LM_FILE = "BinaryLanguageModel";
+	@ConfigurationParameter(name = PARAM_LM_FILE, mandatory = true)
+	protected File lmFile;
+
+	private LexicalResourceRegistry.Handle<NgramLanguageModel<String>> model;
+
+	@Override
+	public boolean initialize(ResourceSpecifier aSpecifier, Map<String, Object> aAdditionalParams)
+			throws ResourceInitializationException {
+		if (!super.initialize(aSpecifier, aAdditionalParams)) {
+			return false;
+		}
+		try {
+			model = acquire(lmFile);
+		} catch (IOException | RuntimeException e) {
+			throw new ResourceInitializationException(e);
+		}
+		return true;
+	}
+
+	/**
+	 * Returns a handle of the given binary language model, loading it unless it is shared already.
+	 * The handle must be closed when the model is no longer used.
+	 *
+	 * @throws IOException if the model cannot be loaded.
+	 */
+	public static LexicalResourceRegistry.Handle<NgramLanguageModel<String>> acquire(File lmFile) throws IOException {
+		return LexicalResourceRegistry.acquire(lmFile, "berkeleyLm",
+				file -> LmReaders.readLmBinary(file.getPath()));
+	}
+
+	/**
+	 * Returns the shared model.
+	 */
+	public NgramLanguageModel<String> getLanguageModel() {
+		return model.get();
+	}
+
+	@Override
+	public void destroy() {
+		if (model != null) {
+			model.close();
+		}
+		super.destroy();
+	}
+}
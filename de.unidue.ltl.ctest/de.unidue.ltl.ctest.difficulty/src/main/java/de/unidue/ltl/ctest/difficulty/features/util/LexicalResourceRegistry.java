@@ -0,0 +1,235 @@
+package de.unidue.ltl.ctest.difficulty.features.util;
+
+import static org.apache.uima.util.Level.INFO;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.uima.UIMAFramework;
+
+/**
+ * Shares the lexical resources of feature extractors and annotators, e.g. word lists,
+ * between all instances in the JVM instead of reading them again for every instance.
+ * <p>
+ * A resource is identified by its file and a string describing how it was loaded,
+ * e.g. {@code "wordList:lowercase=true"}. The first {@link #acquire} of a resource loads it,
+ * later ones share the loaded value. The value must not be modified; loaders should return
+ * unmodifiable collections. Each acquired {@link Handle} must be closed, typically in
+ * {@code destroy()}; when the last handle of a resource is closed, the resource is released.
+ * <p>
+ * By default, resources are loaded by the acquiring thread. With {@link #setParallelLoading(boolean)},
+ * they are loaded in the background, so that the components of a pipeline load their resources
+ * in parallel during initialization; {@link Handle#get()} waits until the resource is loaded.
+ */
+public class LexicalResourceRegistry {
+
+	/**
+	 * Loads a resource from its file.
+	 */
+	public interface Loader<T> {
+		T load(File file) throws IOException;
+	}
+
+	private static final Map<String, Entry> ENTRIES = new HashMap<>();
+
+	private static ExecutorService executor;
+	private static boolean parallelLoading = false;
+
+	private static class Entry {
+		private final String key;
+		private final CompletableFuture<Object> value = new CompletableFuture<>();
+		private int references;
+
+		private Entry(String key) {
+			this.key = key;
+		}
+	}
+
+	/**
+	 * A reference to a shared resource.
+	 */
+	public static class Handle<T> implements Closeable {
+
+		private final Entry entry;
+		private boolean closed;
+
+		private Handle(Entry entry) {
+			this.entry = entry;
+		}
+
+		/**
+		 * Returns the resource, waiting until it is loaded.
+		 *
+		 * @throws UncheckedIOException if the resource could not be loaded in the background.
+		 * @throws IllegalStateException if the handle is closed.
+		 */
+		@SuppressWarnings("unchecked")
+		public T get() {
+			if (closed) {
+				throw new IllegalStateException("Resource already released@" + entry.key);
+			}
+			try {
+				return (T) await(entry.value);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		/**
+		 * Releases the reference; closing a handle twice has no effect.
+		 */
+		@Override
+		public void close() {
+			if (!closed) {
+				closed = true;
+				release(entry);
+			}
+		}
+	}
+
+	private LexicalResourceRegistry() {
+	}
+
+	/**
+	 * Returns a handle of the resource of the given file, loading it unless it is shared already.
+	 *
+	 * @param  file The file of the resource.
+	 * @param  options The description of the loader and its normalization options,
+	 *         which distinguishes different resources of the same file.
+	 * @param  loader The loader used if the resource is not loaded yet.
+	 * @throws IOException if the resource cannot be loaded. With parallel loading, failures are reported by {@link Handle#get()}.
+	 *         Runtime exceptions and errors of the loader are rethrown as they are.
+	 */
+	public static <T> Handle<T> acquire(File file, String options, Loader<T> loader) throws IOException {
+		String key = file.getCanonicalPath() + "\u0000" + options;
+		Entry entry;
+		boolean load;
+		synchronized (ENTRIES) {
+			entry = ENTRIES.get(key);
+			load = entry == null;
+			if (load) {
+				entry = new Entry(key);
+				ENTRIES.put(key, entry);
+			}
+			entry.references++;
+		}
+		Handle<T> handle = new Handle<>(entry);
+		if (load) {
+			Entry loading = entry;
+			Runnable task = () -> {
+				try {
+					T value = loader.load(file);
+					if (value instanceof StringTable) {
+						StringTable table = (StringTable) value;
+						UIMAFramework.getLogger(LexicalResourceRegistry.class).log(INFO, String.format(
+								"Loaded %s as %s: %d entries, %d heap bytes%s", file, options,
+								table.size(), table.getHeapBytes(), table.isMapped() ? " (mapped)" : ""));
+					}
+					loading.value.complete(value);
+				} catch (Throwable e) {
+					// errors, e.g. OutOfMemoryError, must complete the value as well, otherwise waiting acquisitions block forever
+					loading.value.completeExceptionally(e);
+					// failures are not shared, the next acquisition tries again
+					synchronized (ENTRIES) {
+						ENTRIES.remove(loading.key, loading);
+					}
+				}
+			};
+			ExecutorService loadingExecutor = getLoadingExecutor();
+			if (loadingExecutor == null) {
+				task.run();
+			} else {
+				loadingExecutor.execute(task);
+				return handle;
+			}
+		}
+		if (!parallelLoadingEnabled()) {
+			try {
+				await(entry.value);
+			} catch (IOException | RuntimeException | Error e) {
+				handle.close();
+				throw e;
+			}
+		}
+		return handle;
+	}
+
+	/**
+	 * Sets whether resources are loaded in the background. Defaults to false.
+	 */
+	public static synchronized void setParallelLoading(boolean parallel) {
+		parallelLoading = parallel;
+		if (!parallel && executor != null) {
+			executor.shutdown();
+			executor = null;
+		}
+	}
+
+	private static synchronized boolean parallelLoadingEnabled() {
+		return parallelLoading;
+	}
+
+	private static synchronized ExecutorService getLoadingExecutor() {
+		if (!parallelLoading) {
+			return null;
+		}
+		if (executor == null) {
+			executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+				Thread thread = new Thread(runnable, "lexical-resource-loader");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return executor;
+	}
+
+	/**
+	 * Returns the number of shared resources.
+	 */
+	public static int size() {
+		synchronized (ENTRIES) {
+			return ENTRIES.size();
+		}
+	}
+
+	private static void release(Entry entry) {
+		synchronized (ENTRIES) {
+			entry.references--;
+			if (entry.references == 0) {
+				ENTRIES.remove(entry.key, entry);
+			}
+		}
+	}
+
+	private static Object await(CompletableFuture<Object> value) throws IOException {
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					return value.get();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException)
+				throw (IOException) e.getCause();
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			if (e.getCause() instanceof Error)
+				throw (Error) e.getCause();
+			throw new IOException(e.getCause());
+		} finally {
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,381 @@
+package de.unidue.ltl.ctest.difficulty.features.util;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import de.tudarmstadt.ukp.dkpro.core.api.frequency.util.FrequencyDistribution;
+
+/**
+ * Compiles the text resources of the feature extractors, e.g. word lists and dictionaries,
+ * into {@link StringTable}s, which are memory-mapped instead of parsed at startup.
+ * <p>
+ * A compiled resource is stored next to its text file, with the suffix {@value #SUFFIX}.
+ * {@link #load(File, Format)} maps it, if it was compiled with the requested format from the text file
+ * with its current size and modification time, which are kept in the header of the compiled resource. Otherwise, the text file is compiled once into the cache directory,
+ * given by the system property {@value #PROP_CACHE_DIRECTORY} and defaulting to {@code ctest-lexicons}
+ * in the temporary directory, and mapped from there, also by later runs. Only if the cache directory
+ * is not writable or the property is empty, the text file is compiled into a heap buffer.
+ * If a key occurs more than once, its last value is used.
+ * <p>
+ * Layout, big-endian:
+ * <pre>
+ * int magic, int version, int format length, format name bytes (UTF-8),
+ * long source length, long source last modified (of the text file),
+ * int count, int block size, int block count, int[block count] block offsets (relative to the keys),
+ * int[count + 1] value offsets (relative to the values), int keys length,
+ * keys: per block one unsigned short length and the bytes of the first key,
+ *       then per key an unsigned short shared prefix length, an unsigned short suffix length and the suffix bytes,
+ * values: the UTF-8 bytes of all values
+ * </pre>
+ * Usage: {@code LexiconCompiler format textFile...}, e.g.
+ * {@code LexiconCompiler COLUMNS src/main/resources/wordLists/cmudict_nostress.csv}
+ */
+public class LexiconCompiler {
+
+	static final int MAGIC = 0x4C455843;
+	static final int VERSION = 2;
+	static final int BLOCK_SIZE = 16;
+
+	/**
+	 * The suffix of compiled resources.
+	 */
+	public static final String SUFFIX = ".bin";
+
+	/**
+	 * The system property naming the directory, into which resources without an up-to-date compiled file
+	 * are compiled on first use. If it is empty, such resources are compiled into heap buffers.
+	 */
+	public static final String PROP_CACHE_DIRECTORY = "ctest.lexiconCache";
+
+	private static final int MAX_KEY_LENGTH = 0xFFFF;
+
+	/**
+	 * How the entries of a text resource are read.
+	 */
+	public enum Format {
+		/**
+		 * One key per line, trimmed; the values are empty.
+		 */
+		WORDS,
+		/**
+		 * One key per line, lowercased and trimmed; the values are empty.
+		 */
+		LOWERCASE_WORDS,
+		/**
+		 * Tab separated lines; the key is the first column, the value is the second one or empty.
+		 */
+		COLUMNS,
+		/**
+		 * Like {@link #COLUMNS}, with lowercased keys.
+		 */
+		LOWERCASE_COLUMNS,
+		/**
+		 * Phonetisaurus output; the key is the input word, the value is the whole line.
+		 */
+		PRONUNCIATIONS,
+		/**
+		 * A serialized {@code FrequencyDistribution}; the values are the counts.
+		 */
+		DISTRIBUTION
+	}
+
+	private static class Entry implements Comparable<Entry> {
+		private final byte[] key;
+		private final byte[] value;
+		private final int line;
+
+		private Entry(String key, String value, int line) {
+			this.key = key.getBytes(StandardCharsets.UTF_8);
+			this.value = value.getBytes(StandardCharsets.UTF_8);
+			this.line = line;
+		}
+
+		@Override
+		public int compareTo(Entry other) {
+			int cmp = NgramStoreBuilder.compare(key, other.key);
+			return cmp != 0 ? cmp : Integer.compare(line, other.line);
+		}
+	}
+
+	/**
+	 * Returns the table of the given text resource, mapping its compiled version if it is up to date.
+	 *
+	 * @throws IOException if the resource cannot be read.
+	 */
+	public static StringTable load(File textFile, Format format) throws IOException {
+		File compiledFile = getCompiledFile(textFile);
+		StringTable table = openIfUpToDate(compiledFile, textFile);
+		if (table != null) {
+			if (table.getFormat().equals(format.name())) {
+				return table;
+			}
+			System.err.println(String.format("WARNING: %s was compiled as %s instead of %s, reading the text file.",
+					compiledFile, table.getFormat(), format));
+		}
+
+		File cachedFile = getCachedFile(textFile, format);
+		if (cachedFile != null) {
+			table = openIfUpToDate(cachedFile, textFile);
+			if (table != null) {
+				return table;
+			}
+		}
+		// taken before reading, so that a change while compiling is noticed on the next load
+		long sourceLength = textFile.length();
+		long sourceLastModified = textFile.lastModified();
+		List<Entry> entries = read(textFile, format);
+		if (cachedFile != null) {
+			try {
+				writeFile(entries, format, sourceLength, sourceLastModified, cachedFile);
+				return StringTable.open(cachedFile);
+			} catch (IOException e) {
+				System.err.println(String.format("WARNING: Could not compile %s into %s, keeping it on the heap: %s",
+						textFile, cachedFile, e.getMessage()));
+			}
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		write(entries, format, sourceLength, sourceLastModified, bytes);
+		return new StringTable(ByteBuffer.wrap(bytes.toByteArray()), false);
+	}
+
+	/**
+	 * Compiles the given text resource into its compiled file.
+	 *
+	 * @return The compiled file.
+	 * @throws IOException if the resource cannot be read or the compiled file cannot be written.
+	 */
+	public static File compile(File textFile, Format format) throws IOException {
+		File compiledFile = getCompiledFile(textFile);
+		long sourceLength = textFile.length();
+		long sourceLastModified = textFile.lastModified();
+		writeFile(read(textFile, format), format, sourceLength, sourceLastModified, compiledFile);
+		return compiledFile;
+	}
+
+	/**
+	 * Returns the compiled file of the given text resource.
+	 */
+	public static File getCompiledFile(File textFile) {
+		return new File(textFile.getPath() + SUFFIX);
+	}
+
+	/**
+	 * Returns the file in the cache directory, into which the given text resource is compiled on first use
+	 * with the given format, or null if the cache is disabled.
+	 *
+	 * @throws IOException if the path of the text file cannot be resolved.
+	 */
+	public static File getCachedFile(File textFile, Format format) throws IOException {
+		String directory = System.getProperty(PROP_CACHE_DIRECTORY,
+				new File(System.getProperty("java.io.tmpdir"), "ctest-lexicons").getPath());
+		if (directory.isEmpty()) {
+			return null;
+		}
+		// text files of the same name in different directories get different cached files,
+		// a collision is noticed by the size and modification time of the text file in the header
+		String path = textFile.getCanonicalPath();
+		return new File(directory, String.format("%s-%08x.%s%s", textFile.getName(), path.hashCode(), format, SUFFIX));
+	}
+
+	/**
+	 * Maps the given compiled file, if it exists and was compiled from the text file with its current size
+	 * and modification time, or returns null otherwise, e.g. if it was written by an older version of the compiler.
+	 */
+	private static StringTable openIfUpToDate(File compiledFile, File textFile) {
+		if (!compiledFile.exists()) {
+			return null;
+		}
+		StringTable table;
+		try {
+			table = StringTable.open(compiledFile);
+		} catch (IOException e) {
+			System.err.println("WARNING: Compiling " + textFile + " again: " + e.getMessage());
+			return null;
+		}
+		if (table.getSourceLength() != textFile.length() || table.getSourceLastModified() != textFile.lastModified()) {
+			return null;
+		}
+		return table;
+	}
+
+	/**
+	 * Writes the entries into the given file, replacing it at once, so that concurrent runs never map a partial file.
+	 */
+	private static void writeFile(List<Entry> entries, Format format, long sourceLength, long sourceLastModified,
+			File compiledFile) throws IOException {
+		File directory = compiledFile.getAbsoluteFile().getParentFile();
+		Files.createDirectories(directory.toPath());
+		Path temporary = Files.createTempFile(directory.toPath(), compiledFile.getName(), ".tmp");
+		try {
+			try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16)) {
+				write(entries, format, sourceLength, sourceLastModified, out);
+			}
+			try {
+				Files.move(temporary, compiledFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temporary, compiledFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	private static List<Entry> read(File textFile, Format format) throws IOException {
+		List<Entry> entries = new ArrayList<>();
+		if (format == Format.DISTRIBUTION) {
+			FrequencyDistribution<String> distribution = new FrequencyDistribution<String>();
+			try {
+				distribution.load(textFile);
+			} catch (ClassNotFoundException e) {
+				throw new IOException(e);
+			}
+			for (String key : distribution.getKeys()) {
+				entries.add(new Entry(key, String.valueOf(distribution.getCount(key)), entries.size()));
+			}
+			return entries;
+		}
+
+		try (BufferedReader reader = new BufferedReader(new FileReader(textFile))) {
+			String line;
+			int lineNumber = 0;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				String key;
+				String value = "";
+				switch (format) {
+				case WORDS:
+					key = line.trim();
+					break;
+				case LOWERCASE_WORDS:
+					key = line.toLowerCase().trim();
+					break;
+				case PRONUNCIATIONS:
+					key = new PhonetisaurusPronunciation(line).getInputWord();
+					value = line;
+					break;
+				default:
+					String[] columns = line.split("\t");
+					key = format == Format.LOWERCASE_COLUMNS ? columns[0].toLowerCase() : columns[0];
+					if (columns.length > 1)
+						value = columns[1];
+				}
+				if (key == null) {
+					continue;
+				}
+				if (key.getBytes(StandardCharsets.UTF_8).length > MAX_KEY_LENGTH) {
+					System.err.println(String.format("Key too long in line %d of %s! Ignoring line.", lineNumber, textFile));
+					continue;
+				}
+				entries.add(new Entry(key, value, lineNumber));
+			}
+		}
+		return entries;
+	}
+
+	private static void write(List<Entry> entries, Format format, long sourceLength, long sourceLastModified,
+			OutputStream stream) throws IOException {
+		// sort by key and keep the last occurrence of each key
+		Collections.sort(entries);
+		List<Entry> unique = new ArrayList<>(entries.size());
+		for (int i = 0; i < entries.size(); i++) {
+			if (i + 1 < entries.size() && NgramStoreBuilder.compare(entries.get(i).key, entries.get(i + 1).key) == 0)
+				continue;
+			unique.add(entries.get(i));
+		}
+
+		int count = unique.size();
+		int blockCount = (count + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		int[] blockOffsets = new int[blockCount];
+		long keyBytes = 0;
+		long valueBytes = 0;
+		for (int i = 0; i < count; i++) {
+			byte[] key = unique.get(i).key;
+			if (i % BLOCK_SIZE == 0) {
+				blockOffsets[i / BLOCK_SIZE] = (int) keyBytes;
+				keyBytes += 2 + key.length;
+			} else {
+				keyBytes += 4 + key.length - sharedPrefix(unique.get(i - 1).key, key);
+			}
+			valueBytes += unique.get(i).value.length;
+		}
+		byte[] formatBytes = format.name().getBytes(StandardCharsets.UTF_8);
+		long size = 4L * 7 + formatBytes.length + 8L * 2 + 4L * blockCount + 4L * (count + 1) + keyBytes + valueBytes;
+		if (size > Integer.MAX_VALUE) {
+			throw new IOException("The entries do not fit into a single table");
+		}
+
+		DataOutputStream out = new DataOutputStream(stream);
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(formatBytes.length);
+		out.write(formatBytes);
+		out.writeLong(sourceLength);
+		out.writeLong(sourceLastModified);
+		out.writeInt(count);
+		out.writeInt(BLOCK_SIZE);
+		out.writeInt(blockCount);
+		for (int offset : blockOffsets)
+			out.writeInt(offset);
+		int valueOffset = 0;
+		for (Entry entry : unique) {
+			out.writeInt(valueOffset);
+			valueOffset += entry.value.length;
+		}
+		out.writeInt(valueOffset);
+		out.writeInt((int) keyBytes);
+		for (int i = 0; i < count; i++) {
+			byte[] key = unique.get(i).key;
+			if (i % BLOCK_SIZE == 0) {
+				out.writeShort(key.length);
+				out.write(key);
+			} else {
+				int prefix = sharedPrefix(unique.get(i - 1).key, key);
+				out.writeShort(prefix);
+				out.writeShort(key.length - prefix);
+				out.write(key, prefix, key.length - prefix);
+			}
+		}
+		for (Entry entry : unique)
+			out.write(entry.value);
+		out.flush();
+	}
+
+	private static int sharedPrefix(byte[] a, byte[] b) {
+		int length = Math.min(a.length, b.length);
+		int i = 0;
+		while (i < length && a[i] == b[i])
+			i++;
+		return i;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage: LexiconCompiler format textFile...");
+			System.exit(1);
+		}
+		Format format = Format.valueOf(args[0]);
+		for (int i = 1; i < args.length; i++) {
+			File textFile = new File(args[i]);
+			long start = System.currentTimeMillis();
+			File compiledFile = compile(textFile, format);
+			StringTable table = StringTable.open(compiledFile);
+			System.out.println(String.format("Compiled %d entries of %s into %s (%d bytes, %d ms)",
+					table.size(), textFile, compiledFile, table.getSizeInBytes(), System.currentTimeMillis() - start));
+		}
+	}
+}
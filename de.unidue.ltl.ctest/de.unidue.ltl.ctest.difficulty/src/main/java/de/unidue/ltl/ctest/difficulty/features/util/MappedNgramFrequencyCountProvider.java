@@ -0,0 +1,434 @@
+package de.unidue.ltl.ctest.difficulty.features.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import de.tudarmstadt.ukp.dkpro.core.api.frequency.provider.FrequencyCountProvider;
+import de.tudarmstadt.ukp.dkpro.core.api.frequency.provider.FrequencyCountProviderBase;
+
+/**
+ * Provides log10 probabilities from an n-gram store built by the {@link NgramStoreBuilder}.
+ * <p>
+ * The store is memory-mapped instead of read into the heap, so opening it takes constant time
+ * and its pages are shared by all providers of the same file and by the operating system's page cache.
+ * Since a single mapping is limited to 2 GB, the store is mapped in segments of 1 GB,
+ * which overlap by a few bytes, so that no value read from the store spans two segments.
+ * A lookup is a binary search over the first n-grams of the front coded blocks and a scan of one block,
+ * which compares the bytes of the store with the phrase without decoding n-grams or boxing probabilities.
+ * Many phrases are looked up in one forward pass over the store, see {@link #getLog10Probabilities(List)}.
+ * <p>
+ * Probabilities are the same as those of the {@link NoCorpusInMemoryFrequencyCountProvider} for the same file,
+ * rounded to float precision. Providers are immutable and thread-safe; use {@link #open(String)}
+ * to share one provider per store in the JVM.
+ */
+public class MappedNgramFrequencyCountProvider extends FrequencyCountProviderBase implements SortedFrequencyCountProvider {
+
+	private static final Map<Path, MappedNgramFrequencyCountProvider> PROVIDERS = new ConcurrentHashMap<>();
+
+	/**
+	 * A per thread buffer for the UTF-8 bytes of the looked up phrase.
+	 */
+	private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[256]);
+
+	/**
+	 * The number of bits of the size of a segment of the mapping, i.e. segments of 1 GB.
+	 */
+	static final int SEGMENT_BITS = 30;
+	// the longest value read from the store
+	private static final int SEGMENT_OVERLAP = 8;
+
+	private final ByteBuffer[] segments;
+	private final int segmentBits;
+	private final long segmentMask;
+	private final String language;
+	private final int order;
+	private final int count;
+	private final int blockSize;
+	private final int blockCount;
+	private final long blockOffsetsStart;
+	private final long probabilitiesStart;
+	private final long keysStart;
+	private final double outOfVocabulary = -Double.MAX_VALUE;
+
+	/**
+	 * Maps the given store.
+	 *
+	 * @throws IOException if the store cannot be read or was not built by the {@link NgramStoreBuilder}.
+	 */
+	public MappedNgramFrequencyCountProvider(String storePath) throws IOException {
+		this(storePath, SEGMENT_BITS);
+	}
+
+	/**
+	 * Maps the given store in segments of {@code 1 << segmentBits} bytes.
+	 */
+	MappedNgramFrequencyCountProvider(String storePath, int segmentBits) throws IOException {
+		this.segmentBits = segmentBits;
+		this.segmentMask = (1L << segmentBits) - 1;
+		try (FileChannel channel = FileChannel.open(Paths.get(storePath), StandardOpenOption.READ)) {
+			long size = channel.size();
+			long segmentSize = 1L << segmentBits;
+			this.segments = new ByteBuffer[(int) ((size + segmentSize - 1) >>> segmentBits)];
+			for (int i = 0; i < segments.length; i++) {
+				long start = i * segmentSize;
+				// the mapping stays valid after the channel is closed
+				segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(size - start, segmentSize + SEGMENT_OVERLAP));
+			}
+		}
+		try {
+			if (getInt(0) != NgramStoreBuilder.MAGIC) {
+				throw new IOException("Not an n-gram store@" + storePath);
+			}
+			if (getInt(4) != NgramStoreBuilder.VERSION) {
+				throw new IOException("Unsupported n-gram store version " + getInt(4) + ", rebuild the store@" + storePath);
+			}
+			this.order = getInt(8);
+			this.count = getInt(12);
+			this.blockSize = getInt(16);
+			int languageLength = getInt(20);
+			byte[] languageBytes = new byte[languageLength];
+			for (int i = 0; i < languageLength; i++)
+				languageBytes[i] = get(24 + i);
+			this.language = new String(languageBytes, StandardCharsets.UTF_8);
+			this.blockCount = getInt(24 + languageLength);
+			this.blockOffsetsStart = 28 + languageLength;
+			this.probabilitiesStart = blockOffsetsStart + 8L * blockCount;
+			this.keysStart = probabilitiesStart + 4L * count;
+		} catch (IndexOutOfBoundsException e) {
+			throw new IOException("Truncated n-gram store@" + storePath, e);
+		}
+	}
+
+	/**
+	 * Returns the provider of the given store, mapping it on first use. All callers in the JVM share the provider.
+	 *
+	 * @throws IOException if the store cannot be read.
+	 */
+	public static MappedNgramFrequencyCountProvider open(String storePath) throws IOException {
+		Path path = Paths.get(storePath).toRealPath();
+		try {
+			return PROVIDERS.computeIfAbsent(path, p -> {
+				try {
+					return new MappedNgramFrequencyCountProvider(p.toString());
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	@Override
+	public double getProbability(String phrase) {
+		return Math.pow(10, getLog10Probability(phrase));
+	}
+
+	@Override
+	public double getLogProbability(String phrase) {
+		return Math.log(getProbability(phrase));
+	}
+
+	public double getLog10Probability(String phrase) {
+		if (!isInOrder(phrase)) {
+			return outOfVocabulary;
+		}
+		byte[] key = BUFFER.get();
+		if (key.length < 3 * phrase.length()) {
+			key = new byte[3 * phrase.length()];
+			BUFFER.set(key);
+		}
+		int length = encode(phrase, key);
+		int index = find(key, length, findBlock(key, length, 0));
+		return index < 0 ? outOfVocabulary : getFloat(probabilitiesStart + 4L * index);
+	}
+
+	@Override
+	public double[] getProbabilities(List<String> phrases) {
+		double[] values = getLog10Probabilities(phrases);
+		for (int i = 0; i < values.length; i++)
+			values[i] = Math.pow(10, values[i]);
+		return values;
+	}
+
+	@Override
+	public double[] getLogProbabilities(List<String> phrases) {
+		double[] values = getProbabilities(phrases);
+		for (int i = 0; i < values.length; i++)
+			values[i] = Math.log(values[i]);
+		return values;
+	}
+
+	/**
+	 * Returns the log10 probabilities of the given phrases, as {@link #getLog10Probability(String)} does,
+	 * in one forward pass over the store.
+	 * <p>
+	 * The phrases are looked up in the byte order of the store, which holds the n-grams of all orders in one sorted sequence.
+	 * The search for the block of a phrase starts at the block of the previous phrase,
+	 * so the store is read from front to back and each page is read at most once per batch.
+	 */
+	public double[] getLog10Probabilities(List<String> phrases) {
+		double[] values = new double[phrases.size()];
+		byte[][] keys = new byte[phrases.size()][];
+		Integer[] order = new Integer[phrases.size()];
+		int size = 0;
+		for (int i = 0; i < phrases.size(); i++) {
+			String phrase = phrases.get(i);
+			values[i] = outOfVocabulary;
+			if (isInOrder(phrase)) {
+				byte[] buffer = new byte[3 * phrase.length()];
+				keys[i] = Arrays.copyOf(buffer, encode(phrase, buffer));
+				order[size++] = i;
+			}
+		}
+		Arrays.sort(order, 0, size, Comparator.comparing((Integer i) -> keys[i], MappedNgramFrequencyCountProvider::compareBytes));
+
+		int block = 0;
+		for (int i = 0; i < size; i++) {
+			byte[] key = keys[order[i]];
+			int found = findBlock(key, key.length, block);
+			if (found < 0)
+				continue;
+			block = found;
+			int index = find(key, key.length, block);
+			if (index >= 0)
+				values[order[i]] = getFloat(probabilitiesStart + 4L * index);
+		}
+		return values;
+	}
+
+	/**
+	 * Returns whether the given phrase may be in the store, i.e. is not null and not longer than the order of the store.
+	 */
+	private boolean isInOrder(String phrase) {
+		if (phrase == null) {
+			return false;
+		}
+		int n = getPhraseLength(phrase);
+		if (n > order) {
+			System.err.println(String.format("Phrase length of %d exceeds language model's order (%d)! Phrase: %s. Returning %s instead",
+					n, order, phrase, outOfVocabulary));
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the number of n-grams in the store.
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Returns the length of the longest n-gram in the store.
+	 */
+	public int getOrder() {
+		return order;
+	}
+
+	/**
+	 * Returns the last block starting with a key not greater than the given one, searching from the given block on,
+	 * or -1 if there is none.
+	 */
+	private int findBlock(byte[] key, int length, int from) {
+		int lo = from;
+		int hi = blockCount - 1;
+		int block = -1;
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			long position = keysStart + getLong(blockOffsetsStart + 8L * mid);
+			int cmp = compare(position + 2, getShort(position) & 0xFFFF, key, 0, length);
+			if (cmp == 0)
+				return mid;
+			if (cmp < 0) {
+				block = mid;
+				lo = mid + 1;
+			} else {
+				hi = mid - 1;
+			}
+		}
+		return block;
+	}
+
+	/**
+	 * Returns the index of the given key in the given block, or -1 if it is not in the store.
+	 */
+	private int find(byte[] key, int length, int block) {
+		if (block < 0)
+			return -1;
+
+		long position = keysStart + getLong(blockOffsetsStart + 8L * block);
+		int headLength = getShort(position) & 0xFFFF;
+		if (compare(position + 2, headLength, key, 0, length) == 0)
+			return block * blockSize;
+		// the length of the prefix shared by the given key and the previous key, which is smaller than the given key
+		int matched = sharedPrefix(position + 2, headLength, key, length);
+		position += 2 + headLength;
+		int last = Math.min(count, (block + 1) * blockSize);
+		for (int index = block * blockSize + 1; index < last; index++) {
+			int prefix = getShort(position) & 0xFFFF;
+			int suffix = getShort(position + 2) & 0xFFFF;
+			long suffixStart = position + 4;
+			position = suffixStart + suffix;
+			if (prefix > matched) {
+				// differs from the given key where the previous key does, so it is smaller as well
+				continue;
+			}
+			if (prefix < matched) {
+				// greater than the previous key where the previous key equals the given key
+				return -1;
+			}
+			int j = 0;
+			while (j < suffix && matched + j < length && get(suffixStart + j) == key[matched + j])
+				j++;
+			if (j == suffix && matched + j == length)
+				return index;
+			if (matched + j == length)
+				return -1;
+			if (j < suffix && (get(suffixStart + j) & 0xFF) > (key[matched + j] & 0xFF))
+				return -1;
+			matched += j;
+		}
+		return -1;
+	}
+
+	private int compare(long position, int storedLength, byte[] key, int keyStart, int keyLength) {
+		int length = Math.min(storedLength, keyLength - keyStart);
+		for (int i = 0; i < length; i++) {
+			int cmp = Integer.compare(get(position + i) & 0xFF, key[keyStart + i] & 0xFF);
+			if (cmp != 0)
+				return cmp;
+		}
+		return Integer.compare(storedLength, keyLength - keyStart);
+	}
+
+	private static int compareBytes(byte[] a, byte[] b) {
+		int length = Math.min(a.length, b.length);
+		for (int i = 0; i < length; i++) {
+			int cmp = Integer.compare(a[i] & 0xFF, b[i] & 0xFF);
+			if (cmp != 0)
+				return cmp;
+		}
+		return Integer.compare(a.length, b.length);
+	}
+
+	private int sharedPrefix(long position, int storedLength, byte[] key, int keyLength) {
+		int length = Math.min(storedLength, keyLength);
+		int i = 0;
+		while (i < length && get(position + i) == key[i])
+			i++;
+		return i;
+	}
+
+	private byte get(long position) {
+		return segments[(int) (position >>> segmentBits)].get((int) (position & segmentMask));
+	}
+
+	private short getShort(long position) {
+		return segments[(int) (position >>> segmentBits)].getShort((int) (position & segmentMask));
+	}
+
+	private int getInt(long position) {
+		return segments[(int) (position >>> segmentBits)].getInt((int) (position & segmentMask));
+	}
+
+	private long getLong(long position) {
+		return segments[(int) (position >>> segmentBits)].getLong((int) (position & segmentMask));
+	}
+
+	private float getFloat(long position) {
+		return segments[(int) (position >>> segmentBits)].getFloat((int) (position & segmentMask));
+	}
+
+	/**
+	 * Writes the UTF-8 bytes of the given phrase to the given buffer, which holds at least three bytes per char.
+	 * Unpaired surrogates are replaced by '?', as by {@code String.getBytes}.
+	 */
+	private static int encode(String phrase, byte[] buffer) {
+		int length = 0;
+		for (int i = 0; i < phrase.length(); i++) {
+			char c = phrase.charAt(i);
+			if (c < 0x80) {
+				buffer[length++] = (byte) c;
+			} else if (c < 0x800) {
+				buffer[length++] = (byte) (0xC0 | (c >> 6));
+				buffer[length++] = (byte) (0x80 | (c & 0x3F));
+			} else if (Character.isHighSurrogate(c) && i + 1 < phrase.length() && Character.isLowSurrogate(phrase.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, phrase.charAt(++i));
+				buffer[length++] = (byte) (0xF0 | (codePoint >> 18));
+				buffer[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+				buffer[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+				buffer[length++] = (byte) (0x80 | (codePoint & 0x3F));
+			} else if (Character.isSurrogate(c)) {
+				buffer[length++] = (byte) '?';
+			} else {
+				buffer[length++] = (byte) (0xE0 | (c >> 12));
+				buffer[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+				buffer[length++] = (byte) (0x80 | (c & 0x3F));
+			}
+		}
+		return length;
+	}
+
+	/**
+	 * Returns the number of words of the given phrase as {@code FrequencyUtils.getPhraseLength}, 
+	 * i.e. as {@code phrase.split(" ").length}, without splitting the phrase: trailing spaces are ignored
+	 * and a phrase of spaces only has no words.
+	 */
+	static int getPhraseLength(String phrase) {
+		int end = phrase.length();
+		while (end > 0 && phrase.charAt(end - 1) == ' ')
+			end--;
+		if (end == 0)
+			return phrase.isEmpty() ? 1 : 0;
+		int n = 1;
+		for (int i = 0; i < end; i++) {
+			if (phrase.charAt(i) == ' ')
+				n++;
+		}
+		return n;
+	}
+
+	@Override
+	public long getNrOfTokens() throws IOException {
+		throw new IOException("Corpus information not available in this Provider!");
+	}
+
+	@Override
+	public long getNrOfNgrams(int n) throws IOException {
+		throw new IOException("Corpus information not available in this Provider!");
+	}
+
+	@Override
+	public long getNrOfDistinctNgrams(int n) throws IOException {
+		throw new IOException("Corpus information not available in this Provider!");
+	}
+
+	@Override
+	public Iterator<String> getNgramIterator(int n) throws IOException {
+		throw new IOException("Corpus information not available in this Provider!");
+	}
+
+	@Override
+	public String getLanguage() throws IOException {
+		return this.language;
+	}
+
+	@Override
+	protected long getFrequencyFromProvider(String phrase) throws IOException {
+		throw new IOException("Corpus information not available in this Provider!");
+	}
+}
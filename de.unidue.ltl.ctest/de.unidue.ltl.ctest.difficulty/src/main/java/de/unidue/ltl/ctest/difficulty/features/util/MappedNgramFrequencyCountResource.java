@@ -0,0 +1,38 @@
+package de.unidue.ltl.ctest.difficulty.features.util;
+
+import java.util.List;
+
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
+
+import de.tudarmstadt.ukp.dkpro.core.api.frequency.FrequencyCountResourceBase;
+
+/**
+ * A frequency count resource for an n-gram store built by the {@link NgramStoreBuilder}.
+ * All resources of the same store share one {@link MappedNgramFrequencyCountProvider}.
+ * Batches of phrases are looked up in one pass over the store.
+ */
+public class MappedNgramFrequencyCountResource extends FrequencyCountResourceBase
+		implements SortedFrequencyCountProvider {
+
+	/**
+	 * Path to the n-gram store.
+	 */
+	public static final String PARAM_STORE_FILE = "StoreFilePath";
+	@ConfigurationParameter(name = PARAM_STORE_FILE, mandatory = true)
+	protected String storeFilePath;
+
+	@Override
+	protected void initializeProvider() throws Exception {
+		this.provider = MappedNgramFrequencyCountProvider.open(storeFilePath);
+	}
+
+	@Override
+	public double[] getProbabilities(List<String> phrases) {
+		return ((MappedNgramFrequencyCountProvider) provider).getProbabilities(phrases);
+	}
+
+	@Override
+	public double[] getLogProbabilities(List<String> phrases) {
+		return ((MappedNgramFrequencyCountProvider) provider).getLogProbabilities(phrases);
+	}
+}
@@ -0,0 +1,171 @@
+package de.unidue.ltl.ctest.difficulty.features.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.dkpro.tc.api.type.TextClassificationTarget;
+
+import de.tudarmstadt.ukp.dkpro.core.api.frequency.provider.FrequencyCountProvider;
+import de.tudarmstadt.ukp.dkpro.core.api.metadata.type.DocumentMetaData;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+import de.unidue.ltl.ctest.difficulty.types.GapCandidate;
+import de.unidue.ltl.ctest.type.Gap;
+
+/**
+ * Plans the n-gram lookups of the probability feature extractors for a whole document.
+ * <p>
+ * On the first target of a document, all n-grams, which an extractor queries for the targets of the document,
+ * are registered with a {@link BatchFrequencyCountProvider} and resolved at once.
+ * {@link #plan(JCas, String, FrequencyCountProvider)} covers the log probabilities of the {@code GapProbabilityExtractor}
+ * and the {@code NeighbourProbabilityExtractor}, {@link #planUnigrams(JCas, FrequencyCountProvider)} the probabilities
+ * of the {@code UnigramFrequencyFeatureExtractor} and {@link #planCandidates(JCas, String, FrequencyCountProvider, double)}
+ * the probabilities of the {@code CandidateEvaluator}.
+ * Other providers are left alone. Each extractor holds its own planner.
+ * <p>
+ * A document is identified by its id and its text, so a reused CAS is planned again for the next document.
+ */
+public class NgramPlanner {
+
+	private String plannedId;
+	private String plannedText;
+
+	/**
+	 * Registers and resolves the log probabilities of the n-grams of the given document, unless this was done before
+	 * or the given provider does not support batches.
+	 *
+	 * @see #getNgrams(JCas, String)
+	 */
+	public void plan(JCas jcas, String language, FrequencyCountProvider provider) throws IOException {
+		if (!(provider instanceof BatchFrequencyCountProvider) || isPlanned(jcas)) {
+			return;
+		}
+		BatchFrequencyCountProvider batchProvider = (BatchFrequencyCountProvider) provider;
+		for (String phrase : getNgrams(jcas, language)) {
+			batchProvider.register(phrase);
+		}
+		batchProvider.resolve();
+		setPlanned(jcas);
+	}
+
+	/**
+	 * Registers and resolves the probabilities of the targets of the given document, unless this was done before
+	 * or the given provider does not support batches.
+	 */
+	public void planUnigrams(JCas jcas, FrequencyCountProvider provider) throws IOException {
+		if (!(provider instanceof BatchFrequencyCountProvider) || isPlanned(jcas)) {
+			return;
+		}
+		BatchFrequencyCountProvider batchProvider = (BatchFrequencyCountProvider) provider;
+		for (TextClassificationTarget target : JCasUtil.select(jcas, TextClassificationTarget.class)) {
+			batchProvider.registerProbability(target.getCoveredText());
+		}
+		batchProvider.resolve();
+		setPlanned(jcas);
+	}
+
+	/**
+	 * Registers and resolves the probabilities of the gap candidates of the given document, unless this was done before
+	 * or the given provider does not support batches.
+	 * <p>
+	 * The candidate words are resolved first. The bigrams and trigrams around a candidate are only resolved,
+	 * if the probability of the word exceeds the unigram threshold, as the {@code CandidateEvaluator} only queries them then.
+	 */
+	public void planCandidates(JCas jcas, String language, FrequencyCountProvider provider, double unigramThreshold)
+			throws IOException {
+		if (!(provider instanceof BatchFrequencyCountProvider) || isPlanned(jcas)) {
+			return;
+		}
+		BatchFrequencyCountProvider batchProvider = (BatchFrequencyCountProvider) provider;
+		for (TextClassificationTarget target : JCasUtil.select(jcas, TextClassificationTarget.class)) {
+			for (String word : getCandidateWords(target)) {
+				batchProvider.registerProbability(CTestFeaturesUtil.getWeb1TFormat(word, language));
+			}
+		}
+		batchProvider.resolve();
+
+		for (TextClassificationTarget target : JCasUtil.select(jcas, TextClassificationTarget.class)) {
+			List<String> words = getCandidateWords(target);
+			if (words.isEmpty()) {
+				continue;
+			}
+			String left = ContextProvider.getLeftContextString(jcas, Token.class, target, 1);
+			String right = ContextProvider.getRightContextString(jcas, Token.class, target, 1);
+			for (String word : words) {
+				// answered from memory, the words were resolved above
+				if (provider.getProbability(CTestFeaturesUtil.getWeb1TFormat(word, language)) > unigramThreshold) {
+					batchProvider.registerProbability(CTestFeaturesUtil.getWeb1TFormat(left + " " + word + " " + right, language));
+					batchProvider.registerProbability(CTestFeaturesUtil.getWeb1TFormat(left + " " + word, language));
+					batchProvider.registerProbability(CTestFeaturesUtil.getWeb1TFormat(word + " " + right, language));
+				}
+			}
+		}
+		batchProvider.resolve();
+		setPlanned(jcas);
+	}
+
+	/**
+	 * Returns the n-grams queried by the log probability feature extractors for the targets of the given document.
+	 */
+	public static Set<String> getNgrams(JCas jcas, String language) {
+		Set<String> ngrams = new HashSet<String>();
+		for (TextClassificationTarget target : JCasUtil.select(jcas, TextClassificationTarget.class)) {
+			// GapProbabilityExtractor
+			ngrams.add(CTestFeaturesUtil.getWeb1TFormat(target.getCoveredText(), language));
+			try {
+				ngrams.add(CTestFeaturesUtil.getWeb1TFormat(CTestFeaturesUtil.getCoveringTrigram(target, jcas), language));
+			} catch (IndexOutOfBoundsException e) {
+				// the extractor fails for this target as well
+			}
+			ngrams.add(CTestFeaturesUtil.getWeb1TFormat(ContextProvider.getLeftContextString(jcas, Token.class, target, 2), language));
+			ngrams.add(CTestFeaturesUtil.getWeb1TFormat(ContextProvider.getRightContextString(jcas, Token.class, target, 2), language));
+
+			// NeighbourProbabilityExtractor
+			try {
+				ngrams.add(ContextProvider.getLeftContextString(jcas, Token.class, target, 3));
+			} catch (IndexOutOfBoundsException e) {
+				// there is no left trigram
+			}
+			try {
+				ngrams.add(ContextProvider.getRightContextString(jcas, Token.class, target, 3));
+			} catch (IndexOutOfBoundsException e) {
+				// there is no right trigram
+			}
+		}
+		return ngrams;
+	}
+
+	/**
+	 * Returns the candidate words of the first gap of the given target, as the {@code CandidateEvaluator} does.
+	 */
+	private static List<String> getCandidateWords(TextClassificationTarget target) {
+		List<String> words = new ArrayList<String>();
+		List<Gap> gaps = JCasUtil.selectCovered(Gap.class, target);
+		if (!gaps.isEmpty()) {
+			for (GapCandidate candidate : JCasUtil.selectCovered(GapCandidate.class, gaps.get(0))) {
+				words.add(candidate.getCandidateWord());
+			}
+		}
+		return words;
+	}
+
+	private boolean isPlanned(JCas jcas) {
+		// equals returns at once for the same text instance, i.e. for all targets of a document
+		return plannedText != null && plannedText.equals(jcas.getDocumentText())
+				&& Objects.equals(plannedId, getDocumentId(jcas));
+	}
+
+	private void setPlanned(JCas jcas) {
+		plannedId = getDocumentId(jcas);
+		plannedText = jcas.getDocumentText();
+	}
+
+	private static String getDocumentId(JCas jcas) {
+		return JCasUtil.exists(jcas, DocumentMetaData.class) ? DocumentMetaData.get(jcas).getDocumentId() : null;
+	}
+}
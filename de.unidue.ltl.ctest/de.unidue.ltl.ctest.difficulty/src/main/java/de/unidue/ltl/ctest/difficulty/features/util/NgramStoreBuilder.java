@@ -0,0 +1,334 @@
+package de.unidue.ltl.ctest.difficulty.features.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+import de.tudarmstadt.ukp.dkpro.core.api.frequency.util.FrequencyUtils;
+
+/**
+ * Builds an n-gram store for the {@link MappedNgramFrequencyCountProvider} from a file of n-grams and
+ * their log10 probabilities, as read by the {@link NoCorpusInMemoryFrequencyCountProvider}.
+ * <p>
+ * The n-grams are sorted by their UTF-8 bytes and front coded in blocks of {@value #BLOCK_SIZE}:
+ * the first n-gram of each block is stored in full, each following one as the length of the prefix
+ * shared with its predecessor and the remaining bytes. The probabilities are stored as floats.
+ * If an n-gram occurs more than once, its last probability is used.
+ * <p>
+ * Layout, big-endian:
+ * <pre>
+ * int magic, int version, int order, int count, int block size,
+ * int language length, language bytes (UTF-8),
+ * int block count, long[block count] block offsets (relative to the keys),
+ * float[count] log10 probabilities,
+ * keys: per block one unsigned short length and the bytes of the first n-gram,
+ *       then per n-gram an unsigned short shared prefix length, an unsigned short suffix length and the suffix bytes
+ * </pre>
+ * The n-grams are sorted externally: runs of at most {@value #DEFAULT_RUN_SIZE} n-grams are sorted in memory
+ * and written to temporary files next to the store, which are then merged into the store.
+ * The memory of the build is therefore bounded by the run size and the block offsets, not by the number of n-grams.
+ * <p>
+ * Usage: {@code NgramStoreBuilder frequencyFile storeFile language [separator] [hasHeader]}
+ */
+public class NgramStoreBuilder {
+
+	static final int MAGIC = 0x4E47524D;
+	static final int VERSION = 2;
+	static final int BLOCK_SIZE = 16;
+
+	/**
+	 * The default number of n-grams sorted in memory at once.
+	 */
+	public static final int DEFAULT_RUN_SIZE = 1 << 20;
+
+	private static final int MAX_KEY_LENGTH = 0xFFFF;
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private static class Entry implements Comparable<Entry> {
+		private final byte[] key;
+		private final float log10Probability;
+		private final int line;
+
+		private Entry(byte[] key, float log10Probability, int line) {
+			this.key = key;
+			this.log10Probability = log10Probability;
+			this.line = line;
+		}
+
+		@Override
+		public int compareTo(Entry other) {
+			int cmp = compare(key, other.key);
+			return cmp != 0 ? cmp : Integer.compare(line, other.line);
+		}
+
+		private void write(DataOutputStream out) throws IOException {
+			out.writeShort(key.length);
+			out.write(key);
+			out.writeFloat(log10Probability);
+			out.writeInt(line);
+		}
+
+		private static Entry read(DataInputStream in) throws IOException {
+			byte[] key = new byte[in.readUnsignedShort()];
+			in.readFully(key);
+			return new Entry(key, in.readFloat(), in.readInt());
+		}
+	}
+
+	/**
+	 * A sorted run in a temporary file, read one entry at a time.
+	 */
+	private static class Run implements Closeable {
+		private final DataInputStream in;
+		private int remaining;
+		private Entry current;
+
+		private Run(Path file, int size) throws IOException {
+			this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE));
+			this.remaining = size;
+		}
+
+		/**
+		 * Reads the next entry, returns whether there is one.
+		 */
+		private boolean next() throws IOException {
+			if (remaining == 0) {
+				current = null;
+				return false;
+			}
+			remaining--;
+			current = Entry.read(in);
+			return true;
+		}
+
+		@Override
+		public void close() throws IOException {
+			in.close();
+		}
+	}
+
+	/**
+	 * Builds the store for the given frequency file.
+	 *
+	 * @param  frequencyFile The file with one n-gram and its log10 probability per line.
+	 * @param  storeFile The file to write the store to.
+	 * @param  language The language of the n-grams.
+	 * @param  separator The regular expression separating n-gram and probability.
+	 * @param  header Whether the first line of the frequency file is a header.
+	 * @return The number of n-grams in the store.
+	 *
+	 * @throws IOException if the frequency file cannot be read or the store cannot be written.
+	 */
+	public static int build(String frequencyFile, String storeFile, String language, String separator, boolean header) throws IOException {
+		return build(frequencyFile, storeFile, language, separator, header, DEFAULT_RUN_SIZE);
+	}
+
+	/**
+	 * Builds the store for the given frequency file, sorting at most {@code runSize} n-grams in memory at once.
+	 *
+	 * @see #build(String, String, String, String, boolean)
+	 */
+	public static int build(String frequencyFile, String storeFile, String language, String separator, boolean header, int runSize)
+			throws IOException {
+		if (runSize < 1) {
+			throw new IllegalArgumentException("The run size must be positive.");
+		}
+		Path storePath = Paths.get(storeFile).toAbsolutePath();
+		List<Path> runFiles = new ArrayList<>();
+		List<Integer> runSizes = new ArrayList<>();
+		Path probabilities = null;
+		Path keys = null;
+		try {
+			int order = -1;
+			List<Entry> entries = new ArrayList<>();
+			try (Stream<String> lines = Files.lines(Paths.get(frequencyFile), StandardCharsets.UTF_8)) {
+				int lineNumber = 0;
+				for (String line : (Iterable<String>) lines.skip(header ? 1 : 0)::iterator) {
+					lineNumber++;
+					String[] parts = line.split(separator);
+					if (parts.length < 2) {
+						System.err.println(String.format("Broken line detected: \"%s\"! Ignoring line.", line));
+						continue;
+					}
+					float log10Probability;
+					try {
+						log10Probability = Float.parseFloat(parts[1]);
+					} catch (NumberFormatException e) {
+						System.err.println(String.format("Cannot parse probability value: \"%s\" in line \"%s\"! Ignoring line.", parts[1], line));
+						continue;
+					}
+					byte[] key = parts[0].getBytes(StandardCharsets.UTF_8);
+					if (key.length > MAX_KEY_LENGTH) {
+						System.err.println(String.format("N-gram too long in line \"%s\"! Ignoring line.", line));
+						continue;
+					}
+					entries.add(new Entry(key, log10Probability, lineNumber));
+					order = Math.max(order, FrequencyUtils.getPhraseLength(parts[0]));
+					if (entries.size() == runSize) {
+						runFiles.add(writeRun(entries, storePath));
+						runSizes.add(entries.size());
+						entries.clear();
+					}
+				}
+			}
+			if (!entries.isEmpty()) {
+				runFiles.add(writeRun(entries, storePath));
+				runSizes.add(entries.size());
+			}
+			entries = null;
+
+			// the sections are merged into separate files, since their sizes are only known afterwards
+			probabilities = createTempFile(storePath, ".probabilities");
+			keys = createTempFile(storePath, ".keys");
+			long[] blockOffsets = new long[16];
+			int count = 0;
+			try (DataOutputStream probabilitiesOut = open(probabilities); 
+					DataOutputStream keysOut = open(keys)) {
+				List<Run> runs = new ArrayList<>();
+				try {
+					PriorityQueue<Run> queue = new PriorityQueue<>((a, b) -> a.current.compareTo(b.current));
+					for (int i = 0; i < runFiles.size(); i++) {
+						Run run = new Run(runFiles.get(i), runSizes.get(i));
+						runs.add(run);
+						if (run.next())
+							queue.add(run);
+					}
+
+					// the entries arrive sorted by key and line, so the last entry of equal keys is kept
+					Entry pending = null;
+					byte[] previous = null;
+					long keyBytes = 0;
+					while (!queue.isEmpty() || pending != null) {
+						Entry next = null;
+						if (!queue.isEmpty()) {
+							Run run = queue.poll();
+							next = run.current;
+							if (run.next())
+								queue.add(run);
+						}
+						if (pending != null && (next == null || compare(pending.key, next.key) != 0)) {
+							if (count == Integer.MAX_VALUE) {
+								throw new IOException("Too many n-grams for a single store: " + frequencyFile);
+							}
+							probabilitiesOut.writeFloat(pending.log10Probability);
+							if (count % BLOCK_SIZE == 0) {
+								int block = count / BLOCK_SIZE;
+								if (block == blockOffsets.length)
+									blockOffsets = Arrays.copyOf(blockOffsets, 2 * block);
+								blockOffsets[block] = keyBytes;
+								keysOut.writeShort(pending.key.length);
+								keysOut.write(pending.key);
+								keyBytes += 2 + pending.key.length;
+							} else {
+								int prefix = sharedPrefix(previous, pending.key);
+								keysOut.writeShort(prefix);
+								keysOut.writeShort(pending.key.length - prefix);
+								keysOut.write(pending.key, prefix, pending.key.length - prefix);
+								keyBytes += 4 + pending.key.length - prefix;
+							}
+							previous = pending.key;
+							count++;
+						}
+						pending = next;
+					}
+				} finally {
+					for (Run run : runs)
+						run.close();
+				}
+			}
+			for (Path runFile : runFiles)
+				Files.deleteIfExists(runFile);
+
+			int blockCount = (count + BLOCK_SIZE - 1) / BLOCK_SIZE;
+			byte[] languageBytes = language.getBytes(StandardCharsets.UTF_8);
+			try (DataOutputStream out = open(storePath)) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(order);
+				out.writeInt(count);
+				out.writeInt(BLOCK_SIZE);
+				out.writeInt(languageBytes.length);
+				out.write(languageBytes);
+				out.writeInt(blockCount);
+				for (int i = 0; i < blockCount; i++)
+					out.writeLong(blockOffsets[i]);
+				Files.copy(probabilities, out);
+				Files.copy(keys, out);
+			}
+			return count;
+		} finally {
+			for (Path runFile : runFiles)
+				Files.deleteIfExists(runFile);
+			if (probabilities != null)
+				Files.deleteIfExists(probabilities);
+			if (keys != null)
+				Files.deleteIfExists(keys);
+		}
+	}
+
+	/**
+	 * Sorts the given entries and writes them to a new temporary file.
+	 */
+	private static Path writeRun(List<Entry> entries, Path storePath) throws IOException {
+		Collections.sort(entries);
+		Path runFile = createTempFile(storePath, ".run");
+		try (DataOutputStream out = open(runFile)) {
+			for (Entry entry : entries)
+				entry.write(out);
+		}
+		return runFile;
+	}
+
+	private static Path createTempFile(Path storePath, String suffix) throws IOException {
+		return Files.createTempFile(storePath.getParent(), storePath.getFileName().toString(), suffix);
+	}
+
+	private static DataOutputStream open(Path file) throws IOException {
+		return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE));
+	}
+
+	/**
+	 * Compares the given byte strings lexicographically, treating the bytes as unsigned.
+	 */
+	static int compare(byte[] a, byte[] b) {
+		int length = Math.min(a.length, b.length);
+		for (int i = 0; i < length; i++) {
+			int cmp = Integer.compare(a[i] & 0xFF, b[i] & 0xFF);
+			if (cmp != 0)
+				return cmp;
+		}
+		return Integer.compare(a.length, b.length);
+	}
+
+	private static int sharedPrefix(byte[] a, byte[] b) {
+		int length = Math.min(a.length, b.length);
+		int i = 0;
+		while (i < length && a[i] == b[i])
+			i++;
+		return i;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 3 || args.length > 5) {
+			System.err.println("Usage: NgramStoreBuilder frequencyFile storeFile language [separator] [hasHeader]");
+			System.exit(1);
+		}
+		String separator = args.length > 3 ? args[3] : "\t";
+		boolean header = args.length > 4 ? Boolean.parseBoolean(args[4]) : true;
+		int count = build(args[0], args[1], args[2], separator, header);
+		System.out.println("Stored " + count + " n-grams in " + args[1]);
+	}
+}
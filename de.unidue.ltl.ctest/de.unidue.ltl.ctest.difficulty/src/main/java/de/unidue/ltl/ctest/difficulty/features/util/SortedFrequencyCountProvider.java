@@ -0,0 +1,25 @@
+package de.unidue.ltl.ctest.difficulty.features.util;
+
+import java.io.IOException;
+import java.util.List;
+
+import de.tudarmstadt.ukp.dkpro.core.api.frequency.provider.FrequencyCountProvider;
+
+/**
+ * A {@code FrequencyCountProvider}, which looks up the values of many phrases in one pass over its sorted n-grams,
+ * instead of one search per phrase.
+ *
+ * @see CachingFrequencyCountProvider#resolve()
+ */
+public interface SortedFrequencyCountProvider extends FrequencyCountProvider {
+
+	/**
+	 * Returns the probabilities of the given phrases, in the order of the phrases.
+	 */
+	double[] getProbabilities(List<String> phrases) throws IOException;
+
+	/**
+	 * Returns the log probabilities of the given phrases, in the order of the phrases.
+	 */
+	double[] getLogProbabilities(List<String> phrases) throws IOException;
+}
@@ -0,0 +1,291 @@
+package de.unidue.ltl.ctest.difficulty.features.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable table of strings and their values, as compiled by the {@link LexiconCompiler}.
+ * <p>
+ * The keys are sorted by their UTF-8 bytes and front coded in blocks; a lookup is a binary search
+ * over the first keys of the blocks and a scan of one block. The values are stored one after another,
+ * located by a column of offsets. A table is either memory-mapped from its file, so it takes
+ * no heap space and opens in constant time, or held in a heap buffer, if it was compiled on the fly.
+ * Tables are thread-safe.
+ */
+public class StringTable {
+
+	private final ByteBuffer table;
+	private final boolean mapped;
+	private final String format;
+	private final long sourceLength;
+	private final long sourceLastModified;
+	private final int count;
+	private final int blockSize;
+	private final int blockCount;
+	private final int blockOffsetsStart;
+	private final int valueOffsetsStart;
+	private final int keysStart;
+	private final int valuesStart;
+	private volatile Long valueSum;
+
+	StringTable(ByteBuffer table, boolean mapped) throws IOException {
+		this.table = table;
+		this.mapped = mapped;
+		try {
+			if (table.getInt(0) != LexiconCompiler.MAGIC || table.getInt(4) != LexiconCompiler.VERSION) {
+				throw new IOException("Not a compiled lexicon");
+			}
+			int formatLength = table.getInt(8);
+			this.format = new String(getBytes(12, formatLength), StandardCharsets.UTF_8);
+			int position = 12 + formatLength;
+			this.sourceLength = table.getLong(position);
+			this.sourceLastModified = table.getLong(position + 8);
+			position += 16;
+			this.count = table.getInt(position);
+			this.blockSize = table.getInt(position + 4);
+			this.blockCount = table.getInt(position + 8);
+			this.blockOffsetsStart = position + 12;
+			this.valueOffsetsStart = blockOffsetsStart + 4 * blockCount;
+			int keysLength = table.getInt(valueOffsetsStart + 4 * (count + 1));
+			this.keysStart = valueOffsetsStart + 4 * (count + 1) + 4;
+			this.valuesStart = keysStart + keysLength;
+		} catch (IndexOutOfBoundsException e) {
+			throw new IOException("Truncated compiled lexicon", e);
+		}
+	}
+
+	/**
+	 * Maps the given compiled lexicon.
+	 *
+	 * @throws IOException if the file cannot be read or was not written by the {@link LexiconCompiler}.
+	 */
+	public static StringTable open(File file) throws IOException {
+		ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Compiled lexicon too large@" + file);
+			}
+			// the mapping stays valid after the channel is closed
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		try {
+			return new StringTable(buffer, true);
+		} catch (IOException e) {
+			throw new IOException(e.getMessage() + "@" + file, e);
+		}
+	}
+
+	/**
+	 * Returns whether the table contains the given key.
+	 */
+	public boolean contains(String key) {
+		return find(key) >= 0;
+	}
+
+	/**
+	 * Returns the value of the given key, or null if the table does not contain the key.
+	 */
+	public String get(String key) {
+		int index = find(key);
+		return index < 0 ? null : getValue(index);
+	}
+
+	/**
+	 * Returns the value of the entry with the given index.
+	 */
+	public String getValue(int index) {
+		int start = table.getInt(valueOffsetsStart + 4 * index);
+		int end = table.getInt(valueOffsetsStart + 4 * (index + 1));
+		return new String(getBytes(valuesStart + start, end - start), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Passes all keys and their values to the given action, in the order of their UTF-8 bytes.
+	 */
+	public void forEach(BiConsumer<String, String> action) {
+		byte[] key = new byte[256];
+		int position = keysStart;
+		for (int index = 0; index < count; index++) {
+			int length;
+			if (index % blockSize == 0) {
+				length = table.getShort(position) & 0xFFFF;
+				key = ensureCapacity(key, length);
+				readBytes(position + 2, key, 0, length);
+				position += 2 + length;
+			} else {
+				int prefix = table.getShort(position) & 0xFFFF;
+				int suffix = table.getShort(position + 2) & 0xFFFF;
+				length = prefix + suffix;
+				key = ensureCapacity(key, length);
+				readBytes(position + 4, key, prefix, suffix);
+				position += 4 + suffix;
+			}
+			action.accept(new String(key, 0, length, StandardCharsets.UTF_8), getValue(index));
+		}
+	}
+
+	/**
+	 * Returns the number of entries.
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Returns the format the table was compiled with, see {@link LexiconCompiler.Format}.
+	 */
+	public String getFormat() {
+		return format;
+	}
+
+	/**
+	 * Returns the size of the text file, which the table was compiled from.
+	 */
+	public long getSourceLength() {
+		return sourceLength;
+	}
+
+	/**
+	 * Returns the modification time of the text file, which the table was compiled from.
+	 */
+	public long getSourceLastModified() {
+		return sourceLastModified;
+	}
+
+	/**
+	 * Returns whether the table is mapped from its file.
+	 */
+	public boolean isMapped() {
+		return mapped;
+	}
+
+	/**
+	 * Returns the size of the table in bytes.
+	 */
+	public int getSizeInBytes() {
+		return table.capacity();
+	}
+
+	/**
+	 * Returns the heap space taken by the table, which is 0 if the table is mapped.
+	 */
+	public int getHeapBytes() {
+		return mapped ? 0 : table.capacity();
+	}
+
+	/**
+	 * Returns the sum of the values parsed as numbers, e.g. the total count of a compiled {@code FrequencyDistribution}.
+	 * The sum is computed on the first call and kept with the table, so the users of a shared table compute it once.
+	 *
+	 * @throws NumberFormatException if a value is not a number.
+	 */
+	public long getValueSum() {
+		Long sum = valueSum;
+		if (sum == null) {
+			long total = 0;
+			for (int i = 0; i < count; i++) {
+				total += Long.parseLong(getValue(i));
+			}
+			sum = total;
+			valueSum = sum;
+		}
+		return sum;
+	}
+
+	/**
+	 * Returns the index of the given key, or -1 if it is not in the table.
+	 */
+	private int find(String keyString) {
+		byte[] key = keyString.getBytes(StandardCharsets.UTF_8);
+
+		// the last block starting with a key not greater than the given one
+		int lo = 0;
+		int hi = blockCount - 1;
+		int block = -1;
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			int position = keysStart + table.getInt(blockOffsetsStart + 4 * mid);
+			int cmp = compare(position + 2, table.getShort(position) & 0xFFFF, key, key.length);
+			if (cmp == 0)
+				return mid * blockSize;
+			if (cmp < 0) {
+				block = mid;
+				lo = mid + 1;
+			} else {
+				hi = mid - 1;
+			}
+		}
+		if (block < 0)
+			return -1;
+
+		int position = keysStart + table.getInt(blockOffsetsStart + 4 * block);
+		int length = table.getShort(position) & 0xFFFF;
+		byte[] current = new byte[Math.max(length, 64)];
+		readBytes(position + 2, current, 0, length);
+		position += 2 + length;
+		int last = Math.min(count, (block + 1) * blockSize);
+		for (int index = block * blockSize + 1; index < last; index++) {
+			int prefix = table.getShort(position) & 0xFFFF;
+			int suffix = table.getShort(position + 2) & 0xFFFF;
+			length = prefix + suffix;
+			current = ensureCapacity(current, length);
+			readBytes(position + 4, current, prefix, suffix);
+			position += 4 + suffix;
+			int cmp = compare(current, length, key);
+			if (cmp == 0)
+				return index;
+			if (cmp > 0)
+				return -1;
+		}
+		return -1;
+	}
+
+	private int compare(int position, int storedLength, byte[] key, int keyLength) {
+		int length = Math.min(storedLength, keyLength);
+		for (int i = 0; i < length; i++) {
+			int cmp = Integer.compare(table.get(position + i) & 0xFF, key[i] & 0xFF);
+			if (cmp != 0)
+				return cmp;
+		}
+		return Integer.compare(storedLength, keyLength);
+	}
+
+	private static int compare(byte[] stored, int storedLength, byte[] key) {
+		int length = Math.min(storedLength, key.length);
+		for (int i = 0; i < length; i++) {
+			int cmp = Integer.compare(stored[i] & 0xFF, key[i] & 0xFF);
+			if (cmp != 0)
+				return cmp;
+		}
+		return Integer.compare(storedLength, key.length);
+	}
+
+	private byte[] getBytes(int position, int length) {
+		byte[] bytes = new byte[length];
+		readBytes(position, bytes, 0, length);
+		return bytes;
+	}
+
+	private void readBytes(int position, byte[] bytes, int offset, int length) {
+		for (int i = 0; i < length; i++)
+			bytes[offset + i] = table.get(position + i);
+	}
+
+	private static byte[] ensureCapacity(byte[] bytes, int length) {
+		if (bytes.length >= length)
+			return bytes;
+		byte[] larger = new byte[Math.max(length, 2 * bytes.length)];
+		System.arraycopy(bytes, 0, larger, 0, bytes.length);
+		return larger;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("StringTable[format=%s, entries=%d, bytes=%d, mapped=%b]", format, count, table.capacity(), mapped);
+	}
+}
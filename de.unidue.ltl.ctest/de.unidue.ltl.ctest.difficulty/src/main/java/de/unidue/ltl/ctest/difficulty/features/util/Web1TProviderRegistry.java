@@ -0,0 +1,163 @@
+package de.unidue.ltl.ctest.difficulty.features.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import de.tudarmstadt.ukp.dkpro.core.api.frequency.provider.FrequencyCountProvider;
+import de.tudarmstadt.ukp.dkpro.core.api.frequency.provider.FrequencyCountProviderBase;
+import de.tudarmstadt.ukp.dkpro.core.api.resources.DkproContext;
+import de.tudarmstadt.ukp.dkpro.core.frequency.Web1TFileAccessProvider;
+
+/**
+ * Opens one {@code Web1TFileAccessProvider} per language and n-gram range and shares it
+ * between all callers, instead of reading the Web1T index files again for every lookup.
+ * <p>
+ * The Web1T files of a language are expected in the subdirectory named after the language code.
+ * The returned providers are thread-safe: the lookups of one provider are serialized,
+ * lookups of different providers run in parallel.
+ * {@link #close()} releases all providers; later calls of {@link #getProvider} open them again.
+ *
+ * @see Web1TProviderRegistryResource
+ */
+public class Web1TProviderRegistry implements Closeable {
+
+	private volatile File web1TDirectory;
+	private final Map<String, SynchronizedProvider> providers = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a new {@code Web1TProviderRegistry} for the Web1T workspace of the DKPro context.
+	 * The workspace is determined on the first call of {@link #getProvider}, so a registry can be created
+	 * without {@code DKPRO_HOME}, as long as no provider is needed.
+	 */
+	public Web1TProviderRegistry() {
+		this(null);
+	}
+
+	/**
+	 * Creates a new {@code Web1TProviderRegistry} for the given directory, which holds a subdirectory per language.
+	 */
+	public Web1TProviderRegistry(File web1TDirectory) {
+		this.web1TDirectory = web1TDirectory;
+	}
+
+	/**
+	 * Returns the shared provider of the given language and n-gram range, opening it on first use.
+	 *
+	 * @throws IOException if the workspace cannot be determined or the Web1T files of the language cannot be read.
+	 */
+	public FrequencyCountProvider getProvider(String language, int minN, int maxN) throws IOException {
+		String key = language + "/" + minN + "-" + maxN;
+		File directory = getWeb1TDirectory();
+		try {
+			return providers.computeIfAbsent(key, k -> {
+				try {
+					return new SynchronizedProvider(new Web1TFileAccessProvider(language,
+							new File(directory, language), minN, maxN));
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	private File getWeb1TDirectory() throws IOException {
+		if (web1TDirectory == null) {
+			web1TDirectory = new DkproContext().getWorkspace("web1t");
+		}
+		return web1TDirectory;
+	}
+
+	/**
+	 * Returns the number of open providers.
+	 */
+	public int size() {
+		return providers.size();
+	}
+
+	/**
+	 * Releases all providers, closing those which hold files open.
+	 */
+	@Override
+	public void close() throws IOException {
+		List<SynchronizedProvider> closed = new ArrayList<>(providers.values());
+		providers.clear();
+		IOException failure = null;
+		for (SynchronizedProvider provider : closed) {
+			try {
+				provider.close();
+			} catch (IOException e) {
+				failure = e;
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Serializes the lookups of a provider, which is not thread-safe itself.
+	 */
+	private static class SynchronizedProvider extends FrequencyCountProviderBase implements FrequencyCountProvider {
+
+		private final FrequencyCountProvider provider;
+
+		private SynchronizedProvider(FrequencyCountProvider provider) {
+			this.provider = provider;
+		}
+
+		@Override
+		public synchronized double getProbability(String phrase) throws IOException {
+			return provider.getProbability(phrase);
+		}
+
+		@Override
+		public synchronized double getLogProbability(String phrase) throws IOException {
+			return provider.getLogProbability(phrase);
+		}
+
+		@Override
+		protected synchronized long getFrequencyFromProvider(String phrase) throws IOException {
+			return provider.getFrequency(phrase);
+		}
+
+		@Override
+		public synchronized long getNrOfTokens() throws IOException {
+			return provider.getNrOfTokens();
+		}
+
+		@Override
+		public synchronized long getNrOfNgrams(int n) throws IOException {
+			return provider.getNrOfNgrams(n);
+		}
+
+		@Override
+		public synchronized long getNrOfDistinctNgrams(int n) throws IOException {
+			return provider.getNrOfDistinctNgrams(n);
+		}
+
+		@Override
+		public synchronized Iterator<String> getNgramIterator(int n) throws IOException {
+			return provider.getNgramIterator(n);
+		}
+
+		@Override
+		public String getLanguage() throws IOException {
+			return provider.getLanguage();
+		}
+
+		private synchronized void close() throws IOException {
+			if (provider instanceof Closeable) {
+				((Closeable) provider).close();
+			}
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package de.unidue.ltl.ctest.difficulty.features.util;
+
+import static org.apache.uima.util.Level.WARNING;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+import org.apache.uima.fit.component.Resource_ImplBase;
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
+import org.apache.uima.resource.ResourceInitializationException;
+import org.apache.uima.resource.ResourceSpecifier;
+
+/**
+ * An external resource holding a {@link Web1TProviderRegistry}, so that all components bound
+ * to the same description share the opened Web1T providers for the whole pipeline.
+ * The providers are released when the pipeline is destroyed.
+ */
+public class Web1TProviderRegistryResource extends Resource_ImplBase {
+
+	/**
+	 * The directory holding a subdirectory of Web1T files per language.
+	 * Defaults to the Web1T workspace of the DKPro context.
+	 */
+	public static final String PARAM_WEB1T_DIRECTORY = "Web1TDirectory";
+	@ConfigurationParameter(name = PARAM_WEB1T_DIRECTORY, mandatory = false)
+	protected File web1TDirectory;
+
+	private Web1TProviderRegistry registry;
+
+	@Override
+	public boolean initialize(ResourceSpecifier aSpecifier, Map<String, Object> aAdditionalParams)
+			throws ResourceInitializationException {
+		if (!super.initialize(aSpecifier, aAdditionalParams)) {
+			return false;
+		}
+		// the workspace of the DKPro context is only determined when a provider is needed
+		registry = web1TDirectory == null ? new Web1TProviderRegistry() : new Web1TProviderRegistry(web1TDirectory);
+		return true;
+	}
+
+	/**
+	 * Returns the shared registry.
+	 */
+	public Web1TProviderRegistry getRegistry() {
+		return registry;
+	}
+
+	@Override
+	public void destroy() {
+		if (registry != null) {
+			try {
+				registry.close();
+			} catch (IOException e) {
+				getLogger().log(WARNING, "Could not close the Web1T providers: " + e.getMessage());
+			}
+		}
+		super.destroy();
+	}
+}
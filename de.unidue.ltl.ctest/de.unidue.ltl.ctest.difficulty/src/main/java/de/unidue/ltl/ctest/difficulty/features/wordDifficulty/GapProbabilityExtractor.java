@@ -37,12 +37,14 @@ import de.unidue.ltl.ctest.difficulty.annotations.Cloze;
 import de.unidue.ltl.ctest.difficulty.annotations.XTest;
 import de.unidue.ltl.ctest.difficulty.features.util.CTestFeaturesUtil;
 import de.unidue.ltl.ctest.difficulty.features.util.ContextProvider;
+import de.unidue.ltl.ctest.difficulty.features.util.NgramPlanner;
 
 /**
  * This extractor calculates the log probability of the trigram (target + 2 words), 
  * the log probability of the two preceeding words 
  * as well as the log probability of the 2 succeeding words.
  * Additionally the unigram probability of the target word is calculated.
+ * If the frequency provider supports batches, the n-grams of all targets of a document are looked up at once.
  */
 @CTest
 @XTest
@@ -65,6 +67,7 @@ public class GapProbabilityExtractor
     @ExternalResource(key = PARAM_FREQUENCY_PROVIDER)
     private FrequencyCountProvider provider;
 
+    private final NgramPlanner planner = new NgramPlanner();
 
     public Set<Feature> extract(JCas jcas, TextClassificationTarget target)
         throws TextClassificationException
@@ -77,6 +80,8 @@ public class GapProbabilityExtractor
         String rightBigram = ContextProvider.getRightContextString(jcas, Token.class, target, 2);
 
         try { 
+            planner.plan(jcas, language, provider);
+
             Double unigramProb = CTestFeaturesUtil.getLogProbability(provider, language, word);
             Double trigramProb = CTestFeaturesUtil.getLogProbability(provider, language, trigram);
             Double leftBigramProb = CTestFeaturesUtil.getLogProbability(provider, language, leftBigram);
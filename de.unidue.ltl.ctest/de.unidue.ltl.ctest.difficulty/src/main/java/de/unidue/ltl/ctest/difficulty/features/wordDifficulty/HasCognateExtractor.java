@@ -20,11 +20,9 @@ package de.unidue.ltl.ctest.difficulty.features.wordDifficulty;
 import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.uima.fit.descriptor.ConfigurationParameter;
 import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
@@ -42,6 +40,9 @@ import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS_ADJ;
 import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS_NOUN;
 import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS_VERB;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+import de.unidue.ltl.ctest.difficulty.features.util.LexicalResourceRegistry;
+import de.unidue.ltl.ctest.difficulty.features.util.LexiconCompiler;
+import de.unidue.ltl.ctest.difficulty.features.util.StringTable;
 /**
  * Base class for cognate extractors.
  */
@@ -54,7 +55,7 @@ public abstract class HasCognateExtractor
     @ConfigurationParameter(name = PARAM_COGNATESFILE, mandatory = true)
     protected static File cognatesFile;
 
-    private Set<String> cognates = new HashSet<String>();
+    private LexicalResourceRegistry.Handle<StringTable> cognates;
 
     
     protected abstract String getFeatureName();
@@ -65,18 +66,26 @@ public abstract class HasCognateExtractor
     {
         super.initialize(aSpecifier, aAdditionalParams);
         
+        // the cognates are shared by all instances, and mapped if they are compiled
         try {
-			for (String line : FileUtils.readLines(cognatesFile)) {
-			    String[] word = line.split("\t");
-			    cognates.add(word[0]);
-			}
-		} catch (IOException e) {
-			throw new ResourceInitializationException(e);
-		}       
+            cognates = LexicalResourceRegistry.acquire(cognatesFile, LexiconCompiler.Format.COLUMNS.name(),
+                    file -> LexiconCompiler.load(file, LexiconCompiler.Format.COLUMNS));
+        } catch (IOException e) {
+            throw new ResourceInitializationException(e);
+        }
         
         return true;
     }
 
+    @Override
+    public void destroy()
+    {
+        if (cognates != null) {
+            cognates.close();
+        }
+        super.destroy();
+    }
+
     @Override
     public Set<Feature> extract(JCas jcas, TextClassificationTarget classificationTarget)
         throws TextClassificationException
@@ -90,7 +99,7 @@ public abstract class HasCognateExtractor
         if (pos instanceof POS_NOUN || pos instanceof POS_VERB || pos instanceof POS_ADJ) {
             String[] helpverbs = de.unidue.ltl.ctest.difficulty.features.util.WordFilters.getHelpverbs(jcas.getDocumentLanguage());
             if (!Arrays.asList(helpverbs).contains(tok.getCoveredText())) {
-                cognateFound = cognates.contains(lemma.toLowerCase());
+                cognateFound = cognates.get().contains(lemma.toLowerCase());
             }
         }
         
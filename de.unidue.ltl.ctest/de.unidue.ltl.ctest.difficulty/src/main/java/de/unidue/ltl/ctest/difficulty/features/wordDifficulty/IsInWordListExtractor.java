@@ -19,11 +19,9 @@ package de.unidue.ltl.ctest.difficulty.features.wordDifficulty;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.uima.fit.descriptor.ConfigurationParameter;
 import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
@@ -37,6 +35,9 @@ import org.dkpro.tc.api.features.FeatureType;
 import org.dkpro.tc.api.type.TextClassificationTarget;
 
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+import de.unidue.ltl.ctest.difficulty.features.util.LexicalResourceRegistry;
+import de.unidue.ltl.ctest.difficulty.features.util.LexiconCompiler;
+import de.unidue.ltl.ctest.difficulty.features.util.StringTable;
 
 /**
  *  We would prefer to have the wordListLocation and the feature name as parameters.
@@ -55,7 +56,7 @@ public abstract class IsInWordListExtractor
     
     public static final String FN_isInList = "isInList";
     
-    private Set<String> words;
+    private LexicalResourceRegistry.Handle<StringTable> words;
     
     protected abstract File getWordList();
     
@@ -75,18 +76,24 @@ public abstract class IsInWordListExtractor
     private void loadWordList(File wordList)
         throws ResourceInitializationException
     {
-        words = new HashSet<String>();
-        
+        // the lists are shared by all instances, and mapped if they are compiled
+        LexiconCompiler.Format format = lowercaseList ? LexiconCompiler.Format.LOWERCASE_WORDS
+                : LexiconCompiler.Format.WORDS;
         try {
-			for (String line : FileUtils.readLines(wordList)) {
-				if (lowercaseList) {
-					line = line.toLowerCase();
-				}
-			    words.add(line.trim());
-			}
-		} catch (IOException e) {
-			throw new ResourceInitializationException(e);
-		}
+            words = LexicalResourceRegistry.acquire(wordList, format.name(),
+                    file -> LexiconCompiler.load(file, format));
+        } catch (IOException e) {
+            throw new ResourceInitializationException(e);
+        }
+    }
+
+    @Override
+    public void destroy()
+    {
+        if (words != null) {
+            words.close();
+        }
+        super.destroy();
     }
 
     @Override
@@ -101,6 +108,6 @@ public abstract class IsInWordListExtractor
             lemma = lemma.toLowerCase();
         }
         
-        return new Feature(FN_isInList + getFeatureSuffix(), words.contains(lemma), FeatureType.BOOLEAN).asSet();
+        return new Feature(FN_isInList + getFeatureSuffix(), words.get().contains(lemma), FeatureType.BOOLEAN).asSet();
     }
 }
\ No newline at end of file
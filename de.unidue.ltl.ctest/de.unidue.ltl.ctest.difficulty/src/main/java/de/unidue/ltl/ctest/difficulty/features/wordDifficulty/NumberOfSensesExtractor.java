@@ -19,11 +19,9 @@ package de.unidue.ltl.ctest.difficulty.features.wordDifficulty;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.uima.fit.descriptor.ConfigurationParameter;
 import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
@@ -37,6 +35,9 @@ import org.dkpro.tc.api.features.FeatureType;
 import org.dkpro.tc.api.type.TextClassificationTarget;
 
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+import de.unidue.ltl.ctest.difficulty.features.util.LexicalResourceRegistry;
+import de.unidue.ltl.ctest.difficulty.features.util.LexiconCompiler;
+import de.unidue.ltl.ctest.difficulty.features.util.StringTable;
 import de.unidue.ltl.ctest.difficulty.annotations.CTest;
 import de.unidue.ltl.ctest.difficulty.annotations.Cloze;
 import de.unidue.ltl.ctest.difficulty.annotations.XTest;
@@ -58,7 +59,7 @@ public class NumberOfSensesExtractor
     @ConfigurationParameter(name = PARAM_SENSES_FILE, mandatory = true)
     private File ubySensesFile;
     
-    private Map<String, Integer> senses = new HashMap<String, Integer>();
+    private LexicalResourceRegistry.Handle<StringTable> sensesHandle;
     
     @Override
     public boolean initialize(ResourceSpecifier aSpecifier, Map<String, Object> aAdditionalParams)
@@ -66,11 +67,11 @@ public class NumberOfSensesExtractor
     {
         super.initialize(aSpecifier, aAdditionalParams);
 
+        // the senses are shared by all instances, and mapped if they are compiled
         try {
-		    for (String line : FileUtils.readLines(ubySensesFile)) {
-		        String[] item = line.split("\t");
-		        senses.put(item[0].toLowerCase(), Integer.parseInt(item[1]));
-		    }
+            sensesHandle = LexicalResourceRegistry.acquire(ubySensesFile,
+                    LexiconCompiler.Format.LOWERCASE_COLUMNS.name(),
+                    file -> LexiconCompiler.load(file, LexiconCompiler.Format.LOWERCASE_COLUMNS));
         }
         catch (IOException e) {
             throw new ResourceInitializationException(e);
@@ -79,20 +80,31 @@ public class NumberOfSensesExtractor
         return true;
     }
 
+    @Override
+    public void destroy()
+    {
+        if (sensesHandle != null) {
+            sensesHandle.close();
+        }
+        super.destroy();
+    }
+
     @Override
     public Set<Feature> extract(JCas jcas, TextClassificationTarget classificationTarget)
         throws TextClassificationException
     {
         Token tok = JCasUtil.selectCovered(Token.class, classificationTarget).get(0);
         String lemma = tok.getLemma().getValue();
+        StringTable senses = sensesHandle.get();
         
         int nrOfSenses = 0;
         
-        if (senses.containsKey(lemma)) {
-            nrOfSenses = senses.get(lemma);
+        String value = senses.get(lemma);
+        if (value == null) {
+            value = senses.get(lemma.toLowerCase());
         }
-        else if (senses.containsKey(lemma.toLowerCase())) {
-            nrOfSenses = senses.get(lemma.toLowerCase());
+        if (value != null) {
+            nrOfSenses = Integer.parseInt(value);
         }
         
         return new Feature(FN_NR_OF_SENSES, nrOfSenses, FeatureType.NUMERIC).asSet();
@@ -34,8 +34,10 @@ import org.dkpro.tc.api.features.FeatureExtractorResource_ImplBase;
 import org.dkpro.tc.api.features.FeatureType;
 import org.dkpro.tc.api.type.TextClassificationTarget;
 
-import de.tudarmstadt.ukp.dkpro.core.api.frequency.util.FrequencyDistribution;
 import de.tudarmstadt.ukp.dkpro.core.api.lexmorph.type.pos.POS;
+import de.unidue.ltl.ctest.difficulty.features.util.LexicalResourceRegistry;
+import de.unidue.ltl.ctest.difficulty.features.util.LexiconCompiler;
+import de.unidue.ltl.ctest.difficulty.features.util.StringTable;
 
 /**
  * This Feature Extractor returns a feature list containing the frequency distribution of the 
@@ -58,7 +60,8 @@ public class PosFrequencyExtractor
     @ConfigurationParameter(name = PARAM_POS_DISTRIBUTION, mandatory = true)
     protected static File posDistributionFile;
 
-    private FrequencyDistribution<String> posDistribution;
+    private LexicalResourceRegistry.Handle<StringTable> posDistributionHandle;
+    private StringTable posDistribution;
     private double numberOfEntries;
 
     @Override
@@ -67,27 +70,45 @@ public class PosFrequencyExtractor
     {
 
         super.initialize(aSpecifier, aAdditionalParams);
-        posDistribution = new FrequencyDistribution<String>();
 
+        // the distribution is shared by all instances, and mapped if it is compiled;
+        // its total count is computed once by the shared loader
         try {
-            posDistribution.load(posDistributionFile);
+            posDistributionHandle = LexicalResourceRegistry.acquire(posDistributionFile,
+                    LexiconCompiler.Format.DISTRIBUTION.name(),
+                    file -> {
+                        StringTable distribution = LexiconCompiler.load(file, LexiconCompiler.Format.DISTRIBUTION);
+                        distribution.getValueSum();
+                        return distribution;
+                    });
         }
         catch (IOException e) {
             throw new ResourceInitializationException(e);
         }
-        catch (ClassNotFoundException e) {
-            throw new ResourceInitializationException(e);
-        }
         
-        numberOfEntries = posDistribution.getN();
         return true;
 
     }
 
+    @Override
+    public void destroy()
+    {
+        if (posDistributionHandle != null) {
+            posDistributionHandle.close();
+        }
+        super.destroy();
+    }
+
     @Override
     public Set<Feature> extract(JCas jcas, TextClassificationTarget classificationTarget)
         throws TextClassificationException
     {
+    	if (posDistribution == null) {
+    		// waits for the distribution, if it is loaded in the background
+    		StringTable distribution = posDistributionHandle.get();
+    		numberOfEntries = distribution.getValueSum();
+    		posDistribution = distribution;
+    	}
     	try {
     		String left = JCasUtil.selectPreceding(jcas, POS.class, classificationTarget, 1).get(0)
                     .getType().getShortName();
@@ -99,7 +120,8 @@ public class PosFrequencyExtractor
                     .getType().getShortName();
 
             String posSequence = left + " " + solPos + " " + right;
-            long count = posDistribution.getCount(posSequence);
+            String value = posDistribution.get(posSequence);
+            long count = value == null ? 0 : Long.parseLong(value);
 
             if (count > 0) {
                 double prob = Math.log(count / numberOfEntries);
@@ -19,11 +19,9 @@ package de.unidue.ltl.ctest.difficulty.features.wordDifficulty;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -45,7 +43,10 @@ import org.dkpro.tc.api.features.FeatureType;
 import org.dkpro.tc.api.type.TextClassificationTarget;
 
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+import de.unidue.ltl.ctest.difficulty.features.util.LexicalResourceRegistry;
+import de.unidue.ltl.ctest.difficulty.features.util.LexiconCompiler;
 import de.unidue.ltl.ctest.difficulty.features.util.PhonetisaurusPronunciation;
+import de.unidue.ltl.ctest.difficulty.features.util.StringTable;
 
 public class SpellingDifficultyExtractor extends FeatureExtractorResource_ImplBase implements FeatureExtractor {
 	// ADJUST THIS FEATURE; CURRENTLY WORKS ONLY FOR ENGLISH
@@ -54,8 +55,9 @@ public class SpellingDifficultyExtractor extends FeatureExtractorResource_ImplBa
 	public static final String PHON_SCORE = "PhoneticScore";
 	public static final String CMU_SIM = "StringSimilarityBasicEnglishCMU";
 
-	Map<String, PhonetisaurusPronunciation> collectedBEProunciations = new HashMap<String, PhonetisaurusPronunciation>();
-	Map<String, String> cmu = new HashMap<String, String>();
+	// the pronunciations are shared by all instances, and mapped if they are compiled
+	LexicalResourceRegistry.Handle<StringTable> collectedBEProunciations;
+	LexicalResourceRegistry.Handle<StringTable> cmu;
 	File pronunciationsFile;
 	Double cmuSimilarity;
 
@@ -74,42 +76,29 @@ public class SpellingDifficultyExtractor extends FeatureExtractorResource_ImplBa
 		return true;
 	}
 
-	private void setCmuPronunciations() throws ResourceInitializationException, IOException {
-		String cmuline = "";
-		File cmuDictFile;
-
-		cmuDictFile = new File("src/main/resources/wordLists/cmudict_nostress.csv");
-
-		BufferedReader cmuReader = new BufferedReader(new FileReader(cmuDictFile));
-
-		while ((cmuline = cmuReader.readLine()) != null) {
-
-			String[] cmuinput = cmuline.split("\t");
-			try {
-				cmu.put(cmuinput[0], cmuinput[1]);
-			} catch (IndexOutOfBoundsException e) {
-				getLogger().log(Level.INFO, "wrong cmu input: " + cmuline);
-			}
+	@Override
+	public void destroy() {
+		if (collectedBEProunciations != null) {
+			collectedBEProunciations.close();
 		}
+		if (cmu != null) {
+			cmu.close();
+		}
+		super.destroy();
+	}
 
-		cmuReader.close();
-
+	private void setCmuPronunciations() throws ResourceInitializationException, IOException {
+		File cmuDictFile = new File("src/main/resources/wordLists/cmudict_nostress.csv");
+		cmu = LexicalResourceRegistry.acquire(cmuDictFile, LexiconCompiler.Format.COLUMNS.name(),
+				file -> LexiconCompiler.load(file, LexiconCompiler.Format.COLUMNS));
 	}
 
 	private void setPronunciations() throws ResourceInitializationException, IOException {
 
 		pronunciationsFile = new File("src/main/resources/wordLists/pronunciationsEN.txt");
-
-		String line = "";
-
-		BufferedReader phonetisaurusReader = new BufferedReader(new FileReader(pronunciationsFile));
-
-		while ((line = phonetisaurusReader.readLine()) != null) {
-
-			PhonetisaurusPronunciation be = new PhonetisaurusPronunciation(line);
-			collectedBEProunciations.put(be.getInputWord(), be);
-		}
-		phonetisaurusReader.close();
+		collectedBEProunciations = LexicalResourceRegistry.acquire(pronunciationsFile,
+				LexiconCompiler.Format.PRONUNCIATIONS.name(),
+				file -> LexiconCompiler.load(file, LexiconCompiler.Format.PRONUNCIATIONS));
 	}
 
 	@Override
@@ -188,8 +177,9 @@ public class SpellingDifficultyExtractor extends FeatureExtractorResource_ImplBa
 
 	private PhonetisaurusPronunciation getBePronunciation(String solution) throws IOException, InterruptedException {
 		PhonetisaurusPronunciation bePronunciation;
-		if (collectedBEProunciations.containsKey(solution)) {
-			bePronunciation = collectedBEProunciations.get(solution);
+		String line = collectedBEProunciations.get().get(solution);
+		if (line != null) {
+			bePronunciation = new PhonetisaurusPronunciation(line);
 
 		} else {
 			// TODO we do not have Phonetisaurus at the moment
@@ -201,8 +191,9 @@ public class SpellingDifficultyExtractor extends FeatureExtractorResource_ImplBa
 
 	private String getCmuPronunciation(String solution) {
 		solution.replace("-", "");
-		if (cmu.containsKey(solution)) {
-			return cmu.get(solution);
+		String pronunciation = cmu.get().get(solution);
+		if (pronunciation != null) {
+			return pronunciation;
 		} else {
 			getLogger().log(Level.INFO, "No cmu pronunciation for: " + solution);
 			return "";
@@ -34,6 +34,7 @@ import de.tudarmstadt.ukp.dkpro.core.api.frequency.provider.FrequencyCountProvid
 import de.unidue.ltl.ctest.difficulty.annotations.CTest;
 import de.unidue.ltl.ctest.difficulty.annotations.Cloze;
 import de.unidue.ltl.ctest.difficulty.annotations.XTest;
+import de.unidue.ltl.ctest.difficulty.features.util.NgramPlanner;
 
 /**
  * Returns the unigram frequency of the gap solution.
@@ -55,6 +56,7 @@ public class UnigramFrequencyFeatureExtractor
     @ExternalResource(key = RESOURCE_FREQUENCY_PROVIDER)
     private FrequencyCountProvider provider;
 
+    private final NgramPlanner planner = new NgramPlanner();
 
 	@Override
     public Set<Feature> extract(JCas jcas, TextClassificationTarget target)
@@ -62,6 +64,7 @@ public class UnigramFrequencyFeatureExtractor
 
     {
         try {
+            planner.planUnigrams(jcas, provider);
             return new Feature("UnigramFrequency", provider.getProbability(target.getCoveredText()), FeatureType.NUMERIC).asSet();
         }
         catch (IOException e) {
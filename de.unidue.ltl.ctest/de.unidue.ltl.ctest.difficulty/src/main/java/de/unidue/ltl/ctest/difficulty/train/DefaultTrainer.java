@@ -2,17 +2,19 @@ package de.unidue.ltl.ctest.difficulty.train;
 
 import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngineDescription;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
-import org.apache.uima.analysis_engine.AnalysisEngine;
 import org.apache.uima.analysis_engine.AnalysisEngineDescription;
 import org.apache.uima.collection.CollectionReaderDescription;
-import org.apache.uima.fit.factory.AnalysisEngineFactory;
 import org.apache.uima.fit.factory.CollectionReaderFactory;
+import org.apache.uima.resource.ExternalResourceDescription;
 import org.apache.uima.resource.ResourceInitializationException;
+import org.dkpro.tc.api.features.TcFeature;
 import org.dkpro.tc.ml.builder.FeatureMode;
 import org.dkpro.tc.ml.builder.LearningMode;
 import org.dkpro.tc.ml.builder.MLBackend;
@@ -24,6 +26,7 @@ import org.dkpro.tc.ml.weka.WekaAdapter;
 
 import de.unidue.ltl.ctest.difficulty.experiments.DKProTCModel;
 import de.unidue.ltl.ctest.difficulty.experiments.Experiment;
+import de.unidue.ltl.ctest.difficulty.experiments.LinearModelEstimator;
 import de.unidue.ltl.ctest.difficulty.experiments.Model;
 import de.unidue.ltl.ctest.difficulty.experiments.OutcomeSetter;
 import de.unidue.ltl.ctest.io.CTestReader;
@@ -31,12 +34,18 @@ import de.unidue.ltl.ctest.io.dkpro.CTestCollectionReader;
 import de.unidue.ltl.ctest.type.Gap;
 import weka.classifiers.functions.SMO;
 import weka.classifiers.functions.SMOreg;
+import weka.core.SerializationHelper;
 
 public class DefaultTrainer implements ModelTrainer {
 	private static String CTEST = "CTest-Experiment-";
 	private static String TRAIN_TEST = "TrainTest-";
 	private static String CV = "-Fold-CrossValidation-";
 	
+	/**
+	 * The file in the model directory, which holds the descriptions of the feature extractors of a regression model.
+	 */
+	public static final String FEATURE_EXTRACTORS = "featureExtractors.ser";
+	
 	private ExtendedExperimentBuilder builder;
 	
 	/*
@@ -98,20 +107,103 @@ public class DefaultTrainer implements ModelTrainer {
 			.dataReaderTrain(getCollectionReader(trainPath, reader))
 			.outputFolder(modelPath)
 			.run();
+		
+		// lets loadModel score linear regression models with a shared predictor, see LinearModelEstimator
+		File extractors = new File(modelPath, FEATURE_EXTRACTORS);
+		if (experiment.isRegression()) {
+			List<ExternalResourceDescription> descriptions = new ArrayList<>();
+			for (TcFeature feature : experiment.getFeatureSet()) {
+				descriptions.add(feature.getActualValue());
+			}
+			SerializationHelper.write(extractors.getAbsolutePath(),
+					descriptions.toArray(new ExternalResourceDescription[descriptions.size()]));
+		} else {
+			extractors.delete();
+		}
 	}
 
+	/**
+	 * Loads the model at the specified path with one estimator per available processor.
+	 * 
+	 * @see #loadModel(String, int)
+	 */
 	@Override
 	public Model loadModel(String modelPath) throws IOException {
+		return loadModel(modelPath, Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Loads the model at the specified path, such that up to {@code poolSize} predictions may run concurrently.
+	 * The estimators are created on demand, see {@link DKProTCModel}.
+	 * <p>
+	 * Linear regression models saved by {@link #saveModel} are scored by a {@link LinearModelEstimator}:
+	 * the classifier and feature space are loaded once per model and shared by all estimators,
+	 * which only hold their own feature extractors. Other models, i.e. classification models, non-linear models
+	 * and models saved without the descriptions of their feature extractors, are scored by a
+	 * {@code PreTrainedModelProviderUnitMode}, which holds its own copy of the classifier and feature space,
+	 * so that memory grows with the estimators in use.
+	 * 
+	 * @param modelPath path to the model directory.
+	 * @param poolSize the maximum number of estimators.
+	 * @return the model
+	 * @throws IOException, if the model could not be loaded.
+	 */
+	public Model loadModel(String modelPath, int poolSize) throws IOException {
+		return loadModel(modelPath, null, poolSize);
+	}
+	
+	/**
+	 * Loads the model at the specified path, with the given preprocessing run before the estimator.
+	 * The preprocessing of a loaded model cannot be changed afterwards, since it is created once per estimator.
+	 * 
+	 * @param modelPath path to the model directory.
+	 * @param preprocessing the description of the preprocessing, may be null.
+	 * @param poolSize the maximum number of estimators.
+	 * @return the model
+	 * @throws IOException, if the model could not be loaded.
+	 * 
+	 * @see #loadModel(String, int)
+	 */
+	public Model loadModel(String modelPath, AnalysisEngineDescription preprocessing, int poolSize) throws IOException {
 		try {
-			AnalysisEngine estimator = AnalysisEngineFactory.createEngine(
-					PreTrainedModelProviderUnitMode.class,
-					PreTrainedModelProviderUnitMode.PARAM_NAME_TARGET_ANNOTATION, Gap.class,
-					PreTrainedModelProviderUnitMode.PARAM_TC_MODEL_LOCATION, modelPath);
-			return new DKProTCModel(estimator);
+			AnalysisEngineDescription estimator = getLinearEstimator(modelPath);
+			if (estimator == null) {
+				estimator = createEngineDescription(
+						PreTrainedModelProviderUnitMode.class,
+						PreTrainedModelProviderUnitMode.PARAM_NAME_TARGET_ANNOTATION, Gap.class,
+						PreTrainedModelProviderUnitMode.PARAM_TC_MODEL_LOCATION, modelPath);
+			}
+			return new DKProTCModel(estimator, preprocessing, poolSize);
 		} catch (ResourceInitializationException e) {
-			System.out.println("Could not load model from disk!");
-			throw new IOException(e);
+			throw new IOException("Could not load model from disk!", e);
+		}
+	}
+	
+	/**
+	 * Returns the description of a {@link LinearModelEstimator} for the model at the specified path,
+	 * or null if the model is not a linear regression model with saved feature extractors.
+	 */
+	private AnalysisEngineDescription getLinearEstimator(String modelPath) throws IOException, ResourceInitializationException {
+		File extractors = new File(modelPath, FEATURE_EXTRACTORS);
+		if (!extractors.exists()) {
+			return null;
+		}
+		try {
+			// exports the shared predictor, so that the first estimator finds it loaded
+			LinearModelEstimator.getPredictor(modelPath);
+		} catch (IllegalArgumentException e) {
+			return null;
 		}
+		ExternalResourceDescription[] descriptions;
+		try {
+			descriptions = (ExternalResourceDescription[]) SerializationHelper.read(extractors.getAbsolutePath());
+		} catch (Exception e) {
+			throw new IOException("Could not read feature extractors@" + modelPath, e);
+		}
+		return createEngineDescription(
+				LinearModelEstimator.class,
+				LinearModelEstimator.PARAM_TC_MODEL_LOCATION, modelPath,
+				LinearModelEstimator.RES_FEATURE_EXTRACTORS, Arrays.asList(descriptions));
 	}
 	
 	private String getNameAndDateString(Experiment experiment) {
@@ -0,0 +1,149 @@
+package de.unidue.ltl.ctest.difficulty.train;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.dkpro.tc.core.Constants;
+
+import de.unidue.ltl.ctest.difficulty.experiments.LinearPredictor;
+import weka.classifiers.Classifier;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.SerializationHelper;
+import weka.core.Utils;
+
+/**
+ * Exports a model saved by {@link DefaultTrainer#saveModel} as a {@link LinearPredictor}.
+ * <p>
+ * The default regression model, an {@code SMOreg} with a linear kernel on normalized features,
+ * is an affine function of the raw feature values. Instead of reading the weights and the normalization
+ * from the internals of the classifier, the exporter scores the zero vector and each unit vector,
+ * which yields the bias and the weight of each feature with normalization and target scaling folded in.
+ * The result is then checked against the classifier on random feature vectors.
+ * Models, which are not linear in their features, e.g. with a polynomial or RBF kernel, or classification models,
+ * cannot be exported and are rejected.
+ * <p>
+ * Usage: {@code ModelExporter modelPath predictorFile}
+ */
+public class ModelExporter {
+
+	private static final int CHECKS = 20;
+	private static final double TOLERANCE = 1e-6;
+	private static final String OUTCOME = "outcome";
+
+	/**
+	 * Exports the model saved in the given directory.
+	 *
+	 * @param  modelPath The model directory, as written by {@link DefaultTrainer#saveModel}.
+	 * @return The predictor, scoring feature vectors in the order of the feature names of the model.
+	 *
+	 * @throws IOException if the model cannot be read.
+	 * @throws IllegalArgumentException if the model is not linear in its features.
+	 */
+	public static LinearPredictor export(String modelPath) throws IOException {
+		Classifier classifier;
+		try {
+			classifier = (Classifier) SerializationHelper.read(new File(modelPath, Constants.MODEL_CLASSIFIER).getAbsolutePath());
+		} catch (Exception e) {
+			throw new IOException("Could not read classifier@" + modelPath, e);
+		}
+		List<String> featureNames = Files.readAllLines(Paths.get(modelPath, Constants.MODEL_FEATURE_NAMES), StandardCharsets.UTF_8)
+				.stream()
+				.filter(name -> !name.trim().isEmpty())
+				.collect(Collectors.toList());
+		return export(classifier, getHeader(featureNames));
+	}
+
+	/**
+	 * Exports the given regression classifier.
+	 *
+	 * @param  classifier The trained classifier.
+	 * @param  header The format of the training data, with numeric features and a numeric class attribute.
+	 * @return The predictor, scoring feature vectors in the order of the feature attributes of the header.
+	 *
+	 * @throws IllegalArgumentException if the classifier cannot be scored or is not linear in its features.
+	 */
+	public static LinearPredictor export(Classifier classifier, Instances header) {
+		if (header.classIndex() < 0 || !header.classAttribute().isNumeric()) {
+			throw new IllegalArgumentException("Only regression models can be exported.");
+		}
+		List<Integer> features = new ArrayList<>();
+		for (int i = 0; i < header.numAttributes(); i++) {
+			if (i == header.classIndex())
+				continue;
+			if (!header.attribute(i).isNumeric()) {
+				throw new IllegalArgumentException("Only numeric features can be exported: " + header.attribute(i).name());
+			}
+			features.add(i);
+		}
+
+		String[] names = new String[features.size()];
+		double[] weights = new double[features.size()];
+		double bias = score(classifier, header, features, new double[features.size()]);
+		for (int i = 0; i < features.size(); i++) {
+			double[] unit = new double[features.size()];
+			unit[i] = 1.0;
+			names[i] = header.attribute(features.get(i)).name();
+			weights[i] = score(classifier, header, features, unit) - bias;
+		}
+		LinearPredictor predictor = new LinearPredictor(names, weights, bias);
+
+		Random random = new Random(42);
+		for (int check = 0; check < CHECKS; check++) {
+			double[] vector = new double[features.size()];
+			for (int i = 0; i < vector.length; i++)
+				vector[i] = random.nextDouble() * 2.0 - 0.5;
+			double expected = score(classifier, header, features, vector);
+			if (Math.abs(expected - predictor.predict(vector)) > TOLERANCE * (1.0 + Math.abs(expected))) {
+				throw new IllegalArgumentException("The model is not linear in its features and cannot be exported.");
+			}
+		}
+		return predictor;
+	}
+
+	/**
+	 * Returns the format of the training data of a model with the given numeric features and a numeric outcome.
+	 */
+	private static Instances getHeader(List<String> featureNames) {
+		ArrayList<Attribute> attributes = new ArrayList<>();
+		for (String name : featureNames)
+			attributes.add(new Attribute(name));
+		attributes.add(new Attribute(OUTCOME));
+		Instances header = new Instances("model", attributes, 0);
+		header.setClassIndex(attributes.size() - 1);
+		return header;
+	}
+
+	private static double score(Classifier classifier, Instances header, List<Integer> features, double[] vector) {
+		double[] values = new double[header.numAttributes()];
+		for (int i = 0; i < features.size(); i++)
+			values[features.get(i)] = vector[i];
+		values[header.classIndex()] = Utils.missingValue();
+		Instance instance = new DenseInstance(1.0, values);
+		instance.setDataset(header);
+		try {
+			return classifier.classifyInstance(instance);
+		} catch (Exception e) {
+			throw new IllegalArgumentException("The model cannot be scored.", e);
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Usage: ModelExporter modelPath predictorFile");
+			System.exit(1);
+		}
+		LinearPredictor predictor = export(args[0]);
+		predictor.write(Paths.get(args[1]));
+		System.out.println("Exported " + predictor.getFeatureNames().length + " features to " + args[1]);
+	}
+}
@@ -181,23 +181,19 @@ public class GapCandidate
                 ((GapCandidate_Type) jcasType).casFeatCode_lengthDifference, v);
     }
 
+    /**
+     * Orders candidates by descending suitability, and candidates of equal suitability
+     * in the order they were created, as the {@code CandidateRanking} does.
+     * Only a candidate compared to itself yields 0, consistent with {@code equals}.
+     */
     @Override
     public int compareTo(GapCandidate c2)
     {
-
-        if (this.getCandidateWord().equals(c2.getCandidateWord())) {
-            return 0;
-        }
-        else {
-            if (this.getSuitability() > c2.getSuitability()) {
-
-                return -1;
-            }
-            else {
-                return 1;
-            }
-
+        int cmp = Double.compare(c2.getSuitability(), this.getSuitability());
+        if (cmp != 0) {
+            return cmp;
         }
+        return Integer.compare(this.addr, c2.addr);
     }
 
     @Override
@@ -0,0 +1,677 @@
+/* First created by JCasGen Sat Oct 17 14:20:11 CEST 2026 */
+package de.unidue.ltl.ctest.difficulty.types;
+
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.JCasRegistry;
+import org.apache.uima.jcas.cas.TOP_Type;
+import org.apache.uima.jcas.tcas.Annotation;
+
+/**
+ * Readability statistics of a whole document, computed once by the ReadabilityStatisticsAnnotator.
+ * Updated by JCasGen Sat Oct 17 14:20:11 CEST 2026 XML source:
+ * src/main/resources/desc/types/ReadabilityStatistics.xml
+ * 
+ * @generated
+ */
+public class ReadabilityStatistics
+    extends Annotation
+{
+    /**
+     * @generated
+     * @ordered
+     */
+
+    public final static int typeIndexID = JCasRegistry.register(ReadabilityStatistics.class);
+    /**
+     * @generated
+     * @ordered
+     */
+
+    public final static int type = typeIndexID;
+
+    /** @generated */
+    @Override
+    public int getTypeIndexID()
+    {
+        return typeIndexID;
+    }
+
+    /**
+     * Never called. Disable default constructor
+     * 
+     * @generated
+     */
+    protected ReadabilityStatistics()
+    {/* intentionally empty block */
+    }
+
+    /**
+     * Internal - constructor used by generator
+     * 
+     * @generated
+     */
+    public ReadabilityStatistics(int addr, TOP_Type type)
+    {
+        super(addr, type);
+        readObject();
+    }
+
+    /** @generated */
+    public ReadabilityStatistics(JCas jcas)
+    {
+        super(jcas);
+        readObject();
+    }
+
+    /** @generated */
+    public ReadabilityStatistics(JCas jcas, int begin, int end)
+    {
+        super(jcas);
+        setBegin(begin);
+        setEnd(end);
+        readObject();
+    }
+
+    /**
+     * <!-- begin-user-doc --> Write your own initialization here <!-- end-user-doc -->
+     * 
+     * @generated modifiable
+     */
+    private void readObject()
+    {/* default - does nothing empty block */
+    }
+
+    // *--------------*
+    // * Feature: typeTokenRatio
+
+    /**
+     * getter for typeTokenRatio - gets The ratio of lemma types to non-punctuation tokens in sentences, or -1 if POS or lemma information is missing.
+     * 
+     * @generated
+     */
+    public double getTypeTokenRatio()
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_typeTokenRatio == null) {
+            jcasType.jcas.throwFeatMissing("typeTokenRatio", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return jcasType.ll_cas.ll_getDoubleValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_typeTokenRatio);
+    }
+
+    /**
+     * setter for typeTokenRatio - sets The ratio of lemma types to non-punctuation tokens in sentences, or -1 if POS or lemma information is missing.
+     * 
+     * @generated
+     */
+    public void setTypeTokenRatio(double v)
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_typeTokenRatio == null) {
+            jcasType.jcas.throwFeatMissing("typeTokenRatio", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        jcasType.ll_cas.ll_setDoubleValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_typeTokenRatio, v);
+    }
+
+    // *--------------*
+    // * Feature: verbVariation
+
+    /**
+     * getter for verbVariation - gets The ratio of verb lemma types to verbs, or -1 if POS or lemma information is missing.
+     * 
+     * @generated
+     */
+    public double getVerbVariation()
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_verbVariation == null) {
+            jcasType.jcas.throwFeatMissing("verbVariation", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return jcasType.ll_cas.ll_getDoubleValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_verbVariation);
+    }
+
+    /**
+     * setter for verbVariation - sets The ratio of verb lemma types to verbs, or -1 if POS or lemma information is missing.
+     * 
+     * @generated
+     */
+    public void setVerbVariation(double v)
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_verbVariation == null) {
+            jcasType.jcas.throwFeatMissing("verbVariation", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        jcasType.ll_cas.ll_setDoubleValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_verbVariation, v);
+    }
+
+    // *--------------*
+    // * Feature: pronounRatio
+
+    /**
+     * getter for pronounRatio - gets The ratio of pronouns to tokens with a non-punctuation POS.
+     * 
+     * @generated
+     */
+    public double getPronounRatio()
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_pronounRatio == null) {
+            jcasType.jcas.throwFeatMissing("pronounRatio", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return jcasType.ll_cas.ll_getDoubleValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_pronounRatio);
+    }
+
+    /**
+     * setter for pronounRatio - sets The ratio of pronouns to tokens with a non-punctuation POS.
+     * 
+     * @generated
+     */
+    public void setPronounRatio(double v)
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_pronounRatio == null) {
+            jcasType.jcas.throwFeatMissing("pronounRatio", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        jcasType.ll_cas.ll_setDoubleValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_pronounRatio, v);
+    }
+
+    // *--------------*
+    // * Feature: avgWordLengthInCharacters
+
+    /**
+     * getter for avgWordLengthInCharacters - gets The average length of words in characters.
+     * 
+     * @generated
+     */
+    public double getAvgWordLengthInCharacters()
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_avgWordLengthInCharacters == null) {
+            jcasType.jcas.throwFeatMissing("avgWordLengthInCharacters", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return jcasType.ll_cas.ll_getDoubleValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_avgWordLengthInCharacters);
+    }
+
+    /**
+     * setter for avgWordLengthInCharacters - sets The average length of words in characters.
+     * 
+     * @generated
+     */
+    public void setAvgWordLengthInCharacters(double v)
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_avgWordLengthInCharacters == null) {
+            jcasType.jcas.throwFeatMissing("avgWordLengthInCharacters", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        jcasType.ll_cas.ll_setDoubleValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_avgWordLengthInCharacters, v);
+    }
+
+    // *--------------*
+    // * Feature: avgWordLengthInSyllables
+
+    /**
+     * getter for avgWordLengthInSyllables - gets The average length of words in syllables.
+     * 
+     * @generated
+     */
+    public double getAvgWordLengthInSyllables()
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_avgWordLengthInSyllables == null) {
+            jcasType.jcas.throwFeatMissing("avgWordLengthInSyllables", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return jcasType.ll_cas.ll_getDoubleValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_avgWordLengthInSyllables);
+    }
+
+    /**
+     * setter for avgWordLengthInSyllables - sets The average length of words in syllables.
+     * 
+     * @generated
+     */
+    public void setAvgWordLengthInSyllables(double v)
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_avgWordLengthInSyllables == null) {
+            jcasType.jcas.throwFeatMissing("avgWordLengthInSyllables", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        jcasType.ll_cas.ll_setDoubleValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_avgWordLengthInSyllables, v);
+    }
+
+    // *--------------*
+    // * Feature: sentences
+
+    /**
+     * getter for sentences - gets The number of sentences.
+     * 
+     * @generated
+     */
+    public int getSentences()
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_sentences == null) {
+            jcasType.jcas.throwFeatMissing("sentences", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return jcasType.ll_cas.ll_getIntValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_sentences);
+    }
+
+    /**
+     * setter for sentences - sets The number of sentences.
+     * 
+     * @generated
+     */
+    public void setSentences(int v)
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_sentences == null) {
+            jcasType.jcas.throwFeatMissing("sentences", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        jcasType.ll_cas.ll_setIntValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_sentences, v);
+    }
+
+    // *--------------*
+    // * Feature: words
+
+    /**
+     * getter for words - gets The number of words in sentences.
+     * 
+     * @generated
+     */
+    public int getWords()
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_words == null) {
+            jcasType.jcas.throwFeatMissing("words", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return jcasType.ll_cas.ll_getIntValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_words);
+    }
+
+    /**
+     * setter for words - sets The number of words in sentences.
+     * 
+     * @generated
+     */
+    public void setWords(int v)
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_words == null) {
+            jcasType.jcas.throwFeatMissing("words", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        jcasType.ll_cas.ll_setIntValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_words, v);
+    }
+
+    // *--------------*
+    // * Feature: uniqueEntities
+
+    /**
+     * getter for uniqueEntities - gets The number of distinct named entities and noun chunks.
+     * 
+     * @generated
+     */
+    public int getUniqueEntities()
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_uniqueEntities == null) {
+            jcasType.jcas.throwFeatMissing("uniqueEntities", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return jcasType.ll_cas.ll_getIntValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_uniqueEntities);
+    }
+
+    /**
+     * setter for uniqueEntities - sets The number of distinct named entities and noun chunks.
+     * 
+     * @generated
+     */
+    public void setUniqueEntities(int v)
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_uniqueEntities == null) {
+            jcasType.jcas.throwFeatMissing("uniqueEntities", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        jcasType.ll_cas.ll_setIntValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_uniqueEntities, v);
+    }
+
+    // *--------------*
+    // * Feature: chunks
+
+    /**
+     * getter for chunks - gets The number of chunks.
+     * 
+     * @generated
+     */
+    public int getChunks()
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_chunks == null) {
+            jcasType.jcas.throwFeatMissing("chunks", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return jcasType.ll_cas.ll_getIntValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_chunks);
+    }
+
+    /**
+     * setter for chunks - sets The number of chunks.
+     * 
+     * @generated
+     */
+    public void setChunks(int v)
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_chunks == null) {
+            jcasType.jcas.throwFeatMissing("chunks", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        jcasType.ll_cas.ll_setIntValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_chunks, v);
+    }
+
+    // *--------------*
+    // * Feature: nounChunks
+
+    /**
+     * getter for nounChunks - gets The number of noun chunks.
+     * 
+     * @generated
+     */
+    public int getNounChunks()
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_nounChunks == null) {
+            jcasType.jcas.throwFeatMissing("nounChunks", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return jcasType.ll_cas.ll_getIntValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_nounChunks);
+    }
+
+    /**
+     * setter for nounChunks - sets The number of noun chunks.
+     * 
+     * @generated
+     */
+    public void setNounChunks(int v)
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_nounChunks == null) {
+            jcasType.jcas.throwFeatMissing("nounChunks", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        jcasType.ll_cas.ll_setIntValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_nounChunks, v);
+    }
+
+    // *--------------*
+    // * Feature: verbChunks
+
+    /**
+     * getter for verbChunks - gets The number of verb chunks.
+     * 
+     * @generated
+     */
+    public int getVerbChunks()
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_verbChunks == null) {
+            jcasType.jcas.throwFeatMissing("verbChunks", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return jcasType.ll_cas.ll_getIntValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_verbChunks);
+    }
+
+    /**
+     * setter for verbChunks - sets The number of verb chunks.
+     * 
+     * @generated
+     */
+    public void setVerbChunks(int v)
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_verbChunks == null) {
+            jcasType.jcas.throwFeatMissing("verbChunks", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        jcasType.ll_cas.ll_setIntValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_verbChunks, v);
+    }
+
+    // *--------------*
+    // * Feature: prepositionalChunks
+
+    /**
+     * getter for prepositionalChunks - gets The number of prepositional chunks.
+     * 
+     * @generated
+     */
+    public int getPrepositionalChunks()
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_prepositionalChunks == null) {
+            jcasType.jcas.throwFeatMissing("prepositionalChunks", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return jcasType.ll_cas.ll_getIntValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_prepositionalChunks);
+    }
+
+    /**
+     * setter for prepositionalChunks - sets The number of prepositional chunks.
+     * 
+     * @generated
+     */
+    public void setPrepositionalChunks(int v)
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_prepositionalChunks == null) {
+            jcasType.jcas.throwFeatMissing("prepositionalChunks", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        jcasType.ll_cas.ll_setIntValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_prepositionalChunks, v);
+    }
+
+    // *--------------*
+    // * Feature: adverbialChunks
+
+    /**
+     * getter for adverbialChunks - gets The number of adverbial chunks.
+     * 
+     * @generated
+     */
+    public int getAdverbialChunks()
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_adverbialChunks == null) {
+            jcasType.jcas.throwFeatMissing("adverbialChunks", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return jcasType.ll_cas.ll_getIntValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_adverbialChunks);
+    }
+
+    /**
+     * setter for adverbialChunks - sets The number of adverbial chunks.
+     * 
+     * @generated
+     */
+    public void setAdverbialChunks(int v)
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_adverbialChunks == null) {
+            jcasType.jcas.throwFeatMissing("adverbialChunks", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        jcasType.ll_cas.ll_setIntValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_adverbialChunks, v);
+    }
+
+    // *--------------*
+    // * Feature: sBars
+
+    /**
+     * getter for sBars - gets The number of SBAR chunks.
+     * 
+     * @generated
+     */
+    public int getSBars()
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_sBars == null) {
+            jcasType.jcas.throwFeatMissing("sBars", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return jcasType.ll_cas.ll_getIntValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_sBars);
+    }
+
+    /**
+     * setter for sBars - sets The number of SBAR chunks.
+     * 
+     * @generated
+     */
+    public void setSBars(int v)
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_sBars == null) {
+            jcasType.jcas.throwFeatMissing("sBars", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        jcasType.ll_cas.ll_setIntValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_sBars, v);
+    }
+
+    // *--------------*
+    // * Feature: nouns
+
+    /**
+     * getter for nouns - gets The number of nouns.
+     * 
+     * @generated
+     */
+    public int getNouns()
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_nouns == null) {
+            jcasType.jcas.throwFeatMissing("nouns", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return jcasType.ll_cas.ll_getIntValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_nouns);
+    }
+
+    /**
+     * setter for nouns - sets The number of nouns.
+     * 
+     * @generated
+     */
+    public void setNouns(int v)
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_nouns == null) {
+            jcasType.jcas.throwFeatMissing("nouns", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        jcasType.ll_cas.ll_setIntValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_nouns, v);
+    }
+
+    // *--------------*
+    // * Feature: verbs
+
+    /**
+     * getter for verbs - gets The number of verbs.
+     * 
+     * @generated
+     */
+    public int getVerbs()
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_verbs == null) {
+            jcasType.jcas.throwFeatMissing("verbs", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return jcasType.ll_cas.ll_getIntValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_verbs);
+    }
+
+    /**
+     * setter for verbs - sets The number of verbs.
+     * 
+     * @generated
+     */
+    public void setVerbs(int v)
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_verbs == null) {
+            jcasType.jcas.throwFeatMissing("verbs", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        jcasType.ll_cas.ll_setIntValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_verbs, v);
+    }
+
+    // *--------------*
+    // * Feature: adverbs
+
+    /**
+     * getter for adverbs - gets The number of adverbs.
+     * 
+     * @generated
+     */
+    public int getAdverbs()
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_adverbs == null) {
+            jcasType.jcas.throwFeatMissing("adverbs", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return jcasType.ll_cas.ll_getIntValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_adverbs);
+    }
+
+    /**
+     * setter for adverbs - sets The number of adverbs.
+     * 
+     * @generated
+     */
+    public void setAdverbs(int v)
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_adverbs == null) {
+            jcasType.jcas.throwFeatMissing("adverbs", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        jcasType.ll_cas.ll_setIntValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_adverbs, v);
+    }
+
+    // *--------------*
+    // * Feature: adjectives
+
+    /**
+     * getter for adjectives - gets The number of adjectives.
+     * 
+     * @generated
+     */
+    public int getAdjectives()
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_adjectives == null) {
+            jcasType.jcas.throwFeatMissing("adjectives", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return jcasType.ll_cas.ll_getIntValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_adjectives);
+    }
+
+    /**
+     * setter for adjectives - sets The number of adjectives.
+     * 
+     * @generated
+     */
+    public void setAdjectives(int v)
+    {
+        if (ReadabilityStatistics_Type.featOkTst
+                && ((ReadabilityStatistics_Type) jcasType).casFeat_adjectives == null) {
+            jcasType.jcas.throwFeatMissing("adjectives", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        jcasType.ll_cas.ll_setIntValue(addr,
+                ((ReadabilityStatistics_Type) jcasType).casFeatCode_adjectives, v);
+    }
+}
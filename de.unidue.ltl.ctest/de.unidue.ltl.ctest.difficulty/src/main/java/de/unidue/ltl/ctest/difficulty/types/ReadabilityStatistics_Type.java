@@ -0,0 +1,575 @@
+/* First created by JCasGen Sat Oct 17 14:20:11 CEST 2026 */
+package de.unidue.ltl.ctest.difficulty.types;
+
+import org.apache.uima.cas.Feature;
+import org.apache.uima.cas.FeatureStructure;
+import org.apache.uima.cas.Type;
+import org.apache.uima.cas.impl.CASImpl;
+import org.apache.uima.cas.impl.FSGenerator;
+import org.apache.uima.cas.impl.FeatureImpl;
+import org.apache.uima.cas.impl.TypeImpl;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.JCasRegistry;
+import org.apache.uima.jcas.tcas.Annotation_Type;
+
+/**
+ * Updated by JCasGen Sat Oct 17 14:20:11 CEST 2026
+ * 
+ * @generated
+ */
+public class ReadabilityStatistics_Type
+    extends Annotation_Type
+{
+    /** @generated */
+    @Override
+    protected FSGenerator getFSGenerator()
+    {
+        return fsGenerator;
+    }
+
+    /** @generated */
+    private final FSGenerator fsGenerator = new FSGenerator()
+    {
+        public FeatureStructure createFS(int addr, CASImpl cas)
+        {
+            if (ReadabilityStatistics_Type.this.useExistingInstance) {
+                // Return eq fs instance if already created
+                FeatureStructure fs = ReadabilityStatistics_Type.this.jcas.getJfsFromCaddr(addr);
+                if (null == fs) {
+                    fs = new ReadabilityStatistics(addr, ReadabilityStatistics_Type.this);
+                    ReadabilityStatistics_Type.this.jcas.putJfsFromCaddr(addr, fs);
+                    return fs;
+                }
+                return fs;
+            }
+            else {
+                return new ReadabilityStatistics(addr, ReadabilityStatistics_Type.this);
+            }
+        }
+    };
+    /** @generated */
+
+    public final static int typeIndexID = ReadabilityStatistics.typeIndexID;
+    /**
+     * @generated
+     * @modifiable
+     */
+
+    public final static boolean featOkTst = JCasRegistry.getFeatOkTst("de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+
+    /** @generated */
+    final Feature casFeat_typeTokenRatio;
+    /** @generated */
+    final int casFeatCode_typeTokenRatio;
+
+    /** @generated */
+    public double getTypeTokenRatio(int addr)
+    {
+        if (featOkTst && casFeat_typeTokenRatio == null) {
+            jcas.throwFeatMissing("typeTokenRatio", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return ll_cas.ll_getDoubleValue(addr, casFeatCode_typeTokenRatio);
+    }
+
+    /** @generated */
+    public void setTypeTokenRatio(int addr, double v)
+    {
+        if (featOkTst && casFeat_typeTokenRatio == null) {
+            jcas.throwFeatMissing("typeTokenRatio", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        ll_cas.ll_setDoubleValue(addr, casFeatCode_typeTokenRatio, v);
+    }
+
+    /** @generated */
+    final Feature casFeat_verbVariation;
+    /** @generated */
+    final int casFeatCode_verbVariation;
+
+    /** @generated */
+    public double getVerbVariation(int addr)
+    {
+        if (featOkTst && casFeat_verbVariation == null) {
+            jcas.throwFeatMissing("verbVariation", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return ll_cas.ll_getDoubleValue(addr, casFeatCode_verbVariation);
+    }
+
+    /** @generated */
+    public void setVerbVariation(int addr, double v)
+    {
+        if (featOkTst && casFeat_verbVariation == null) {
+            jcas.throwFeatMissing("verbVariation", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        ll_cas.ll_setDoubleValue(addr, casFeatCode_verbVariation, v);
+    }
+
+    /** @generated */
+    final Feature casFeat_pronounRatio;
+    /** @generated */
+    final int casFeatCode_pronounRatio;
+
+    /** @generated */
+    public double getPronounRatio(int addr)
+    {
+        if (featOkTst && casFeat_pronounRatio == null) {
+            jcas.throwFeatMissing("pronounRatio", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return ll_cas.ll_getDoubleValue(addr, casFeatCode_pronounRatio);
+    }
+
+    /** @generated */
+    public void setPronounRatio(int addr, double v)
+    {
+        if (featOkTst && casFeat_pronounRatio == null) {
+            jcas.throwFeatMissing("pronounRatio", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        ll_cas.ll_setDoubleValue(addr, casFeatCode_pronounRatio, v);
+    }
+
+    /** @generated */
+    final Feature casFeat_avgWordLengthInCharacters;
+    /** @generated */
+    final int casFeatCode_avgWordLengthInCharacters;
+
+    /** @generated */
+    public double getAvgWordLengthInCharacters(int addr)
+    {
+        if (featOkTst && casFeat_avgWordLengthInCharacters == null) {
+            jcas.throwFeatMissing("avgWordLengthInCharacters", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return ll_cas.ll_getDoubleValue(addr, casFeatCode_avgWordLengthInCharacters);
+    }
+
+    /** @generated */
+    public void setAvgWordLengthInCharacters(int addr, double v)
+    {
+        if (featOkTst && casFeat_avgWordLengthInCharacters == null) {
+            jcas.throwFeatMissing("avgWordLengthInCharacters", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        ll_cas.ll_setDoubleValue(addr, casFeatCode_avgWordLengthInCharacters, v);
+    }
+
+    /** @generated */
+    final Feature casFeat_avgWordLengthInSyllables;
+    /** @generated */
+    final int casFeatCode_avgWordLengthInSyllables;
+
+    /** @generated */
+    public double getAvgWordLengthInSyllables(int addr)
+    {
+        if (featOkTst && casFeat_avgWordLengthInSyllables == null) {
+            jcas.throwFeatMissing("avgWordLengthInSyllables", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return ll_cas.ll_getDoubleValue(addr, casFeatCode_avgWordLengthInSyllables);
+    }
+
+    /** @generated */
+    public void setAvgWordLengthInSyllables(int addr, double v)
+    {
+        if (featOkTst && casFeat_avgWordLengthInSyllables == null) {
+            jcas.throwFeatMissing("avgWordLengthInSyllables", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        ll_cas.ll_setDoubleValue(addr, casFeatCode_avgWordLengthInSyllables, v);
+    }
+
+    /** @generated */
+    final Feature casFeat_sentences;
+    /** @generated */
+    final int casFeatCode_sentences;
+
+    /** @generated */
+    public int getSentences(int addr)
+    {
+        if (featOkTst && casFeat_sentences == null) {
+            jcas.throwFeatMissing("sentences", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return ll_cas.ll_getIntValue(addr, casFeatCode_sentences);
+    }
+
+    /** @generated */
+    public void setSentences(int addr, int v)
+    {
+        if (featOkTst && casFeat_sentences == null) {
+            jcas.throwFeatMissing("sentences", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        ll_cas.ll_setIntValue(addr, casFeatCode_sentences, v);
+    }
+
+    /** @generated */
+    final Feature casFeat_words;
+    /** @generated */
+    final int casFeatCode_words;
+
+    /** @generated */
+    public int getWords(int addr)
+    {
+        if (featOkTst && casFeat_words == null) {
+            jcas.throwFeatMissing("words", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return ll_cas.ll_getIntValue(addr, casFeatCode_words);
+    }
+
+    /** @generated */
+    public void setWords(int addr, int v)
+    {
+        if (featOkTst && casFeat_words == null) {
+            jcas.throwFeatMissing("words", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        ll_cas.ll_setIntValue(addr, casFeatCode_words, v);
+    }
+
+    /** @generated */
+    final Feature casFeat_uniqueEntities;
+    /** @generated */
+    final int casFeatCode_uniqueEntities;
+
+    /** @generated */
+    public int getUniqueEntities(int addr)
+    {
+        if (featOkTst && casFeat_uniqueEntities == null) {
+            jcas.throwFeatMissing("uniqueEntities", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return ll_cas.ll_getIntValue(addr, casFeatCode_uniqueEntities);
+    }
+
+    /** @generated */
+    public void setUniqueEntities(int addr, int v)
+    {
+        if (featOkTst && casFeat_uniqueEntities == null) {
+            jcas.throwFeatMissing("uniqueEntities", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        ll_cas.ll_setIntValue(addr, casFeatCode_uniqueEntities, v);
+    }
+
+    /** @generated */
+    final Feature casFeat_chunks;
+    /** @generated */
+    final int casFeatCode_chunks;
+
+    /** @generated */
+    public int getChunks(int addr)
+    {
+        if (featOkTst && casFeat_chunks == null) {
+            jcas.throwFeatMissing("chunks", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return ll_cas.ll_getIntValue(addr, casFeatCode_chunks);
+    }
+
+    /** @generated */
+    public void setChunks(int addr, int v)
+    {
+        if (featOkTst && casFeat_chunks == null) {
+            jcas.throwFeatMissing("chunks", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        ll_cas.ll_setIntValue(addr, casFeatCode_chunks, v);
+    }
+
+    /** @generated */
+    final Feature casFeat_nounChunks;
+    /** @generated */
+    final int casFeatCode_nounChunks;
+
+    /** @generated */
+    public int getNounChunks(int addr)
+    {
+        if (featOkTst && casFeat_nounChunks == null) {
+            jcas.throwFeatMissing("nounChunks", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return ll_cas.ll_getIntValue(addr, casFeatCode_nounChunks);
+    }
+
+    /** @generated */
+    public void setNounChunks(int addr, int v)
+    {
+        if (featOkTst && casFeat_nounChunks == null) {
+            jcas.throwFeatMissing("nounChunks", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        ll_cas.ll_setIntValue(addr, casFeatCode_nounChunks, v);
+    }
+
+    /** @generated */
+    final Feature casFeat_verbChunks;
+    /** @generated */
+    final int casFeatCode_verbChunks;
+
+    /** @generated */
+    public int getVerbChunks(int addr)
+    {
+        if (featOkTst && casFeat_verbChunks == null) {
+            jcas.throwFeatMissing("verbChunks", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return ll_cas.ll_getIntValue(addr, casFeatCode_verbChunks);
+    }
+
+    /** @generated */
+    public void setVerbChunks(int addr, int v)
+    {
+        if (featOkTst && casFeat_verbChunks == null) {
+            jcas.throwFeatMissing("verbChunks", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        ll_cas.ll_setIntValue(addr, casFeatCode_verbChunks, v);
+    }
+
+    /** @generated */
+    final Feature casFeat_prepositionalChunks;
+    /** @generated */
+    final int casFeatCode_prepositionalChunks;
+
+    /** @generated */
+    public int getPrepositionalChunks(int addr)
+    {
+        if (featOkTst && casFeat_prepositionalChunks == null) {
+            jcas.throwFeatMissing("prepositionalChunks", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return ll_cas.ll_getIntValue(addr, casFeatCode_prepositionalChunks);
+    }
+
+    /** @generated */
+    public void setPrepositionalChunks(int addr, int v)
+    {
+        if (featOkTst && casFeat_prepositionalChunks == null) {
+            jcas.throwFeatMissing("prepositionalChunks", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        ll_cas.ll_setIntValue(addr, casFeatCode_prepositionalChunks, v);
+    }
+
+    /** @generated */
+    final Feature casFeat_adverbialChunks;
+    /** @generated */
+    final int casFeatCode_adverbialChunks;
+
+    /** @generated */
+    public int getAdverbialChunks(int addr)
+    {
+        if (featOkTst && casFeat_adverbialChunks == null) {
+            jcas.throwFeatMissing("adverbialChunks", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return ll_cas.ll_getIntValue(addr, casFeatCode_adverbialChunks);
+    }
+
+    /** @generated */
+    public void setAdverbialChunks(int addr, int v)
+    {
+        if (featOkTst && casFeat_adverbialChunks == null) {
+            jcas.throwFeatMissing("adverbialChunks", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        ll_cas.ll_setIntValue(addr, casFeatCode_adverbialChunks, v);
+    }
+
+    /** @generated */
+    final Feature casFeat_sBars;
+    /** @generated */
+    final int casFeatCode_sBars;
+
+    /** @generated */
+    public int getSBars(int addr)
+    {
+        if (featOkTst && casFeat_sBars == null) {
+            jcas.throwFeatMissing("sBars", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return ll_cas.ll_getIntValue(addr, casFeatCode_sBars);
+    }
+
+    /** @generated */
+    public void setSBars(int addr, int v)
+    {
+        if (featOkTst && casFeat_sBars == null) {
+            jcas.throwFeatMissing("sBars", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        ll_cas.ll_setIntValue(addr, casFeatCode_sBars, v);
+    }
+
+    /** @generated */
+    final Feature casFeat_nouns;
+    /** @generated */
+    final int casFeatCode_nouns;
+
+    /** @generated */
+    public int getNouns(int addr)
+    {
+        if (featOkTst && casFeat_nouns == null) {
+            jcas.throwFeatMissing("nouns", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return ll_cas.ll_getIntValue(addr, casFeatCode_nouns);
+    }
+
+    /** @generated */
+    public void setNouns(int addr, int v)
+    {
+        if (featOkTst && casFeat_nouns == null) {
+            jcas.throwFeatMissing("nouns", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        ll_cas.ll_setIntValue(addr, casFeatCode_nouns, v);
+    }
+
+    /** @generated */
+    final Feature casFeat_verbs;
+    /** @generated */
+    final int casFeatCode_verbs;
+
+    /** @generated */
+    public int getVerbs(int addr)
+    {
+        if (featOkTst && casFeat_verbs == null) {
+            jcas.throwFeatMissing("verbs", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return ll_cas.ll_getIntValue(addr, casFeatCode_verbs);
+    }
+
+    /** @generated */
+    public void setVerbs(int addr, int v)
+    {
+        if (featOkTst && casFeat_verbs == null) {
+            jcas.throwFeatMissing("verbs", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        ll_cas.ll_setIntValue(addr, casFeatCode_verbs, v);
+    }
+
+    /** @generated */
+    final Feature casFeat_adverbs;
+    /** @generated */
+    final int casFeatCode_adverbs;
+
+    /** @generated */
+    public int getAdverbs(int addr)
+    {
+        if (featOkTst && casFeat_adverbs == null) {
+            jcas.throwFeatMissing("adverbs", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return ll_cas.ll_getIntValue(addr, casFeatCode_adverbs);
+    }
+
+    /** @generated */
+    public void setAdverbs(int addr, int v)
+    {
+        if (featOkTst && casFeat_adverbs == null) {
+            jcas.throwFeatMissing("adverbs", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        ll_cas.ll_setIntValue(addr, casFeatCode_adverbs, v);
+    }
+
+    /** @generated */
+    final Feature casFeat_adjectives;
+    /** @generated */
+    final int casFeatCode_adjectives;
+
+    /** @generated */
+    public int getAdjectives(int addr)
+    {
+        if (featOkTst && casFeat_adjectives == null) {
+            jcas.throwFeatMissing("adjectives", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        return ll_cas.ll_getIntValue(addr, casFeatCode_adjectives);
+    }
+
+    /** @generated */
+    public void setAdjectives(int addr, int v)
+    {
+        if (featOkTst && casFeat_adjectives == null) {
+            jcas.throwFeatMissing("adjectives", "de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics");
+        }
+        ll_cas.ll_setIntValue(addr, casFeatCode_adjectives, v);
+    }
+
+    /**
+     * initialize variables to correspond with Cas Type and Features
+     * 
+     * @generated
+     */
+    public ReadabilityStatistics_Type(JCas jcas, Type casType)
+    {
+        super(jcas, casType);
+        casImpl.getFSClassRegistry().addGeneratorForType((TypeImpl) this.casType, getFSGenerator());
+
+        casFeat_typeTokenRatio = jcas.getRequiredFeatureDE(casType, "typeTokenRatio", "uima.cas.Double",
+                featOkTst);
+        casFeatCode_typeTokenRatio = (null == casFeat_typeTokenRatio) ? JCas.INVALID_FEATURE_CODE
+                : ((FeatureImpl) casFeat_typeTokenRatio).getCode();
+
+        casFeat_verbVariation = jcas.getRequiredFeatureDE(casType, "verbVariation", "uima.cas.Double",
+                featOkTst);
+        casFeatCode_verbVariation = (null == casFeat_verbVariation) ? JCas.INVALID_FEATURE_CODE
+                : ((FeatureImpl) casFeat_verbVariation).getCode();
+
+        casFeat_pronounRatio = jcas.getRequiredFeatureDE(casType, "pronounRatio", "uima.cas.Double",
+                featOkTst);
+        casFeatCode_pronounRatio = (null == casFeat_pronounRatio) ? JCas.INVALID_FEATURE_CODE
+                : ((FeatureImpl) casFeat_pronounRatio).getCode();
+
+        casFeat_avgWordLengthInCharacters = jcas.getRequiredFeatureDE(casType, "avgWordLengthInCharacters", "uima.cas.Double",
+                featOkTst);
+        casFeatCode_avgWordLengthInCharacters = (null == casFeat_avgWordLengthInCharacters) ? JCas.INVALID_FEATURE_CODE
+                : ((FeatureImpl) casFeat_avgWordLengthInCharacters).getCode();
+
+        casFeat_avgWordLengthInSyllables = jcas.getRequiredFeatureDE(casType, "avgWordLengthInSyllables", "uima.cas.Double",
+                featOkTst);
+        casFeatCode_avgWordLengthInSyllables = (null == casFeat_avgWordLengthInSyllables) ? JCas.INVALID_FEATURE_CODE
+                : ((FeatureImpl) casFeat_avgWordLengthInSyllables).getCode();
+
+        casFeat_sentences = jcas.getRequiredFeatureDE(casType, "sentences", "uima.cas.Integer",
+                featOkTst);
+        casFeatCode_sentences = (null == casFeat_sentences) ? JCas.INVALID_FEATURE_CODE
+                : ((FeatureImpl) casFeat_sentences).getCode();
+
+        casFeat_words = jcas.getRequiredFeatureDE(casType, "words", "uima.cas.Integer",
+                featOkTst);
+        casFeatCode_words = (null == casFeat_words) ? JCas.INVALID_FEATURE_CODE
+                : ((FeatureImpl) casFeat_words).getCode();
+
+        casFeat_uniqueEntities = jcas.getRequiredFeatureDE(casType, "uniqueEntities", "uima.cas.Integer",
+                featOkTst);
+        casFeatCode_uniqueEntities = (null == casFeat_uniqueEntities) ? JCas.INVALID_FEATURE_CODE
+                : ((FeatureImpl) casFeat_uniqueEntities).getCode();
+
+        casFeat_chunks = jcas.getRequiredFeatureDE(casType, "chunks", "uima.cas.Integer",
+                featOkTst);
+        casFeatCode_chunks = (null == casFeat_chunks) ? JCas.INVALID_FEATURE_CODE
+                : ((FeatureImpl) casFeat_chunks).getCode();
+
+        casFeat_nounChunks = jcas.getRequiredFeatureDE(casType, "nounChunks", "uima.cas.Integer",
+                featOkTst);
+        casFeatCode_nounChunks = (null == casFeat_nounChunks) ? JCas.INVALID_FEATURE_CODE
+                : ((FeatureImpl) casFeat_nounChunks).getCode();
+
+        casFeat_verbChunks = jcas.getRequiredFeatureDE(casType, "verbChunks", "uima.cas.Integer",
+                featOkTst);
+        casFeatCode_verbChunks = (null == casFeat_verbChunks) ? JCas.INVALID_FEATURE_CODE
+                : ((FeatureImpl) casFeat_verbChunks).getCode();
+
+        casFeat_prepositionalChunks = jcas.getRequiredFeatureDE(casType, "prepositionalChunks", "uima.cas.Integer",
+                featOkTst);
+        casFeatCode_prepositionalChunks = (null == casFeat_prepositionalChunks) ? JCas.INVALID_FEATURE_CODE
+                : ((FeatureImpl) casFeat_prepositionalChunks).getCode();
+
+        casFeat_adverbialChunks = jcas.getRequiredFeatureDE(casType, "adverbialChunks", "uima.cas.Integer",
+                featOkTst);
+        casFeatCode_adverbialChunks = (null == casFeat_adverbialChunks) ? JCas.INVALID_FEATURE_CODE
+                : ((FeatureImpl) casFeat_adverbialChunks).getCode();
+
+        casFeat_sBars = jcas.getRequiredFeatureDE(casType, "sBars", "uima.cas.Integer",
+                featOkTst);
+        casFeatCode_sBars = (null == casFeat_sBars) ? JCas.INVALID_FEATURE_CODE
+                : ((FeatureImpl) casFeat_sBars).getCode();
+
+        casFeat_nouns = jcas.getRequiredFeatureDE(casType, "nouns", "uima.cas.Integer",
+                featOkTst);
+        casFeatCode_nouns = (null == casFeat_nouns) ? JCas.INVALID_FEATURE_CODE
+                : ((FeatureImpl) casFeat_nouns).getCode();
+
+        casFeat_verbs = jcas.getRequiredFeatureDE(casType, "verbs", "uima.cas.Integer",
+                featOkTst);
+        casFeatCode_verbs = (null == casFeat_verbs) ? JCas.INVALID_FEATURE_CODE
+                : ((FeatureImpl) casFeat_verbs).getCode();
+
+        casFeat_adverbs = jcas.getRequiredFeatureDE(casType, "adverbs", "uima.cas.Integer",
+                featOkTst);
+        casFeatCode_adverbs = (null == casFeat_adverbs) ? JCas.INVALID_FEATURE_CODE
+                : ((FeatureImpl) casFeat_adverbs).getCode();
+
+        casFeat_adjectives = jcas.getRequiredFeatureDE(casType, "adjectives", "uima.cas.Integer",
+                featOkTst);
+        casFeatCode_adjectives = (null == casFeat_adjectives) ? JCas.INVALID_FEATURE_CODE
+                : ((FeatureImpl) casFeat_adjectives).getCode();
+
+    }
+}
@@ -9,6 +9,7 @@ import org.apache.uima.fit.pipeline.JCasIterable;
 import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 
 import de.unidue.ltl.ctest.difficulty.features.candidate.CandidateAnnotator;
@@ -79,4 +80,34 @@ public class CandidateAnnotatorTest
         }
 
     }
+
+    @Test
+    public void testCandidateAnnotatorWithoutDkproHome()
+        throws Exception
+    {
+        // the Web1T workspace is only needed for French contractions and compounds
+        Assume.assumeTrue(System.getenv("DKPRO_HOME") == null);
+        String dkproHome = System.clearProperty("DKPRO_HOME");
+        try {
+            CollectionReaderDescription reader = createReaderDescription(CTestReaderTC.class,
+                    CTestReaderTC.PARAM_SOURCE_LOCATION, "src/test/resources/texts/",
+                    CTestReaderTC.PARAM_TESTTYPE, TestType.ctest, CTestReaderTC.PARAM_LANGUAGE, "en",
+                    CTestReaderTC.PARAM_PATTERNS, new String[] { CTestReaderTC.INCLUDE_PREFIX
+                            + "enTest.txt" });
+            AnalysisEngineDescription candRetriever = createEngineDescription(CandidateAnnotator.class,
+                    CandidateAnnotator.PARAM_LEXICON_FILE, "src/main/resources/wordLists/wordsEn.txt",
+                    CandidateAnnotator.LENGTH_VARIABILITY, 1, CandidateAnnotator.PARAM_LANGUAGE, "en",
+                    CandidateAnnotator.PARAM_TESTTYPE, TestType.ctest);
+
+            for (JCas jcas : new JCasIterable(reader, candRetriever)) {
+                Gap gap = JCasUtil.select(jcas, Gap.class).iterator().next();
+                Assert.assertEquals(255, JCasUtil.selectCovered(GapCandidate.class, gap).size());
+            }
+        }
+        finally {
+            if (dkproHome != null) {
+                System.setProperty("DKPRO_HOME", dkproHome);
+            }
+        }
+    }
 }
@@ -0,0 +1,130 @@
+package de.unidue.ltl.ctest.difficulty.features.candidate;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+public class LexiconIndexTest
+{
+
+    @Test
+    public void testPrefixAndSuffix()
+    {
+        List<String> words = new ArrayList<String>();
+        for (String word : new String[] { "house", "houses", "horse", "ho", "hour", "mouse", "a",
+                "", "house" }) {
+            words.add(word);
+        }
+        LexiconIndex lexicon = new LexiconIndex(words, 2);
+        assertEquals(7, lexicon.size());
+
+        assertEquals(set("house", "hour"), collectPrefix(lexicon, "hou", 4, 5));
+        assertEquals(set("house", "houses", "hour", "horse", "ho"), collectPrefix(lexicon, "ho", 0, 10));
+        assertEquals(set("house", "mouse"), collectSuffix(lexicon, "ouse", 0, 5));
+        assertEquals(set("houses"), collectSuffix(lexicon, "s", 0, 10));
+        // only short words match an empty prefix
+        assertEquals(set("a", "ho"), collectPrefix(lexicon, "", 0, 10));
+        assertEquals(set(), collectPrefix(new LexiconIndex(words), "", 0, 10));
+    }
+
+    @Test
+    public void testBundledLexicons()
+        throws IOException
+    {
+        for (String file : new String[] { "wordsEn.txt", "FrDict.txt", "germanWordlist.txt" }) {
+            List<String> words = new ArrayList<String>();
+            for (String line : FileUtils.readLines(new File("src/main/resources/wordLists/" + file),
+                    "UTF-8")) {
+                String word = line.trim().toLowerCase();
+                if (word.length() > 0) {
+                    words.add(word);
+                }
+            }
+            LexiconIndex lexicon = new LexiconIndex(words);
+
+            // the former lookup: buckets by first letter, scanned for every gap
+            Map<String, Set<String>> buckets = new HashMap<String, Set<String>>();
+            for (String word : words) {
+                buckets.computeIfAbsent(word.substring(0, 1), k -> new HashSet<String>()).add(word);
+            }
+
+            Random random = new Random(1);
+            List<String> prefixes = new ArrayList<String>();
+            for (int i = 0; i < 2000; i++) {
+                String word = words.get(random.nextInt(words.size()));
+                prefixes.add(word.substring(0, Math.min(word.length(), 1 + random.nextInt(4))));
+            }
+
+            for (String prefix : prefixes) {
+                int minLength = prefix.length() * 2 - 1;
+                int maxLength = prefix.length() * 2 + 2;
+                assertEquals(prefix, scan(buckets, prefix, minLength, maxLength),
+                        collectPrefix(lexicon, prefix, minLength, maxLength));
+            }
+
+            long start = System.nanoTime();
+            int scanned = 0;
+            for (String prefix : prefixes) {
+                scanned += scan(buckets, prefix, prefix.length() * 2 - 1, prefix.length() * 2 + 2).size();
+            }
+            long scanTime = System.nanoTime() - start;
+            start = System.nanoTime();
+            int indexed = 0;
+            for (String prefix : prefixes) {
+                indexed += collectPrefix(lexicon, prefix, prefix.length() * 2 - 1, prefix.length() * 2 + 2).size();
+            }
+            long indexTime = System.nanoTime() - start;
+            assertEquals(scanned, indexed);
+            System.out.println(String.format("%s: %d words, bucket scan %.1f, index %.1f microseconds per gap",
+                    file, lexicon.size(), scanTime / 1e3 / prefixes.size(), indexTime / 1e3 / prefixes.size()));
+        }
+    }
+
+    private static Set<String> scan(Map<String, Set<String>> buckets, String prefix, int minLength,
+            int maxLength)
+    {
+        Set<String> candidates = new HashSet<String>();
+        for (String word : buckets.get(prefix.substring(0, 1))) {
+            if (word.startsWith(prefix) && word.length() >= minLength && word.length() <= maxLength) {
+                candidates.add(word);
+            }
+        }
+        return candidates;
+    }
+
+    private static Set<String> collectPrefix(LexiconIndex lexicon, String prefix, int minLength,
+            int maxLength)
+    {
+        Set<String> candidates = new HashSet<String>();
+        lexicon.forEachWithPrefix(prefix, minLength, maxLength, candidates::add);
+        return candidates;
+    }
+
+    private static Set<String> collectSuffix(LexiconIndex lexicon, String suffix, int minLength,
+            int maxLength)
+    {
+        Set<String> candidates = new HashSet<String>();
+        lexicon.forEachWithSuffix(suffix, minLength, maxLength, candidates::add);
+        return candidates;
+    }
+
+    private static Set<String> set(String... words)
+    {
+        Set<String> set = new HashSet<String>();
+        for (String word : words) {
+            set.add(word);
+        }
+        return set;
+    }
+}
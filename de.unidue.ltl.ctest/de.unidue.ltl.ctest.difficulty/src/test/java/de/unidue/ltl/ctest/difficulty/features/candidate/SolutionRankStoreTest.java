@@ -0,0 +1,87 @@
+package de.unidue.ltl.ctest.difficulty.features.candidate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.List;
+
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.junit.Test;
+
+import de.tudarmstadt.ukp.dkpro.core.api.metadata.type.DocumentMetaData;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+import de.unidue.ltl.ctest.difficulty.features.util.CandidateSentenceScorer;
+import de.unidue.ltl.ctest.difficulty.features.util.LanguageModelResource;
+import de.unidue.ltl.ctest.difficulty.features.util.LexicalResourceRegistry;
+import de.unidue.ltl.ctest.difficulty.test.util.CTestJCasGenerator;
+import de.unidue.ltl.ctest.difficulty.types.GapCandidate;
+import de.unidue.ltl.ctest.type.Gap;
+import edu.berkeley.nlp.lm.NgramLanguageModel;
+
+public class SolutionRankStoreTest
+{
+    // a character trigram model, the words are mostly unknown to it
+    private final File lmFile = new File("src/main/resources/charLM/basicEnglish_3grm.binary");
+
+    @Test
+    public void storeTest()
+        throws Exception
+    {
+        CTestJCasGenerator generator = new CTestJCasGenerator("en");
+        generator.addToken("a", false);
+        generator.addToken("b", true);
+        generator.addToken("c", false);
+        generator.addToken(".", false);
+        generator.addSentence(0, generator.getCurrentSentenceOffset());
+        int secondSentence = generator.getCurrentSentenceOffset();
+        generator.addToken("e", true);
+        generator.addToken("f", false);
+        generator.addToken("g", true);
+        generator.addSentence(secondSentence, generator.getCurrentSentenceOffset());
+        JCas jcas = generator.getJCas();
+        DocumentMetaData.create(jcas).setDocumentId("text1.txt");
+
+        String[] words = { "a", "e", "h", "t", "x b" };
+        for (Gap gap : JCasUtil.select(jcas, Gap.class)) {
+            for (String word : words) {
+                GapCandidate candidate = new GapCandidate(jcas, gap.getBegin(), gap.getEnd());
+                candidate.setCandidateWord(word);
+                candidate.addToIndexes();
+            }
+        }
+
+        File storeFile = File.createTempFile("solutionRanks", ".bin");
+        storeFile.deleteOnExit();
+        try (LexicalResourceRegistry.Handle<NgramLanguageModel<String>> lm = LanguageModelResource.acquire(lmFile)) {
+            CandidateSentenceScorer scorer = new CandidateSentenceScorer(lm.get());
+            try (SolutionRankStoreBuilder builder = new SolutionRankStoreBuilder(scorer, 2)) {
+                builder.add(jcas);
+                assertEquals(3, builder.write(storeFile));
+            }
+
+            SolutionRankStore store = SolutionRankStore.open(storeFile);
+            assertEquals(3, store.size());
+            assertTrue(store.containsText("text1.txt"));
+            assertFalse(store.containsText("text2.txt"));
+
+            int sentenceId = 0;
+            for (Sentence sentence : JCasUtil.select(jcas, Sentence.class)) {
+                List<Token> tokens = JCasUtil.selectCovered(Token.class, sentence);
+                for (int tokenId = 0; tokenId < tokens.size(); tokenId++) {
+                    List<Gap> gaps = JCasUtil.selectCovered(Gap.class, tokens.get(tokenId));
+                    int expected = gaps.isEmpty() ? 0
+                            : CandidateSentences.of(gaps.get(0), sentence).getSolutionRank(scorer);
+                    assertEquals(expected, store.getRank("text1.txt", sentenceId, tokenId));
+                }
+                sentenceId++;
+            }
+            assertEquals(0, store.getRank("text1.txt", 2, 0));
+            assertEquals(0, store.getRank("text1.txt", 0, 10));
+            assertEquals(0, store.getRank("text2.txt", 0, 1));
+        }
+    }
+}
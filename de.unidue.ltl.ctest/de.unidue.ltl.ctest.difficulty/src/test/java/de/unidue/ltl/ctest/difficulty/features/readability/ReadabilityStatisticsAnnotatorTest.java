@@ -0,0 +1,138 @@
+package de.unidue.ltl.ctest.difficulty.features.readability;
+
+import static de.unidue.ltl.ctest.difficulty.test.util.CtestTestUtils.assertFeature;
+import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngineDescription;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.uima.fit.pipeline.SimplePipeline;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.dkpro.tc.api.features.Feature;
+import org.dkpro.tc.api.features.FeatureExtractor;
+import org.dkpro.tc.api.type.TextClassificationTarget;
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
+import de.unidue.ltl.ctest.difficulty.test.util.CTestJCasGenerator;
+import de.unidue.ltl.ctest.difficulty.types.ReadabilityStatistics;
+import de.unidue.ltl.ctest.difficulty.types.SentenceStatistics;
+
+public class ReadabilityStatisticsAnnotatorTest
+{
+    private static final int SENTENCES = 200;
+
+    @Test
+    public void testStatisticsComputedOnce()
+        throws Exception
+    {
+        List<TextClassificationTarget> targets = new ArrayList<TextClassificationTarget>();
+        JCas jcas = createDocument(targets);
+
+        // the statistics are computed by the first extractor and reused for all other gaps
+        Map<String, Object> first = extractAll(jcas, targets.get(0));
+        for (TextClassificationTarget target : targets) {
+            extractAll(jcas, target);
+        }
+        Assert.assertEquals(1, JCasUtil.select(jcas, ReadabilityStatistics.class).size());
+        Assert.assertEquals(SENTENCES, JCasUtil.select(jcas, SentenceStatistics.class).size());
+
+        ReadabilityStatistics statistics = ReadabilityStatisticsAnnotator.getStatistics(jcas);
+        Assert.assertEquals(SENTENCES, statistics.getSentences());
+        Assert.assertEquals(5 * SENTENCES, statistics.getWords());
+        // "It", "is", "very", "old" and ten different nouns
+        Assert.assertEquals(14.0 / (5 * SENTENCES), statistics.getTypeTokenRatio(), 0.0001);
+        Assert.assertEquals(1.0 / SENTENCES, statistics.getVerbVariation(), 0.0001);
+        Assert.assertEquals(0.2, statistics.getPronounRatio(), 0.0001);
+        Assert.assertEquals(10, statistics.getUniqueEntities());
+
+        Set<Feature> features = new TypeTokenRatioExtractor().extract(jcas, targets.get(1));
+        assertFeature(features, "TypeTokenRatio_Target", 1.0);
+        features = new AvgLengthExtractor().extract(jcas, targets.get(1));
+        assertFeature(features, "CoverSentenceLength", 5);
+        assertFeature(features, "AvgSentenceLength", 5.0, 0.01);
+        features = new EntityMentionsExtractor().extract(jcas, targets.get(1));
+        assertFeature(features, "UniqueEntitiesInCoversentence", 1);
+        assertFeature(features, "UniqueEntitiesPerSentence", 10.0 / SENTENCES, 0.0001);
+        features = new PosTypesExtractor().extract(jcas, targets.get(1));
+        assertFeature(features, "Nouns", 1);
+        assertFeature(features, "NounsInDocumentPerSentence", 1.0, 0.0001);
+
+        // the annotator gives the same features as the lazy computation
+        List<TextClassificationTarget> annotatedTargets = new ArrayList<TextClassificationTarget>();
+        JCas annotated = createDocument(annotatedTargets);
+        SimplePipeline.runPipeline(annotated, createEngineDescription(ReadabilityStatisticsAnnotator.class));
+        Assert.assertEquals(1, JCasUtil.select(annotated, ReadabilityStatistics.class).size());
+        Assert.assertEquals(first, extractAll(annotated, annotatedTargets.get(0)));
+    }
+
+    @Test
+    public void testThroughput()
+        throws Exception
+    {
+        List<TextClassificationTarget> targets = new ArrayList<TextClassificationTarget>();
+        JCas jcas = createDocument(targets);
+
+        long start = System.nanoTime();
+        for (TextClassificationTarget target : targets) {
+            extractAll(jcas, target);
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.println(String.format("readability features: %.3f ms per gap for %d gaps",
+                elapsed / 1e6 / targets.size(), targets.size()));
+    }
+
+    private Map<String, Object> extractAll(JCas jcas, TextClassificationTarget target)
+        throws Exception
+    {
+        List<FeatureExtractor> extractors = new ArrayList<FeatureExtractor>();
+        extractors.add(new AvgLengthExtractor());
+        extractors.add(new EntityMentionsExtractor());
+        extractors.add(new NumberOfChunksExtractor());
+        extractors.add(new PhrasePatternExtractor());
+        extractors.add(new PosTypesExtractor());
+        extractors.add(new PronounRatioExtractor());
+        extractors.add(new TypeTokenRatioExtractor());
+
+        Map<String, Object> values = new HashMap<String, Object>();
+        for (FeatureExtractor extractor : extractors) {
+            for (Feature feature : extractor.extract(jcas, target)) {
+                values.put(feature.getName(), feature.getValue());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Creates a document of sentences like "It house3 is very old" with a noun chunk per sentence
+     * and the verb as gap, adding the targets of the gaps to the given list.
+     */
+    private JCas createDocument(List<TextClassificationTarget> targets)
+        throws Exception
+    {
+        CTestJCasGenerator generator = new CTestJCasGenerator("en");
+        for (int i = 0; i < SENTENCES; i++) {
+            int begin = generator.getCurrentSentenceOffset();
+            generator.addToken("It", false, "PR");
+            generator.addToken("house" + (i % 10), false, "N");
+            generator.addToken("is", true, "V");
+            generator.addToken("very", false, "ADV");
+            generator.addToken("old", false, "ADJ");
+            generator.addSentence(begin, generator.getCurrentSentenceOffset());
+        }
+        JCas jcas = generator.getJCas();
+        for (Sentence sentence : JCasUtil.select(jcas, Sentence.class)) {
+            generator.addNounChunk(sentence.getBegin() + 3, sentence.getBegin() + 9);
+        }
+        TextClassificationTarget target;
+        while ((target = generator.nextTarget()) != null) {
+            targets.add(target);
+        }
+        return jcas;
+    }
+}
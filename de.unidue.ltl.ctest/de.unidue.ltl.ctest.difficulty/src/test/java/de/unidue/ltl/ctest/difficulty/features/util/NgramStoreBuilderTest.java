@@ -0,0 +1,71 @@
+package de.unidue.ltl.ctest.difficulty.features.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.tudarmstadt.ukp.dkpro.core.api.frequency.util.FrequencyUtils;
+
+public class NgramStoreBuilderTest {
+
+	@Test()
+	public void externalSortTest() throws IOException {
+		Random random = new Random(1);
+		String[] words = { "der", "die", "das", "Haus", "Häuser", "über", "Straße", "a", "ab", "abc" };
+		List<String> lines = new ArrayList<>();
+		List<String> phrases = new ArrayList<>();
+		lines.add("phrase\tlog10probability");
+		for (int i = 0; i < 5000; i++) {
+			StringBuilder phrase = new StringBuilder(words[random.nextInt(words.length)]);
+			for (int n = random.nextInt(3); n > 0; n--)
+				phrase.append(" ").append(words[random.nextInt(words.length)]).append(random.nextInt(10));
+			phrases.add(phrase.toString());
+			lines.add(phrase + "\t" + (-random.nextInt(1000) / 100.0));
+		}
+		// a duplicate in a later run replaces the earlier probability
+		lines.add("der\t-0.5");
+		Path frequencies = Files.createTempFile("ngrams", ".txt");
+		Files.write(frequencies, lines, StandardCharsets.UTF_8);
+
+		Path inMemory = Files.createTempFile("ngrams", ".ngrams");
+		Path external = Files.createTempFile("ngrams", ".ngrams");
+		int count = NgramStoreBuilder.build(frequencies.toString(), inMemory.toString(), "de", "\t", true);
+		assertEquals(count, NgramStoreBuilder.build(frequencies.toString(), external.toString(), "de", "\t", true, 97));
+		assertArrayEquals(Files.readAllBytes(inMemory), Files.readAllBytes(external));
+
+		MappedNgramFrequencyCountProvider expected = new MappedNgramFrequencyCountProvider(inMemory.toString());
+		// segments of 64 bytes, so that keys and blocks span several segments
+		MappedNgramFrequencyCountProvider segmented = new MappedNgramFrequencyCountProvider(external.toString(), 6);
+		assertEquals(count, segmented.size());
+		assertEquals(-0.5, segmented.getLog10Probability("der"), 0.0);
+		for (String phrase : phrases)
+			assertEquals(phrase, expected.getLog10Probability(phrase), segmented.getLog10Probability(phrase), 0.0);
+		for (String phrase : new String[] { "d", "dies", "Haus0", "Häuser Haus", "zzz" })
+			assertEquals(phrase, -Double.MAX_VALUE, segmented.getLog10Probability(phrase), 0.0);
+
+		// a batch in random order, with missing phrases and duplicates, is looked up as the phrases one by one
+		List<String> batch = new ArrayList<>(phrases.subList(0, 500));
+		batch.addAll(Arrays.asList("d", "dies", "Haus0", "Häuser Haus", "zzz", "", "der", "der", "a b c d e f"));
+		Collections.shuffle(batch, random);
+		double[] values = segmented.getLog10Probabilities(batch);
+		for (int i = 0; i < batch.size(); i++)
+			assertEquals(batch.get(i), segmented.getLog10Probability(batch.get(i)), values[i], 0.0);
+	}
+
+	@Test()
+	public void phraseLengthTest() {
+		for (String phrase : new String[] { "", " ", "  ", "a", "a b", "a  b", " a", "a ", "a b  ", " a b c " })
+			assertEquals("'" + phrase + "'", FrequencyUtils.getPhraseLength(phrase), MappedNgramFrequencyCountProvider.getPhraseLength(phrase));
+	}
+}
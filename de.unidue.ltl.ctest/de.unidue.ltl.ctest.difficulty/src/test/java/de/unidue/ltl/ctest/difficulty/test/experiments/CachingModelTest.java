@@ -0,0 +1,122 @@
+package de.unidue.ltl.ctest.difficulty.test.experiments;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unidue.ltl.ctest.core.CTestObject;
+import de.unidue.ltl.ctest.core.CTestToken;
+import de.unidue.ltl.ctest.difficulty.experiments.CachingModel;
+import de.unidue.ltl.ctest.difficulty.experiments.Model;
+
+public class CachingModelTest {
+
+	private List<CTestObject> predicted;
+	private Model model;
+
+	@Before()
+	public void before() {
+		this.predicted = new ArrayList<>();
+		// predicts a tenth of the length of each gap and records the predicted CTests
+		this.model = ctest -> {
+			predicted.add(ctest);
+			return ctest.getGappedTokens().stream()
+					.map(token -> token.getText().length() / 10.0)
+					.collect(Collectors.toList());
+		};
+	}
+
+	@Test()
+	public void hitMissTest() {
+		CachingModel cache = new CachingModel(model);
+
+		List<Double> predictions = cache.predict(createCTest("Das Haus steht .", "Es ist alt ."));
+		assertEquals(predictions, cache.predict(createCTest("Das Haus steht .", "Es ist alt .")));
+		assertEquals(1, predicted.size());
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+
+		// a different gap index is a different CTest
+		CTestObject changed = createCTest("Das Haus steht .", "Es ist alt .");
+		changed.getGappedToken(0).setGapIndex(1);
+		cache.predict(changed);
+		cache.predict(createCTest("Das Haus steht .", "Es ist alt ."));
+		assertEquals(2, predicted.size());
+		assertEquals(2, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+	}
+
+	@Test()
+	public void evictionTest() throws Exception {
+		CachingModel cache = new CachingModel(model, "test", 2, 0);
+		cache.predict(createCTest("Das Haus steht ."));
+		cache.predict(createCTest("Der Baum steht ."));
+		cache.predict(createCTest("Das Haus steht ."));
+		cache.predict(createCTest("Die Tür klemmt ."));
+		assertEquals(3, predicted.size());
+		assertEquals(1, cache.getEvictionCount());
+
+		// the least recently used CTest was evicted
+		cache.predict(createCTest("Das Haus steht ."));
+		cache.predict(createCTest("Der Baum steht ."));
+		assertEquals(4, predicted.size());
+
+		CachingModel expiring = new CachingModel(model, "test", 2, 50);
+		expiring.predict(createCTest("Das Haus steht ."));
+		Thread.sleep(100);
+		expiring.predict(createCTest("Das Haus steht ."));
+		assertEquals(6, predicted.size());
+	}
+
+	@Test()
+	public void sentenceReuseTest() {
+		CachingModel cache = new CachingModel(model);
+		cache.setSentenceReuse(true);
+		cache.predict(createCTest("Das Haus steht .", "Es ist sehr alt .", "Der Garten blüht ."));
+
+		CTestObject changed = createCTest("Das Haus steht .", "Es ist sehr alt .", "Der Baum blüht .");
+		List<Double> predictions = cache.predict(changed);
+		assertEquals(model.predict(changed), predictions);
+		assertEquals(1, cache.getSentenceHitCount());
+		// only the changed sentence was predicted
+		assertEquals("Der Baum blüht .", predicted.get(1).getTokens().stream()
+				.map(CTestToken::getText)
+				.collect(Collectors.joining(" ")));
+	}
+
+	@Test()
+	public void predictAllTest() {
+		CachingModel cache = new CachingModel(model);
+		List<Double> first = cache.predict(createCTest("Das Haus steht ."));
+
+		List<CTestObject> ctests = Arrays.asList(createCTest("Das Haus steht ."), createCTest("Der Baum steht ."));
+		List<List<Double>> predictions = cache.predictAll(ctests);
+		assertEquals(first, predictions.get(0));
+		assertEquals(model.predict(ctests.get(1)), predictions.get(1));
+		assertEquals(first, ctests.get(0).getPredictions());
+		assertEquals(1, cache.getHitCount());
+	}
+
+	/**
+	 * Creates a CTest of the given sentences, gapping every second token.
+	 */
+	private CTestObject createCTest(String... sentences) {
+		CTestObject ctest = new CTestObject("de");
+		for (String sentence : sentences) {
+			String[] words = sentence.split(" ");
+			for (int i = 0; i < words.length; i++) {
+				String word = words[i];
+				CTestToken token = i % 2 == 1 ? new CTestToken(word, word.substring(0, word.length() / 2), 0.0) : new CTestToken(word);
+				token.setLastTokenInSentence(i == words.length - 1);
+				ctest.addToken(token);
+			}
+		}
+		return ctest;
+	}
+}
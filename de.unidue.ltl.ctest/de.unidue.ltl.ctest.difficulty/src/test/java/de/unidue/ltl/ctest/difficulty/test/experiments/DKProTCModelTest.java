@@ -0,0 +1,181 @@
+package de.unidue.ltl.ctest.difficulty.test.experiments;
+
+import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngine;
+import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngineDescription;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.dkpro.tc.api.type.TextClassificationOutcome;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.unidue.ltl.ctest.core.CTestObject;
+import de.unidue.ltl.ctest.core.CTestToken;
+import de.unidue.ltl.ctest.difficulty.experiments.DKProTCModel;
+import de.unidue.ltl.ctest.type.Gap;
+
+public class DKProTCModelTest {
+
+	private DKProTCModel model;
+
+	/**
+	 * Predicts a tenth of the length of each gap, in place of a trained model.
+	 */
+	public static class LengthEstimator extends JCasAnnotator_ImplBase {
+		@Override
+		public void process(JCas jcas) throws AnalysisEngineProcessException {
+			for (Gap gap : JCasUtil.select(jcas, Gap.class)) {
+				TextClassificationOutcome outcome = new TextClassificationOutcome(jcas, gap.getBegin(), gap.getEnd());
+				outcome.setOutcome(String.valueOf(gap.getCoveredText().length() / 10.0));
+				outcome.addToIndexes();
+			}
+		}
+	}
+
+	/**
+	 * A {@code LengthEstimator}, which fails if an instance is used by two threads at once.
+	 */
+	public static class ExclusiveEstimator extends LengthEstimator {
+		private final AtomicBoolean busy = new AtomicBoolean();
+
+		@Override
+		public void process(JCas jcas) throws AnalysisEngineProcessException {
+			if (!busy.compareAndSet(false, true))
+				throw new IllegalStateException("The estimator is used concurrently.");
+			try {
+				Thread.sleep(1);
+				super.process(jcas);
+			} catch (InterruptedException e) {
+				throw new AnalysisEngineProcessException(e);
+			} finally {
+				busy.set(false);
+			}
+		}
+	}
+
+	/**
+	 * An estimator, which fails on every CTest.
+	 */
+	public static class FailingEstimator extends JCasAnnotator_ImplBase {
+		@Override
+		public void process(JCas jcas) throws AnalysisEngineProcessException {
+			throw new AnalysisEngineProcessException(new IllegalArgumentException("No model."));
+		}
+	}
+
+	@Before()
+	public void before() throws Exception {
+		this.model = new DKProTCModel(createEngine(LengthEstimator.class));
+	}
+
+	@Test()
+	public void predictAllTest() throws Exception {
+		List<CTestObject> ctests = createCTests(20);
+		List<List<Double>> predictions = model.predictAll(ctests);
+
+		assertEquals(ctests.size(), predictions.size());
+		for (int i = 0; i < ctests.size(); i++) {
+			assertEquals(model.predict(ctests.get(i)), predictions.get(i));
+			assertEquals(predictions.get(i), ctests.get(i).getPredictions());
+		}
+	}
+
+	@Test()
+	public void concurrentPredictTest() throws Exception {
+		DKProTCModel pooled = new DKProTCModel(createEngineDescription(ExclusiveEstimator.class), null, 3);
+		List<CTestObject> ctests = createCTests(200);
+		List<List<Double>> expected = model.predictAll(ctests);
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Callable<List<Double>>> tasks = new ArrayList<>();
+			for (CTestObject ctest : ctests)
+				tasks.add(() -> pooled.predict(ctest));
+			List<Future<List<Double>>> results = executor.invokeAll(tasks);
+			for (int i = 0; i < ctests.size(); i++)
+				assertEquals(expected.get(i), results.get(i).get());
+
+			List<Callable<List<List<Double>>>> batches = new ArrayList<>();
+			for (int i = 0; i < 4; i++)
+				batches.add(() -> pooled.predictAll(ctests.subList(0, 50)));
+			for (Future<List<List<Double>>> result : executor.invokeAll(batches))
+				assertEquals(expected.subList(0, 50), result.get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test()
+	public void failureTest() throws Exception {
+		DKProTCModel failing = new DKProTCModel(createEngineDescription(FailingEstimator.class), null, 2);
+		List<CTestObject> ctests = createCTests(10);
+
+		try {
+			failing.predict(ctests.get(0));
+			fail("The failure of the estimator must be propagated.");
+		} catch (IllegalStateException e) {
+			assertTrue(e.getCause() instanceof AnalysisEngineProcessException);
+		}
+		try {
+			failing.predictAll(ctests);
+			fail("The failure of the estimator must be propagated.");
+		} catch (IllegalStateException e) {
+			assertTrue(e.getCause() instanceof AnalysisEngineProcessException);
+		}
+	}
+
+	@Test()
+	public void throughputTest() throws Exception {
+		List<CTestObject> ctests = createCTests(10000);
+		int poolSize = Runtime.getRuntime().availableProcessors();
+		DKProTCModel pooled = new DKProTCModel(createEngineDescription(LengthEstimator.class), null, poolSize);
+
+		long start = System.nanoTime();
+		for (CTestObject ctest : ctests)
+			model.predict(ctest);
+		long single = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		model.predictAll(ctests);
+		long batch = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		List<List<Double>> predictions = pooled.predictAll(ctests);
+		long pooledBatch = System.nanoTime() - start;
+		assertEquals(ctests.size(), predictions.size());
+
+		System.out.println(String.format("predict: %.0f C-Tests/s, predictAll: %.0f C-Tests/s, "
+				+ "predictAll with %d pipelines: %.0f C-Tests/s", ctests.size() / (single / 1e9), 
+				ctests.size() / (batch / 1e9), poolSize, ctests.size() / (pooledBatch / 1e9)));
+	}
+
+	private List<CTestObject> createCTests(int count) {
+		String[] words = { "Das", "Haus", "steht", "am", "Ende", "der", "langen", "Straße", "." };
+		List<CTestObject> ctests = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			CTestObject ctest = new CTestObject("de");
+			for (int j = 0; j < words.length; j++) {
+				String word = words[(i + j) % words.length];
+				boolean gapped = j % 2 == 1 && word.length() > 1;
+				CTestToken token = gapped ? new CTestToken(word, word.substring(0, word.length() / 2), 0.0) : new CTestToken(word);
+				token.setLastTokenInSentence(j == words.length - 1);
+				ctest.addToken(token);
+			}
+			ctests.add(ctest);
+		}
+		return ctests;
+	}
+}
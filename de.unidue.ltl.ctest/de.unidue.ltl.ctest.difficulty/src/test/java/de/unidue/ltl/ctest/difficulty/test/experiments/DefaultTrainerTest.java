@@ -2,6 +2,8 @@ package de.unidue.ltl.ctest.difficulty.test.experiments;
 
 import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngineDescription;
 import static org.dkpro.tc.api.features.TcFeatureFactory.create;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
@@ -10,17 +12,21 @@ import java.util.List;
 import org.apache.uima.analysis_engine.AnalysisEngineDescription;
 import org.apache.uima.resource.ResourceInitializationException;
 import org.dkpro.tc.api.features.TcFeatureSet;
+import org.dkpro.tc.ml.model.PreTrainedModelProviderUnitMode;
 import org.junit.Before;
 import org.junit.Test;
 
 import de.tudarmstadt.ukp.dkpro.core.matetools.MateLemmatizer;
 import de.unidue.ltl.ctest.core.CTestObject;
+import de.unidue.ltl.ctest.difficulty.experiments.DKProTCModel;
 import de.unidue.ltl.ctest.difficulty.experiments.Experiment;
+import de.unidue.ltl.ctest.difficulty.experiments.LinearModelEstimator;
 import de.unidue.ltl.ctest.difficulty.experiments.Model;
 import de.unidue.ltl.ctest.difficulty.features.interItemDependency.ThGapExtractor;
 import de.unidue.ltl.ctest.difficulty.train.DefaultTrainer;
 import de.unidue.ltl.ctest.difficulty.train.ModelTrainer;
 import de.unidue.ltl.ctest.io.CTestFileReader;
+import de.unidue.ltl.ctest.type.Gap;
 
 
 public class DefaultTrainerTest {
@@ -57,6 +63,36 @@ public class DefaultTrainerTest {
 		System.out.println(model.predict(ctest));
 	}
 	
+	@Test()
+	public void loadWithPreprocessingTest() throws Exception {
+		this.trainer.saveModel(this.experiment, CTestFileReader.class, this.trainPath, this.modelPath);
+		List<AnalysisEngineDescription> preprocessing = this.experiment.getPreprocessing();
+		Model model = new DefaultTrainer().loadModel(this.modelPath, 
+				createEngineDescription(preprocessing.toArray(new AnalysisEngineDescription[preprocessing.size()])), 2);
+		CTestObject ctest = new CTestFileReader().read(testPath + "enTest.txt");
+		
+		assertEquals(ctest.getGappedTokens().size(), model.predict(ctest).size());
+	}
+	
+	@Test()
+	public void sharedEstimatorTest() throws Exception {
+		this.trainer.saveModel(this.experiment, CTestFileReader.class, this.trainPath, this.modelPath);
+		Model model = this.trainer.loadModel(this.modelPath);
+		Model provider = new DKProTCModel(createEngineDescription(
+				PreTrainedModelProviderUnitMode.class,
+				PreTrainedModelProviderUnitMode.PARAM_NAME_TARGET_ANNOTATION, Gap.class,
+				PreTrainedModelProviderUnitMode.PARAM_TC_MODEL_LOCATION, this.modelPath), null, 1);
+		CTestObject ctest = new CTestFileReader().read(testPath + "enTest.txt");
+		
+		// all estimators of the model score with the same predictor
+		assertSame(LinearModelEstimator.getPredictor(this.modelPath), LinearModelEstimator.getPredictor(this.modelPath));
+		List<Double> expected = provider.predict(ctest);
+		List<Double> actual = model.predict(ctest);
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++)
+			assertEquals(expected.get(i), actual.get(i), 1e-6);
+	}
+	
 	private Experiment createExperiment() throws ResourceInitializationException {		
 		String languageCode = "en";
 		
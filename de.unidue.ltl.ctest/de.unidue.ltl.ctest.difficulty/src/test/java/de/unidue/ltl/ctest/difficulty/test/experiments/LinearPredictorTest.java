@@ -0,0 +1,136 @@
+package de.unidue.ltl.ctest.difficulty.test.experiments;
+
+import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngineDescription;
+import static org.dkpro.tc.api.features.TcFeatureFactory.create;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.uima.analysis_engine.AnalysisEngineDescription;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.dkpro.tc.api.features.Feature;
+import org.dkpro.tc.api.features.TcFeatureSet;
+import org.dkpro.tc.api.type.TextClassificationTarget;
+import org.junit.Test;
+
+import de.tudarmstadt.ukp.dkpro.core.matetools.MateLemmatizer;
+import de.unidue.ltl.ctest.core.CTestObject;
+import de.unidue.ltl.ctest.difficulty.experiments.Experiment;
+import de.unidue.ltl.ctest.difficulty.experiments.LinearPredictor;
+import de.unidue.ltl.ctest.difficulty.experiments.Model;
+import de.unidue.ltl.ctest.difficulty.features.interItemDependency.ThGapExtractor;
+import de.unidue.ltl.ctest.difficulty.train.DefaultTrainer;
+import de.unidue.ltl.ctest.difficulty.train.ModelExporter;
+import de.unidue.ltl.ctest.io.CTestFileReader;
+import de.unidue.ltl.ctest.type.Gap;
+import de.unidue.ltl.ctest.util.Transformation;
+import weka.classifiers.functions.SMOreg;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+
+public class LinearPredictorTest {
+	private final String basePath = "src/test/resources/texts/";
+	private final String trainPath = basePath + "train/";
+	private final String testPath = basePath + "test/";
+	private final String modelPath = "target/linear-model/";
+
+	@Test()
+	public void exportTest() throws Exception {
+		Random random = new Random(1);
+		ArrayList<Attribute> attributes = new ArrayList<>();
+		for (String name : new String[] { "length", "frequency", "isCompound", "outcome" })
+			attributes.add(new Attribute(name));
+		Instances data = new Instances("train", attributes, 0);
+		data.setClassIndex(3);
+		for (int i = 0; i < 200; i++) {
+			double length = 1 + random.nextInt(15);
+			double frequency = random.nextDouble() * 1000;
+			double isCompound = random.nextBoolean() ? 1.0 : 0.0;
+			double outcome = 0.02 * length - 0.0001 * frequency + 0.1 * isCompound + random.nextGaussian() * 0.01;
+			data.add(new DenseInstance(1.0, new double[] { length, frequency, isCompound, outcome }));
+		}
+		SMOreg classifier = new SMOreg();
+		classifier.buildClassifier(data);
+
+		LinearPredictor predictor = ModelExporter.export(classifier, new Instances(data, 0));
+		assertArrayEquals(new String[] { "length", "frequency", "isCompound" }, predictor.getFeatureNames());
+		for (Instance instance : data)
+			assertEquals(classifier.classifyInstance(instance), predictor.predict(new double[] { instance.value(0), instance.value(1), instance.value(2) }), 1e-9);
+
+		Path file = Files.createTempFile("predictor", ".txt");
+		predictor.write(file);
+		LinearPredictor read = LinearPredictor.read(file);
+		assertArrayEquals(predictor.getWeights(), read.getWeights(), 0.0);
+		assertEquals(predictor.getBias(), read.getBias(), 0.0);
+		Files.delete(file);
+
+		double[][] vectors = new double[100000][];
+		for (int i = 0; i < vectors.length; i++)
+			vectors[i] = new double[] { 1 + random.nextInt(15), random.nextDouble() * 1000, random.nextInt(2) };
+		double sum = 0;
+		long start = System.nanoTime();
+		for (double[] vector : vectors)
+			sum += predictor.predict(vector);
+		long exported = System.nanoTime() - start;
+		System.out.println(String.format("exported predictor: %.3f microseconds per gap (%f)", exported / 1e3 / vectors.length, sum));
+	}
+
+	@Test()
+	public void equivalenceTest() throws Exception {
+		DefaultTrainer trainer = new DefaultTrainer();
+		trainer.saveModel(createExperiment(), CTestFileReader.class, trainPath, modelPath);
+		Model model = trainer.loadModel(modelPath);
+		LinearPredictor predictor = ModelExporter.export(modelPath);
+		CTestObject ctest = new CTestFileReader().read(testPath + "enTest.txt");
+
+		List<Double> expected = model.predict(ctest);
+		List<Double> actual = predictor.predict(extractFeatures(ctest, predictor));
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++)
+			assertEquals(expected.get(i), actual.get(i), 1e-6);
+	}
+
+	/**
+	 * Extracts the features of each gap with the feature extractors of the experiment.
+	 */
+	private List<double[]> extractFeatures(CTestObject ctest, LinearPredictor predictor) throws Exception {
+		JCas jcas = Transformation.toJCas(ctest);
+		ThGapExtractor extractor = new ThGapExtractor();
+		List<double[]> vectors = new ArrayList<>();
+		for (Gap gap : JCasUtil.select(jcas, Gap.class)) {
+			TextClassificationTarget target = new TextClassificationTarget(jcas, gap.getBegin(), gap.getEnd());
+			Map<String, Double> values = new HashMap<>();
+			for (Feature feature : extractor.extract(jcas, target)) {
+				Object value = feature.getValue();
+				values.put(feature.getName(), value instanceof Boolean ? ((Boolean) value ? 1.0 : 0.0) : ((Number) value).doubleValue());
+			}
+			vectors.add(predictor.toVector(values));
+		}
+		return vectors;
+	}
+
+	private Experiment createExperiment() throws Exception {
+		List<AnalysisEngineDescription> preprocessing = new ArrayList<>();
+		preprocessing.add(createEngineDescription(MateLemmatizer.class, MateLemmatizer.PARAM_LANGUAGE, "en"));
+
+		TcFeatureSet features = new TcFeatureSet();
+		features.add(create(ThGapExtractor.class));
+
+		Experiment experiment = new Experiment();
+		experiment.setExperimentName("LinearPredictorTestExperiment");
+		experiment.setIsRegression(true);
+		experiment.setPreprocessing(preprocessing);
+		experiment.setFeatureSet(features);
+		return experiment;
+	}
+}
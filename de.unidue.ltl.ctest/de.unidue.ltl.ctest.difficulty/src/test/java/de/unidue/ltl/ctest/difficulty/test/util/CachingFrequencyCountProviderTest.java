@@ -0,0 +1,163 @@
+package de.unidue.ltl.ctest.difficulty.test.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import de.unidue.ltl.ctest.difficulty.features.util.CachingFrequencyCountProvider;
+import de.unidue.ltl.ctest.difficulty.features.util.NoCorpusInMemoryFrequencyCountProvider;
+import de.unidue.ltl.ctest.difficulty.features.util.SortedFrequencyCountProvider;
+
+public class CachingFrequencyCountProviderTest {
+
+	private final String path = "src/test/resources/test.freq.txt";
+
+	/**
+	 * Counts the lookups of log probabilities, each taking the given time.
+	 */
+	private static class CountingProvider extends NoCorpusInMemoryFrequencyCountProvider {
+		private final AtomicInteger lookups = new AtomicInteger();
+		private final long delay;
+
+		private CountingProvider(String path, long delay) throws IOException {
+			super(path, "en", "\t", true);
+			this.delay = delay;
+		}
+
+		@Override
+		public double getLogProbability(String phrase) {
+			lookups.incrementAndGet();
+			try {
+				Thread.sleep(delay);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return super.getLogProbability(phrase);
+		}
+	}
+
+	@Test()
+	public void hitMissTest() throws IOException {
+		CountingProvider provider = new CountingProvider(path, 0);
+		CachingFrequencyCountProvider cache = new CachingFrequencyCountProvider(provider, 2);
+
+		assertEquals(provider.getLogProbability("foo"), cache.getLogProbability("foo"), 0.0);
+		cache.getLogProbability("foo");
+		cache.getLogProbability("bar");
+		assertEquals(3, provider.lookups.get());
+		assertEquals(1, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+
+		// probabilities and log probabilities are cached separately
+		assertEquals(provider.getProbability("foo"), cache.getProbability("foo"), 0.0);
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getEvictionCount());
+		assertEquals("en", cache.getLanguage());
+	}
+
+	@Test()
+	public void batchTest() throws IOException {
+		CountingProvider provider = new CountingProvider(path, 0);
+		CachingFrequencyCountProvider cache = new CachingFrequencyCountProvider(provider);
+		cache.getLogProbability("foo");
+
+		cache.register("foo bar");
+		cache.register("foo");
+		cache.register("bar");
+		cache.register("bar");
+		// "foo" is cached already
+		assertEquals(2, cache.resolve());
+		assertEquals(3, provider.lookups.get());
+
+		assertEquals(provider.getLogProbability("bar"), cache.getLogProbability("bar"), 0.0);
+		cache.getLogProbability("foo bar");
+		assertEquals(4, provider.lookups.get());
+		assertEquals(0, cache.resolve());
+
+		// probabilities are resolved apart from log probabilities
+		long misses = cache.getMissCount();
+		cache.registerProbability("foo");
+		cache.register("foo");
+		assertEquals(1, cache.resolve());
+		assertEquals(misses + 1, cache.getMissCount());
+		assertEquals(provider.getProbability("foo"), cache.getProbability("foo"), 0.0);
+		assertEquals(misses + 1, cache.getMissCount());
+	}
+
+	/**
+	 * Counts the batches of log probabilities.
+	 */
+	private static class SortedCountingProvider extends CountingProvider implements SortedFrequencyCountProvider {
+		private final List<List<String>> batches = new ArrayList<>();
+
+		private SortedCountingProvider(String path) throws IOException {
+			super(path, 0);
+		}
+
+		@Override
+		public double[] getProbabilities(List<String> phrases) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public double[] getLogProbabilities(List<String> phrases) {
+			batches.add(phrases);
+			double[] values = new double[phrases.size()];
+			for (int i = 0; i < values.length; i++)
+				values[i] = super.getLogProbability(phrases.get(i));
+			return values;
+		}
+	}
+
+	@Test()
+	public void sortedBatchTest() throws IOException {
+		SortedCountingProvider provider = new SortedCountingProvider(path);
+		CachingFrequencyCountProvider cache = new CachingFrequencyCountProvider(provider);
+		cache.getLogProbability("foo");
+
+		cache.register("foo bar");
+		cache.register("foo");
+		cache.register("bar");
+		assertEquals(2, cache.resolve());
+		// one batch for the phrases, which are not cached
+		assertEquals(1, provider.batches.size());
+		assertEquals(2, provider.batches.get(0).size());
+
+		// answered from memory
+		assertEquals(provider.getLogProbability("bar"), cache.getLogProbability("bar"), 0.0);
+		cache.getLogProbability("foo bar");
+		assertEquals(2, cache.getHitCount());
+		assertEquals(3, cache.getMissCount());
+	}
+
+	@Test()
+	public void coalescingTest() throws Exception {
+		CountingProvider provider = new CountingProvider(path, 100);
+		CachingFrequencyCountProvider cache = new CachingFrequencyCountProvider(provider);
+		double expected = provider.getLogProbability("foo");
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<Double>> results = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			Callable<Double> lookup = () -> cache.getLogProbability("foo");
+			results.add(executor.submit(lookup));
+		}
+		for (Future<Double> result : results)
+			assertEquals(expected, result.get(), 0.0);
+		executor.shutdown();
+
+		// one lookup by the test, one by the cache
+		assertEquals(2, provider.lookups.get());
+		assertEquals(7, cache.getSavedLookupCount());
+		System.out.println(cache);
+	}
+}
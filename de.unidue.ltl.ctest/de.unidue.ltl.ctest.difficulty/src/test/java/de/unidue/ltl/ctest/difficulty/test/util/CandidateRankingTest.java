@@ -0,0 +1,45 @@
+package de.unidue.ltl.ctest.difficulty.test.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+import de.unidue.ltl.ctest.difficulty.features.util.CandidateRanking;
+
+public class CandidateRankingTest {
+
+	@Test()
+	public void rankingTest() {
+		CandidateRanking ranking = new CandidateRanking();
+		String[] words = { "a", "b", "c", "d", "e" };
+		double[] scores = { 0.1, 0.5, 0.5, 0.9, 0.1 };
+		for (int i = 0; i < words.length; i++) {
+			ranking.add(words[i], scores[i]);
+		}
+		assertEquals(5, ranking.size());
+
+		// equal scores keep the order of the candidates
+		assertEquals(Arrays.asList("d", "b", "c", "a", "e"), ranking.getTopN(10));
+		assertEquals(Arrays.asList("d", "b"), ranking.getTopN(2));
+		assertEquals(Collections.emptyList(), ranking.getTopN(0));
+
+		assertEquals(1, ranking.getSolutionRank(Collections.singleton("d")));
+		assertEquals(3, ranking.getSolutionRank(Collections.singleton("c")));
+		assertEquals(5, ranking.getSolutionRank(Collections.singleton("e")));
+		assertEquals(2, ranking.getSolutionRank(new HashSet<>(Arrays.asList("e", "b"))));
+		assertEquals(-1, ranking.getSolutionRank(Collections.singleton("f")));
+
+		ranking.clear();
+		assertEquals(0, ranking.size());
+		assertEquals(-1, ranking.getSolutionRank(Collections.singleton("d")));
+		for (int i = 0; i < 100; i++) {
+			ranking.add("w" + i, i % 7);
+		}
+		assertEquals(Arrays.asList("w6", "w13", "w20"), ranking.getTopN(3));
+		assertEquals(15, ranking.getSolutionRank(Collections.singleton("w5")));
+	}
+}
@@ -0,0 +1,57 @@
+package de.unidue.ltl.ctest.difficulty.test.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.unidue.ltl.ctest.difficulty.features.util.CandidateSentenceScorer;
+import de.unidue.ltl.ctest.difficulty.features.util.LanguageModelResource;
+import de.unidue.ltl.ctest.difficulty.features.util.LexicalResourceRegistry;
+import edu.berkeley.nlp.lm.NgramLanguageModel;
+
+public class CandidateSentenceScorerTest {
+
+	// a character trigram model, each character is a word
+	private final File lmFile = new File("src/main/resources/charLM/basicEnglish_3grm.binary");
+
+	private List<String> characters(String text) {
+		List<String> characters = new ArrayList<>();
+		for (char c : text.toCharArray()) {
+			characters.add(String.valueOf(c));
+		}
+		return characters;
+	}
+
+	@Test()
+	public void batchTest() throws IOException {
+		try (LexicalResourceRegistry.Handle<NgramLanguageModel<String>> first = LanguageModelResource.acquire(lmFile);
+				LexicalResourceRegistry.Handle<NgramLanguageModel<String>> second = LanguageModelResource.acquire(lmFile)) {
+			assertSame(first.get(), second.get());
+			NgramLanguageModel<String> lm = first.get();
+			CandidateSentenceScorer scorer = new CandidateSentenceScorer(lm);
+
+			List<String> candidates = Arrays.asList("e", "a", "x", "q u", "ou", "");
+			String[][] contexts = { { "th", " house" }, { "", "re" }, { "her", "" }, { "", "" }, { "a", "b" } };
+			for (String[] context : contexts) {
+				List<String> left = characters(context[0]);
+				List<String> right = characters(context[1]);
+				double[] scores = scorer.score(left, right, candidates);
+				for (int i = 0; i < candidates.size(); i++) {
+					List<String> sentence = new ArrayList<>(left);
+					Collections.addAll(sentence, candidates.get(i).split(" "));
+					sentence.addAll(right);
+					assertEquals(lm.scoreSentence(sentence), scores[i], 1e-3);
+					assertEquals(scorer.score(sentence), scores[i], 1e-3);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package de.unidue.ltl.ctest.difficulty.test.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import de.unidue.ltl.ctest.difficulty.features.util.LexicalResourceRegistry;
+
+public class LexicalResourceRegistryTest {
+
+	private final File wordList = new File("src/main/resources/wordLists/academicWordsEn_CocaCoxheadMerged.txt");
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	private Set<String> load(File file) throws IOException {
+		loads.incrementAndGet();
+		return new HashSet<>(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+	}
+
+	@Test()
+	public void sharingTest() throws IOException {
+		int size = LexicalResourceRegistry.size();
+		LexicalResourceRegistry.Handle<Set<String>> first = LexicalResourceRegistry.acquire(wordList, "test", this::load);
+		LexicalResourceRegistry.Handle<Set<String>> second = LexicalResourceRegistry.acquire(wordList, "test", this::load);
+		LexicalResourceRegistry.Handle<Set<String>> other = LexicalResourceRegistry.acquire(wordList, "test:other", this::load);
+		assertSame(first.get(), second.get());
+		assertNotSame(first.get(), other.get());
+		assertEquals(2, loads.get());
+		assertEquals(size + 2, LexicalResourceRegistry.size());
+
+		// released, when the last handle is closed
+		first.close();
+		first.close();
+		assertEquals(size + 2, LexicalResourceRegistry.size());
+		second.close();
+		other.close();
+		assertEquals(size, LexicalResourceRegistry.size());
+
+		LexicalResourceRegistry.acquire(wordList, "test", this::load).close();
+		assertEquals(3, loads.get());
+	}
+
+	@Test()
+	public void parallelLoadingTest() throws IOException {
+		LexicalResourceRegistry.setParallelLoading(true);
+		try {
+			LexicalResourceRegistry.Handle<Set<String>> first = LexicalResourceRegistry.acquire(wordList, "parallel", this::load);
+			LexicalResourceRegistry.Handle<Set<String>> second = LexicalResourceRegistry.acquire(wordList, "parallel", this::load);
+			assertSame(first.get(), second.get());
+			assertEquals(1, loads.get());
+			first.close();
+			second.close();
+		} finally {
+			LexicalResourceRegistry.setParallelLoading(false);
+		}
+	}
+
+	@Test()
+	public void errorTest() throws IOException {
+		int size = LexicalResourceRegistry.size();
+		try {
+			LexicalResourceRegistry.acquire(wordList, "error", file -> {
+				throw new OutOfMemoryError("test");
+			});
+			fail("The error of the loader was not rethrown");
+		} catch (OutOfMemoryError e) {
+			assertEquals("test", e.getMessage());
+		}
+		assertEquals(size, LexicalResourceRegistry.size());
+
+		// the failed entry is removed, the next acquisition loads again
+		LexicalResourceRegistry.Handle<Set<String>> handle = LexicalResourceRegistry.acquire(wordList, "error", this::load);
+		assertEquals(1, loads.get());
+		handle.close();
+
+		LexicalResourceRegistry.setParallelLoading(true);
+		try {
+			LexicalResourceRegistry.Handle<Set<String>> failed = LexicalResourceRegistry.acquire(wordList, "error:parallel", file -> {
+				throw new OutOfMemoryError("test");
+			});
+			try {
+				failed.get();
+				fail("The error of the loader was not rethrown");
+			} catch (OutOfMemoryError e) {
+				assertEquals("test", e.getMessage());
+			}
+			failed.close();
+		} finally {
+			LexicalResourceRegistry.setParallelLoading(false);
+		}
+		assertEquals(size, LexicalResourceRegistry.size());
+	}
+}
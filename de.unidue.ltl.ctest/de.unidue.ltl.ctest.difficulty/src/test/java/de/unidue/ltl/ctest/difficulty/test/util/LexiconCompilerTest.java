@@ -0,0 +1,167 @@
+package de.unidue.ltl.ctest.difficulty.test.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import de.unidue.ltl.ctest.difficulty.features.util.LexiconCompiler;
+import de.unidue.ltl.ctest.difficulty.features.util.LexiconCompiler.Format;
+import de.unidue.ltl.ctest.difficulty.features.util.StringTable;
+
+public class LexiconCompilerTest {
+
+	private File copy(String resource) throws IOException {
+		Path directory = Files.createTempDirectory("lexicon");
+		Path copy = directory.resolve(new File(resource).getName());
+		Files.copy(new File(resource).toPath(), copy, StandardCopyOption.REPLACE_EXISTING);
+		return copy.toFile();
+	}
+
+	@Test()
+	public void columnsTest() throws IOException {
+		File textFile = copy("src/main/resources/senses/ubySensesEn.txt");
+		Map<String, String> expected = new HashMap<>();
+		for (String line : FileUtils.readLines(textFile)) {
+			String[] item = line.split("\t");
+			expected.put(item[0].toLowerCase(), item[1]);
+		}
+
+		StringTable parsed = parse(textFile, Format.LOWERCASE_COLUMNS);
+		assertFalse(parsed.isMapped());
+		LexiconCompiler.compile(textFile, Format.LOWERCASE_COLUMNS);
+		StringTable compiled = LexiconCompiler.load(textFile, Format.LOWERCASE_COLUMNS);
+		assertTrue(compiled.isMapped());
+		assertEquals(0, compiled.getHeapBytes());
+
+		assertEquals(expected.size(), compiled.size());
+		for (Map.Entry<String, String> entry : expected.entrySet()) {
+			assertEquals(entry.getValue(), parsed.get(entry.getKey()));
+			assertEquals(entry.getValue(), compiled.get(entry.getKey()));
+		}
+		assertNull(compiled.get("notaword"));
+		assertFalse(compiled.contains(""));
+
+		Map<String, String> all = new HashMap<>();
+		compiled.forEach(all::put);
+		assertEquals(expected, all);
+
+		// a table compiled with another format is not used
+		assertFalse(parse(textFile, Format.COLUMNS).isMapped());
+	}
+
+	@Test()
+	public void cacheTest() throws IOException {
+		File textFile = copy("src/main/resources/senses/ubySensesEn.txt");
+		File cacheDirectory = Files.createTempDirectory("lexiconCache").toFile();
+		String previous = System.setProperty(LexiconCompiler.PROP_CACHE_DIRECTORY, cacheDirectory.getPath());
+		try {
+			// compiled into the cache directory on first use
+			StringTable first = LexiconCompiler.load(textFile, Format.LOWERCASE_COLUMNS);
+			File cachedFile = LexiconCompiler.getCachedFile(textFile, Format.LOWERCASE_COLUMNS);
+			assertTrue(cachedFile.exists());
+			assertTrue(first.isMapped());
+			assertEquals(0, first.getHeapBytes());
+
+			// mapped from the cache later on, each format has its own cached file
+			long compiled = cachedFile.lastModified();
+			StringTable second = LexiconCompiler.load(textFile, Format.LOWERCASE_COLUMNS);
+			assertTrue(second.isMapped());
+			assertEquals(compiled, cachedFile.lastModified());
+			assertEquals(first.size(), second.size());
+			assertEquals(Format.COLUMNS.name(), LexiconCompiler.load(textFile, Format.COLUMNS).getFormat());
+
+			// compiled again, if the text file changes, even if it is older than the cached file
+			List<String> lines = FileUtils.readLines(textFile);
+			FileUtils.writeLines(textFile, lines.subList(0, lines.size() / 2));
+			assertTrue(textFile.setLastModified(compiled - 60000));
+			StringTable changed = LexiconCompiler.load(textFile, Format.LOWERCASE_COLUMNS);
+			assertTrue(changed.isMapped());
+			assertTrue(changed.size() < first.size());
+			assertEquals(textFile.length(), changed.getSourceLength());
+			assertEquals(textFile.lastModified(), changed.getSourceLastModified());
+
+			// kept on the heap, if the cache directory is not writable
+			File notADirectory = new File(cacheDirectory, "file");
+			assertTrue(notADirectory.createNewFile());
+			System.setProperty(LexiconCompiler.PROP_CACHE_DIRECTORY, notADirectory.getPath());
+			StringTable parsed = LexiconCompiler.load(textFile, Format.LOWERCASE_COLUMNS);
+			assertFalse(parsed.isMapped());
+			assertEquals(changed.size(), parsed.size());
+		} finally {
+			restore(previous);
+		}
+	}
+
+	@Test()
+	public void valueSumTest() throws IOException {
+		File textFile = copy("src/main/resources/senses/ubySensesEn.txt");
+		long expected = 0;
+		Map<String, String> values = new HashMap<>();
+		for (String line : FileUtils.readLines(textFile)) {
+			String[] item = line.split("\t");
+			values.put(item[0], item[1]);
+		}
+		for (String value : values.values()) {
+			expected += Long.parseLong(value);
+		}
+		StringTable table = parse(textFile, Format.COLUMNS);
+		assertEquals(expected, table.getValueSum());
+		assertEquals(expected, table.getValueSum());
+	}
+
+	/**
+	 * Loads the given text resource without the cache directory, so it is compiled into a heap buffer.
+	 */
+	private static StringTable parse(File textFile, Format format) throws IOException {
+		String previous = System.setProperty(LexiconCompiler.PROP_CACHE_DIRECTORY, "");
+		try {
+			return LexiconCompiler.load(textFile, format);
+		} finally {
+			restore(previous);
+		}
+	}
+
+	private static void restore(String cacheDirectory) {
+		if (cacheDirectory == null) {
+			System.clearProperty(LexiconCompiler.PROP_CACHE_DIRECTORY);
+		} else {
+			System.setProperty(LexiconCompiler.PROP_CACHE_DIRECTORY, cacheDirectory);
+		}
+	}
+
+	@Test()
+	public void startupTest() throws IOException {
+		String[] resources = { "src/main/resources/wordLists/cmudict_nostress.csv",
+				"src/main/resources/wordLists/pronunciationsEN.txt", "src/main/resources/wordLists/wordsEn.txt" };
+		Format[] formats = { Format.COLUMNS, Format.PRONUNCIATIONS, Format.LOWERCASE_WORDS };
+		for (int i = 0; i < resources.length; i++) {
+			File textFile = copy(resources[i]);
+
+			long start = System.nanoTime();
+			StringTable parsed = parse(textFile, formats[i]);
+			long parseTime = System.nanoTime() - start;
+
+			LexiconCompiler.compile(textFile, formats[i]);
+			start = System.nanoTime();
+			StringTable compiled = LexiconCompiler.load(textFile, formats[i]);
+			long mapTime = System.nanoTime() - start;
+
+			assertEquals(parsed.size(), compiled.size());
+			System.out.println(String.format("%s: %d entries, parsed in %.1f ms (%d heap bytes), mapped in %.3f ms (%d heap bytes)",
+					textFile.getName(), compiled.size(), parseTime / 1e6, parsed.getHeapBytes(), mapTime / 1e6, compiled.getHeapBytes()));
+		}
+	}
+}
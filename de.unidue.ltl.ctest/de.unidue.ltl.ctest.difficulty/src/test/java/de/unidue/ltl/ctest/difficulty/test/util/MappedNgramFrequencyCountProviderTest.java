@@ -0,0 +1,70 @@
+package de.unidue.ltl.ctest.difficulty.test.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.unidue.ltl.ctest.difficulty.features.util.MappedNgramFrequencyCountProvider;
+import de.unidue.ltl.ctest.difficulty.features.util.NgramStoreBuilder;
+import de.unidue.ltl.ctest.difficulty.features.util.NoCorpusInMemoryFrequencyCountProvider;
+
+public class MappedNgramFrequencyCountProviderTest {
+
+	@Test()
+	public void frequencyTest() throws IOException {
+		Path store = Files.createTempFile("test.freq", ".ngrams");
+		NgramStoreBuilder.build("src/test/resources/test.freq.txt", store.toString(), "en", "\t", true);
+		MappedNgramFrequencyCountProvider provider = MappedNgramFrequencyCountProvider.open(store.toString());
+
+		assertEquals(-1234.5, provider.getLog10Probability("foo"), Math.pow(10, -100));
+		assertEquals(-Double.MAX_VALUE, provider.getLog10Probability("bar"), 0.0);
+		assertEquals("en", provider.getLanguage());
+		assertSame(provider, MappedNgramFrequencyCountProvider.open(store.toString()));
+	}
+
+	@Test()
+	public void equivalenceTest() throws IOException {
+		Random random = new Random(1);
+		String[] words = { "der", "die", "das", "Haus", "Häuser", "über", "Straße", "a", "ab", "abc" };
+		List<String> lines = new ArrayList<>();
+		List<String> phrases = new ArrayList<>();
+		lines.add("phrase\tlog10probability");
+		for (int i = 0; i < 10000; i++) {
+			StringBuilder phrase = new StringBuilder(words[random.nextInt(words.length)]);
+			for (int n = random.nextInt(3); n > 0; n--)
+				phrase.append(" ").append(words[random.nextInt(words.length)]).append(random.nextInt(20));
+			phrases.add(phrase.toString());
+			lines.add(phrase + "\t" + (-random.nextInt(1000) / 100.0));
+		}
+		Path frequencies = Files.createTempFile("ngrams", ".txt");
+		Files.write(frequencies, lines, StandardCharsets.UTF_8);
+		Path store = Files.createTempFile("ngrams", ".ngrams");
+		NgramStoreBuilder.build(frequencies.toString(), store.toString(), "de", "\t", true);
+
+		NoCorpusInMemoryFrequencyCountProvider expected = new NoCorpusInMemoryFrequencyCountProvider(frequencies.toString(), "de", "\t", true);
+		MappedNgramFrequencyCountProvider actual = new MappedNgramFrequencyCountProvider(store.toString());
+		for (String phrase : phrases)
+			assertEquals(phrase, expected.getLog10Probability(phrase), actual.getLog10Probability(phrase), 1e-5);
+		// phrases, which are not in the store, but share prefixes with those, which are
+		for (String phrase : new String[] { "d", "dies", "Haus0", "Häuser Haus", "zzz" })
+			assertEquals(phrase, expected.getLog10Probability(phrase), actual.getLog10Probability(phrase), 0.0);
+
+		long start = System.nanoTime();
+		double sum = 0;
+		for (int i = 0; i < 100; i++) {
+			for (String phrase : phrases)
+				sum += actual.getLog10Probability(phrase);
+		}
+		System.out.println(String.format("mapped n-gram store: %.3f microseconds per lookup (%f)",
+				(System.nanoTime() - start) / 1e3 / (100 * phrases.size()), sum));
+	}
+}
@@ -1,31 +1,47 @@
 package de.unidue.ltl.ctest.gapscheme;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Predicate;
 
 import org.apache.uima.UIMAException;
 import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.analysis_engine.AnalysisEngineDescription;
 import org.apache.uima.fit.factory.JCasFactory;
 import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
+import org.apache.uima.resource.ResourceInitializationException;
 
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
 import de.unidue.ltl.ctest.core.CTestObject;
 import de.unidue.ltl.ctest.core.CTestToken;
+import de.unidue.ltl.ctest.gapscheme.cache.AnalysisCache;
+import de.unidue.ltl.ctest.gapscheme.cache.AnalyzedDocument;
+import de.unidue.ltl.ctest.gapscheme.preprocessing.Criterion;
 import de.unidue.ltl.ctest.gapscheme.preprocessing.GapIndexFinder;
 
 /**
  * Builder class for {@link CTestObject} objects.
  */
 public class CTestGenerator {	
+	
 	private List<Predicate<Token>> exclusionRules;
 	private List<GapIndexFinder> gapIndexFinders;
+	private List<Criterion> criteria;
+	private List<Criterion> selectedExclusionCriteria;
+	private List<GapIndexFinder> selectedGapIndexFinders;
+	private GenerationProfile profile = GenerationProfile.DEFAULT;
 	private List<Sentence> sentences;
 	private List<String> warnings;
+	private List<List<String>> batchWarnings;
 	
 	private CTestObject ctest;
+	private AnalysisCache analysisCache;
+	private SentenceAnalyzer sentenceAnalyzer;
+	private ParallelAnalyzer parallelAnalyzer;
+	private String parallelConfiguration;
 	private JCas jcas;
 	private String language;
 	private String text;
@@ -34,7 +50,10 @@ public class CTestGenerator {
 	private int gapLimit;
 	private boolean enforceLeadingSentence;
 	private boolean enforceTrailingSentence;
+	private boolean streamingAnalysis;
+	private int analysisThreads;
 	
+	private boolean streaming;
 	private int gapCandidates;
 	private int gapCount;
 	private int sentenceCount;
@@ -92,12 +111,130 @@ public class CTestGenerator {
 	 * @see CTestObject
 	 */
 	public CTestObject generateCTest(String text, String language) throws UIMAException {
-		initialise(text, language);
-		makeGaps();
+		initialise(text, language, streamingAnalysis);
+		makeGaps(new ArrayList<>(JCasUtil.select(jcas, Sentence.class)));
 		generateWarnings();
 		return ctest;
 	}
 	
+	/**
+	 * Generates a {@code CTestObject} from each of the given texts, reusing the preprocessing engines and a single {@code JCas} for all texts.
+	 * <p>
+	 * Each text is processed on its own, in the same {@code JCas} which is reset between texts, 
+	 * either in one pipeline run or by the {@code ParallelAnalyzer} if parallel analysis is enabled.
+	 * Hence, neither the preprocessing nor the exclusion criteria see the neighbouring texts.
+	 * The c-tests are generated as by {@code generateCTest(String, String)}.
+	 * The analysis cache and streaming analysis are not used.
+	 * 
+	 * @param  texts The texts to be converted to c-tests.
+	 * @param  language The language of the texts. Should be a ISO 639 two-letter language code.
+	 * @return The generated c-tests, in the order of the texts. Texts without sentences yield empty c-tests.
+	 * 
+	 * @throws UIMAException if UIMA preprocessing resources could not be initialised.
+	 * 
+	 * @see CTestGenerator#getBatchWarnings()
+	 */
+	public List<CTestObject> generateCTests(List<String> texts, String language) throws UIMAException {
+		this.language = language;
+		streaming = false;
+		selectCriteria(language);
+		
+		List<AnalysisEngine> engines;
+		ParallelAnalyzer analyzer = null;
+		if (analysisThreads > 1) {
+			engines = CTestResourceProvider.getSegmentationEngines();
+			analyzer = getParallelAnalyzer(language, CTestResourceProvider.getCriterionEngineDescriptions(language, criteria));
+		} else {
+			engines = new ArrayList<>(CTestResourceProvider.getSegmentationEngines());
+			engines.addAll(CTestResourceProvider.getCriterionEngines(language, criteria));
+		}
+		
+		List<CTestObject> ctests = new ArrayList<>();
+		batchWarnings = new ArrayList<>();
+		jcas = JCasFactory.createJCas();
+		for (String aText : texts) {
+			jcas.reset();
+			jcas.setDocumentText(aText);
+			jcas.setDocumentLanguage(language);
+			for (AnalysisEngine engine : engines)
+				engine.process(jcas);
+			if (analyzer != null)
+				analyzer.analyze(jcas);
+			initialiseCriteria();
+			
+			text = aText;
+			makeGaps(new ArrayList<>(JCasUtil.select(jcas, Sentence.class)));
+			generateWarnings();
+			ctests.add(ctest);
+			batchWarnings.add(warnings);
+		}
+		return ctests;
+	}
+	
+	/**
+	 * Generates a {@code CTestObject} from a range of sentences of an already analyzed document.
+	 * <p>
+	 * The document is not processed again and must contain all annotations required by the exclusion criteria 
+	 * and gap index finders in use. The first sentence of the range is the leading sentence, the last one the trailing sentence.
+	 * The language of the document determines the language specific criteria.
+	 * 
+	 * @param  aJCas The analyzed document.
+	 * @param  firstSentence The index of the first sentence of the range.
+	 * @param  lastSentence The index of the last sentence of the range, inclusive.
+	 * @return The generated {@code CTestObject}.
+	 * 
+	 * @throws IllegalArgumentException if the range is not within the sentences of the document.
+	 */
+	public CTestObject generateCTest(JCas aJCas, int firstSentence, int lastSentence) {
+		return generateCTests(aJCas, Collections.singletonList(new int[] { firstSentence, lastSentence })).get(0);
+	}
+	
+	/**
+	 * Generates a {@code CTestObject} from each of the given sentence ranges of an already analyzed document, 
+	 * as by {@code generateCTest(JCas, int, int)}.
+	 * <p>
+	 * The exclusion criteria and gap index finders are initialised once for the document and shared by all ranges.
+	 * 
+	 * @param  aJCas The analyzed document.
+	 * @param  ranges The ranges, each the indexes of its first and last sentence, inclusive.
+	 * @return The generated c-tests, in the order of the ranges.
+	 * 
+	 * @throws IllegalArgumentException if a range is not within the sentences of the document.
+	 * 
+	 * @see CTestGenerator#getBatchWarnings()
+	 */
+	public List<CTestObject> generateCTests(JCas aJCas, List<int[]> ranges) {
+		List<Sentence> documentSentences = new ArrayList<>(JCasUtil.select(aJCas, Sentence.class));
+		for (int[] range : ranges) {
+			if (range[0] < 0 || range[1] >= documentSentences.size() || range[0] > range[1]) {
+				throw new IllegalArgumentException("The sentence range must be within the sentences of the document.");
+			}
+		}
+		
+		language = aJCas.getDocumentLanguage();
+		streaming = false;
+		jcas = aJCas;
+		selectCriteria(language);
+		initialiseCriteria();
+		
+		List<CTestObject> ctests = new ArrayList<>();
+		batchWarnings = new ArrayList<>();
+		for (int[] range : ranges) {
+			text = aJCas.getDocumentText().substring(documentSentences.get(range[0]).getBegin(), 
+					documentSentences.get(range[1]).getEnd());
+			try {
+				makeGaps(documentSentences.subList(range[0], range[1] + 1));
+			} catch (UIMAException e) {
+				// only thrown by streaming analysis
+				throw new IllegalStateException(e);
+			}
+			generateWarnings();
+			ctests.add(ctest);
+			batchWarnings.add(warnings);
+		}
+		return ctests;
+	}
+	
 	/**
 	 * Generates a {@code CTestObject} from the given input text, ignoring any C-Test constraints.
 	 * <p>
@@ -110,7 +247,7 @@ public class CTestGenerator {
 	 * @param gapFirst if true, gapping starts at the first token.
 	 */
 	public CTestObject generatePartialCTest(String text, String language, boolean gapFirst) throws UIMAException {
-		initialise(text, language);
+		initialise(text, language, false);
 		int gapOffset = gapFirst ? 0 : 1; //determines, where the first gap is set.
 		makeSimpleGaps(gapOffset);
 		return ctest;
@@ -302,6 +439,118 @@ public class CTestGenerator {
 		return language;
 	}
 	
+	/**
+	 * Returns the {@code AnalysisCache} used by this generator, or null if preprocessing results are not cached.
+	 */
+	public AnalysisCache getAnalysisCache() {
+		return analysisCache;
+	}
+	
+	/**
+	 * Sets the {@code AnalysisCache} used by this generator.
+	 * <p>
+	 * If a cache is set, preprocessing results are looked up in the cache before the text is processed,
+	 * and stored in the cache afterwards. A cache may be shared by multiple generators.
+	 * 
+	 * @param  analysisCache The cache, null disables caching.
+	 */
+	public void setAnalysisCache(AnalysisCache analysisCache) {
+		this.analysisCache = analysisCache;
+	}
+	
+	/**
+	 * Indicates whether texts are analyzed sentence by sentence, only as far as required for placing the gaps.
+	 */
+	public boolean usesStreamingAnalysis() {
+		return streamingAnalysis;
+	}
+	
+	/**
+	 * Sets whether texts are analyzed sentence by sentence, only as far as required for placing the gaps.
+	 * <p>
+	 * If enabled, {@code generateCTest} only segments the whole text. The language specific preprocessing,
+	 * such as named entity recognition and decompounding, is run on one sentence at a time
+	 * and stops after the trailing sentence, once the gap limit has been reached.
+	 * The cost of generating a c-test then depends on the size of the c-test, rather than the size of the text.
+	 * <p>
+	 * Tokens in sentences after the trailing sentence are not analyzed and are never marked as gap candidates.
+	 * If an {@code AnalysisCache} is set, cached analyses are still used, but partial analyses are not stored.
+	 * {@code generatePartialCTest} always analyzes the whole text.
+	 * 
+	 * @param  streamingAnalysis Whether to enable streaming analysis. Disabled by default.
+	 */
+	public void setStreamingAnalysis(boolean streamingAnalysis) {
+		this.streamingAnalysis = streamingAnalysis;
+	}
+	
+	/**
+	 * Returns the number of threads used for analyzing a text, 0 if texts are analyzed as a whole.
+	 */
+	public int getAnalysisThreads() {
+		return analysisThreads;
+	}
+	
+	/**
+	 * Sets the number of threads used for analyzing a text.
+	 * <p>
+	 * If more than one thread is used, texts are segmented first and the language specific preprocessing
+	 * is run concurrently on chunks of sentences, using one set of engines per thread.
+	 * This speeds up the analysis of long texts, such as whole books, while the result remains the same.
+	 * Streaming analysis takes precedence, if it is enabled as well.
+	 * <p>
+	 * The engines of each thread are kept until the pipeline changes or parallel analysis is disabled.
+	 * 
+	 * @param  threads The number of threads, 0 or 1 analyze texts as a whole, which is the default.
+	 * 
+	 * @see ParallelAnalyzer
+	 */
+	public void setParallelAnalysis(int threads) {
+		if (threads < 0) {
+			throw new IllegalArgumentException("The number of threads must not be negative.");
+		}
+		this.analysisThreads = threads;
+		if (threads <= 1 && parallelAnalyzer != null) {
+			parallelAnalyzer.close();
+			parallelAnalyzer = null;
+			parallelConfiguration = null;
+		}
+	}
+	
+	/**
+	 * Returns the profile, determining the default exclusion criteria and gap index finders.
+	 */
+	public GenerationProfile getProfile() {
+		return profile;
+	}
+	
+	/**
+	 * Sets the profile, determining the default exclusion criteria and gap index finders.
+	 * <p>
+	 * Only preprocessing engines required by the criteria of the profile are run.
+	 * {@code GenerationProfile.RULES_ONLY} requires no statistical models at all.
+	 * {@code GenerationProfile.FAST} replaces the named entity models by gazetteers.
+	 * 
+	 * @see CTestResourceProvider#getExclusionCriteria(String, GenerationProfile)
+	 * @see CTestResourceProvider#getGapIndexFinders(String, GenerationProfile)
+	 */
+	public void setProfile(GenerationProfile profile) {
+		this.profile = profile;
+	}
+	
+	/**
+	 * Sets the exclusion criteria and gap index finders, replacing those of the profile.
+	 * <p>
+	 * Only preprocessing engines required by the given criteria are run. 
+	 * The criteria are initialised with each processed text and should not be shared between generators.
+	 * 
+	 * @param  exclusionCriteria The exclusion criteria, null restores the criteria of the profile.
+	 * @param  gapIndexFinders The gap index finders, null restores the finders of the profile.
+	 */
+	public void setCriteria(List<Criterion> exclusionCriteria, List<GapIndexFinder> gapIndexFinders) {
+		this.selectedExclusionCriteria = exclusionCriteria;
+		this.selectedGapIndexFinders = gapIndexFinders;
+	}
+	
 	/**
 	 * Returns the source text of the c-test.
 	 */	
@@ -316,18 +565,73 @@ public class CTestGenerator {
 		return warnings;
 	}
 	
+	/**
+	 * Returns the warnings of each c-test of the last <b><i>successful</i></b> run of <code>generateCTests<code>, 
+	 * in the order of the c-tests.
+	 */	
+	public List<List<String>> getBatchWarnings() {
+		return batchWarnings;
+	}
+	
 	/**
 	 * Processes the text and initialises exclusion criteria and gap index finders, based on the passed language.
+	 * <p>
+	 * If {@code allowStreaming} is set and no cached analysis is available, the text is only segmented.
 	 */
-	private void initialise(String aText, String aLanguage) throws UIMAException {
+	private void initialise(String aText, String aLanguage, boolean allowStreaming) throws UIMAException {
 		language = aLanguage;
 		text = aText;
+		streaming = false;
+		jcas = null;
+		selectCriteria(aLanguage);
 		
-		List<AnalysisEngine> engines = CTestResourceProvider.getAnalysisEngines(language);
+		// engines are only created, if they are run, the configuration is taken from their descriptions
+		List<AnalysisEngineDescription> languageDescriptions = 
+				CTestResourceProvider.getCriterionEngineDescriptions(aLanguage, criteria);
+		
+		String key = null;
+		if (analysisCache != null) {
+			List<AnalysisEngineDescription> descriptions = 
+					new ArrayList<>(CTestResourceProvider.getSegmentationEngineDescriptions());
+			descriptions.addAll(languageDescriptions);
+			key = AnalysisCache.getKey(aText, aLanguage, CTestResourceProvider.getDescribedPipelineConfiguration(descriptions));
+			AnalyzedDocument document = analysisCache.get(key);
+			if (document != null)
+				jcas = document.toJCas();
+		}
+		
+		if (jcas == null && allowStreaming) {
+			jcas = process(aText, aLanguage, CTestResourceProvider.getSegmentationEngines());
+			sentenceAnalyzer = new SentenceAnalyzer(aLanguage, CTestResourceProvider.getCriterionEngines(aLanguage, criteria));
+			streaming = true;
+		} else if (jcas == null && analysisThreads > 1) {
+			jcas = process(aText, aLanguage, CTestResourceProvider.getSegmentationEngines());
+			getParallelAnalyzer(aLanguage, languageDescriptions).analyze(jcas);
+			if (key != null)
+				analysisCache.put(key, AnalyzedDocument.fromJCas(jcas));
+		} else if (jcas == null) {
+			List<AnalysisEngine> engines = new ArrayList<>(CTestResourceProvider.getSegmentationEngines());
+			engines.addAll(CTestResourceProvider.getCriterionEngines(aLanguage, criteria));
+			jcas = process(aText, aLanguage, engines);
+			if (key != null)
+				analysisCache.put(key, AnalyzedDocument.fromJCas(jcas));
+		}
 		
-		jcas = process(aText, aLanguage, engines);
-		exclusionRules = CTestResourceProvider.getExclusionRules(jcas, language);
-		gapIndexFinders = CTestResourceProvider.getGapFinders(jcas, language);
+		initialiseCriteria();
+	}
+	
+	/**
+	 * Selects the exclusion criteria and gap index finders for the given language, either those set explicitly or those of the profile.
+	 */
+	private void selectCriteria(String aLanguage) {
+		List<Criterion> exclusionCriteria = selectedExclusionCriteria != null 
+				? selectedExclusionCriteria : CTestResourceProvider.getExclusionCriteria(aLanguage, profile);
+		List<GapIndexFinder> finders = selectedGapIndexFinders != null 
+				? selectedGapIndexFinders : CTestResourceProvider.getGapIndexFinders(aLanguage, profile);
+		criteria = new ArrayList<>(exclusionCriteria);
+		criteria.addAll(finders);
+		exclusionRules = new ArrayList<>(exclusionCriteria);
+		gapIndexFinders = new ArrayList<>(finders);
 	}
 
 	private JCas process(String aText, String aLanguage, List<AnalysisEngine> engines) throws UIMAException {
@@ -337,15 +641,52 @@ public class CTestGenerator {
 		return jcas;
 	}
 	
+	/**
+	 * Returns the {@code ParallelAnalyzer} for the current language and criteria.
+	 * A new analyzer is only created, if the language specific pipeline has changed.
+	 */
+	private ParallelAnalyzer getParallelAnalyzer(String aLanguage, List<AnalysisEngineDescription> languageDescriptions) 
+			throws ResourceInitializationException {
+		String configuration = aLanguage + "\n" + CTestResourceProvider.getDescribedPipelineConfiguration(languageDescriptions);
+		if (parallelAnalyzer != null && parallelAnalyzer.getThreads() == analysisThreads 
+				&& configuration.equals(parallelConfiguration))
+			return parallelAnalyzer;
+		
+		if (parallelAnalyzer != null)
+			parallelAnalyzer.close();
+		parallelAnalyzer = new ParallelAnalyzer(aLanguage, languageDescriptions, analysisThreads);
+		parallelConfiguration = configuration;
+		return parallelAnalyzer;
+	}
+	
+	private void initialiseCriteria() {
+		for (Criterion criterion : criteria)
+			criterion.initialise(jcas);
+	}
+	
+	/**
+	 * Runs the language specific preprocessing on the given sentence of a segmented text.
+	 * <p>
+	 * If the analysis added any annotations, exclusion criteria and gap index finders are extended by the sentence,
+	 * rather than initialised anew with the whole text.
+	 */
+	private void analyse(Sentence sentence) throws UIMAException {
+		if (sentenceAnalyzer.analyze(jcas, sentence) > 0) {
+			for (Criterion criterion : criteria)
+				criterion.extend(jcas, sentence);
+		}
+	}
+	
 	/**
 	 * Creates the C-Test.
 	 * <p>
 	 * For each Token in the text, it is first tested, whether the token is a candidate for gapping, then a corresponding CTestToken is generated.
 	 * For valid candidates, the index of the gap is determined using the estimateGapIndex method.
+	 * In streaming mode, each sentence up to the trailing sentence is analyzed right before it is gapped.
 	 */
-	private void makeGaps() {		
+	private void makeGaps(List<Sentence> aSentences) throws UIMAException {		
 		ctest = new CTestObject(language);
-		sentences = new ArrayList<>(JCasUtil.select(jcas, Sentence.class));
+		sentences = aSentences;
 
 		sentenceCount = 0;
 		sentenceLimit = sentences.size() - 1;
@@ -353,6 +694,9 @@ public class CTestGenerator {
 		gapCandidates = 0;
 		
 		for (Sentence sentence : sentences) {
+			if (streaming && sentenceCount <= sentenceLimit)
+				analyse(sentence);
+			
 			for (Token token : JCasUtil.selectCovered(jcas, Token.class, sentence)) {
 				CTestToken cToken = new CTestToken(token.getCoveredText());
 				cToken.setGapIndex(estimateGapIndex(token));
@@ -383,6 +727,10 @@ public class CTestGenerator {
 
 		if (this.enforceTrailingSentence && sentenceCount >= sentenceLimit)
 			return false;
+		
+		// sentences after the trailing sentence are not analyzed in streaming mode
+		if (streaming && sentenceCount > sentenceLimit)
+			return false;
 
 		for (Predicate<Token> criterion : exclusionRules) {
 			if (criterion.test(token))
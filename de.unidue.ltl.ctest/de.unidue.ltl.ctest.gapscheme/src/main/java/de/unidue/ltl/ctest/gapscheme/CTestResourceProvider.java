@@ -1,6 +1,7 @@
 package de.unidue.ltl.ctest.gapscheme;
 
 import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngine;
+import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngineDescription;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -8,30 +9,31 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.apache.uima.analysis_engine.AnalysisEngine;
-import org.apache.uima.fit.factory.ExternalResourceFactory;
+import org.apache.uima.analysis_engine.AnalysisEngineDescription;
+import org.apache.uima.analysis_engine.metadata.AnalysisEngineMetaData;
 import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
 import org.apache.uima.resource.ResourceInitializationException;
+import org.apache.uima.resource.metadata.NameValuePair;
 
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
-import de.tudarmstadt.ukp.dkpro.core.decompounding.uima.annotator.CompoundAnnotator;
-import de.tudarmstadt.ukp.dkpro.core.decompounding.uima.resource.BananaSplitterResource;
-import de.tudarmstadt.ukp.dkpro.core.decompounding.uima.resource.SharedDictionary;
-import de.tudarmstadt.ukp.dkpro.core.decompounding.uima.resource.SharedLinkingMorphemes;
-import de.tudarmstadt.ukp.dkpro.core.opennlp.OpenNlpNamedEntityRecognizer;
-import de.tudarmstadt.ukp.dkpro.core.stanfordnlp.StanfordNamedEntityRecognizer;
 import de.tudarmstadt.ukp.dkpro.core.tokit.BreakIteratorSegmenter;
 import de.unidue.ltl.ctest.gapscheme.preprocessing.CompoundGapFinder;
+import de.unidue.ltl.ctest.gapscheme.preprocessing.Criterion;
 import de.unidue.ltl.ctest.gapscheme.preprocessing.FrenchAbbreviationGapFinder;
 import de.unidue.ltl.ctest.gapscheme.preprocessing.GapIndexFinder;
 import de.unidue.ltl.ctest.gapscheme.preprocessing.HyphenGapFinder;
 import de.unidue.ltl.ctest.gapscheme.preprocessing.IsAbbreviation;
+import de.unidue.ltl.ctest.gapscheme.preprocessing.IsGazetteerNamedEntity;
 import de.unidue.ltl.ctest.gapscheme.preprocessing.IsNamedEntity;
 import de.unidue.ltl.ctest.gapscheme.preprocessing.IsNumber;
 import de.unidue.ltl.ctest.gapscheme.preprocessing.IsPunctuation;
@@ -49,7 +51,11 @@ import de.unidue.ltl.ctest.gapscheme.preprocessing.IsTooShort;
  * <li> {@code AnalysisEngine} objects for necessary preprocessing steps.
  * <li> Abbreviations for {@code IsAbbreviation} predicates.
  * </ul>
+ * <p>
+ * The language specific preprocessing engines are derived from the {@link Criterion} objects in use.
+ * Each required annotation type is produced only once, and its engines are shared among all criteria requiring it.
  * 
+ * @see de.unidue.ltl.ctest.gapscheme.preprocessing.Criterion
  * @see de.unidue.ltl.ctest.gapscheme.preprocessing.GapIndexFinder
  * @see de.unidue.ltl.ctest.gapscheme.preprocessing.IsAbbreviation
  * @see org.apache.uima.analysis_engine.AnalysisEngine
@@ -57,6 +63,7 @@ import de.unidue.ltl.ctest.gapscheme.preprocessing.IsTooShort;
 public class CTestResourceProvider {
 	
 	private static Map<String, List<AnalysisEngine>> analysisEngines = new HashMap<>();
+	private static Map<String, String> engineConfigurations = new HashMap<>();
 	private static List<String> SUPPORTED_LANGUAGES = Arrays.asList(new String[] { "de", "en", "es", "fi", "fr", "it" });
 	private static Map<String, List<String>> ABBREVIATIONS = new HashMap<>();	
 
@@ -79,23 +86,170 @@ public class CTestResourceProvider {
 	 */
 	public static List<AnalysisEngine> getAnalysisEngines(String language) throws ResourceInitializationException {
 		List<AnalysisEngine> engines = new ArrayList<>();
-		List<AnalysisEngine> currentEngines;
-
-		currentEngines = analysisEngines.get("all");
-		if (currentEngines == null) {
-			currentEngines = createAndStoreEngines("all");
+		engines.addAll(getSegmentationEngines());
+		engines.addAll(getLanguageEngines(language));
+		return engines;
+	}
+	
+	/**
+	 * Returns the language independent {@code AnalysisEngine} objects, which segment a text into sentences and tokens.
+	 * 
+	 * @return The engines.
+	 */
+	public static List<AnalysisEngine> getSegmentationEngines() throws ResourceInitializationException {
+		List<AnalysisEngine> engines = analysisEngines.get("all");
+		if (engines == null) {
+			engines = createAndStoreEngines("all");
 		}
-		engines.addAll(currentEngines);
-		
-		currentEngines = analysisEngines.get(language);
-		if (currentEngines == null) {
-			currentEngines = createAndStoreEngines(language);
+		return engines;
+	}
+	
+	/**
+	 * Returns descriptions of the language independent engines, which segment a text into sentences and tokens.
+	 * 
+	 * @return The descriptions, in the same order as the engines returned by {@code getSegmentationEngines}.
+	 */
+	public static List<AnalysisEngineDescription> getSegmentationEngineDescriptions() throws ResourceInitializationException {
+		List<AnalysisEngineDescription> descriptions = new ArrayList<>();
+		descriptions.add(createEngineDescription(BreakIteratorSegmenter.class));
+		return descriptions;
+	}
+	
+	/**
+	 * Returns the language specific {@code AnalysisEngine} objects for the given language, 
+	 * as required by the default exclusion criteria and gap index finders.
+	 * These engines require a segmented text and are usually the most expensive ones.
+	 * 
+	 * @param  language The language for which the the {@code AnalysisEngine}s are built. 
+	 * Must be an ISO 639-1 language code.
+	 * @return The engines.
+	 */
+	public static List<AnalysisEngine> getLanguageEngines(String language) throws ResourceInitializationException {
+		return getCriterionEngines(language, getCriteria(language, GenerationProfile.DEFAULT));
+	}
+	
+	/**
+	 * Returns the language specific {@code AnalysisEngine} objects, which are required by the given criteria.
+	 * <p>
+	 * The engines for each required annotation type are taken from the first criterion requiring the type.
+	 * Engines are created once per language, annotation type, providing criterion class and engine configuration 
+	 * and are shared by all callers. If the configuration of the engines changes, e.g. as another gazetteer was set, 
+	 * new engines are created in place of the old ones.
+	 * Segmentation engines are not included.
+	 * 
+	 * @param  language The language of the processed texts. Must be an ISO 639-1 language code.
+	 * @param  criteria The criteria in use.
+	 * @return The engines, in the order in which the annotation types were first required.
+	 */
+	public static List<AnalysisEngine> getCriterionEngines(String language, Collection<? extends Criterion> criteria) 
+			throws ResourceInitializationException {
+		List<AnalysisEngine> engines = new ArrayList<>();
+		for (Map.Entry<Class<? extends Annotation>, Criterion> provider : getProviders(criteria).entrySet()) {
+			String key = language + "/" + provider.getKey().getName() + "/" + provider.getValue().getClass().getName();
+			List<AnalysisEngineDescription> descriptions = provider.getValue().getEngineDescriptions(provider.getKey(), language);
+			String configuration = getDescribedPipelineConfiguration(descriptions);
+			List<AnalysisEngine> currentEngines = analysisEngines.get(key);
+			if (currentEngines == null || !configuration.equals(engineConfigurations.get(key))) {
+				currentEngines = createAndStoreEngines(key, descriptions);
+				engineConfigurations.put(key, configuration);
+			}
+			engines.addAll(currentEngines);
 		}
-		engines.addAll(currentEngines);
-				
 		return engines;
 	}
 	
+	/**
+	 * Returns the descriptions of the language specific engines, which are required by the given criteria.
+	 * <p>
+	 * In contrast to {@code getCriterionEngines}, the descriptions are not instantiated,
+	 * so that callers can create engines of their own, e.g. one set of engines per thread.
+	 * 
+	 * @param  language The language of the processed texts. Must be an ISO 639-1 language code.
+	 * @param  criteria The criteria in use.
+	 * @return The descriptions, in the same order as the engines returned by {@code getCriterionEngines}.
+	 * 
+	 * @see CTestResourceProvider#getCriterionEngines(String, Collection)
+	 */
+	public static List<AnalysisEngineDescription> getCriterionEngineDescriptions(String language, 
+			Collection<? extends Criterion> criteria) throws ResourceInitializationException {
+		List<AnalysisEngineDescription> descriptions = new ArrayList<>();
+		for (Map.Entry<Class<? extends Annotation>, Criterion> provider : getProviders(criteria).entrySet())
+			descriptions.addAll(provider.getValue().getEngineDescriptions(provider.getKey(), language));
+		return descriptions;
+	}
+	
+	/**
+	 * Maps each annotation type required by the given criteria to the first criterion requiring it.
+	 */
+	private static Map<Class<? extends Annotation>, Criterion> getProviders(Collection<? extends Criterion> criteria) {
+		Map<Class<? extends Annotation>, Criterion> providers = new LinkedHashMap<>();
+		for (Criterion criterion : criteria) {
+			for (Class<? extends Annotation> requiredClass : criterion.getRequiredAnnotations())
+				providers.putIfAbsent(requiredClass, criterion);
+		}
+		return providers;
+	}
+	
+	/**
+	 * Returns a description of the preprocessing pipeline for the given language.
+	 * The description contains the name and configuration of each {@code AnalysisEngine} in the pipeline
+	 * and changes whenever the pipeline is reconfigured.
+	 * 
+	 * @param  language The language of the pipeline. Must be an ISO 639-1 language code.
+	 * @return The description.
+	 * 
+	 * @see de.unidue.ltl.ctest.gapscheme.cache.AnalysisCache
+	 */
+	public static String getPipelineConfiguration(String language) throws ResourceInitializationException {
+		return getPipelineConfiguration(getAnalysisEngines(language));
+	}
+	
+	/**
+	 * Returns a description of the given preprocessing pipeline.
+	 * 
+	 * @param  engines The engines of the pipeline.
+	 * @return The description.
+	 * 
+	 * @see CTestResourceProvider#getPipelineConfiguration(String)
+	 */
+	public static String getPipelineConfiguration(List<AnalysisEngine> engines) {
+		return getConfiguration(engines.stream()
+				.map(AnalysisEngine::getAnalysisEngineMetaData)
+				.collect(Collectors.toList()));
+	}
+	
+	/**
+	 * Returns a description of the preprocessing pipeline of the given engine descriptions.
+	 * The description is equal to that of the engines created from the descriptions, 
+	 * but no engines need to be created.
+	 * 
+	 * @param  descriptions The descriptions of the engines of the pipeline.
+	 * @return The description.
+	 * 
+	 * @see CTestResourceProvider#getPipelineConfiguration(List)
+	 */
+	public static String getDescribedPipelineConfiguration(List<AnalysisEngineDescription> descriptions) {
+		return getConfiguration(descriptions.stream()
+				.map(AnalysisEngineDescription::getAnalysisEngineMetaData)
+				.collect(Collectors.toList()));
+	}
+	
+	private static String getConfiguration(List<AnalysisEngineMetaData> engines) {
+		StringBuilder configuration = new StringBuilder();
+		for (AnalysisEngineMetaData metaData : engines) {
+			configuration.append(metaData.getName());
+			for (NameValuePair parameter : metaData.getConfigurationParameterSettings().getParameterSettings()) {
+				Object value = parameter.getValue();
+				configuration.append(";")
+					.append(parameter.getName())
+					.append("=")
+					.append(value instanceof Object[] ? Arrays.deepToString((Object[]) value) : String.valueOf(value));
+			}
+			configuration.append("\n");
+		}
+		return configuration.toString();
+	}
+	
 	/**
 	 * Returns a list of abbreviations for the given language.
 	 * 
@@ -122,17 +276,40 @@ public class CTestResourceProvider {
 	public static List<Predicate<Token>> getExclusionRules(JCas aJCas, String language) {
 		List<Predicate<Token>> rules = new ArrayList<>();
 		
+		for (Criterion criterion : getExclusionCriteria(language, GenerationProfile.DEFAULT)) {
+			criterion.initialise(aJCas);
+			rules.add(criterion);
+		}
+		
+		return rules;
+	}
+	
+	/**
+	 * Returns a list of gapping exclusion criteria for the given language and profile.
+	 * The criteria are not yet initialised with a {@code JCas}.
+	 * 
+	 * @param  language The language to which the exclusion criteria are going to be applied. 
+	 * Must be a ISO 639-1 language string.
+	 * @param  profile The generation profile, determining which criteria are included.
+	 * @return The exclusion criteria.
+	 */
+	public static List<Criterion> getExclusionCriteria(String language, GenerationProfile profile) {
+		List<Criterion> rules = new ArrayList<>();
+		
 		rules.add(new IsTooShort());
 		rules.add(new IsNumber());
 		rules.add(new IsPunctuation());
 		rules.add(new IsAbbreviation(getAbbreviations(language)));
-		rules.add(new IsNamedEntity(aJCas));
+		rules.add(profile == GenerationProfile.FAST ? new IsGazetteerNamedEntity() : new IsNamedEntity());
 		
 		for (String lang : new String[] {"en", "fr", "fi", "it"}) {
 			if (language.equals(lang))
-				rules.add(new IsSimpleNamedEntity(aJCas));
+				rules.add(new IsSimpleNamedEntity());
 		}
 		
+		if (profile == GenerationProfile.RULES_ONLY)
+			rules.removeIf(rule -> !rule.getRequiredAnnotations().isEmpty());
+		
 		return rules;
 	}
 	
@@ -145,21 +322,52 @@ public class CTestResourceProvider {
 	 * @return The index finders.
 	 */
 	public static List<GapIndexFinder> getGapFinders(JCas aJCas, String language) {
+		List<GapIndexFinder> finders = getGapIndexFinders(language, GenerationProfile.DEFAULT);
+		
+		for (GapIndexFinder finder : finders)
+			finder.initialise(aJCas);
+
+		return finders;
+	}
+	
+	/**
+	 * Returns a list of gap index finders for the given language and profile.
+	 * The finders are not yet initialised with a {@code JCas}.
+	 * 
+	 * @param  language The language to which index finders are going to be applied. 
+	 * Must be a ISO 639-1 language string.
+	 * @param  profile The generation profile, determining which finders are included.
+	 * @return The index finders.
+	 */
+	public static List<GapIndexFinder> getGapIndexFinders(String language, GenerationProfile profile) {
 		List<GapIndexFinder> finders = new ArrayList<>();
 		
 		finders.add(new HyphenGapFinder());
 		
 		if (language.equals("de")) {
-			finders.add(new CompoundGapFinder(aJCas));
+			finders.add(new CompoundGapFinder());
 		}
 
 		if (language.equals("fr")) {
 			finders.add(new FrenchAbbreviationGapFinder());
 		}
+		
+		if (profile == GenerationProfile.RULES_ONLY)
+			finders.removeIf(finder -> !finder.getRequiredAnnotations().isEmpty());
 
 		return finders;
 	}
 	
+	/**
+	 * Returns all exclusion criteria and gap index finders for the given language and profile.
+	 */
+	public static List<Criterion> getCriteria(String language, GenerationProfile profile) {
+		List<Criterion> criteria = new ArrayList<>();
+		criteria.addAll(getExclusionCriteria(language, profile));
+		criteria.addAll(getGapIndexFinders(language, profile));
+		return criteria;
+	}
+	
 	/**
 	 * Returns a list of languages, currently supported by the {@code CTestGenerator} Service. 
 	 */
@@ -168,7 +376,7 @@ public class CTestResourceProvider {
 	}
 	
 	/**
-	 * Returns AnalysisEnginges for the given language. 
+	 * Returns the language independent AnalysisEngines. 
 	 * Engines are first created and then added to the AnalysisEngine Store.
 	 * In this way, engines only need to be created once, reducing processing times on following runs.
 	 */
@@ -176,43 +384,22 @@ public class CTestResourceProvider {
 		List<AnalysisEngine> engines = new ArrayList<>();
 		
 		if (language.equals("all")) {
-			engines = new ArrayList<>();
 			engines.add(createEngine(BreakIteratorSegmenter.class));
 			analysisEngines.put("all", engines);
 		}
 		
-		if (language.equals("de")) {
-			engines.add(createEngine(StanfordNamedEntityRecognizer.class, 
-					StanfordNamedEntityRecognizer.PARAM_VARIANT, "nemgp", 
-					StanfordNamedEntityRecognizer.PARAM_LANGUAGE, language));
-			engines.add(createEngine(CompoundAnnotator.class,
-					CompoundAnnotator.RES_SPLITTING_ALGO,
-					ExternalResourceFactory.createExternalResourceDescription(BananaSplitterResource.class,
-							BananaSplitterResource.PARAM_DICT_RESOURCE,
-							ExternalResourceFactory.createExternalResourceDescription(SharedDictionary.class),
-							BananaSplitterResource.PARAM_MORPHEME_RESOURCE,
-							ExternalResourceFactory.createExternalResourceDescription(SharedLinkingMorphemes.class))));
-			analysisEngines.put("de", engines);
-		}
-		
-		if (language.equals("en")) {
-			String[] nerVariants = new String[] { "date", "money", "organization", "location", "percentage", "person", "time" };
-			for (String variant : nerVariants)
-				engines.add(createEngine(OpenNlpNamedEntityRecognizer.class, 
-						OpenNlpNamedEntityRecognizer.PARAM_VARIANT, variant, 
-						OpenNlpNamedEntityRecognizer.PARAM_LANGUAGE, language));
-			analysisEngines.put(language, engines);
-		}
-		
-		if (language.equals("es")) {
-			String[] nerVariants = new String[] { "location", "misc", "person", "organization" };
-			for (String variant : nerVariants)
-				engines.add(createEngine(OpenNlpNamedEntityRecognizer.class, 
-						OpenNlpNamedEntityRecognizer.PARAM_VARIANT, variant, 
-						OpenNlpNamedEntityRecognizer.PARAM_LANGUAGE, language));
-			analysisEngines.put(language, engines);
-		}
-		
+		return engines;
+	}
+	
+	/**
+	 * Creates AnalysisEngines from the given descriptions and adds them to the AnalysisEngine Store under the given key.
+	 */
+	private static List<AnalysisEngine> createAndStoreEngines(String key, List<AnalysisEngineDescription> descriptions) 
+			throws ResourceInitializationException {
+		List<AnalysisEngine> engines = new ArrayList<>();
+		for (AnalysisEngineDescription description : descriptions)
+			engines.add(createEngine(description));
+		analysisEngines.put(key, engines);
 		return engines;
 	}
 	
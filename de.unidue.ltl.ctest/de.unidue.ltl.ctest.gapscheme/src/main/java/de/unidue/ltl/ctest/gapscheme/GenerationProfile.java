@@ -0,0 +1,33 @@
+package de.unidue.ltl.ctest.gapscheme;
+
+/**
+ * Determines which exclusion criteria and gap index finders a {@link CTestGenerator} uses,
+ * and thereby which preprocessing engines have to be run.
+ *
+ * @see CTestResourceProvider#getExclusionCriteria(String, GenerationProfile)
+ * @see CTestResourceProvider#getGapIndexFinders(String, GenerationProfile)
+ */
+public enum GenerationProfile {
+
+	/**
+	 * All criteria available for the language, including those based on statistical models, such as named entity recognition.
+	 */
+	DEFAULT,
+
+	/**
+	 * The same criteria as {@code DEFAULT}, but named entities are recognised with gazetteers and capitalisation heuristics
+	 * instead of statistical models. Considerably faster and smaller than {@code DEFAULT}, at the cost of recall.
+	 * The bundled gazetteers are small samples, for real corpora supply gazetteers with
+	 * {@link de.unidue.ltl.ctest.gapscheme.gazetteer.Gazetteer#setSharedInstance(String, de.unidue.ltl.ctest.gapscheme.gazetteer.Gazetteer)}.
+	 *
+	 * @see de.unidue.ltl.ctest.gapscheme.preprocessing.IsGazetteerNamedEntity
+	 */
+	FAST,
+
+	/**
+	 * Only criteria, which require nothing but tokens and sentences.
+	 * No statistical models are loaded, which makes generation considerably cheaper,
+	 * at the cost of named entities and compounds not being recognised.
+	 */
+	RULES_ONLY;
+}
@@ -0,0 +1,339 @@
+package de.unidue.ltl.ctest.gapscheme;
+
+import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.uima.UIMAException;
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.analysis_engine.AnalysisEngineDescription;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.cas.ArrayFS;
+import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.Feature;
+import org.apache.uima.cas.FeatureStructure;
+import org.apache.uima.cas.Type;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+import org.apache.uima.jcas.tcas.DocumentAnnotation;
+import org.apache.uima.resource.ResourceInitializationException;
+import org.apache.uima.util.CasCopier;
+
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+import de.unidue.ltl.ctest.gapscheme.preprocessing.ParallelNamedEntityRecognizer;
+
+/**
+ * Runs the language specific preprocessing engines concurrently on chunks of an already segmented document.
+ * <p>
+ * The sentences of the document are partitioned into chunks of consecutive sentences.
+ * Each chunk is copied to a separate {@code JCas}, holding only the text of the chunk with its sentences and tokens,
+ * and processed by one of several sets of engines, one set per thread.
+ * The resulting annotations are merged back into the document in the order of the chunks, with their offsets corrected.
+ * <p>
+ * For annotators, which only consider one sentence at a time, such as the named entity recognizers and the decompounding,
+ * the result is the same as processing the whole document at once. Annotators, which modify the input tokens
+ * or consider the context beyond a chunk, are not suited for parallel analysis.
+ * Since every set of engines loads its own models, memory usage grows with the number of threads.
+ * A {@code ParallelNamedEntityRecognizer} runs its variants in sequence within a chunk, as the chunks already keep the threads busy.
+ *
+ * @see CTestResourceProvider#getCriterionEngineDescriptions(String, java.util.Collection)
+ * @see SentenceAnalyzer
+ */
+public class ParallelAnalyzer {
+
+	/**
+	 * The number of chunks per thread, if the chunk size is chosen automatically.
+	 */
+	private static final int CHUNKS_PER_THREAD = 4;
+
+	private final String language;
+	private final int threads;
+	private final BlockingQueue<List<AnalysisEngine>> enginePool;
+	private final ConcurrentLinkedQueue<JCas> jcasPool = new ConcurrentLinkedQueue<>();
+	private final ExecutorService executor;
+	private int chunkSize;
+
+	/**
+	 * Creates a new {@code ParallelAnalyzer}, instantiating the given engines once per thread.
+	 *
+	 * @param  language The language of the analyzed documents. Must be an ISO 639-1 language code.
+	 * @param  descriptions The engines to be run on each chunk. Must not include segmentation engines.
+	 * @param  threads The number of threads.
+	 *
+	 * @throws ResourceInitializationException if the engines could not be initialised.
+	 */
+	public ParallelAnalyzer(String language, List<AnalysisEngineDescription> descriptions, int threads)
+			throws ResourceInitializationException {
+		if (threads < 1) {
+			throw new IllegalArgumentException("The number of threads must be positive.");
+		}
+		this.language = language;
+		this.threads = threads;
+		this.enginePool = new ArrayBlockingQueue<>(threads);
+		for (int i = 0; i < threads; i++) {
+			List<AnalysisEngine> engines = new ArrayList<>();
+			for (AnalysisEngineDescription description : descriptions)
+				engines.add(createEngine(getChunkDescription(description)));
+			enginePool.add(engines);
+		}
+		this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "analysis-" + language);
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Analyzes the given segmented document and adds the results to it.
+	 *
+	 * @param  jcas The segmented document.
+	 * @return The number of annotations added to the document.
+	 *
+	 * @throws UIMAException if a chunk could not be processed.
+	 */
+	public int analyze(JCas jcas) throws UIMAException {
+		List<Sentence> sentences = new ArrayList<>(JCasUtil.select(jcas, Sentence.class));
+		if (sentences.isEmpty())
+			return 0;
+
+		int size = chunkSize > 0 ? chunkSize : (sentences.size() + threads * CHUNKS_PER_THREAD - 1) / (threads * CHUNKS_PER_THREAD);
+		List<Future<JCas>> chunks = new ArrayList<>();
+		for (int i = 0; i < sentences.size(); i += size) {
+			List<Sentence> chunk = sentences.subList(i, Math.min(i + size, sentences.size()));
+			int begin = chunk.get(0).getBegin();
+			int end = chunk.get(chunk.size() - 1).getEnd();
+			int[] tokens = getTokenOffsets(jcas, chunk);
+			int[] sentenceOffsets = getOffsets(chunk);
+			String text = jcas.getDocumentText().substring(begin, end);
+			chunks.add(executor.submit(() -> process(text, begin, sentenceOffsets, tokens)));
+		}
+
+		int added = 0;
+		int merged = 0;
+		try {
+			for (; merged < chunks.size(); merged++) {
+				JCas chunk = chunks.get(merged).get();
+				try {
+					added += merge(chunk, jcas, sentences.get(merged * size).getBegin());
+				} finally {
+					release(chunk);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new AnalysisEngineProcessException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof UIMAException)
+				throw (UIMAException) e.getCause();
+			throw new AnalysisEngineProcessException(e.getCause());
+		} finally {
+			// chunks, which were processed but not merged, are returned to the pool as well
+			for (int i = merged + 1; i < chunks.size(); i++) {
+				Future<JCas> chunk = chunks.get(i);
+				if (!chunk.cancel(false) && chunk.isDone())
+					release(getQuietly(chunk));
+			}
+		}
+		return added;
+	}
+
+	/**
+	 * Returns the language of the analyzed documents.
+	 */
+	public String getLanguage() {
+		return language;
+	}
+
+	/**
+	 * Returns the number of threads.
+	 */
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Returns the number of sentences per chunk, 0 if it is chosen automatically.
+	 */
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * Sets the number of sentences per chunk.
+	 * <p>
+	 * By default, documents are split into four chunks per thread, so that the threads remain busy,
+	 * even if the chunks take different amounts of time.
+	 *
+	 * @param  chunkSize The number of sentences per chunk, 0 chooses the size automatically.
+	 */
+	public void setChunkSize(int chunkSize) {
+		if (chunkSize < 0) {
+			throw new IllegalArgumentException("The chunk size must not be negative.");
+		}
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Stops the threads and destroys the engines.
+	 */
+	public void close() {
+		executor.shutdownNow();
+		for (List<AnalysisEngine> engines : enginePool) {
+			for (AnalysisEngine engine : engines)
+				engine.destroy();
+		}
+		enginePool.clear();
+		jcasPool.clear();
+	}
+
+	/**
+	 * Processes a single chunk, using the engines of the pool.
+	 * The offsets of sentences and tokens are given relative to the document.
+	 */
+	private JCas process(String text, int begin, int[] sentences, int[] tokens) throws UIMAException, InterruptedException {
+		JCas chunk = jcasPool.poll();
+		if (chunk == null)
+			chunk = JCasFactory.createJCas();
+		boolean processed = false;
+		try {
+			chunk.setDocumentText(text);
+			chunk.setDocumentLanguage(language);
+
+			for (int i = 0; i < sentences.length; i += 2)
+				new Sentence(chunk, sentences[i] - begin, sentences[i + 1] - begin).addToIndexes();
+			for (int i = 0; i < tokens.length; i += 2)
+				new Token(chunk, tokens[i] - begin, tokens[i + 1] - begin).addToIndexes();
+
+			List<AnalysisEngine> engines = enginePool.take();
+			try {
+				for (AnalysisEngine engine : engines)
+					engine.process(chunk);
+			} finally {
+				enginePool.put(engines);
+			}
+			processed = true;
+			return chunk;
+		} finally {
+			if (!processed)
+				release(chunk);
+		}
+	}
+
+	/**
+	 * Resets the given chunk and returns it to the pool.
+	 */
+	private void release(JCas chunk) {
+		if (chunk == null)
+			return;
+		chunk.reset();
+		jcasPool.add(chunk);
+	}
+
+	private JCas getQuietly(Future<JCas> chunk) {
+		try {
+			return chunk.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (ExecutionException | CancellationException e) {
+			// the chunk was already returned to the pool
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the description to be instantiated for a chunk pipeline.
+	 * Named entity variants are run in sequence, since the chunks are already processed concurrently.
+	 */
+	private static AnalysisEngineDescription getChunkDescription(AnalysisEngineDescription description) {
+		if (!ParallelNamedEntityRecognizer.class.getName().equals(description.getAnnotatorImplementationName()))
+			return description;
+
+		AnalysisEngineDescription copy = (AnalysisEngineDescription) description.clone();
+		copy.getAnalysisEngineMetaData().getConfigurationParameterSettings()
+				.setParameterValue(ParallelNamedEntityRecognizer.PARAM_CONCURRENT, false);
+		return copy;
+	}
+
+	/**
+	 * Copies all annotations, which were not part of the input, from the chunk to the document,
+	 * shifting their offsets and those of all referenced annotations by the start of the chunk.
+	 */
+	private int merge(JCas chunk, JCas jcas, int offset) {
+		CasCopier copier = new CasCopier(chunk.getCas(), jcas.getCas());
+		Set<FeatureStructure> shifted = Collections.newSetFromMap(new IdentityHashMap<>());
+		Set<Annotation> copied = Collections.newSetFromMap(new IdentityHashMap<>());
+
+		for (Annotation annotation : JCasUtil.select(chunk, Annotation.class)) {
+			if (annotation instanceof Token || annotation instanceof Sentence || annotation instanceof DocumentAnnotation)
+				continue;
+
+			Annotation copy = copier.copyFs(annotation);
+			shift(copy, offset, shifted);
+			if (copied.add(copy))
+				copy.addToIndexes();
+		}
+		return copied.size();
+	}
+
+	/**
+	 * Shifts the offsets of the given feature structure, if it is an annotation, and of all feature structures it references.
+	 * Each feature structure is only shifted once.
+	 */
+	private void shift(FeatureStructure fs, int offset, Set<FeatureStructure> shifted) {
+		if (fs == null || !shifted.add(fs))
+			return;
+
+		if (fs instanceof ArrayFS) {
+			ArrayFS array = (ArrayFS) fs;
+			for (int i = 0; i < array.size(); i++)
+				shift(array.get(i), offset, shifted);
+			return;
+		}
+
+		if (fs instanceof Annotation) {
+			Annotation annotation = (Annotation) fs;
+			annotation.setBegin(annotation.getBegin() + offset);
+			annotation.setEnd(annotation.getEnd() + offset);
+		}
+
+		Type type = fs.getType();
+		for (Feature feature : type.getFeatures()) {
+			if (feature.getRange().isPrimitive() || feature.getShortName().equals(CAS.FEATURE_BASE_NAME_SOFA))
+				continue;
+			shift(fs.getFeatureValue(feature), offset, shifted);
+		}
+	}
+
+	private int[] getTokenOffsets(JCas jcas, List<Sentence> sentences) {
+		List<Token> tokens = new ArrayList<>();
+		for (Sentence sentence : sentences)
+			tokens.addAll(JCasUtil.selectCovered(jcas, Token.class, sentence));
+		return getOffsets(tokens);
+	}
+
+	private int[] getOffsets(List<? extends Annotation> annotations) {
+		int[] offsets = new int[annotations.size() * 2];
+		int i = 0;
+		for (Annotation annotation : annotations) {
+			offsets[i++] = annotation.getBegin();
+			offsets[i++] = annotation.getEnd();
+		}
+		return offsets;
+	}
+}
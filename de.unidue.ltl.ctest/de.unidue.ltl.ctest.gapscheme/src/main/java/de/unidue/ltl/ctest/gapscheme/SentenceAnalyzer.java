@@ -0,0 +1,114 @@
+package de.unidue.ltl.ctest.gapscheme;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.uima.UIMAException;
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+import org.apache.uima.jcas.tcas.DocumentAnnotation;
+import org.apache.uima.resource.ResourceInitializationException;
+import org.apache.uima.util.CasCopier;
+
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+
+/**
+ * Runs the language specific preprocessing engines on single sentences of an already segmented document.
+ * <p>
+ * Each sentence is processed in a separate, reused {@code JCas}, which holds the full document text
+ * but only the {@code Sentence} and {@code Token} annotations of the processed sentence.
+ * Offsets are therefore shared between both {@code JCas}, and all annotations added by the engines
+ * are copied back to the document unchanged.
+ * This allows to analyze only those parts of a document, which are actually required.
+ *
+ * @see CTestResourceProvider#getSegmentationEngines()
+ * @see CTestResourceProvider#getLanguageEngines(String)
+ */
+public class SentenceAnalyzer {
+
+	private final List<AnalysisEngine> engines;
+	private final String language;
+	private JCas sentenceJCas;
+
+	/**
+	 * Creates a new {@code SentenceAnalyzer} for the given language.
+	 *
+	 * @param  language The language of the analyzed documents. Must be an ISO 639-1 language code.
+	 *
+	 * @throws ResourceInitializationException if the preprocessing engines could not be initialised.
+	 */
+	public SentenceAnalyzer(String language) throws ResourceInitializationException {
+		this(language, CTestResourceProvider.getLanguageEngines(language));
+	}
+
+	/**
+	 * Creates a new {@code SentenceAnalyzer} for the given language, running the given engines.
+	 *
+	 * @param  language The language of the analyzed documents. Must be an ISO 639-1 language code.
+	 * @param  engines The engines to be run on each sentence. Must not include segmentation engines.
+	 */
+	public SentenceAnalyzer(String language, List<AnalysisEngine> engines) {
+		this.language = language;
+		this.engines = engines;
+	}
+
+	/**
+	 * Analyzes the given sentence and adds the results to the given document.
+	 *
+	 * @param  jcas The segmented document.
+	 * @param  sentence The sentence to be analyzed. Must be part of {@code jcas}.
+	 * @return The number of annotations added to the document.
+	 *
+	 * @throws UIMAException if the sentence could not be processed.
+	 */
+	public int analyze(JCas jcas, Sentence sentence) throws UIMAException {
+		if (sentenceJCas == null) {
+			sentenceJCas = JCasFactory.createJCas();
+		} else {
+			sentenceJCas.reset();
+		}
+		sentenceJCas.setDocumentText(jcas.getDocumentText());
+		sentenceJCas.setDocumentLanguage(language);
+
+		new Sentence(sentenceJCas, sentence.getBegin(), sentence.getEnd()).addToIndexes();
+		for (Token token : JCasUtil.selectCovered(jcas, Token.class, sentence)) {
+			new Token(sentenceJCas, token.getBegin(), token.getEnd()).addToIndexes();
+		}
+
+		for (AnalysisEngine engine : engines)
+			engine.process(sentenceJCas);
+
+		return copyAnnotations(sentenceJCas, jcas);
+	}
+
+	/**
+	 * Returns the language of the analyzed documents.
+	 */
+	public String getLanguage() {
+		return language;
+	}
+
+	/**
+	 * Copies all annotations, which were not part of the input, from the source to the target.
+	 */
+	private int copyAnnotations(JCas source, JCas target) {
+		CasCopier copier = new CasCopier(source.getCas(), target.getCas());
+		Set<Annotation> copied = Collections.newSetFromMap(new IdentityHashMap<>());
+
+		for (Annotation annotation : JCasUtil.select(source, Annotation.class)) {
+			if (annotation instanceof Token || annotation instanceof Sentence || annotation instanceof DocumentAnnotation)
+				continue;
+
+			Annotation copy = copier.copyFs(annotation);
+			if (copied.add(copy))
+				copy.addToIndexes();
+		}
+		return copied.size();
+	}
+}
@@ -0,0 +1,273 @@
+package de.unidue.ltl.ctest.gapscheme.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, content-addressed cache of {@link AnalyzedDocument}s.
+ * <p>
+ * Entries are keyed by a SHA-256 hash of the text, its language and the configuration of the preprocessing pipeline,
+ * such that a change to any of the three results in a different key.
+ * The cache holds entries in memory until their estimated total size exceeds the memory budget,
+ * at which point the least recently used entries are evicted.
+ * <p>
+ * If a cache directory is given, every entry is additionally written to disk
+ * and entries not held in memory are looked up there, so that the cache survives restarts.
+ * <p>
+ * All methods are thread-safe. Entries are read from and written to disk outside the lock of the cache,
+ * so that concurrent lookups do not wait for each other's I/O.
+ *
+ * @see AnalyzedDocument
+ * @see de.unidue.ltl.ctest.gapscheme.CTestGenerator#setAnalysisCache(AnalysisCache)
+ */
+public class AnalysisCache {
+
+	private static final String FILE_SUFFIX = ".analysis";
+
+	private final LinkedHashMap<String, AnalyzedDocument> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private final long memoryBudget;
+	private final Path directory;
+	private long memoryUsage;
+
+	private long hits;
+	private long diskHits;
+	private long misses;
+	private long evictions;
+
+	/**
+	 * Creates a new in-memory {@code AnalysisCache} with the given memory budget.
+	 *
+	 * @param  memoryBudget The maximum estimated size of all cached entries in bytes.
+	 */
+	public AnalysisCache(long memoryBudget) {
+		this(memoryBudget, null);
+	}
+
+	/**
+	 * Creates a new {@code AnalysisCache} with the given memory budget, persisting entries to the given directory.
+	 *
+	 * @param  memoryBudget The maximum estimated size of all cached entries in bytes.
+	 * @param  directory The directory in which entries are persisted. If null, entries are only held in memory.
+	 *
+	 * @throws IllegalArgumentException if the directory cannot be created.
+	 */
+	public AnalysisCache(long memoryBudget, Path directory) {
+		if (memoryBudget < 0) {
+			throw new IllegalArgumentException("The memory budget must not be negative.");
+		}
+		this.memoryBudget = memoryBudget;
+		this.directory = directory;
+
+		if (directory != null) {
+			try {
+				Files.createDirectories(directory);
+			} catch (IOException e) {
+				throw new IllegalArgumentException("Could not create cache directory: " + directory, e);
+			}
+		}
+	}
+
+	/**
+	 * Returns the cache key for the given text, language and pipeline configuration.
+	 *
+	 * @param  text The text to be analyzed.
+	 * @param  language The language of the text.
+	 * @param  pipelineConfiguration A description of the pipeline, which changes whenever the analysis results may change.
+	 * @return A hex encoded SHA-256 hash.
+	 */
+	public static String getKey(String text, String language, String pipelineConfiguration) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			for (String part : new String[] { text, language, pipelineConfiguration }) {
+				byte[] bytes = String.valueOf(part).getBytes(StandardCharsets.UTF_8);
+				digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+				digest.update((byte) 0);
+				digest.update(bytes);
+			}
+			StringBuilder key = new StringBuilder();
+			for (byte b : digest.digest()) {
+				key.append(String.format("%02x", b));
+			}
+			return key.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available.", e);
+		}
+	}
+
+	/**
+	 * Returns the cached analysis for the given key, or null if no analysis was cached.
+	 */
+	public AnalyzedDocument get(String key) {
+		synchronized (this) {
+			AnalyzedDocument document = entries.get(key);
+			if (document != null) {
+				hits++;
+				return document;
+			}
+		}
+
+		AnalyzedDocument document = readFromDisk(key);
+		synchronized (this) {
+			if (document == null) {
+				misses++;
+				return null;
+			}
+			diskHits++;
+			return putIfAbsent(key, document);
+		}
+	}
+
+	/**
+	 * Adds the given analysis to the cache, unless an analysis with the same key is held in memory already.
+	 * If a cache directory is configured, the analysis is also written to disk.
+	 */
+	public void put(String key, AnalyzedDocument document) {
+		synchronized (this) {
+			putIfAbsent(key, document);
+		}
+		writeToDisk(key, document);
+	}
+
+	/**
+	 * Removes all entries from memory. Persisted entries are kept.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		memoryUsage = 0;
+	}
+
+	/**
+	 * Returns the number of entries currently held in memory.
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns the estimated size of all entries currently held in memory in bytes.
+	 */
+	public synchronized long getMemoryUsage() {
+		return memoryUsage;
+	}
+
+	/**
+	 * Returns the memory budget of this cache in bytes.
+	 */
+	public long getMemoryBudget() {
+		return memoryBudget;
+	}
+
+	/**
+	 * Returns the number of lookups answered from memory.
+	 */
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of lookups answered from the cache directory.
+	 */
+	public synchronized long getDiskHitCount() {
+		return diskHits;
+	}
+
+	/**
+	 * Returns the number of lookups that could not be answered.
+	 */
+	public synchronized long getMissCount() {
+		return misses;
+	}
+
+	/**
+	 * Returns the number of entries evicted from memory.
+	 */
+	public synchronized long getEvictionCount() {
+		return evictions;
+	}
+
+	/**
+	 * Returns the fraction of lookups answered from either memory or disk, or 0 if there were no lookups.
+	 */
+	public synchronized double getHitRate() {
+		long lookups = hits + diskHits + misses;
+		if (lookups == 0)
+			return 0.0;
+		return (double) (hits + diskHits) / lookups;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("AnalysisCache[entries=%d, memory=%d/%d, hits=%d, diskHits=%d, misses=%d, evictions=%d, hitRate=%.3f]",
+				entries.size(), memoryUsage, memoryBudget, hits, diskHits, misses, evictions, getHitRate());
+	}
+
+	/**
+	 * Holds the given analysis in memory, unless another thread published one with the same key first.
+	 *
+	 * @return The analysis held in memory, or the given one if it exceeds the memory budget.
+	 */
+	private AnalyzedDocument putIfAbsent(String key, AnalyzedDocument document) {
+		AnalyzedDocument previous = entries.get(key);
+		if (previous != null)
+			return previous;
+
+		long size = document.estimateSize();
+		if (size > memoryBudget)
+			return document;
+
+		entries.put(key, document);
+		memoryUsage += size;
+
+		Iterator<Map.Entry<String, AnalyzedDocument>> eldest = entries.entrySet().iterator();
+		while (memoryUsage > memoryBudget && eldest.hasNext()) {
+			memoryUsage -= eldest.next().getValue().estimateSize();
+			eldest.remove();
+			evictions++;
+		}
+		return document;
+	}
+
+	private AnalyzedDocument readFromDisk(String key) {
+		if (directory == null)
+			return null;
+
+		Path file = directory.resolve(key + FILE_SUFFIX);
+		if (!Files.isReadable(file))
+			return null;
+
+		try (InputStream in = Files.newInputStream(file); ObjectInputStream objects = new ObjectInputStream(in)) {
+			return (AnalyzedDocument) objects.readObject();
+		} catch (IOException | ClassNotFoundException | ClassCastException e) {
+			System.err.println("WARNING: Could not read cached analysis@" + file.toString());
+			return null;
+		}
+	}
+
+	private void writeToDisk(String key, AnalyzedDocument document) {
+		if (directory == null)
+			return;
+
+		Path file = directory.resolve(key + FILE_SUFFIX);
+		try {
+			Path temp = Files.createTempFile(directory, key, ".tmp");
+			try (OutputStream out = Files.newOutputStream(temp); ObjectOutputStream objects = new ObjectOutputStream(out)) {
+				objects.writeObject(document);
+			}
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			System.err.println("WARNING: Could not write cached analysis@" + file.toString());
+		}
+	}
+}
@@ -0,0 +1,183 @@
+package de.unidue.ltl.ctest.gapscheme.cache;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.uima.UIMAException;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.cas.FSArray;
+import org.apache.uima.jcas.tcas.Annotation;
+
+import de.tudarmstadt.ukp.dkpro.core.api.ner.type.NamedEntity;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Compound;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.CompoundPart;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.LinkingMorpheme;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Split;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+
+/**
+ * A compact, serializable snapshot of the preprocessing results for a single text.
+ * <p>
+ * Only the annotations read by the {@link de.unidue.ltl.ctest.gapscheme.CTestGenerator} are kept:
+ * sentences, tokens, named entities and the top-level splits of compounds.
+ * Spans are stored as flat {@code int} arrays of alternating begin and end offsets.
+ * A snapshot can be turned back into a {@code JCas} without running any {@code AnalysisEngine}.
+ *
+ * @see AnalysisCache
+ * @see org.apache.uima.jcas.JCas
+ */
+public class AnalyzedDocument implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private static final byte PART = 0;
+	private static final byte LINKING_MORPHEME = 1;
+
+	private String text;
+	private String language;
+	private int[] sentences;
+	private int[] tokens;
+	private int[] namedEntities;
+	private String[] namedEntityValues;
+	private int[] compounds;
+	private int[] compoundSplitCounts;
+	private int[] splits;
+	private byte[] splitTypes;
+
+	/**
+	 * Creates a snapshot of the given, fully processed {@code JCas}.
+	 */
+	public static AnalyzedDocument fromJCas(JCas jcas) {
+		AnalyzedDocument document = new AnalyzedDocument();
+		document.text = jcas.getDocumentText();
+		document.language = jcas.getDocumentLanguage();
+		document.sentences = toOffsets(JCasUtil.select(jcas, Sentence.class));
+		document.tokens = toOffsets(JCasUtil.select(jcas, Token.class));
+
+		Collection<NamedEntity> entities = JCasUtil.select(jcas, NamedEntity.class);
+		document.namedEntities = toOffsets(entities);
+		document.namedEntityValues = entities.stream()
+				.map(NamedEntity::getValue)
+				.toArray(String[]::new);
+
+		Collection<Compound> compounds = JCasUtil.select(jcas, Compound.class);
+		document.compounds = toOffsets(compounds);
+		document.compoundSplitCounts = new int[compounds.size()];
+		List<Split> splits = new ArrayList<>();
+		int i = 0;
+		for (Compound compound : compounds) {
+			FSArray compoundSplits = compound.getSplits();
+			int count = compoundSplits == null ? 0 : compoundSplits.size();
+			for (int j = 0; j < count; j++) {
+				splits.add((Split) compoundSplits.get(j));
+			}
+			document.compoundSplitCounts[i++] = count;
+		}
+		document.splits = toOffsets(splits);
+		document.splitTypes = new byte[splits.size()];
+		for (int j = 0; j < splits.size(); j++) {
+			document.splitTypes[j] = splits.get(j) instanceof LinkingMorpheme ? LINKING_MORPHEME : PART;
+		}
+
+		return document;
+	}
+
+	/**
+	 * Creates a new {@code JCas}, containing the text and all annotations of this snapshot.
+	 *
+	 * @throws UIMAException if the {@code JCas} could not be created.
+	 */
+	public JCas toJCas() throws UIMAException {
+		JCas jcas = JCasFactory.createText(text, language);
+
+		for (int i = 0; i < sentences.length; i += 2) {
+			new Sentence(jcas, sentences[i], sentences[i + 1]).addToIndexes();
+		}
+
+		for (int i = 0; i < tokens.length; i += 2) {
+			new Token(jcas, tokens[i], tokens[i + 1]).addToIndexes();
+		}
+
+		for (int i = 0; i < namedEntities.length; i += 2) {
+			NamedEntity entity = new NamedEntity(jcas, namedEntities[i], namedEntities[i + 1]);
+			entity.setValue(namedEntityValues[i / 2]);
+			entity.addToIndexes();
+		}
+
+		int split = 0;
+		for (int i = 0; i < compoundSplitCounts.length; i++) {
+			Compound compound = new Compound(jcas, compounds[2 * i], compounds[2 * i + 1]);
+			FSArray compoundSplits = new FSArray(jcas, compoundSplitCounts[i]);
+			for (int j = 0; j < compoundSplitCounts[i]; j++, split++) {
+				Split part = splitTypes[split] == LINKING_MORPHEME
+						? new LinkingMorpheme(jcas, splits[2 * split], splits[2 * split + 1])
+						: new CompoundPart(jcas, splits[2 * split], splits[2 * split + 1]);
+				part.addToIndexes();
+				compoundSplits.set(j, part);
+			}
+			compound.setSplits(compoundSplits);
+			compound.addToIndexes();
+		}
+
+		return jcas;
+	}
+
+	/**
+	 * Returns a rough estimate of the heap memory occupied by this snapshot in bytes.
+	 */
+	public long estimateSize() {
+		long size = 64;
+		size += 40 + 2L * text.length();
+		size += 4L * (sentences.length + tokens.length + namedEntities.length + compounds.length
+				+ compoundSplitCounts.length + splits.length);
+		size += splitTypes.length;
+		for (String value : namedEntityValues) {
+			size += value == null ? 8 : 48 + 2L * value.length();
+		}
+		return size;
+	}
+
+	/**
+	 * Returns the text of the analyzed document.
+	 */
+	public String getText() {
+		return text;
+	}
+
+	/**
+	 * Returns the language of the analyzed document.
+	 */
+	public String getLanguage() {
+		return language;
+	}
+
+	/**
+	 * Returns the number of tokens in the analyzed document.
+	 */
+	public int getTokenCount() {
+		return tokens.length / 2;
+	}
+
+	/**
+	 * Returns the number of sentences in the analyzed document.
+	 */
+	public int getSentenceCount() {
+		return sentences.length / 2;
+	}
+
+	private static int[] toOffsets(Collection<? extends Annotation> annotations) {
+		int[] offsets = new int[annotations.size() * 2];
+		int i = 0;
+		for (Annotation annotation : annotations) {
+			offsets[i++] = annotation.getBegin();
+			offsets[i++] = annotation.getEnd();
+		}
+		return offsets;
+	}
+
+	private AnalyzedDocument() {};
+}
@@ -0,0 +1,215 @@
+package de.unidue.ltl.ctest.gapscheme.decompounding;
+
+import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngine;
+import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngineDescription;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.uima.UIMAException;
+import org.apache.uima.UimaContext;
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.analysis_engine.AnalysisEngineDescription;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
+import org.apache.uima.fit.descriptor.TypeCapability;
+import org.apache.uima.fit.factory.ExternalResourceFactory;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.resource.ResourceInitializationException;
+
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Compound;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+import de.tudarmstadt.ukp.dkpro.core.decompounding.uima.annotator.CompoundAnnotator;
+import de.tudarmstadt.ukp.dkpro.core.decompounding.uima.resource.BananaSplitterResource;
+import de.tudarmstadt.ukp.dkpro.core.decompounding.uima.resource.SharedDictionary;
+import de.tudarmstadt.ukp.dkpro.core.decompounding.uima.resource.SharedLinkingMorphemes;
+
+/**
+ * Annotates compounds, using the shared {@link DecompoundingCache} in front of a {@code CompoundAnnotator}.
+ * A named cache can be used instead by setting {@link #PARAM_CACHE_NAME}.
+ * <p>
+ * Tokens are first looked up in the cache. All distinct words, which are not cached, are then split at once
+ * by a {@code CompoundAnnotator} using the Banana Splitter algorithm, and the results are added to the cache.
+ * The annotations are the same as those of the {@code CompoundAnnotator}, but each word is only split once
+ * as long as it remains in the cache.
+ * <p>
+ * Optionally, the cache is pre-seeded with the most frequent words of a frequency list on initialisation.
+ *
+ * @see de.tudarmstadt.ukp.dkpro.core.decompounding.uima.annotator.CompoundAnnotator
+ */
+@TypeCapability(
+		inputs = { "de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token" },
+		outputs = { "de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Compound",
+				"de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.CompoundPart",
+				"de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.LinkingMorpheme" })
+public class CachingCompoundAnnotator extends JCasAnnotator_ImplBase {
+
+	/**
+	 * A frequency list used to pre-seed the cache, containing one word per line, most frequent words first.
+	 * Further tab-separated columns are ignored.
+	 */
+	public static final String PARAM_SEED_FILE = "seedFile";
+	@ConfigurationParameter(name = PARAM_SEED_FILE, mandatory = false)
+	private String seedFile;
+
+	/**
+	 * The maximum number of words read from the seed file.
+	 */
+	public static final String PARAM_SEED_LIMIT = "seedLimit";
+	@ConfigurationParameter(name = PARAM_SEED_LIMIT, mandatory = false, defaultValue = "10000")
+	private int seedLimit;
+
+	/**
+	 * The name of the cache to be used instead of the shared one.
+	 *
+	 * @see DecompoundingCache#getNamedInstance(String)
+	 */
+	public static final String PARAM_CACHE_NAME = "cacheName";
+	@ConfigurationParameter(name = PARAM_CACHE_NAME, mandatory = false)
+	private String cacheName;
+
+	private static final int BATCH_SIZE = 1000;
+
+	private DecompoundingCache cache;
+	private AnalysisEngine splitter;
+	private JCas batchJCas;
+
+	/**
+	 * Returns the description of the {@code CompoundAnnotator} used for words, which are not cached.
+	 */
+	public static AnalysisEngineDescription getSplitterDescription() throws ResourceInitializationException {
+		return createEngineDescription(CompoundAnnotator.class,
+				CompoundAnnotator.RES_SPLITTING_ALGO,
+				ExternalResourceFactory.createExternalResourceDescription(BananaSplitterResource.class,
+						BananaSplitterResource.PARAM_DICT_RESOURCE,
+						ExternalResourceFactory.createExternalResourceDescription(SharedDictionary.class),
+						BananaSplitterResource.PARAM_MORPHEME_RESOURCE,
+						ExternalResourceFactory.createExternalResourceDescription(SharedLinkingMorphemes.class)));
+	}
+
+	@Override
+	public void initialize(UimaContext context) throws ResourceInitializationException {
+		super.initialize(context);
+
+		cache = cacheName != null ? DecompoundingCache.getNamedInstance(cacheName) : DecompoundingCache.getSharedInstance();
+		splitter = createEngine(getSplitterDescription());
+		try {
+			batchJCas = JCasFactory.createJCas();
+		} catch (UIMAException e) {
+			throw new ResourceInitializationException(e);
+		}
+
+		if (seedFile != null) {
+			try {
+				seed(Paths.get(seedFile));
+			} catch (AnalysisEngineProcessException e) {
+				throw new ResourceInitializationException(e);
+			}
+		}
+	}
+
+	@Override
+	public void process(JCas jcas) throws AnalysisEngineProcessException {
+		List<Token> uncached = new ArrayList<>();
+		for (Token token : JCasUtil.select(jcas, Token.class)) {
+			CompoundSplit split = cache.get(token.getCoveredText());
+			if (split != null)
+				split.addTo(jcas, token.getBegin());
+			else
+				uncached.add(token);
+		}
+
+		if (uncached.isEmpty())
+			return;
+
+		Set<String> words = new LinkedHashSet<>();
+		for (Token token : uncached)
+			words.add(token.getCoveredText());
+
+		Map<String, CompoundSplit> splits = split(words);
+		for (Token token : uncached)
+			splits.get(token.getCoveredText()).addTo(jcas, token.getBegin());
+	}
+
+	@Override
+	public void destroy() {
+		splitter.destroy();
+		super.destroy();
+	}
+
+	/**
+	 * Splits the given words and adds them to the cache.
+	 */
+	private Map<String, CompoundSplit> split(Set<String> words) throws AnalysisEngineProcessException {
+		Map<String, CompoundSplit> splits = new HashMap<>();
+		List<String> batch = new ArrayList<>(words);
+
+		batchJCas.reset();
+		StringBuilder text = new StringBuilder();
+		int[] begins = new int[batch.size()];
+		for (int i = 0; i < batch.size(); i++) {
+			begins[i] = text.length();
+			text.append(batch.get(i)).append(' ');
+		}
+		batchJCas.setDocumentText(text.toString());
+		batchJCas.setDocumentLanguage("de");
+		new Sentence(batchJCas, 0, text.length()).addToIndexes();
+		for (int i = 0; i < batch.size(); i++)
+			new Token(batchJCas, begins[i], begins[i] + batch.get(i).length()).addToIndexes();
+
+		splitter.process(batchJCas);
+
+		Map<Integer, Compound> compounds = new HashMap<>();
+		for (Compound compound : JCasUtil.select(batchJCas, Compound.class))
+			compounds.putIfAbsent(compound.getBegin(), compound);
+
+		for (int i = 0; i < batch.size(); i++) {
+			Compound compound = compounds.get(begins[i]);
+			CompoundSplit split = compound != null ? CompoundSplit.fromCompound(compound, begins[i]) : CompoundSplit.NO_COMPOUND;
+			splits.put(batch.get(i), split);
+			cache.put(batch.get(i), split);
+		}
+		return splits;
+	}
+
+	/**
+	 * Splits the most frequent words of the given frequency list in batches and adds them to the cache.
+	 */
+	private void seed(Path file) throws AnalysisEngineProcessException {
+		Set<String> batch = new LinkedHashSet<>();
+		int count = 0;
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null && count < seedLimit) {
+				String word = line.split("\t", 2)[0].trim();
+				if (word.isEmpty() || word.contains(" ") || cache.peek(word) != null)
+					continue;
+				batch.add(word);
+				count++;
+				if (batch.size() == BATCH_SIZE) {
+					split(batch);
+					batch.clear();
+				}
+			}
+		} catch (IOException e) {
+			System.err.println("WARNING: Could not read file@" + file.toString());
+			System.err.println("\tThe decompounding cache is not pre-seeded.");
+		}
+		if (!batch.isEmpty())
+			split(batch);
+	}
+}
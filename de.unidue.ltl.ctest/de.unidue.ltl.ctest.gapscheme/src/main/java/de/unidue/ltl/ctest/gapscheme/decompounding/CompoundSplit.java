@@ -0,0 +1,146 @@
+package de.unidue.ltl.ctest.gapscheme.decompounding;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.cas.FSArray;
+
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Compound;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.CompoundPart;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.LinkingMorpheme;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Split;
+
+/**
+ * The decomposition of a single word into compound parts and linking morphemes.
+ * <p>
+ * Offsets are relative to the start of the word, so that a {@code CompoundSplit} applies to every occurrence of the word.
+ * Parts may in turn be split, forming a tree. A word, which is not a compound, has no splits.
+ * {@code CompoundSplit} objects are immutable.
+ *
+ * @see DecompoundingCache
+ */
+public class CompoundSplit {
+
+	/**
+	 * The split of a word, which is not a compound.
+	 */
+	public static final CompoundSplit NO_COMPOUND = new CompoundSplit(0, 0, false, Collections.emptyList());
+
+	private final int begin;
+	private final int end;
+	private final boolean linkingMorpheme;
+	private final List<CompoundSplit> splits;
+
+	private CompoundSplit(int begin, int end, boolean linkingMorpheme, List<CompoundSplit> splits) {
+		this.begin = begin;
+		this.end = end;
+		this.linkingMorpheme = linkingMorpheme;
+		this.splits = splits;
+	}
+
+	/**
+	 * Creates a {@code CompoundSplit} from the given {@code Compound} annotation.
+	 *
+	 * @param  compound The annotated compound.
+	 * @param  wordBegin The start offset of the word, to which the returned offsets are relative.
+	 * @return The split.
+	 */
+	public static CompoundSplit fromCompound(Compound compound, int wordBegin) {
+		List<CompoundSplit> splits = fromSplits(compound.getSplits(), wordBegin);
+		if (splits.isEmpty())
+			return NO_COMPOUND;
+		return new CompoundSplit(compound.getBegin() - wordBegin, compound.getEnd() - wordBegin, false, splits);
+	}
+
+	private static List<CompoundSplit> fromSplits(FSArray array, int wordBegin) {
+		if (array == null || array.size() == 0)
+			return Collections.emptyList();
+
+		List<CompoundSplit> splits = new ArrayList<>(array.size());
+		for (int i = 0; i < array.size(); i++) {
+			Split split = (Split) array.get(i);
+			splits.add(new CompoundSplit(split.getBegin() - wordBegin, split.getEnd() - wordBegin,
+					split instanceof LinkingMorpheme, fromSplits(split.getSplits(), wordBegin)));
+		}
+		return Collections.unmodifiableList(splits);
+	}
+
+	/**
+	 * Adds a {@code Compound} annotation and its parts for the word starting at the given offset to the given {@code JCas}.
+	 * Does nothing, if the word is not a compound.
+	 *
+	 * @param  jcas The {@code JCas}.
+	 * @param  wordBegin The start offset of the word.
+	 */
+	public void addTo(JCas jcas, int wordBegin) {
+		if (!isCompound())
+			return;
+
+		Compound compound = new Compound(jcas, wordBegin + begin, wordBegin + end);
+		compound.setSplits(toSplits(jcas, splits, wordBegin));
+		compound.addToIndexes();
+	}
+
+	private static FSArray toSplits(JCas jcas, List<CompoundSplit> splits, int wordBegin) {
+		FSArray array = new FSArray(jcas, splits.size());
+		for (int i = 0; i < splits.size(); i++) {
+			CompoundSplit split = splits.get(i);
+			Split annotation = split.linkingMorpheme
+					? new LinkingMorpheme(jcas, wordBegin + split.begin, wordBegin + split.end)
+					: new CompoundPart(jcas, wordBegin + split.begin, wordBegin + split.end);
+			if (!split.splits.isEmpty())
+				annotation.setSplits(toSplits(jcas, split.splits, wordBegin));
+			annotation.addToIndexes();
+			array.set(i, annotation);
+		}
+		return array;
+	}
+
+	/**
+	 * Indicates whether the word is a compound.
+	 */
+	public boolean isCompound() {
+		return !splits.isEmpty();
+	}
+
+	/**
+	 * Returns the start offset of the last part of the compound, relative to the start of the word.
+	 *
+	 * @throws IllegalStateException if the word is not a compound.
+	 */
+	public int getLastPartBegin() {
+		if (!isCompound())
+			throw new IllegalStateException("The word is not a compound.");
+		return splits.get(splits.size() - 1).begin;
+	}
+
+	/**
+	 * Returns the direct splits of the compound.
+	 */
+	public List<CompoundSplit> getSplits() {
+		return splits;
+	}
+
+	/**
+	 * Returns the start offset, relative to the start of the word.
+	 */
+	public int getBegin() {
+		return begin;
+	}
+
+	/**
+	 * Returns the end offset, relative to the start of the word.
+	 */
+	public int getEnd() {
+		return end;
+	}
+
+	/**
+	 * Indicates whether this split is a linking morpheme, rather than a compound part.
+	 */
+	public boolean isLinkingMorpheme() {
+		return linkingMorpheme;
+	}
+}
@@ -0,0 +1,199 @@
+package de.unidue.ltl.ctest.gapscheme.decompounding;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A bounded, thread-safe cache of {@link CompoundSplit}s, keyed by the lowercased word.
+ * <p>
+ * Once the capacity is reached, the least recently used entries are evicted.
+ * Words, which are not compounds, are cached as well, using {@link CompoundSplit#NO_COMPOUND}.
+ * Words, whose lowercased form differs in length, cannot be cached, since their split offsets would not apply.
+ *
+ * @see CachingCompoundAnnotator
+ */
+public class DecompoundingCache {
+
+	/**
+	 * The capacity of the shared instance.
+	 */
+	public static final int DEFAULT_CAPACITY = 100000;
+
+	private static final DecompoundingCache SHARED_INSTANCE = new DecompoundingCache(DEFAULT_CAPACITY);
+	private static final Map<String, DecompoundingCache> NAMED_INSTANCES = new ConcurrentHashMap<>();
+
+	private final LinkedHashMap<String, CompoundSplit> entries;
+	private int capacity;
+
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	/**
+	 * Creates a new {@code DecompoundingCache} with the given capacity.
+	 *
+	 * @param  capacity The maximum number of cached words.
+	 */
+	public DecompoundingCache(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("The capacity must not be negative.");
+		}
+		this.capacity = capacity;
+		this.entries = new LinkedHashMap<String, CompoundSplit>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CompoundSplit> eldest) {
+				if (size() <= DecompoundingCache.this.capacity)
+					return false;
+				evictions++;
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cache shared by all {@code CachingCompoundAnnotator}s.
+	 */
+	public static DecompoundingCache getSharedInstance() {
+		return SHARED_INSTANCE;
+	}
+
+	/**
+	 * Returns the cache with the given name, which is created with the default capacity on first use.
+	 * Named caches allow {@code CachingCompoundAnnotator}s to use a cache separate from the shared instance.
+	 *
+	 * @see CachingCompoundAnnotator#PARAM_CACHE_NAME
+	 */
+	public static DecompoundingCache getNamedInstance(String name) {
+		return NAMED_INSTANCES.computeIfAbsent(name, n -> new DecompoundingCache(DEFAULT_CAPACITY));
+	}
+
+	/**
+	 * Removes the cache with the given name. Annotators already using the cache keep it.
+	 */
+	public static void removeNamedInstance(String name) {
+		NAMED_INSTANCES.remove(name);
+	}
+
+	/**
+	 * Returns the key for the given word.
+	 */
+	public static String getKey(String word) {
+		return word.toLowerCase(Locale.GERMAN);
+	}
+
+	/**
+	 * Returns the cached split of the given word, or null if the word is not cached.
+	 * The lookup is counted as hit or miss.
+	 */
+	public synchronized CompoundSplit get(String word) {
+		CompoundSplit split = entries.get(getKey(word));
+		if (split != null)
+			hits++;
+		else
+			misses++;
+		return split;
+	}
+
+	/**
+	 * Returns the cached split of the given word, or null if the word is not cached.
+	 * In contrast to {@code get}, the lookup does not affect statistics.
+	 */
+	public synchronized CompoundSplit peek(String word) {
+		return entries.get(getKey(word));
+	}
+
+	/**
+	 * Adds the split of the given word to the cache.
+	 *
+	 * @return false, if the word cannot be cached.
+	 */
+	public synchronized boolean put(String word, CompoundSplit split) {
+		String key = getKey(word);
+		if (key.length() != word.length() || capacity == 0)
+			return false;
+		entries.put(key, split);
+		return true;
+	}
+
+	/**
+	 * Changes the capacity of the cache, evicting the least recently used entries if necessary.
+	 */
+	public synchronized void setCapacity(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("The capacity must not be negative.");
+		}
+		this.capacity = capacity;
+		Iterator<String> eldest = entries.keySet().iterator();
+		while (entries.size() > capacity && eldest.hasNext()) {
+			eldest.next();
+			eldest.remove();
+			evictions++;
+		}
+	}
+
+	/**
+	 * Returns the maximum number of cached words.
+	 */
+	public synchronized int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Removes all entries and resets the statistics.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		hits = 0;
+		misses = 0;
+		evictions = 0;
+	}
+
+	/**
+	 * Returns the number of cached words.
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns the number of lookups answered from the cache.
+	 */
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of lookups that could not be answered.
+	 */
+	public synchronized long getMissCount() {
+		return misses;
+	}
+
+	/**
+	 * Returns the number of evicted entries.
+	 */
+	public synchronized long getEvictionCount() {
+		return evictions;
+	}
+
+	/**
+	 * Returns the fraction of lookups answered from the cache, or 0 if there were no lookups.
+	 */
+	public synchronized double getHitRate() {
+		long lookups = hits + misses;
+		if (lookups == 0)
+			return 0.0;
+		return (double) hits / lookups;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("DecompoundingCache[entries=%d/%d, hits=%d, misses=%d, evictions=%d, hitRate=%.3f]",
+				entries.size(), capacity, hits, misses, evictions, getHitRate());
+	}
+}
@@ -0,0 +1,315 @@
+package de.unidue.ltl.ctest.gapscheme.gazetteer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A list of names, each with an entity type, compiled into an Aho-Corasick automaton.
+ * <p>
+ * All occurrences of all names in a text are found in a single pass over the text,
+ * regardless of the number of names. Names are matched case-sensitively.
+ * The automaton is immutable once compiled and may be shared between threads.
+ * <p>
+ * Gazetteers are read from UTF-8 files with one name per line, the file name without extension being the entity type.
+ * Empty lines and lines starting with {@code #} are ignored.
+ * For each supported language, gazetteers of persons, locations and organizations are bundled.
+ * These are small samples of a few dozen common names each, sufficient for tests and demonstrations, but not for real corpora.
+ * Users must supply their own gazetteers, for instance extracted from a knowledge base,
+ * and register them with {@link #setSharedInstance(String, Gazetteer)}.
+ *
+ * @see GazetteerNamedEntityRecognizer
+ */
+public class Gazetteer {
+
+	/**
+	 * The entity types of the bundled gazetteers.
+	 */
+	public static final String[] TYPES = { "person", "location", "organization" };
+
+	private static final String[] LANGUAGES = { "de", "en", "es" };
+	private static final String RESOURCE_PATH = "/de/unidue/ltl/ctest/gapscheme/gazetteer/";
+	private static final Map<String, Gazetteer> SHARED_INSTANCES = new ConcurrentHashMap<>();
+	private static final Map<String, Gazetteer> USER_INSTANCES = new ConcurrentHashMap<>();
+	private static final Map<String, Integer> SHARED_VERSIONS = new ConcurrentHashMap<>();
+
+	/**
+	 * A single occurrence of a name in a text.
+	 */
+	public static class Match {
+		private final int begin;
+		private final int end;
+		private final String type;
+
+		Match(int begin, int end, String type) {
+			this.begin = begin;
+			this.end = end;
+			this.type = type;
+		}
+
+		public int getBegin() {
+			return begin;
+		}
+
+		public int getEnd() {
+			return end;
+		}
+
+		public String getType() {
+			return type;
+		}
+
+		@Override
+		public String toString() {
+			return type + "[" + begin + "," + end + "]";
+		}
+	}
+
+	// the transitions of state s are labels[s] with the targets at the same position, sorted by label
+	private final char[][] labels;
+	private final int[][] targets;
+	private final int[] failure;
+	// the nearest state on the failure chain, which completes a name, or -1
+	private final int[] outputLink;
+	private final int[] depth;
+	private final String[] types;
+	private final int size;
+
+	/**
+	 * Compiles the given names into a new {@code Gazetteer}.
+	 *
+	 * @param  names The names, mapped to their entity types.
+	 */
+	public Gazetteer(Map<String, String> names) {
+		List<Map<Character, Integer>> trie = new ArrayList<>();
+		List<String> stateTypes = new ArrayList<>();
+		List<Integer> stateDepth = new ArrayList<>();
+		trie.add(new HashMap<>());
+		stateTypes.add(null);
+		stateDepth.add(0);
+
+		int count = 0;
+		for (Map.Entry<String, String> name : names.entrySet()) {
+			if (name.getKey().isEmpty())
+				continue;
+			int state = 0;
+			for (char c : name.getKey().toCharArray()) {
+				Integer next = trie.get(state).get(c);
+				if (next == null) {
+					next = trie.size();
+					trie.add(new HashMap<>());
+					stateTypes.add(null);
+					stateDepth.add(stateDepth.get(state) + 1);
+					trie.get(state).put(c, next);
+				}
+				state = next;
+			}
+			if (stateTypes.get(state) == null)
+				count++;
+			stateTypes.set(state, name.getValue());
+		}
+
+		int states = trie.size();
+		this.size = count;
+		this.labels = new char[states][];
+		this.targets = new int[states][];
+		this.failure = new int[states];
+		this.outputLink = new int[states];
+		this.depth = new int[states];
+		this.types = stateTypes.toArray(new String[states]);
+		for (int s = 0; s < states; s++) {
+			char[] stateLabels = new char[trie.get(s).size()];
+			int i = 0;
+			for (char c : trie.get(s).keySet())
+				stateLabels[i++] = c;
+			Arrays.sort(stateLabels);
+			int[] stateTargets = new int[stateLabels.length];
+			for (i = 0; i < stateLabels.length; i++)
+				stateTargets[i] = trie.get(s).get(stateLabels[i]);
+			labels[s] = stateLabels;
+			targets[s] = stateTargets;
+			depth[s] = stateDepth.get(s);
+		}
+
+		// breadth first, so that the failure links of shallower states are known
+		outputLink[0] = -1;
+		Queue<Integer> queue = new ArrayDeque<>();
+		for (int target : targets[0]) {
+			failure[target] = 0;
+			outputLink[target] = -1;
+			queue.add(target);
+		}
+		while (!queue.isEmpty()) {
+			int state = queue.poll();
+			for (int i = 0; i < labels[state].length; i++) {
+				char c = labels[state][i];
+				int target = targets[state][i];
+				int fallback = failure[state];
+				while (fallback != 0 && next(fallback, c) < 0)
+					fallback = failure[fallback];
+				int link = next(fallback, c);
+				failure[target] = link >= 0 ? link : 0;
+				outputLink[target] = types[failure[target]] != null ? failure[target] : outputLink[failure[target]];
+				queue.add(target);
+			}
+		}
+	}
+
+	/**
+	 * Returns the gazetteer of the given language, which is shared by all callers.
+	 * This is the gazetteer set by {@link #setSharedInstance(String, Gazetteer)}, if any,
+	 * or else the bundled gazetteer, which is compiled once.
+	 *
+	 * @param  language The language. Must be an ISO 639-1 language code.
+	 * @return The gazetteer, which is empty if no gazetteer is set or bundled for the language.
+	 */
+	public static Gazetteer getSharedInstance(String language) {
+		Gazetteer userInstance = USER_INSTANCES.get(language);
+		if (userInstance != null)
+			return userInstance;
+		return SHARED_INSTANCES.computeIfAbsent(language, key -> {
+			Map<String, String> names = new LinkedHashMap<>();
+			for (String type : TYPES) {
+				try (InputStream in = Gazetteer.class.getResourceAsStream(RESOURCE_PATH + key + "/" + type + ".txt")) {
+					if (in != null)
+						read(in, type, names);
+				} catch (IOException e) {
+					throw new IllegalStateException("Could not read the " + type + " gazetteer for " + key + ".", e);
+				}
+			}
+			return new Gazetteer(names);
+		});
+	}
+
+	/**
+	 * Sets the gazetteer of the given language, which is used instead of the bundled one by all recognizers 
+	 * initialised afterwards, including those of {@code GenerationProfile.FAST}.
+	 * Each call increments the shared version of the language.
+	 *
+	 * @param  language The language. Must be an ISO 639-1 language code.
+	 * @param  gazetteer The gazetteer, null restores the bundled gazetteer.
+	 *
+	 * @see #getSharedVersion(String)
+	 */
+	public static void setSharedInstance(String language, Gazetteer gazetteer) {
+		if (gazetteer == null)
+			USER_INSTANCES.remove(language);
+		else
+			USER_INSTANCES.put(language, gazetteer);
+		SHARED_VERSIONS.merge(language, 1, Integer::sum);
+	}
+
+	/**
+	 * Returns the version of the shared gazetteer of the given language, 
+	 * i.e. the number of times it was set by {@link #setSharedInstance(String, Gazetteer)}.
+	 * Engines and cached analyses of an older version are outdated.
+	 *
+	 * @param  language The language. Must be an ISO 639-1 language code.
+	 * @return The version, 0 for the bundled gazetteer, as long as no gazetteer was set.
+	 */
+	public static int getSharedVersion(String language) {
+		return SHARED_VERSIONS.getOrDefault(language, 0);
+	}
+
+	/**
+	 * Returns whether a gazetteer is set or bundled for the given language.
+	 */
+	public static boolean isAvailable(String language) {
+		return USER_INSTANCES.containsKey(language) || Arrays.asList(LANGUAGES).contains(language);
+	}
+
+	/**
+	 * Reads a gazetteer from the given files. The entity type of each file is its name without extension.
+	 *
+	 * @param  locations The paths of the files.
+	 * @return The compiled gazetteer.
+	 *
+	 * @throws IOException if a file could not be read.
+	 */
+	public static Gazetteer read(String... locations) throws IOException {
+		Map<String, String> names = new LinkedHashMap<>();
+		for (String location : locations) {
+			String type = Paths.get(location).getFileName().toString().replaceFirst("\\.[^.]*$", "");
+			try (InputStream in = Files.newInputStream(Paths.get(location))) {
+				read(in, type, names);
+			}
+		}
+		return new Gazetteer(names);
+	}
+
+	private static void read(InputStream in, String type, Map<String, String> names) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+		String line;
+		while ((line = reader.readLine()) != null) {
+			line = line.trim();
+			if (!line.isEmpty() && !line.startsWith("#"))
+				names.putIfAbsent(line, type);
+		}
+	}
+
+	/**
+	 * Finds all occurrences of all names in the given text, including overlapping ones.
+	 *
+	 * @param  text The text.
+	 * @return The matches, ordered by their end offset, longer matches first.
+	 */
+	public List<Match> find(String text) {
+		List<Match> matches = new ArrayList<>();
+		int state = 0;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			int target = next(state, c);
+			while (target < 0 && state != 0) {
+				state = failure[state];
+				target = next(state, c);
+			}
+			state = target < 0 ? 0 : target;
+
+			for (int output = types[state] != null ? state : outputLink[state]; output > 0; output = outputLink[output])
+				matches.add(new Match(i + 1 - depth[output], i + 1, types[output]));
+		}
+		return matches;
+	}
+
+	/**
+	 * Returns the type of the given name, or null if it is not contained in the gazetteer.
+	 */
+	public String getType(String name) {
+		int state = 0;
+		for (int i = 0; i < name.length() && state >= 0; i++)
+			state = next(state, name.charAt(i));
+		return state >= 0 ? types[state] : null;
+	}
+
+	/**
+	 * Returns the number of names.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of states of the automaton.
+	 */
+	public int getStateCount() {
+		return labels.length;
+	}
+
+	private int next(int state, char c) {
+		int index = Arrays.binarySearch(labels[state], c);
+		return index >= 0 ? targets[state][index] : -1;
+	}
+}
@@ -0,0 +1,175 @@
+package de.unidue.ltl.ctest.gapscheme.gazetteer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.apache.uima.UimaContext;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
+import org.apache.uima.fit.descriptor.TypeCapability;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.resource.ResourceInitializationException;
+
+import de.tudarmstadt.ukp.dkpro.core.api.ner.type.NamedEntity;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+
+/**
+ * Annotates named entities by looking up names in a {@link Gazetteer}, as a fast alternative to statistical models.
+ * <p>
+ * All names are found in one pass over the document text. Only matches starting and ending at token boundaries are kept;
+ * of overlapping matches, the leftmost and then the longest one is annotated.
+ * The value of each {@code NamedEntity} is the entity type of the gazetteer, e.g. "person".
+ * <p>
+ * Optionally, sequences of capitalised tokens, which do not start a sentence, are annotated as well,
+ * using the heuristic of {@link de.unidue.ltl.ctest.gapscheme.preprocessing.IsSimpleNamedEntity}.
+ * Their value is "misc". The heuristic is only useful for languages, which capitalise proper nouns only.
+ * <p>
+ * Compared to the statistical recognizers, no models are loaded and processing takes time linear in the length of the text,
+ * at the cost of missing names, which are neither listed nor capitalised.
+ * The bundled gazetteers are small samples, so recall on real corpora depends on the gazetteers supplied by the user,
+ * either per engine with {@link #PARAM_GAZETTEER_LOCATIONS} or per language with {@link Gazetteer#setSharedInstance(String, Gazetteer)}.
+ *
+ * @see de.unidue.ltl.ctest.gapscheme.preprocessing.IsGazetteerNamedEntity
+ */
+@TypeCapability(
+		inputs = {
+				"de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence",
+				"de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token" },
+		outputs = { "de.tudarmstadt.ukp.dkpro.core.api.ner.type.NamedEntity" })
+public class GazetteerNamedEntityRecognizer extends JCasAnnotator_ImplBase {
+
+	/**
+	 * The language of the shared gazetteer. Must be an ISO 639-1 language code.
+	 *
+	 * @see Gazetteer#getSharedInstance(String)
+	 */
+	public static final String PARAM_LANGUAGE = "language";
+	@ConfigurationParameter(name = PARAM_LANGUAGE, mandatory = true)
+	private String language;
+
+	/**
+	 * Gazetteer files used instead of the shared gazetteer, one file per entity type.
+	 *
+	 * @see Gazetteer#read(String...)
+	 */
+	public static final String PARAM_GAZETTEER_LOCATIONS = "gazetteerLocations";
+	@ConfigurationParameter(name = PARAM_GAZETTEER_LOCATIONS, mandatory = false)
+	private String[] gazetteerLocations;
+
+	/**
+	 * The version of the shared gazetteer, which the engine is configured for.
+	 * The engine always uses the shared gazetteer at the time of its initialisation, 
+	 * the version only tells apart the configurations of engines and of cached analyses.
+	 *
+	 * @see Gazetteer#getSharedVersion(String)
+	 */
+	public static final String PARAM_GAZETTEER_VERSION = "gazetteerVersion";
+	@ConfigurationParameter(name = PARAM_GAZETTEER_VERSION, mandatory = false, defaultValue = "0")
+	private int gazetteerVersion;
+
+	/**
+	 * Whether capitalised tokens, which do not start a sentence, are annotated as well. Defaults to false.
+	 */
+	public static final String PARAM_CAPITALIZATION = "capitalization";
+	@ConfigurationParameter(name = PARAM_CAPITALIZATION, mandatory = false, defaultValue = "false")
+	private boolean capitalization;
+
+	/**
+	 * The value of entities found by the capitalisation heuristic.
+	 */
+	public static final String CAPITALIZATION_VALUE = "misc";
+
+	private static final Pattern CAPITALISED = Pattern.compile("^\\p{Lu}.+$");
+
+	private Gazetteer gazetteer;
+
+	@Override
+	public void initialize(UimaContext context) throws ResourceInitializationException {
+		super.initialize(context);
+
+		if (gazetteerLocations != null && gazetteerLocations.length > 0) {
+			try {
+				gazetteer = Gazetteer.read(gazetteerLocations);
+			} catch (IOException e) {
+				throw new ResourceInitializationException(e);
+			}
+		} else {
+			gazetteer = Gazetteer.getSharedInstance(language);
+		}
+	}
+
+	@Override
+	public void process(JCas jcas) throws AnalysisEngineProcessException {
+		String text = jcas.getDocumentText();
+		boolean[] tokenBegins = new boolean[text.length() + 1];
+		boolean[] tokenEnds = new boolean[text.length() + 1];
+		for (Token token : JCasUtil.select(jcas, Token.class)) {
+			tokenBegins[token.getBegin()] = true;
+			tokenEnds[token.getEnd()] = true;
+		}
+
+		List<Gazetteer.Match> matches = new ArrayList<>();
+		for (Gazetteer.Match match : gazetteer.find(text)) {
+			if (tokenBegins[match.getBegin()] && tokenEnds[match.getEnd()])
+				matches.add(match);
+		}
+		matches.sort(Comparator.comparingInt(Gazetteer.Match::getBegin)
+				.thenComparing(Comparator.comparingInt(Gazetteer.Match::getEnd).reversed()));
+
+		boolean[] covered = new boolean[text.length() + 1];
+		int lastEnd = 0;
+		for (Gazetteer.Match match : matches) {
+			if (match.getBegin() < lastEnd)
+				continue;
+			NamedEntity entity = new NamedEntity(jcas, match.getBegin(), match.getEnd());
+			entity.setValue(match.getType());
+			entity.addToIndexes();
+			for (int i = match.getBegin(); i < match.getEnd(); i++)
+				covered[i] = true;
+			lastEnd = match.getEnd();
+		}
+
+		if (capitalization)
+			annotateCapitalised(jcas, covered);
+	}
+
+	/**
+	 * Annotates each sequence of capitalised tokens, which are not covered by a gazetteer match,
+	 * unless it starts a sentence or follows a full stop.
+	 */
+	private void annotateCapitalised(JCas jcas, boolean[] covered) {
+		for (Sentence sentence : JCasUtil.select(jcas, Sentence.class)) {
+			List<Token> tokens = JCasUtil.selectCovered(jcas, Token.class, sentence);
+			int begin = -1;
+			int end = -1;
+			for (int i = 1; i < tokens.size(); i++) {
+				Token token = tokens.get(i);
+				boolean isCandidate = !covered[token.getBegin()]
+						&& CAPITALISED.matcher(token.getCoveredText()).matches()
+						&& (begin >= 0 || !tokens.get(i - 1).getCoveredText().equals("."));
+				if (isCandidate) {
+					if (begin < 0)
+						begin = token.getBegin();
+					end = token.getEnd();
+				} else if (begin >= 0) {
+					addCapitalised(jcas, begin, end);
+					begin = -1;
+				}
+			}
+			if (begin >= 0)
+				addCapitalised(jcas, begin, end);
+		}
+	}
+
+	private void addCapitalised(JCas jcas, int begin, int end) {
+		NamedEntity entity = new NamedEntity(jcas, begin, end);
+		entity.setValue(CAPITALIZATION_VALUE);
+		entity.addToIndexes();
+	}
+}
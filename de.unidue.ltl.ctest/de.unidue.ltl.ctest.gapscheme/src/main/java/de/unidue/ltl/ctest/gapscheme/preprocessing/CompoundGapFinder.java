@@ -1,16 +1,22 @@
 package de.unidue.ltl.ctest.gapscheme.preprocessing;
 
+import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngineDescription;
+
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
-import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.analysis_engine.AnalysisEngineDescription;
 import org.apache.uima.jcas.JCas;
 import org.apache.uima.jcas.tcas.Annotation;
+import org.apache.uima.resource.ResourceInitializationException;
 
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Compound;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.CompoundPart;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+import de.unidue.ltl.ctest.gapscheme.decompounding.CachingCompoundAnnotator;
 
 /**
  * A {@link GapIndexFinder} for compound words. 
@@ -19,7 +25,9 @@ import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
  * For instance, for the word "hyphen-craze", the start of the gappable range would be set to "c".
  * <p>
  * <b>NOTE:</b> Since this implementation uses the <a href="https://dkpro.github.io/dkpro-core/">DKPro Framework</a> to find compounds, 
- * a {@code JCas} object is required by the constructor.
+ * a {@code JCas} object is required by the constructor or the {@code initialise} method.
+ * Only the {@code Compound} annotations of the {@code JCas} are used, so the result does not depend
+ * on what a {@code DecompoundingCache} happens to contain.
  * 
  * @see org.apache.uima.jcas.JCas
  * @see de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token
@@ -29,6 +37,12 @@ public class CompoundGapFinder implements GapIndexFinder {
 
 	private Map<Token, Collection<Compound>> index;
 	
+	/**
+	 * Creates a new {@code CompoundGapFinder}, which must be initialised with a {@code JCas} before use.
+	 */
+	public CompoundGapFinder() {
+	}
+	
 	/**
 	 * Creates a new {@code CompoundGapFinder}, using the specified {@code JCas}.
 	 * The {@code JCas} should contain {@code Compound} and {@code Token} Annotations.
@@ -39,17 +53,53 @@ public class CompoundGapFinder implements GapIndexFinder {
 	 * @see de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Compound
 	 */
 	public CompoundGapFinder(JCas jcas) {
-		index = JCasUtil.indexCovering(jcas, Token.class, Compound.class);
+		initialise(jcas);
+	}
+	
+	@Override
+	public void initialise(JCas jcas) {
+		index = CoveringIndex.create(jcas, Compound.class);
+	}
+	
+	@Override
+	public void extend(JCas jcas, Annotation span) {
+		if (index == null)
+			initialise(jcas);
+		else
+			CoveringIndex.extend(index, jcas, Compound.class, span);
+	}
+	
+	@Override
+	public Collection<Class<? extends Annotation>> getRequiredAnnotations() {
+		return Collections.singletonList(Compound.class);
+	}
+	
+	/**
+	 * Returns a {@code CachingCompoundAnnotator}, using the Banana Splitter algorithm.
+	 * The annotator is language independent, its dictionary however is German.
+	 */
+	@Override
+	public List<AnalysisEngineDescription> getEngineDescriptions(Class<? extends Annotation> requiredClass, String language)
+			throws ResourceInitializationException {
+		List<AnalysisEngineDescription> descriptions = new ArrayList<>();
+		if (!Compound.class.equals(requiredClass))
+			return descriptions;
+		
+		descriptions.add(createEngineDescription(CachingCompoundAnnotator.class));
+		return descriptions;
 	}
 	
 	/**
 	 * Tests whether a given token is a compound word.
+	 * 
+	 * @throws IllegalStateException if no {@code JCas} was given.
 	 */
 	@Override
 	public boolean test(Token token) {
-		if (index.get(token).isEmpty())
-			return false;
-		return true;
+		if (index == null)
+			throw new IllegalStateException("CompoundGapFinder has not been initialised with a JCas.");
+		Collection<Compound> compounds = index.get(token);
+		return compounds != null && !compounds.isEmpty();
 	}
 	
 	/**
@@ -0,0 +1,45 @@
+package de.unidue.ltl.ctest.gapscheme.preprocessing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+
+/**
+ * Builds and extends indexes from tokens to the annotations covering them, as used by criteria depending on annotations.
+ */
+class CoveringIndex {
+
+	private CoveringIndex() {
+	}
+
+	/**
+	 * Returns a modifiable index of the annotations of the given type covering each token of the {@code JCas}.
+	 */
+	static <T extends Annotation> Map<Token, Collection<T>> create(JCas aJCas, Class<T> type) {
+		return new HashMap<>(JCasUtil.indexCovering(aJCas, Token.class, type));
+	}
+
+	/**
+	 * Indexes the tokens of the given span anew, regarding only annotations within the span.
+	 * This suffices for annotations added by the analysis of a single sentence.
+	 */
+	static <T extends Annotation> void extend(Map<Token, Collection<T>> index, JCas aJCas, Class<T> type, Annotation aSpan) {
+		List<T> annotations = JCasUtil.selectCovered(aJCas, type, aSpan);
+		for (Token token : JCasUtil.selectCovered(aJCas, Token.class, aSpan)) {
+			List<T> covering = new ArrayList<>();
+			for (T annotation : annotations) {
+				if (annotation.getBegin() <= token.getBegin() && annotation.getEnd() >= token.getEnd())
+					covering.add(annotation);
+			}
+			index.put(token, covering);
+		}
+	}
+}
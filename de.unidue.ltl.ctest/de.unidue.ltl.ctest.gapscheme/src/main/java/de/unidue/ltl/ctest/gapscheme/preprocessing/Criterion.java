@@ -1,14 +1,66 @@
 package de.unidue.ltl.ctest.gapscheme.preprocessing;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.function.Predicate;
 
 import org.apache.uima.analysis_engine.AnalysisEngineDescription;
+import org.apache.uima.jcas.JCas;
 import org.apache.uima.jcas.tcas.Annotation;
+import org.apache.uima.resource.ResourceInitializationException;
 
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
 
-public interface Criterion extends Predicate<Token>{
-	public Collection<Class<? extends Annotation>> getRequiredAnnotations();
-	public AnalysisEngineDescription getEngineDescription(Class<? extends Annotation> requiredClass);
+/**
+ * A {@code Predicate} on tokens, which declares the annotations it relies on.
+ * <p>
+ * The preprocessing pipeline is assembled from the criteria in use:
+ * only engines providing annotations required by at least one criterion are run.
+ * {@code Token} and {@code Sentence} annotations are always available and need not be declared.
+ * <p>
+ * Criteria may be created before the text is processed.
+ * Criteria that depend on annotations are bound to a processed {@code JCas} by the {@code initialise} method.
+ *
+ * @see de.unidue.ltl.ctest.gapscheme.CTestResourceProvider#getCriterionEngines(String, Collection)
+ */
+public interface Criterion extends Predicate<Token> {
+
+	/**
+	 * Returns the annotation types, which must be present in a {@code JCas} before the criterion can be applied.
+	 * By default, no annotations are required.
+	 */
+	public default Collection<Class<? extends Annotation>> getRequiredAnnotations() {
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Returns descriptions of the engines, which add the given required annotation type for the given language.
+	 *
+	 * @param  requiredClass One of the required annotation types.
+	 * @param  language The language of the processed texts. Must be an ISO 639-1 language code.
+	 * @return The engine descriptions, empty if the annotation is not available for the language.
+	 *
+	 * @throws ResourceInitializationException if the descriptions could not be created.
+	 */
+	public default List<AnalysisEngineDescription> getEngineDescriptions(Class<? extends Annotation> requiredClass, String language)
+			throws ResourceInitializationException {
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Binds the criterion to the given {@code JCas}, after all required annotations were added.
+	 * Must be called again, if annotations were added afterwards.
+	 */
+	public default void initialise(JCas aJCas) {
+	}
+
+	/**
+	 * Extends the binding to annotations, which were added within the given span of the bound {@code JCas}
+	 * after {@code initialise} was called, such as the annotations of a single analyzed sentence.
+	 * By default, the criterion is initialised anew.
+	 */
+	public default void extend(JCas aJCas, Annotation aSpan) {
+		initialise(aJCas);
+	}
 }
@@ -1,10 +1,7 @@
 package de.unidue.ltl.ctest.gapscheme.preprocessing;
 
-import java.util.function.Predicate;
-
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
 
-//TODO: Extend criterion and implement criterion
 /**
  * An interface for classes that find the area where a gap can be placed for a given token in a c-test.
  * <p>
@@ -22,10 +19,12 @@ import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
  * The previous explanation assumed that the desired gap is a <i>postfix gap</i>,
  * meaning that the gap should be placed at the end of the word.
  * If the gap is a <i>prefix gap</i>, gappable and ungappable areas are reversed.
+ * <p>
+ * As a {@link Criterion}, a {@code GapIndexFinder} declares the annotations it requires.
  * 
  * @see de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token
  */
-public interface GapIndexFinder extends Predicate<Token> {
+public interface GapIndexFinder extends Criterion {
 	/**
 	 * Returns the start index of the gappable area for the given token.
 	 */
@@ -1,7 +1,6 @@
 package de.unidue.ltl.ctest.gapscheme.preprocessing;
 
 import java.util.List;
-import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
@@ -12,7 +11,7 @@ import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
  * @see java.util.function.Predicate
  * @see de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token
  */
-public class IsAbbreviation implements Predicate<Token> {
+public class IsAbbreviation implements Criterion {
 	
 	private static final Pattern ABBREVIATION_PATTERN = Pattern.compile("([a-zA-z]+\\.[-]?)+");
 	private Pattern[] abbreviations;
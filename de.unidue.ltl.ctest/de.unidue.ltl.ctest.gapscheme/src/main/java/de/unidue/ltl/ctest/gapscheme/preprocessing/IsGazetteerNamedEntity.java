@@ -0,0 +1,70 @@
+package de.unidue.ltl.ctest.gapscheme.preprocessing;
+
+import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngineDescription;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.uima.analysis_engine.AnalysisEngineDescription;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+import org.apache.uima.resource.ResourceInitializationException;
+
+import de.tudarmstadt.ukp.dkpro.core.api.ner.type.NamedEntity;
+import de.unidue.ltl.ctest.gapscheme.gazetteer.Gazetteer;
+import de.unidue.ltl.ctest.gapscheme.gazetteer.GazetteerNamedEntityRecognizer;
+
+/**
+ * A {@code Predicate}, testing whether a given {@code Token} is a named entity, 
+ * where named entities are recognised by gazetteers instead of statistical models.
+ * <p>
+ * Sample gazetteers are bundled for German, English and Spanish, real corpora require gazetteers supplied by the user,
+ * see {@link Gazetteer#setSharedInstance(String, Gazetteer)}. For English and Spanish, 
+ * capitalised tokens are regarded as named entities as well, unless they start a sentence.
+ * 
+ * @see de.unidue.ltl.ctest.gapscheme.gazetteer.GazetteerNamedEntityRecognizer
+ * @see de.unidue.ltl.ctest.gapscheme.GenerationProfile#FAST
+ */
+public class IsGazetteerNamedEntity extends IsNamedEntity {
+	
+	private static final String[] CAPITALIZING_LANGUAGES = new String[] { "en", "es" };
+	
+	/**
+	 * Creates a {@code IsGazetteerNamedEntity} object, which must be initialised with a {@code JCas} before use.
+	 */
+	public IsGazetteerNamedEntity() {
+	}
+	
+	/**
+	 * Creates a {@code IsGazetteerNamedEntity} object, using the given {@code JCas}.
+	 * The {@code JCas} should be annotated with {@code NamedEntity} annotations.
+	 */
+	public IsGazetteerNamedEntity(JCas aJCas) {
+		super(aJCas);
+	}
+	
+	/**
+	 * Returns the gazetteer based recognizer for the given language, if a gazetteer is available.
+	 * The description includes the version of the shared gazetteer, so that engines and cached analyses 
+	 * are not reused once another gazetteer is set.
+	 */
+	@Override
+	public List<AnalysisEngineDescription> getEngineDescriptions(Class<? extends Annotation> requiredClass, String language)
+			throws ResourceInitializationException {
+		List<AnalysisEngineDescription> descriptions = new ArrayList<>();
+		if (!NamedEntity.class.equals(requiredClass) || !Gazetteer.isAvailable(language))
+			return descriptions;
+		
+		boolean capitalization = false;
+		for (String lang : CAPITALIZING_LANGUAGES) {
+			if (language.equals(lang))
+				capitalization = true;
+		}
+		
+		descriptions.add(createEngineDescription(GazetteerNamedEntityRecognizer.class, 
+				GazetteerNamedEntityRecognizer.PARAM_LANGUAGE, language, 
+				GazetteerNamedEntityRecognizer.PARAM_CAPITALIZATION, capitalization,
+				GazetteerNamedEntityRecognizer.PARAM_GAZETTEER_VERSION, Gazetteer.getSharedVersion(language)));
+		return descriptions;
+	}
+}
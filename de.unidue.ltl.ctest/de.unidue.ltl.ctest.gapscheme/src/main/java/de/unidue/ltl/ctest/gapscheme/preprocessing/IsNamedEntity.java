@@ -1,41 +1,114 @@
 package de.unidue.ltl.ctest.gapscheme.preprocessing;
 
+import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngineDescription;
+
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Predicate;
 
-import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.analysis_engine.AnalysisEngineDescription;
 import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+import org.apache.uima.resource.ResourceInitializationException;
 
 import de.tudarmstadt.ukp.dkpro.core.api.ner.type.NamedEntity;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+import de.tudarmstadt.ukp.dkpro.core.stanfordnlp.StanfordNamedEntityRecognizer;
 
 /**
  * A {@code Predicate}, testing whether a given {@code Token} is a named entity. 
+ * <p>
+ * Requires {@code NamedEntity} annotations, which are provided by statistical models for German, English and Spanish.
  * 
  * @see java.util.function.Predicate
  * @see org.apache.uima.jcas.JCas
  * @see de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token
  * @see de.tudarmstadt.ukp.dkpro.core.api.ner.type.NamedEntity
  */
-public class IsNamedEntity implements Predicate<Token> {
+public class IsNamedEntity implements Criterion {
+	
+	private static final String[] ENGLISH_VARIANTS = new String[] { "date", "money", "organization", "location", "percentage", "person", "time" };
+	private static final String[] SPANISH_VARIANTS = new String[] { "location", "misc", "person", "organization" };
 	
 	private Map<Token, Collection<NamedEntity>> index;
 	
+	/**
+	 * Creates a {@code IsNamedEntity} object, which must be initialised with a {@code JCas} before use.
+	 */
+	public IsNamedEntity() {
+	}
+	
 	/**
 	 * Creates a {@code IsNamedEntity} object, using the given {@code JCas}.
 	 * The {@code JCas} should be annotated with {@code NamedEntity} annotations.
 	 */
 	public IsNamedEntity(JCas aJCas) {
-		index = JCasUtil.indexCovering(aJCas, Token.class, NamedEntity.class);
+		initialise(aJCas);
+	}
+	
+	@Override
+	public void initialise(JCas aJCas) {
+		index = CoveringIndex.create(aJCas, NamedEntity.class);
+	}
+	
+	@Override
+	public void extend(JCas aJCas, Annotation aSpan) {
+		if (index == null)
+			initialise(aJCas);
+		else
+			CoveringIndex.extend(index, aJCas, NamedEntity.class, aSpan);
 	}
 	
 	/**
 	 * Tests whether a given token is a named entity. 
+	 * 
+	 * @throws IllegalStateException if no {@code JCas} was given.
 	 */
 	@Override
 	public boolean test(Token token) {
+		if (index == null)
+			throw new IllegalStateException("IsNamedEntity has not been initialised with a JCas.");
 		return !index.get(token).isEmpty();
 	}
+	
+	@Override
+	public Collection<Class<? extends Annotation>> getRequiredAnnotations() {
+		return Collections.singletonList(NamedEntity.class);
+	}
+	
+	/**
+	 * Returns the named entity recognizers for the given language: 
+	 * a Stanford model for German and one OpenNLP model per entity type for English and Spanish, 
+	 * which are run concurrently.
+	 */
+	@Override
+	public List<AnalysisEngineDescription> getEngineDescriptions(Class<? extends Annotation> requiredClass, String language)
+			throws ResourceInitializationException {
+		List<AnalysisEngineDescription> descriptions = new ArrayList<>();
+		if (!NamedEntity.class.equals(requiredClass))
+			return descriptions;
+		
+		if (language.equals("de")) {
+			descriptions.add(createEngineDescription(StanfordNamedEntityRecognizer.class, 
+					StanfordNamedEntityRecognizer.PARAM_VARIANT, "nemgp", 
+					StanfordNamedEntityRecognizer.PARAM_LANGUAGE, language));
+		}
+		
+		String[] variants = new String[0];
+		if (language.equals("en"))
+			variants = ENGLISH_VARIANTS;
+		if (language.equals("es"))
+			variants = SPANISH_VARIANTS;
+		
+		if (variants.length > 0) {
+			descriptions.add(createEngineDescription(ParallelNamedEntityRecognizer.class, 
+					ParallelNamedEntityRecognizer.PARAM_VARIANTS, variants, 
+					ParallelNamedEntityRecognizer.PARAM_LANGUAGE, language));
+		}
+		
+		return descriptions;
+	}
 
 }
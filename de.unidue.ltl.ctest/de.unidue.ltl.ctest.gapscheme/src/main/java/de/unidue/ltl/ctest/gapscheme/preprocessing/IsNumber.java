@@ -1,6 +1,5 @@
 package de.unidue.ltl.ctest.gapscheme.preprocessing;
 
-import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
@@ -12,7 +11,7 @@ import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
  * @see java.util.function.Predicate
  * @see de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token
  */
-public class IsNumber implements Predicate<Token> {
+public class IsNumber implements Criterion {
 
 	// should catch ips, isbns, power expressions (a^b) and percentages.
 	private static Pattern pattern = Pattern.compile("[a-zA-Z]*\\d+([,\\.\\-\\^][0-9]+)*%?[a-zA-Z]*");
@@ -1,6 +1,5 @@
 package de.unidue.ltl.ctest.gapscheme.preprocessing;
 
-import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
@@ -11,7 +10,7 @@ import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
  * @see java.util.function.Predicate
  * @see de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token
  */
-public class IsPunctuation implements Predicate<Token> {
+public class IsPunctuation implements Criterion {
 
 	private static Pattern pattern = Pattern.compile("[\\!\"#\\$%¡¿\\&'\\(\\)\\*\\+,\\-\\.\\/\\\\:;<=>\\?@\\[\\]\\^_`\\{\\|\\}~]+");
 	
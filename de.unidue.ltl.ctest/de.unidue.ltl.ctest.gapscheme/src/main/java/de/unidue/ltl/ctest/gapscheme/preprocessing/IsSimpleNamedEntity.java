@@ -1,29 +1,55 @@
 package de.unidue.ltl.ctest.gapscheme.preprocessing;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.function.Predicate;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 import org.apache.uima.fit.util.JCasUtil;
 import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
 
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
 
-public class IsSimpleNamedEntity implements Predicate<Token> {
+public class IsSimpleNamedEntity implements Criterion {
 
 	private static Pattern pattern = Pattern.compile("^\\p{Lu}.+$");
 	
-	private List<Token> tokens;
+	// the text of the preceding token of each token, looked up in constant time
+	private Map<Token, String> previousTokens;
 	private boolean isNamedEntityCandidate;
 	private boolean isAtBeginningOfSentence;
 	
+	public IsSimpleNamedEntity() {
+	}
+	
 	public IsSimpleNamedEntity(JCas aJCas) {
-		tokens = new ArrayList<>(JCasUtil.select(aJCas, Token.class));
+		initialise(aJCas);
+	}
+	
+	@Override
+	public void initialise(JCas aJCas) {
+		previousTokens = new HashMap<>();
+		String previous = "";
+		for (Token token : JCasUtil.select(aJCas, Token.class)) {
+			previousTokens.put(token, previous);
+			previous = token.getCoveredText();
+		}
+	}
+	
+	/**
+	 * Tokens are not added after segmentation, so the criterion is only initialised, if it was not before.
+	 */
+	@Override
+	public void extend(JCas aJCas, Annotation aSpan) {
+		if (previousTokens == null)
+			initialise(aJCas);
 	}
 	
 	@Override
 	public boolean test(Token token) {
+		if (previousTokens == null)
+			throw new IllegalStateException("IsSimpleNamedEntity has not been initialised with a JCas.");
+		
 		isNamedEntityCandidate = pattern.matcher(token.getCoveredText()).matches();
 		isAtBeginningOfSentence = false;
 		
@@ -35,9 +61,6 @@ public class IsSimpleNamedEntity implements Predicate<Token> {
 	}
 	
 	private String getPreviousTokenOf(Token t) {
-		int index = tokens.indexOf(t) - 1;
-		if (index > -1)
-			return tokens.get(index).getCoveredText();
-		return "";		
+		return previousTokens.getOrDefault(t, "");
 	}
 }
@@ -1,6 +1,5 @@
 package de.unidue.ltl.ctest.gapscheme.preprocessing;
 
-import java.util.function.Predicate;
 
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
 
@@ -10,7 +9,7 @@ import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
  * @see java.util.function.Predicate
  * @see de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token
  */
-public class IsTooShort implements Predicate<Token> {
+public class IsTooShort implements Criterion {
 
 	private int minWordLength;
 
@@ -0,0 +1,191 @@
+package de.unidue.ltl.ctest.gapscheme.preprocessing;
+
+import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.uima.UIMAException;
+import org.apache.uima.UimaContext;
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.cas.Type;
+import org.apache.uima.fit.component.JCasAnnotator_ImplBase;
+import org.apache.uima.fit.descriptor.ConfigurationParameter;
+import org.apache.uima.fit.descriptor.TypeCapability;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+import org.apache.uima.resource.ResourceInitializationException;
+
+import de.tudarmstadt.ukp.dkpro.core.api.ner.type.NamedEntity;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+import de.tudarmstadt.ukp.dkpro.core.opennlp.OpenNlpNamedEntityRecognizer;
+
+/**
+ * Runs several OpenNLP named entity models, one per variant, concurrently over the same text.
+ * <p>
+ * Sentence and token offsets are collected once per document.
+ * Each variant processes its own, reused {@code JCas}, which only holds these sentences and tokens,
+ * so that the variants do not interfere with each other.
+ * The recognised entities of all variants are added to the document at once, in the order of the variants.
+ * The result is the same as running one {@code OpenNlpNamedEntityRecognizer} per variant in sequence,
+ * while the latency drops roughly by the number of variants on multi-core machines.
+ * <p>
+ * The variants of all recognizers are run by a single executor, bounded by the number of available processors,
+ * so that several pipelines, e.g. those of a {@code ParallelAnalyzer}, do not multiply the number of threads.
+ * If the pipeline itself runs concurrently, the variants may as well be run in sequence, see {@link #PARAM_CONCURRENT}.
+ *
+ * @see de.tudarmstadt.ukp.dkpro.core.opennlp.OpenNlpNamedEntityRecognizer
+ */
+@TypeCapability(
+		inputs = {
+				"de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence",
+				"de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token" },
+		outputs = { "de.tudarmstadt.ukp.dkpro.core.api.ner.type.NamedEntity" })
+public class ParallelNamedEntityRecognizer extends JCasAnnotator_ImplBase {
+
+	/**
+	 * The language of the models. Must be an ISO 639-1 language code.
+	 */
+	public static final String PARAM_LANGUAGE = "language";
+	@ConfigurationParameter(name = PARAM_LANGUAGE, mandatory = true)
+	private String language;
+
+	/**
+	 * The model variants to be run, e.g. "person" or "location".
+	 */
+	public static final String PARAM_VARIANTS = "variants";
+	@ConfigurationParameter(name = PARAM_VARIANTS, mandatory = true)
+	private String[] variants;
+
+	/**
+	 * Whether the variants are run concurrently by the shared executor, or in sequence by the calling thread.
+	 */
+	public static final String PARAM_CONCURRENT = "concurrent";
+	@ConfigurationParameter(name = PARAM_CONCURRENT, mandatory = false, defaultValue = "true")
+	private boolean concurrent;
+
+	private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+			Runtime.getRuntime().availableProcessors(), runnable -> {
+				Thread thread = new Thread(runnable, "ner");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	private List<AnalysisEngine> recognizers;
+	private List<JCas> variantJCases;
+
+	@Override
+	public void initialize(UimaContext context) throws ResourceInitializationException {
+		super.initialize(context);
+
+		recognizers = new ArrayList<>();
+		variantJCases = new ArrayList<>();
+		for (String variant : variants) {
+			recognizers.add(createEngine(OpenNlpNamedEntityRecognizer.class,
+					OpenNlpNamedEntityRecognizer.PARAM_VARIANT, variant,
+					OpenNlpNamedEntityRecognizer.PARAM_LANGUAGE, language));
+			try {
+				variantJCases.add(JCasFactory.createJCas());
+			} catch (UIMAException e) {
+				throw new ResourceInitializationException(e);
+			}
+		}
+	}
+
+	@Override
+	public void process(JCas jcas) throws AnalysisEngineProcessException {
+		int[] sentences = getOffsets(JCasUtil.select(jcas, Sentence.class));
+		int[] tokens = getOffsets(JCasUtil.select(jcas, Token.class));
+
+		if (!concurrent || recognizers.size() == 1) {
+			for (int i = 0; i < recognizers.size(); i++) {
+				for (NamedEntity entity : recognize(recognizers.get(i), variantJCases.get(i), jcas, sentences, tokens))
+					addEntity(jcas, entity);
+			}
+			return;
+		}
+
+		List<Future<List<NamedEntity>>> results = new ArrayList<>();
+		for (int i = 0; i < recognizers.size(); i++) {
+			AnalysisEngine recognizer = recognizers.get(i);
+			JCas variantJCas = variantJCases.get(i);
+			results.add(EXECUTOR.submit(() -> recognize(recognizer, variantJCas, jcas, sentences, tokens)));
+		}
+
+		// all variants are waited for, so that no scratch CAS is still in use once the next document is processed
+		List<List<NamedEntity>> entities = new ArrayList<>();
+		Throwable failure = null;
+		for (Future<List<NamedEntity>> result : results) {
+			try {
+				entities.add(result.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new AnalysisEngineProcessException(e);
+			} catch (ExecutionException e) {
+				if (failure == null)
+					failure = e.getCause();
+			}
+		}
+		if (failure != null)
+			throw new AnalysisEngineProcessException(failure);
+
+		for (List<NamedEntity> variantEntities : entities) {
+			for (NamedEntity entity : variantEntities)
+				addEntity(jcas, entity);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		for (AnalysisEngine recognizer : recognizers)
+			recognizer.destroy();
+		super.destroy();
+	}
+
+	/**
+	 * Runs a single variant on a copy of the document's sentences and tokens.
+	 */
+	private List<NamedEntity> recognize(AnalysisEngine recognizer, JCas variantJCas, JCas jcas, int[] sentences, int[] tokens)
+			throws AnalysisEngineProcessException {
+		variantJCas.reset();
+		variantJCas.setDocumentText(jcas.getDocumentText());
+		variantJCas.setDocumentLanguage(jcas.getDocumentLanguage());
+
+		for (int i = 0; i < sentences.length; i += 2)
+			new Sentence(variantJCas, sentences[i], sentences[i + 1]).addToIndexes();
+		for (int i = 0; i < tokens.length; i += 2)
+			new Token(variantJCas, tokens[i], tokens[i + 1]).addToIndexes();
+
+		recognizer.process(variantJCas);
+		return new ArrayList<>(JCasUtil.select(variantJCas, NamedEntity.class));
+	}
+
+	/**
+	 * Adds a copy of the given entity to the document, retaining its type and value.
+	 */
+	private void addEntity(JCas jcas, NamedEntity entity) {
+		Type type = jcas.getTypeSystem().getType(entity.getType().getName());
+		NamedEntity copy = (NamedEntity) jcas.getCas().createAnnotation(type, entity.getBegin(), entity.getEnd());
+		copy.setValue(entity.getValue());
+		copy.addToIndexes();
+	}
+
+	private int[] getOffsets(Collection<? extends Annotation> annotations) {
+		int[] offsets = new int[annotations.size() * 2];
+		int i = 0;
+		for (Annotation annotation : annotations) {
+			offsets[i++] = annotation.getBegin();
+			offsets[i++] = annotation.getEnd();
+		}
+		return offsets;
+	}
+}
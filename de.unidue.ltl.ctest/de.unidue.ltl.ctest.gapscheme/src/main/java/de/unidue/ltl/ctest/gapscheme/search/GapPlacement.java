@@ -0,0 +1,65 @@
+package de.unidue.ltl.ctest.gapscheme.search;
+
+import de.unidue.ltl.ctest.core.CTestObject;
+
+/**
+ * A result of a {@link TargetDifficultySearch}.
+ * <p>
+ * A {@code GapPlacement} holds a c-test with one admissible placement of gaps,
+ * its mean predicted difficulty and its distance to the targeted difficulty band.
+ * The predictions of the individual gaps are stored in the gapped {@code CTestToken}s.
+ *
+ * @see TargetDifficultySearch
+ * @see de.unidue.ltl.ctest.core.CTestObject
+ */
+public class GapPlacement implements Comparable<GapPlacement> {
+
+	private final CTestObject ctest;
+	private final double difficulty;
+	private final double distance;
+
+	/**
+	 * Creates a new {@code GapPlacement}.
+	 *
+	 * @param  ctest The gapped c-test.
+	 * @param  difficulty The mean predicted difficulty of all gaps.
+	 * @param  distance The distance of {@code difficulty} to the targeted difficulty band, 0 if it lies within the band.
+	 */
+	public GapPlacement(CTestObject ctest, double difficulty, double distance) {
+		this.ctest = ctest;
+		this.difficulty = difficulty;
+		this.distance = distance;
+	}
+
+	/**
+	 * Returns the gapped c-test.
+	 */
+	public CTestObject getCTest() {
+		return ctest;
+	}
+
+	/**
+	 * Returns the mean predicted difficulty of all gaps.
+	 */
+	public double getDifficulty() {
+		return difficulty;
+	}
+
+	/**
+	 * Returns the distance of the mean predicted difficulty to the targeted difficulty band.
+	 * A distance of 0 indicates that the difficulty lies within the band.
+	 */
+	public double getDistance() {
+		return distance;
+	}
+
+	@Override
+	public int compareTo(GapPlacement other) {
+		return Double.compare(distance, other.distance);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("GapPlacement[difficulty=%.4f, distance=%.4f]", difficulty, distance);
+	}
+}
@@ -0,0 +1,103 @@
+package de.unidue.ltl.ctest.gapscheme.search;
+
+import de.unidue.ltl.ctest.core.CTestObject;
+
+/**
+ * A window of consecutive sentences of a document, from which a c-test without warnings can be generated.
+ *
+ * @see PassageMiner
+ */
+public class Passage {
+
+	private final int document;
+	private final int firstSentence;
+	private final int lastSentence;
+	private final int begin;
+	private final int end;
+	private final int tokenCount;
+	private CTestObject ctest;
+	private double difficulty = Double.NaN;
+
+	public Passage(int document, int firstSentence, int lastSentence, int begin, int end, int tokenCount) {
+		this.document = document;
+		this.firstSentence = firstSentence;
+		this.lastSentence = lastSentence;
+		this.begin = begin;
+		this.end = end;
+		this.tokenCount = tokenCount;
+	}
+
+	/**
+	 * Returns the index of the document in the mined corpus.
+	 */
+	public int getDocument() {
+		return document;
+	}
+
+	/**
+	 * Returns the index of the leading sentence within the document.
+	 */
+	public int getFirstSentence() {
+		return firstSentence;
+	}
+
+	/**
+	 * Returns the index of the trailing sentence within the document.
+	 */
+	public int getLastSentence() {
+		return lastSentence;
+	}
+
+	/**
+	 * Returns the number of sentences of the passage.
+	 */
+	public int getSentenceCount() {
+		return lastSentence - firstSentence + 1;
+	}
+
+	/**
+	 * Returns the start offset of the passage in the document text.
+	 */
+	public int getBegin() {
+		return begin;
+	}
+
+	/**
+	 * Returns the end offset of the passage in the document text.
+	 */
+	public int getEnd() {
+		return end;
+	}
+
+	/**
+	 * Returns the number of tokens of the passage.
+	 */
+	public int getTokenCount() {
+		return tokenCount;
+	}
+
+	/**
+	 * Returns the c-test generated from the passage, or null if the passage was not scored.
+	 */
+	public CTestObject getCTest() {
+		return ctest;
+	}
+
+	/**
+	 * Returns the mean predicted difficulty of the gaps, or {@code NaN} if the passage was not scored.
+	 */
+	public double getDifficulty() {
+		return difficulty;
+	}
+
+	void setScore(CTestObject ctest, double difficulty) {
+		this.ctest = ctest;
+		this.difficulty = difficulty;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Passage[document=%d, sentences=%d-%d, tokens=%d, difficulty=%.4f]",
+				document, firstSentence, lastSentence, tokenCount, difficulty);
+	}
+}
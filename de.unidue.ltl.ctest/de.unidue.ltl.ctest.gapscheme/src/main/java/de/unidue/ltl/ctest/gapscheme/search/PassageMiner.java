@@ -0,0 +1,313 @@
+package de.unidue.ltl.ctest.gapscheme.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+import de.unidue.ltl.ctest.core.CTestObject;
+import de.unidue.ltl.ctest.gapscheme.CTestGenerator;
+import de.unidue.ltl.ctest.gapscheme.CTestResourceProvider;
+import de.unidue.ltl.ctest.gapscheme.GenerationProfile;
+import de.unidue.ltl.ctest.gapscheme.preprocessing.Criterion;
+
+/**
+ * Finds passages of consecutive sentences in large corpora, from which c-tests with exactly the requested number of gaps can be generated.
+ * <p>
+ * A passage is ready, if the {@link CTestGenerator} places its last gap in the second to last sentence,
+ * such that the last sentence is exactly the trailing sentence.
+ * Instead of generating a c-test for every range of sentences, the miner counts the gap candidates of each sentence once
+ * and derives the number of gaps of any range from prefix sums of these counts.
+ * For each leading sentence, the shortest ready passage is found with a two-pointer scan,
+ * so a document is searched in time linear in its number of sentences, once the criteria have tested each of its tokens.
+ * <p>
+ * The documents must already be analyzed with the preprocessing engines required by the criteria of the profile,
+ * see {@link CTestResourceProvider#getCriterionEngines(String, java.util.Collection)}.
+ * Documents are searched in parallel.
+ * <p>
+ * If a predictor is set, a c-test is generated for each passage and the passages are ranked by the distance
+ * of their mean predicted difficulty to the target difficulty. The predictor is usually a difficulty model,
+ * for instance {@code model::predict}. Calls to the predictor are serialized, unless the predictor is declared to be thread-safe.
+ * Otherwise, passages are ranked by their length, shortest first.
+ *
+ * @see Passage
+ * @see CTestGenerator#generateCTests(JCas, List)
+ */
+public class PassageMiner {
+
+	private final int gapLimit;
+	private final int gapInterval;
+	private final boolean enforceLeadingSentence;
+	private final boolean enforceTrailingSentence;
+	private GenerationProfile profile = GenerationProfile.DEFAULT;
+
+	private Function<CTestObject, List<Double>> predictor;
+	private final Object predictorLock = new Object();
+	private double targetDifficulty;
+	private boolean concurrentPredictor = false;
+
+	private int threads = Runtime.getRuntime().availableProcessors();
+	private int resultLimit = 0;
+
+	/**
+	 * Creates a new {@code PassageMiner} for c-tests with the given properties.
+	 *
+	 * @see CTestGenerator#CTestGenerator(int, int, boolean, boolean)
+	 */
+	public PassageMiner(int gapLimit, int gapInterval, boolean enforceLeadingSentence, boolean enforceTrailingSentence) {
+		if (gapLimit < 1 || gapInterval < 1) {
+			throw new IllegalArgumentException("Gap limit and gap interval must be positive.");
+		}
+		this.gapLimit = gapLimit;
+		this.gapInterval = gapInterval;
+		this.enforceLeadingSentence = enforceLeadingSentence;
+		this.enforceTrailingSentence = enforceTrailingSentence;
+	}
+
+	/**
+	 * Creates a new {@code PassageMiner} for c-tests with the properties and the profile of the given generator.
+	 * Criteria set explicitly on the generator are not taken over.
+	 */
+	public PassageMiner(CTestGenerator generator) {
+		this(generator.getGapLimit(), generator.getGapInterval(),
+				generator.enforcesLeadingSentence(), generator.enforcesTrailingSentence());
+		this.profile = generator.getProfile();
+	}
+
+	/**
+	 * Searches the given analyzed documents for ready passages.
+	 *
+	 * @param  documents The analyzed documents. Their document language determines the criteria.
+	 * @return The ready passages, ranked as described above. At most {@code getResultLimit()} passages are returned, if the limit is positive.
+	 *
+	 * @throws IllegalStateException if the predictor does not return one prediction per gap.
+	 */
+	public List<Passage> mine(List<JCas> documents) {
+		List<Passage> passages = new ArrayList<>();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, documents.size())));
+		try {
+			List<Callable<List<Passage>>> tasks = new ArrayList<>();
+			for (int i = 0; i < documents.size(); i++) {
+				final int document = i;
+				tasks.add(() -> mine(documents.get(document), document));
+			}
+			for (Future<List<Passage>> result : executor.invokeAll(tasks)) {
+				passages.addAll(result.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+
+		Comparator<Passage> ranking = predictor != null
+				? Comparator.comparingDouble(passage -> Math.abs(passage.getDifficulty() - targetDifficulty))
+				: Comparator.comparingInt(Passage::getTokenCount);
+		passages.sort(ranking
+				.thenComparingInt(Passage::getDocument)
+				.thenComparingInt(Passage::getFirstSentence));
+
+		if (resultLimit > 0 && passages.size() > resultLimit) {
+			return new ArrayList<>(passages.subList(0, resultLimit));
+		}
+		return passages;
+	}
+
+	/**
+	 * Finds the shortest ready window for each leading sentence, given the number of gap candidates per sentence.
+	 * <p>
+	 * A candidate is a token, which is not excluded by any exclusion criterion.
+	 * Whether candidates of the leading and trailing sentence are counted, does not matter.
+	 *
+	 * @param  candidateCounts The number of gap candidates of each sentence of a document.
+	 * @return The windows as pairs of the first and the last sentence index, inclusive, ordered by the first sentence.
+	 */
+	public List<int[]> findWindows(int[] candidateCounts) {
+		int n = candidateCounts.length;
+		long[] prefix = new long[n + 1];
+		for (int i = 0; i < n; i++)
+			prefix[i + 1] = prefix[i] + candidateCounts[i];
+
+		List<int[]> windows = new ArrayList<>();
+		int k = 0;
+		for (int a = 0; a + 2 < n; a++) {
+			// candidates of the leading sentence are counted by the generator, but never gapped
+			long offset = enforceLeadingSentence ? 0 : candidateCounts[a];
+			k = Math.max(k, a + 1);
+			// the gap count is not monotonic in the leading sentence, if its candidates are counted
+			while (k > a + 1 && countGaps(offset, prefix[k] - prefix[a + 1]) >= gapLimit)
+				k--;
+			while (k < n - 1 && countGaps(offset, prefix[k + 1] - prefix[a + 1]) < gapLimit)
+				k++;
+			if (k < n - 1)
+				windows.add(new int[] { a, k + 1 });
+		}
+		return windows;
+	}
+
+	/**
+	 * Counts the gap candidates of each sentence of the given document.
+	 *
+	 * @param  jcas The analyzed document.
+	 * @param  exclusionCriteria The exclusion criteria, already initialised with the document.
+	 */
+	public static int[] countCandidates(JCas jcas, List<Criterion> exclusionCriteria) {
+		List<Sentence> sentences = new ArrayList<>(JCasUtil.select(jcas, Sentence.class));
+		int[] counts = new int[sentences.size()];
+		for (int i = 0; i < sentences.size(); i++) {
+			for (Token token : JCasUtil.selectCovered(jcas, Token.class, sentences.get(i))) {
+				if (exclusionCriteria.stream().noneMatch(criterion -> criterion.test(token)))
+					counts[i]++;
+			}
+		}
+		return counts;
+	}
+
+	/**
+	 * Returns the number of gaps among the given number of candidates of the middle sentences,
+	 * if the first of them is preceded by {@code offset} counted candidates.
+	 * The generator gaps a candidate, unless the number of preceding candidates is a multiple of the gap interval.
+	 */
+	private long countGaps(long offset, long candidates) {
+		if (candidates <= 0)
+			return 0;
+		long skipped = Math.floorDiv(offset + candidates - 1, gapInterval) - Math.floorDiv(offset - 1, gapInterval);
+		return candidates - skipped;
+	}
+
+	private List<Passage> mine(JCas jcas, int document) {
+		String language = jcas.getDocumentLanguage();
+		List<Criterion> exclusionCriteria = CTestResourceProvider.getExclusionCriteria(language, profile);
+		for (Criterion criterion : exclusionCriteria)
+			criterion.initialise(jcas);
+
+		List<Sentence> sentences = new ArrayList<>(JCasUtil.select(jcas, Sentence.class));
+		int[] tokenPrefix = new int[sentences.size() + 1];
+		for (int i = 0; i < sentences.size(); i++)
+			tokenPrefix[i + 1] = tokenPrefix[i] + JCasUtil.selectCovered(jcas, Token.class, sentences.get(i)).size();
+
+		CTestGenerator generator = null;
+		if (predictor != null) {
+			generator = new CTestGenerator(gapLimit, gapInterval, enforceLeadingSentence, enforceTrailingSentence);
+			generator.setProfile(profile);
+		}
+
+		List<int[]> windows = findWindows(countCandidates(jcas, exclusionCriteria));
+		// the criteria of the generator are initialised once for all windows of the document
+		List<CTestObject> ctests = generator != null && !windows.isEmpty() ? generator.generateCTests(jcas, windows) : null;
+
+		List<Passage> passages = new ArrayList<>();
+		for (int i = 0; i < windows.size(); i++) {
+			int[] window = windows.get(i);
+			Passage passage = new Passage(document, window[0], window[1],
+					sentences.get(window[0]).getBegin(), sentences.get(window[1]).getEnd(),
+					tokenPrefix[window[1] + 1] - tokenPrefix[window[0]]);
+			if (ctests != null) {
+				CTestObject ctest = ctests.get(i);
+				passage.setScore(ctest, predict(ctest));
+			}
+			passages.add(passage);
+		}
+		return passages;
+	}
+
+	private double predict(CTestObject ctest) {
+		List<Double> predictions;
+		if (concurrentPredictor) {
+			predictions = predictor.apply(ctest);
+		} else {
+			synchronized (predictorLock) {
+				predictions = predictor.apply(ctest);
+			}
+		}
+		if (predictions == null || predictions.size() != ctest.getGapCount()) {
+			throw new IllegalStateException("The predictor must return one prediction per gap.");
+		}
+		return predictions.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
+	}
+
+	/**
+	 * Returns the profile, determining the exclusion criteria.
+	 */
+	public GenerationProfile getProfile() {
+		return profile;
+	}
+
+	/**
+	 * Sets the profile, determining the exclusion criteria. Defaults to {@code GenerationProfile.DEFAULT}.
+	 */
+	public void setProfile(GenerationProfile profile) {
+		this.profile = profile;
+	}
+
+	/**
+	 * Sets the predictor used to rank the passages.
+	 *
+	 * @param  predictor A function returning the predicted difficulty of each gap in a c-test, null disables the ranking by difficulty.
+	 * @param  targetDifficulty The mean difficulty of the gaps, which passages should come close to.
+	 */
+	public void setPredictor(Function<CTestObject, List<Double>> predictor, double targetDifficulty) {
+		this.predictor = predictor;
+		this.targetDifficulty = targetDifficulty;
+	}
+
+	/**
+	 * Indicates whether the predictor may be called concurrently.
+	 */
+	public boolean isConcurrentPredictor() {
+		return concurrentPredictor;
+	}
+
+	/**
+	 * Sets whether the predictor may be called concurrently. Defaults to false.
+	 */
+	public void setConcurrentPredictor(boolean concurrentPredictor) {
+		this.concurrentPredictor = concurrentPredictor;
+	}
+
+	/**
+	 * Returns the number of threads used to search the documents.
+	 */
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Sets the number of threads used to search the documents. Defaults to the number of available processors.
+	 */
+	public void setThreads(int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("The number of threads must be positive.");
+		}
+		this.threads = threads;
+	}
+
+	/**
+	 * Returns the maximum number of passages returned by a search, 0 if unlimited.
+	 */
+	public int getResultLimit() {
+		return resultLimit;
+	}
+
+	/**
+	 * Sets the maximum number of passages returned by a search. Defaults to 0, i.e. all passages are returned.
+	 */
+	public void setResultLimit(int resultLimit) {
+		this.resultLimit = resultLimit;
+	}
+}
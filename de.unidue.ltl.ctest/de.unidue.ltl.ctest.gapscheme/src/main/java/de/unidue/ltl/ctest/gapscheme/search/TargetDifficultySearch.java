@@ -0,0 +1,565 @@
+package de.unidue.ltl.ctest.gapscheme.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import de.unidue.ltl.ctest.core.CTestObject;
+import de.unidue.ltl.ctest.core.CTestToken;
+
+/**
+ * Searches for gap placements whose mean predicted difficulty lies within a target band.
+ * <p>
+ * The search starts from a c-test generated by the {@link de.unidue.ltl.ctest.gapscheme.CTestGenerator}
+ * and keeps its number of gaps and its candidate words.
+ * Only candidate words may receive a gap and no two consecutive candidates are gapped by a move,
+ * such that the usual structure of a c-test is retained.
+ * <p>
+ * Several workers run a local search in parallel, each starting from a different placement.
+ * A move relocates a single gap.
+ * Before a move is evaluated, its difficulty is estimated from cached predictions;
+ * moves which are not estimated to improve the placement are pruned.
+ * Predictions are cached per gap and per gap context, i.e. the gap status of the neighbouring candidates,
+ * so the predictor is only called for placements which contain at least one gap in an unseen context.
+ * <p>
+ * The predictor is usually a difficulty model, for instance {@code model::predict}.
+ * It must return one prediction per gap, in the order of the gaps in the c-test.
+ * Calls to the predictor are serialized, unless the predictor is declared to be thread-safe.
+ * <p>
+ * The cached predictions belong to a single call of {@code search}, so concurrent searches
+ * of the same instance, e.g. for different c-tests, do not interfere.
+ *
+ * @see GapPlacement
+ * @see de.unidue.ltl.ctest.gapscheme.CTestGenerator
+ */
+public class TargetDifficultySearch {
+
+	private static final double EXPLORATION_RATE = 0.05;
+
+	private final Function<CTestObject, List<Double>> predictor;
+	private final Object predictorLock = new Object();
+
+	private int threads = Runtime.getRuntime().availableProcessors();
+	private int contextWindow = 1;
+	private int resultLimit = 5;
+	private long seed = 0;
+	private boolean concurrentPredictor = false;
+
+	// the statistics of the last completed search
+	private final AtomicLong predictorCalls = new AtomicLong();
+	private final AtomicLong cachedEvaluations = new AtomicLong();
+	private final AtomicLong prunedMoves = new AtomicLong();
+
+	/**
+	 * Creates a new {@code TargetDifficultySearch}, using the given predictor.
+	 *
+	 * @param  predictor A function returning the predicted difficulty of each gap in a c-test.
+	 */
+	public TargetDifficultySearch(Function<CTestObject, List<Double>> predictor) {
+		this.predictor = predictor;
+	}
+
+	/**
+	 * Searches for gap placements with a mean predicted difficulty close to the given target.
+	 *
+	 * @see TargetDifficultySearch#search(CTestObject, double, double, long)
+	 */
+	public List<GapPlacement> search(CTestObject ctest, double targetDifficulty, long timeBudgetMillis) {
+		return search(ctest, targetDifficulty, targetDifficulty, timeBudgetMillis);
+	}
+
+	/**
+	 * Searches for gap placements with a mean predicted difficulty within the given band.
+	 * <p>
+	 * The given c-test is not modified.
+	 *
+	 * @param  ctest The c-test whose gaps are placed anew. Its candidate words and its number of gaps are retained.
+	 * @param  minDifficulty The lower bound of the targeted difficulty band.
+	 * @param  maxDifficulty The upper bound of the targeted difficulty band.
+	 * @param  timeBudgetMillis The time after which the search is stopped.
+	 * @return The best placements found, closest to the band first. At most {@code getResultLimit()} placements are returned.
+	 *
+	 * @throws IllegalArgumentException if the band is empty.
+	 * @throws IllegalStateException if the predictor does not return one prediction per gap.
+	 */
+	public List<GapPlacement> search(CTestObject ctest, double minDifficulty, double maxDifficulty, long timeBudgetMillis) {
+		if (minDifficulty > maxDifficulty) {
+			throw new IllegalArgumentException("The lower bound of the difficulty band must not exceed the upper bound.");
+		}
+
+		Problem problem = new Problem(ctest, minDifficulty, maxDifficulty, System.nanoTime() + timeBudgetMillis * 1_000_000);
+		if (problem.gapCount == 0) {
+			problem.publishStatistics();
+			return new ArrayList<>();
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Callable<Void>> workers = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				final int worker = i;
+				workers.add(() -> {
+					runWorker(problem, worker);
+					return null;
+				});
+			}
+			for (Future<Void> result : executor.invokeAll(workers)) {
+				result.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+
+		List<GapPlacement> results = problem.getResults();
+		problem.publishStatistics();
+		return results;
+	}
+
+	/**
+	 * Returns the number of threads used by the search.
+	 */
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Sets the number of threads used by the search. Each thread runs its own local search.
+	 */
+	public void setThreads(int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("The number of threads must be positive.");
+		}
+		this.threads = threads;
+	}
+
+	/**
+	 * Returns the number of neighbouring candidates on each side of a gap, which are regarded as its context.
+	 */
+	public int getContextWindow() {
+		return contextWindow;
+	}
+
+	/**
+	 * Sets the number of neighbouring candidates on each side of a gap, which are regarded as its context.
+	 * A cached prediction is reused for a gap as long as the gap status of these candidates is unchanged.
+	 * Defaults to 1.
+	 */
+	public void setContextWindow(int contextWindow) {
+		if (contextWindow < 0 || contextWindow > 8) {
+			throw new IllegalArgumentException("The context window must be between 0 and 8.");
+		}
+		this.contextWindow = contextWindow;
+	}
+
+	/**
+	 * Returns the maximum number of placements returned by a search.
+	 */
+	public int getResultLimit() {
+		return resultLimit;
+	}
+
+	/**
+	 * Sets the maximum number of placements returned by a search. Defaults to 5.
+	 */
+	public void setResultLimit(int resultLimit) {
+		this.resultLimit = resultLimit;
+	}
+
+	/**
+	 * Sets the seed for the random choices of the search.
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Indicates whether the predictor may be called concurrently.
+	 */
+	public boolean isConcurrentPredictor() {
+		return concurrentPredictor;
+	}
+
+	/**
+	 * Sets whether the predictor may be called concurrently. Defaults to false.
+	 */
+	public void setConcurrentPredictor(boolean concurrentPredictor) {
+		this.concurrentPredictor = concurrentPredictor;
+	}
+
+	/**
+	 * Returns the number of predictor calls during the last completed search.
+	 */
+	public long getPredictorCalls() {
+		return predictorCalls.get();
+	}
+
+	/**
+	 * Returns the number of placements evaluated from cached predictions only during the last completed search.
+	 */
+	public long getCachedEvaluations() {
+		return cachedEvaluations.get();
+	}
+
+	/**
+	 * Returns the number of moves pruned by estimation during the last completed search.
+	 */
+	public long getPrunedMoves() {
+		return prunedMoves.get();
+	}
+
+	private void runWorker(Problem problem, int worker) {
+		Random random = new Random(seed + worker);
+		BitSet current = worker == 0 ? problem.initial : problem.startPlacement(worker, random);
+		double currentDistance = evaluate(problem, current);
+		int stagnation = 0;
+		int maxStagnation = 20 * problem.candidateCount + 100;
+
+		while (System.nanoTime() < problem.deadline && !Thread.currentThread().isInterrupted()) {
+			if (currentDistance == 0.0 && problem.isSaturated()) {
+				return;
+			}
+
+			BitSet next = problem.move(current, random);
+			if (next == null || stagnation > maxStagnation) {
+				current = problem.startPlacement(worker + random.nextInt(problem.candidateCount), random);
+				currentDistance = evaluate(problem, current);
+				stagnation = 0;
+				continue;
+			}
+
+			double estimate = problem.distance(estimate(problem, next));
+			boolean isPromising = estimate < currentDistance || estimate == 0.0;
+			if (!isPromising && random.nextDouble() > EXPLORATION_RATE) {
+				problem.prunedMoves.incrementAndGet();
+				stagnation++;
+				continue;
+			}
+
+			double distance = evaluate(problem, next);
+			// placements within the band are accepted as well, to collect alternatives
+			if (distance < currentDistance || distance == 0.0) {
+				current = next;
+				currentDistance = distance;
+				stagnation = 0;
+			}
+			else {
+				stagnation++;
+			}
+		}
+	}
+
+	/**
+	 * Returns the distance of the given placement to the difficulty band, calling the predictor if necessary.
+	 */
+	private double evaluate(Problem problem, BitSet placement) {
+		double[] gapPredictions = new double[problem.gapCount];
+		boolean cached = true;
+		int i = 0;
+		for (int p = placement.nextSetBit(0); p >= 0; p = placement.nextSetBit(p + 1)) {
+			Double prediction = problem.predictions.get(problem.contextKey(placement, p));
+			if (prediction == null) {
+				cached = false;
+				break;
+			}
+			gapPredictions[i++] = prediction;
+		}
+
+		if (cached) {
+			problem.cachedEvaluations.incrementAndGet();
+		}
+		else {
+			List<Double> predicted = predict(problem, problem.toCTest(placement, null));
+			if (predicted.size() != problem.gapCount) {
+				throw new IllegalStateException(String.format(
+						"The predictor returned %d predictions for %d gaps.", predicted.size(), problem.gapCount));
+			}
+			i = 0;
+			for (int p = placement.nextSetBit(0); p >= 0; p = placement.nextSetBit(p + 1)) {
+				double prediction = predicted.get(i);
+				gapPredictions[i++] = prediction;
+				if (problem.predictions.put(problem.contextKey(placement, p), prediction) == null) {
+					problem.marginals.merge(p, new double[] { prediction, 1 }, (a, b) -> new double[] { a[0] + b[0], a[1] + b[1] });
+				}
+			}
+		}
+
+		double distance = problem.distance(Arrays.stream(gapPredictions).average().orElse(0.0));
+		problem.offer(placement, gapPredictions, distance);
+		return distance;
+	}
+
+	/**
+	 * Estimates the mean difficulty of the given placement from cached predictions, without calling the predictor.
+	 * Gaps in an unseen context are estimated by the mean prediction for the same word in any context.
+	 */
+	private double estimate(Problem problem, BitSet placement) {
+		double sum = 0.0;
+		int known = 0;
+		int unknown = 0;
+		for (int p = placement.nextSetBit(0); p >= 0; p = placement.nextSetBit(p + 1)) {
+			Double prediction = problem.predictions.get(problem.contextKey(placement, p));
+			if (prediction == null) {
+				double[] marginal = problem.marginals.get(p);
+				if (marginal == null) {
+					unknown++;
+					continue;
+				}
+				prediction = marginal[0] / marginal[1];
+			}
+			sum += prediction;
+			known++;
+		}
+
+		if (known == 0) {
+			return (problem.minDifficulty + problem.maxDifficulty) / 2;
+		}
+		double mean = sum / known;
+		return (sum + unknown * mean) / (known + unknown);
+	}
+
+	private List<Double> predict(Problem problem, CTestObject ctest) {
+		problem.predictorCalls.incrementAndGet();
+		if (concurrentPredictor) {
+			return predictor.apply(ctest);
+		}
+		synchronized (predictorLock) {
+			return predictor.apply(ctest);
+		}
+	}
+
+	/**
+	 * The state of a single search, shared by all its workers.
+	 */
+	private class Problem {
+		final CTestObject ctest;
+		final int[] candidates;
+		final int candidateCount;
+		final int gapCount;
+		final BitSet initial;
+		final double minDifficulty;
+		final double maxDifficulty;
+		final long deadline;
+
+		private final Map<BitSet, double[]> evaluations = new ConcurrentHashMap<>();
+		private final AtomicLong matches = new AtomicLong();
+
+		// predictions per gap and gap context, and the mean prediction per gap in any context
+		final Map<Long, Double> predictions = new ConcurrentHashMap<>();
+		final Map<Integer, double[]> marginals = new ConcurrentHashMap<>();
+		final AtomicLong predictorCalls = new AtomicLong();
+		final AtomicLong cachedEvaluations = new AtomicLong();
+		final AtomicLong prunedMoves = new AtomicLong();
+
+		Problem(CTestObject ctest, double minDifficulty, double maxDifficulty, long deadline) {
+			this.ctest = ctest;
+			this.minDifficulty = minDifficulty;
+			this.maxDifficulty = maxDifficulty;
+			this.deadline = deadline;
+
+			List<CTestToken> tokens = ctest.getTokens();
+			List<Integer> indices = new ArrayList<>();
+			initial = new BitSet();
+			for (int i = 0; i < tokens.size(); i++) {
+				CTestToken token = tokens.get(i);
+				if (token.isCandidate() || token.isGap()) {
+					if (token.isGap()) {
+						initial.set(indices.size());
+					}
+					indices.add(i);
+				}
+			}
+			candidates = indices.stream().mapToInt(Integer::intValue).toArray();
+			candidateCount = candidates.length;
+			gapCount = initial.cardinality();
+		}
+
+		double distance(double difficulty) {
+			if (difficulty < minDifficulty)
+				return minDifficulty - difficulty;
+			if (difficulty > maxDifficulty)
+				return difficulty - maxDifficulty;
+			return 0.0;
+		}
+
+		long contextKey(BitSet placement, int p) {
+			long key = p;
+			for (int d = 1; d <= contextWindow; d++) {
+				boolean left = p - d >= 0 && placement.get(p - d);
+				boolean right = placement.get(p + d);
+				key = (key << 2) | (left ? 2 : 0) | (right ? 1 : 0);
+			}
+			return key;
+		}
+
+		/**
+		 * Returns a placement with every second candidate gapped, starting at an offset derived from the given seed.
+		 * If there are not enough candidates for such a placement, the remaining gaps are placed randomly on candidates
+		 * without a gapped neighbour. If no such candidates are left, the initial placement is returned.
+		 */
+		BitSet startPlacement(int offsetSeed, Random random) {
+			BitSet placement = new BitSet();
+			int maxOffset = Math.max(1, candidateCount - 2 * (gapCount - 1));
+			int offset = offsetSeed % maxOffset;
+			for (int p = offset; p < candidateCount && placement.cardinality() < gapCount; p += 2) {
+				placement.set(p);
+			}
+			while (placement.cardinality() < gapCount) {
+				List<Integer> free = new ArrayList<>();
+				for (int p = 0; p < candidateCount; p++) {
+					if (!placement.get(p) && !hasGappedNeighbour(placement, p)) {
+						free.add(p);
+					}
+				}
+				if (free.isEmpty()) {
+					return (BitSet) initial.clone();
+				}
+				placement.set(free.get(random.nextInt(free.size())));
+			}
+			return placement;
+		}
+
+		private boolean hasGappedNeighbour(BitSet placement, int p) {
+			return (p > 0 && placement.get(p - 1)) || placement.get(p + 1);
+		}
+
+		/**
+		 * Returns a copy of the placement with a single gap moved to an ungapped candidate, or null if no move was found.
+		 */
+		BitSet move(BitSet placement, Random random) {
+			if (gapCount == candidateCount)
+				return null;
+
+			for (int attempt = 0; attempt < 4 * candidateCount; attempt++) {
+				int from = nthSetBit(placement, random.nextInt(gapCount));
+				int to = random.nextInt(candidateCount);
+				if (placement.get(to))
+					continue;
+				if ((to > 0 && to - 1 != from && placement.get(to - 1)) || (to + 1 != from && placement.get(to + 1)))
+					continue;
+
+				BitSet next = (BitSet) placement.clone();
+				next.clear(from);
+				next.set(to);
+				return next;
+			}
+			return null;
+		}
+
+		/**
+		 * Makes the statistics of this search those of the last completed search.
+		 */
+		void publishStatistics() {
+			TargetDifficultySearch.this.predictorCalls.set(predictorCalls.get());
+			TargetDifficultySearch.this.cachedEvaluations.set(cachedEvaluations.get());
+			TargetDifficultySearch.this.prunedMoves.set(prunedMoves.get());
+		}
+
+		boolean isSaturated() {
+			return matches.get() >= resultLimit;
+		}
+
+		void offer(BitSet placement, double[] gapPredictions, double distance) {
+			if (evaluations.putIfAbsent((BitSet) placement.clone(), gapPredictions) == null && distance == 0.0) {
+				matches.incrementAndGet();
+			}
+		}
+
+		/**
+		 * Returns the best placements, predicted anew.
+		 * Cached predictions may stem from another placement, as only the context window of a gap is regarded,
+		 * so the reported difficulties are those of a prediction of the complete placement.
+		 */
+		List<GapPlacement> getResults() {
+			List<Map.Entry<BitSet, double[]>> sorted = new ArrayList<>(evaluations.entrySet());
+			sorted.sort(Comparator.comparingDouble(evaluation -> distance(mean(evaluation.getValue()))));
+
+			List<GapPlacement> results = new ArrayList<>();
+			for (Map.Entry<BitSet, double[]> evaluation : sorted.subList(0, Math.min(resultLimit, sorted.size()))) {
+				BitSet placement = evaluation.getKey();
+				List<Double> predicted = predict(this, toCTest(placement, null));
+				if (predicted.size() != gapCount) {
+					throw new IllegalStateException(String.format(
+							"The predictor returned %d predictions for %d gaps.", predicted.size(), gapCount));
+				}
+				double[] gapPredictions = predicted.stream().mapToDouble(Double::doubleValue).toArray();
+				double difficulty = mean(gapPredictions);
+				results.add(new GapPlacement(toCTest(placement, gapPredictions), difficulty, distance(difficulty)));
+			}
+			results.sort(null);
+			return results;
+		}
+
+		private double mean(double[] gapPredictions) {
+			return Arrays.stream(gapPredictions).average().orElse(0.0);
+		}
+
+		/**
+		 * Returns a copy of the c-test with the gaps of the given placement and, if given, their predictions.
+		 */
+		CTestObject toCTest(BitSet placement, double[] gapPredictions) {
+			CTestObject copy = new CTestObject(ctest.getLanguage());
+			List<CTestToken> tokens = ctest.getTokens();
+			int candidate = 0;
+			int gap = 0;
+			for (int i = 0; i < tokens.size(); i++) {
+				CTestToken token = copy(tokens.get(i));
+				boolean isCandidate = candidate < candidateCount && candidates[candidate] == i;
+				token.setGap(isCandidate && placement.get(candidate));
+				if (!token.isGap()) {
+					token.setPrediction(null);
+				}
+				else if (gapPredictions != null) {
+					token.setPrediction(gapPredictions[gap++]);
+				}
+				if (isCandidate) {
+					candidate++;
+				}
+				copy.addToken(token);
+			}
+			return copy;
+		}
+
+		private CTestToken copy(CTestToken token) {
+			CTestToken copy = new CTestToken(token.getText());
+			copy.setId(token.getId());
+			copy.setGapType(token.getGapType());
+			copy.setGapIndex(token.getGapIndex());
+			if (token.getGapIndex() >= 0) {
+				copy.setPrompt(token.getPrompt());
+			}
+			copy.setErrorRate(token.getErrorRate());
+			copy.setPrediction(token.getPrediction());
+			copy.setCandidate(token.isCandidate());
+			copy.setLastTokenInSentence(token.isLastTokenInSentence());
+			copy.setOtherSolutions(new ArrayList<>(token.getOtherSolutions()));
+			return copy;
+		}
+
+		private int nthSetBit(BitSet bits, int n) {
+			int p = bits.nextSetBit(0);
+			for (int i = 0; i < n; i++) {
+				p = bits.nextSetBit(p + 1);
+			}
+			return p;
+		}
+	}
+}
@@ -77,6 +77,105 @@ public class CTestGeneratorTest extends TestCase {
 		System.out.println(ctb.generateCTest(text,language));
 	}
 	
+	@Test
+	public void testStreaming() throws Exception {
+		String text = "Received shutters expenses ye he pleasant. Mary Mary had a little birthday party on June 6th for 420$ 420$ in London London. Drift as blind above at up. No up simple county stairs do should praise as. Drawings sir gay together landlord had law smallest. Formerly welcomed attended declared met say unlocked. Jennings outlived no dwelling denoting in peculiar as he believed. Behaviour excellent middleton be as it curiosity departure ourselves. ";
+		String language = "en";
+		
+		CTestGenerator ctb = new CTestGenerator(8, 2);
+		CTestObject expected = ctb.generateCTest(text, language);
+		
+		ctb.setStreamingAnalysis(true);
+		CTestObject ctest = ctb.generateCTest(text, language);
+		
+		System.out.println(ctest);
+		
+		assertEquals(expected.getTokens().size(), ctest.getTokens().size());
+		assertEquals(expected.getGapCount(), ctest.getGapCount());
+		for (int i = 0; i < expected.getTokens().size(); i++) {
+			CTestToken expectedToken = expected.getTokens().get(i);
+			CTestToken token = ctest.getTokens().get(i);
+			assertEquals(expectedToken.getText(), token.getText());
+			assertEquals(expectedToken.isGap(), token.isGap());
+			assertEquals(expectedToken.isCandidate(), token.isCandidate());
+			assertEquals(expectedToken.getGapIndex(), token.getGapIndex());
+		}
+		assertTrue(ctb.getWarnings().stream().anyMatch(warning -> warning.startsWith("TOO MANY SENTENCES")));
+	}
+	
+	@Test
+	public void testParallel() throws Exception {
+		String text = "Received shutters expenses ye he pleasant. Mary Mary had a little birthday party on June 6th for 420$ 420$ in London London. Drift as blind above at up. No up simple county stairs do should praise as. Drawings sir gay together landlord had law smallest. Formerly welcomed attended declared met say unlocked. Jennings outlived no dwelling denoting in peculiar as he believed. Behaviour excellent middleton be as it curiosity departure ourselves. ";
+		String language = "en";
+		
+		CTestGenerator ctb = new CTestGenerator();
+		CTestObject expected = ctb.generateCTest(text, language);
+		
+		ctb.setParallelAnalysis(2);
+		CTestObject ctest = ctb.generateCTest(text, language);
+		ctb.setParallelAnalysis(0);
+		
+		assertEquals(expected.getTokens().size(), ctest.getTokens().size());
+		for (int i = 0; i < expected.getTokens().size(); i++) {
+			CTestToken expectedToken = expected.getTokens().get(i);
+			CTestToken token = ctest.getTokens().get(i);
+			assertEquals(expectedToken.getText(), token.getText());
+			assertEquals(expectedToken.isGap(), token.isGap());
+			assertEquals(expectedToken.isCandidate(), token.isCandidate());
+			assertEquals(expectedToken.getGapIndex(), token.getGapIndex());
+		}
+	}
+	
+	@Test
+	public void testBatch() throws Exception {
+		List<String> texts = Arrays.asList(
+				"Received shutters expenses ye he pleasant. Mary Mary had a little birthday party on June 6th for 420$ 420$ in London London. Drift as blind above at up. No up simple county stairs do should praise as. Drawings sir gay together landlord had law smallest",
+				"",
+				"Formerly welcomed attended declared met say unlocked. Jennings outlived no dwelling denoting in peculiar as he believed. Behaviour excellent middleton be as it curiosity departure ourselves. Drift as blind above at up.");
+		String language = "en";
+		
+		CTestGenerator ctb = new CTestGenerator();
+		List<CTestObject> ctests = ctb.generateCTests(texts, language);
+		List<List<String>> warnings = ctb.getBatchWarnings();
+		
+		assertEquals(texts.size(), ctests.size());
+		assertEquals(texts.size(), warnings.size());
+		assertTrue(ctests.get(1).getTokens().isEmpty());
+		for (int t = 0; t < texts.size(); t++) {
+			CTestObject expected = ctb.generateCTest(texts.get(t), language);
+			assertEquals(ctb.getWarnings(), warnings.get(t));
+			
+			CTestObject ctest = ctests.get(t);
+			assertEquals(expected.getTokens().size(), ctest.getTokens().size());
+			for (int i = 0; i < expected.getTokens().size(); i++) {
+				CTestToken expectedToken = expected.getTokens().get(i);
+				CTestToken token = ctest.getTokens().get(i);
+				assertEquals(expectedToken.getText(), token.getText());
+				assertEquals(expectedToken.isGap(), token.isGap());
+				assertEquals(expectedToken.isCandidate(), token.isCandidate());
+				assertEquals(expectedToken.getGapIndex(), token.getGapIndex());
+				assertEquals(expectedToken.isLastTokenInSentence(), token.isLastTokenInSentence());
+			}
+		}
+	}
+	
+	@Test
+	public void testRulesOnly() throws Exception {
+		CTestGenerator ctb = new CTestGenerator();
+		ctb.setProfile(GenerationProfile.RULES_ONLY);
+		String text = "Angela Merkel ist eine Politikerin. Bananenbrot Bananenbrot Bananen-Brot Bananen-Brot Nathalie ist leider nicht zu 100% Politikerin in Hamburg, aber avec-vous avec-vous l'homme l'homme sie mag auch keine Augangssperre. Dieser Satz sollte keine Gaps erhalten.";
+		String language = "de";
+		CTestObject ctest = ctb.generateCTest(text, language);
+		
+		System.out.println(ctest);
+		
+		assertTrue(ctest.getGapCount() > 0);
+		// without decompounding, only hyphens determine the gappable area
+		CTestToken compound = ctest.getTokens().get(6);
+		assertEquals("Bananenbrot", compound.getText());
+		assertEquals("Bananenbrot".length() / 2, compound.getGapIndex());
+	}
+	
 	@Test
 	public void testUpdate() throws Exception {
 		CTestGenerator ctb = new CTestGenerator();
@@ -0,0 +1,83 @@
+package de.unidue.ltl.ctest.gapscheme;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.analysis_engine.AnalysisEngineDescription;
+import org.junit.Test;
+
+import de.unidue.ltl.ctest.gapscheme.gazetteer.Gazetteer;
+import de.unidue.ltl.ctest.gapscheme.preprocessing.CompoundGapFinder;
+import de.unidue.ltl.ctest.gapscheme.preprocessing.Criterion;
+import de.unidue.ltl.ctest.gapscheme.preprocessing.IsGazetteerNamedEntity;
+import de.unidue.ltl.ctest.gapscheme.preprocessing.IsNamedEntity;
+import de.unidue.ltl.ctest.gapscheme.preprocessing.IsNumber;
+import junit.framework.TestCase;
+
+public class CTestResourceProviderTest extends TestCase {
+
+	@Test
+	public void testRulesOnlyProfile() throws Exception {
+		for (String language : CTestResourceProvider.getSupportedLanguages()) {
+			List<Criterion> criteria = CTestResourceProvider.getCriteria(language, GenerationProfile.RULES_ONLY);
+			
+			assertFalse(criteria.isEmpty());
+			assertTrue(criteria.stream().allMatch(criterion -> criterion.getRequiredAnnotations().isEmpty()));
+			assertTrue(CTestResourceProvider.getCriterionEngines(language, criteria).isEmpty());
+		}
+	}
+	
+	@Test
+	public void testSharedEngines() throws Exception {
+		List<AnalysisEngine> namedEntities = CTestResourceProvider.getCriterionEngines("de", 
+				Arrays.asList(new IsNumber(), new IsNamedEntity(), new IsNamedEntity()));
+		assertEquals(1, namedEntities.size());
+		
+		List<AnalysisEngine> compounds = CTestResourceProvider.getCriterionEngines("de", 
+				Arrays.asList(new CompoundGapFinder()));
+		assertEquals(1, compounds.size());
+		
+		List<AnalysisEngine> engines = CTestResourceProvider.getLanguageEngines("de");
+		assertEquals(2, engines.size());
+		assertSame(namedEntities.get(0), engines.get(0));
+		assertSame(compounds.get(0), engines.get(1));
+	}
+	
+	@Test
+	public void testDescribedPipelineConfiguration() throws Exception {
+		List<Criterion> criteria = CTestResourceProvider.getCriteria("de", GenerationProfile.DEFAULT);
+		
+		List<AnalysisEngineDescription> descriptions = 
+				new ArrayList<>(CTestResourceProvider.getSegmentationEngineDescriptions());
+		descriptions.addAll(CTestResourceProvider.getCriterionEngineDescriptions("de", criteria));
+		List<AnalysisEngine> engines = new ArrayList<>(CTestResourceProvider.getSegmentationEngines());
+		engines.addAll(CTestResourceProvider.getCriterionEngines("de", criteria));
+		
+		// cache keys must not depend on whether the engines were created
+		assertEquals(CTestResourceProvider.getPipelineConfiguration(engines), 
+				CTestResourceProvider.getDescribedPipelineConfiguration(descriptions));
+	}
+	
+	@Test
+	public void testGazetteerEngines() throws Exception {
+		List<Criterion> criteria = Arrays.asList(new IsGazetteerNamedEntity());
+		List<AnalysisEngine> bundled = CTestResourceProvider.getCriterionEngines("de", criteria);
+		String configuration = CTestResourceProvider.getDescribedPipelineConfiguration(
+				CTestResourceProvider.getCriterionEngineDescriptions("de", criteria));
+		assertSame(bundled.get(0), CTestResourceProvider.getCriterionEngines("de", criteria).get(0));
+		
+		// engines and cached analyses of the previous gazetteer are not reused
+		Gazetteer.setSharedInstance("de", new Gazetteer(Collections.singletonMap("Helsinki", "location")));
+		try {
+			List<AnalysisEngine> custom = CTestResourceProvider.getCriterionEngines("de", criteria);
+			assertNotSame(bundled.get(0), custom.get(0));
+			assertFalse(configuration.equals(CTestResourceProvider.getDescribedPipelineConfiguration(
+					CTestResourceProvider.getCriterionEngineDescriptions("de", criteria))));
+		} finally {
+			Gazetteer.setSharedInstance("de", null);
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package de.unidue.ltl.ctest.gapscheme;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.tcas.Annotation;
+import org.junit.Test;
+
+import de.tudarmstadt.ukp.dkpro.core.api.ner.type.NamedEntity;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Compound;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Split;
+import de.unidue.ltl.ctest.gapscheme.preprocessing.Criterion;
+import junit.framework.TestCase;
+
+public class ParallelAnalyzerTest extends TestCase {
+
+	private static final String TEXT_FILE = "src/test/resources/texts/deNews.txt";
+	private static final String LANGUAGE = "de";
+
+	@Test
+	public void testSameAsSequential() throws Exception {
+		String text = readText(20);
+		List<Criterion> criteria = CTestResourceProvider.getCriteria(LANGUAGE, GenerationProfile.DEFAULT);
+
+		long start = System.nanoTime();
+		JCas expected = segment(text);
+		for (AnalysisEngine engine : CTestResourceProvider.getCriterionEngines(LANGUAGE, criteria))
+			engine.process(expected);
+		long sequentialTime = System.nanoTime() - start;
+		System.out.println(String.format("sequential: %6d ms", sequentialTime / 1000000));
+
+		for (int threads : new int[] { 1, 4 }) {
+			ParallelAnalyzer analyzer = new ParallelAnalyzer(LANGUAGE, 
+					CTestResourceProvider.getCriterionEngineDescriptions(LANGUAGE, criteria), threads);
+			// first run loads the models
+			analyzer.analyze(segment(text));
+
+			start = System.nanoTime();
+			JCas jcas = segment(text);
+			analyzer.analyze(jcas);
+			System.out.println(String.format("%d thread(s): %6d ms", threads, (System.nanoTime() - start) / 1000000));
+
+			assertEquals(describe(expected), describe(jcas));
+			analyzer.close();
+		}
+	}
+
+	@Test
+	public void testChunkOffsets() throws Exception {
+		String text = readText(2);
+		List<Criterion> criteria = CTestResourceProvider.getCriteria(LANGUAGE, GenerationProfile.DEFAULT);
+		ParallelAnalyzer analyzer = new ParallelAnalyzer(LANGUAGE, 
+				CTestResourceProvider.getCriterionEngineDescriptions(LANGUAGE, criteria), 2);
+		analyzer.setChunkSize(1);
+
+		JCas jcas = segment(text);
+		int added = analyzer.analyze(jcas);
+		analyzer.close();
+
+		assertTrue(added > 0);
+		for (Compound compound : JCasUtil.select(jcas, Compound.class)) {
+			for (Split split : JCasUtil.selectCovered(Split.class, compound))
+				assertTrue(compound.getCoveredText().contains(split.getCoveredText()));
+		}
+	}
+
+	private String readText(int copies) throws Exception {
+		String text = new String(Files.readAllBytes(Paths.get(TEXT_FILE)), StandardCharsets.UTF_8);
+		StringBuilder book = new StringBuilder();
+		for (int i = 0; i < copies; i++)
+			book.append(text).append("\n");
+		return book.toString();
+	}
+
+	private JCas segment(String text) throws Exception {
+		JCas jcas = JCasFactory.createText(text, LANGUAGE);
+		for (AnalysisEngine engine : CTestResourceProvider.getSegmentationEngines())
+			engine.process(jcas);
+		return jcas;
+	}
+
+	private List<String> describe(JCas jcas) {
+		List<String> annotations = new ArrayList<>();
+		for (NamedEntity entity : JCasUtil.select(jcas, NamedEntity.class))
+			annotations.add(describe(entity) + ":" + entity.getValue());
+		for (Compound compound : JCasUtil.select(jcas, Compound.class)) {
+			StringBuilder description = new StringBuilder(describe(compound));
+			for (int i = 0; i < compound.getSplits().size(); i++)
+				description.append("|").append(describe((Split) compound.getSplits().get(i)));
+			annotations.add(description.toString());
+		}
+		return annotations;
+	}
+
+	private String describe(Annotation annotation) {
+		return annotation.getType().getShortName() + "[" + annotation.getBegin() + "," + annotation.getEnd() + "]" 
+				+ annotation.getCoveredText();
+	}
+}
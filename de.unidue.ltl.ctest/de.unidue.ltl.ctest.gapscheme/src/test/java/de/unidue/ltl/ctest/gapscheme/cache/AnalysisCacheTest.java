@@ -0,0 +1,178 @@
+package de.unidue.ltl.ctest.gapscheme.cache;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.uima.UIMAException;
+import org.apache.uima.fit.factory.JCasBuilder;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.cas.FSArray;
+import org.apache.uima.jcas.tcas.Annotation;
+import org.junit.Test;
+
+import de.tudarmstadt.ukp.dkpro.core.api.ner.type.NamedEntity;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Compound;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.CompoundPart;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.LinkingMorpheme;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+import de.unidue.ltl.ctest.gapscheme.preprocessing.CompoundGapFinder;
+import de.unidue.ltl.ctest.gapscheme.preprocessing.IsNamedEntity;
+import junit.framework.TestCase;
+
+public class AnalysisCacheTest extends TestCase {
+
+	@Test
+	public void testRoundTrip() throws UIMAException {
+		JCas original = createAnalyzedJCas();
+		JCas restored = AnalyzedDocument.fromJCas(original).toJCas();
+
+		assertEquals(original.getDocumentText(), restored.getDocumentText());
+		assertEquals(original.getDocumentLanguage(), restored.getDocumentLanguage());
+		assertEquals(2, JCasUtil.select(restored, Sentence.class).size());
+		assertEquals(texts(original, Token.class), texts(restored, Token.class));
+		assertEquals(texts(original, NamedEntity.class), texts(restored, NamedEntity.class));
+		assertEquals("PER", JCasUtil.selectSingle(restored, NamedEntity.class).getValue());
+
+		List<Token> tokens = new ArrayList<>(JCasUtil.select(restored, Token.class));
+		assertTrue(new IsNamedEntity(restored).test(tokens.get(0)));
+
+		CompoundGapFinder finder = new CompoundGapFinder(restored);
+		Token compound = tokens.get(3);
+		assertEquals("Bananenbrot", compound.getCoveredText());
+		assertTrue(finder.test(compound));
+		assertEquals(7, finder.getGapIndex(compound));
+	}
+
+	@Test
+	public void testKey() {
+		String key = AnalysisCache.getKey("text", "de", "pipeline");
+		assertEquals(key, AnalysisCache.getKey("text", "de", "pipeline"));
+		assertFalse(key.equals(AnalysisCache.getKey("text", "en", "pipeline")));
+		assertFalse(key.equals(AnalysisCache.getKey("text", "de", "other pipeline")));
+		assertFalse(AnalysisCache.getKey("ab", "c", "").equals(AnalysisCache.getKey("a", "bc", "")));
+	}
+
+	@Test
+	public void testHitRate() throws UIMAException {
+		AnalysisCache cache = new AnalysisCache(1024 * 1024);
+		AnalyzedDocument document = AnalyzedDocument.fromJCas(createAnalyzedJCas());
+
+		assertNull(cache.get("a"));
+		cache.put("a", document);
+		assertSame(document, cache.get("a"));
+		assertSame(document, cache.get("a"));
+
+		assertEquals(2, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(2.0 / 3.0, cache.getHitRate(), 0.0001);
+	}
+
+	@Test
+	public void testEviction() throws UIMAException {
+		AnalyzedDocument document = AnalyzedDocument.fromJCas(createAnalyzedJCas());
+		AnalysisCache cache = new AnalysisCache(2 * document.estimateSize());
+
+		cache.put("a", document);
+		cache.put("b", document);
+		cache.get("a");
+		cache.put("c", document);
+
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getEvictionCount());
+		assertNotNull(cache.get("a"));
+		assertNull(cache.get("b"));
+		assertNotNull(cache.get("c"));
+		assertTrue(cache.getMemoryUsage() <= cache.getMemoryBudget());
+	}
+
+	@Test
+	public void testPersistence() throws Exception {
+		Path directory = Files.createTempDirectory("analysis-cache");
+		AnalyzedDocument document = AnalyzedDocument.fromJCas(createAnalyzedJCas());
+
+		new AnalysisCache(1024 * 1024, directory).put("a", document);
+
+		AnalysisCache restarted = new AnalysisCache(1024 * 1024, directory);
+		AnalyzedDocument restored = restarted.get("a");
+		assertNotNull(restored);
+		assertEquals(document.getText(), restored.getText());
+		assertEquals(document.getTokenCount(), restored.getTokenCount());
+		assertEquals(1, restarted.getDiskHitCount());
+		assertEquals(0, restarted.getMissCount());
+	}
+
+	@Test
+	public void testConcurrentDiskReads() throws Exception {
+		Path directory = Files.createTempDirectory("analysis-cache");
+		new AnalysisCache(1024 * 1024, directory).put("a", AnalyzedDocument.fromJCas(createAnalyzedJCas()));
+
+		// concurrent disk reads of the same entry publish a single instance
+		AnalysisCache restarted = new AnalysisCache(1024 * 1024, directory);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<AnalyzedDocument>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(executor.submit(() -> restarted.get("a")));
+			}
+			AnalyzedDocument first = results.get(0).get();
+			for (Future<AnalyzedDocument> result : results) {
+				assertSame(first, restarted.get("a"));
+				assertNotNull(result.get());
+			}
+			assertEquals(1, restarted.size());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private JCas createAnalyzedJCas() throws UIMAException {
+		JCas jcas = JCasFactory.createJCas();
+		jcas.setDocumentLanguage("de");
+		JCasBuilder builder = new JCasBuilder(jcas);
+
+		int begin = builder.getPosition();
+		Token merkel = builder.add("Merkel", Token.class);
+		builder.add(" ");
+		builder.add("mag", Token.class);
+		builder.add(".", Token.class);
+		builder.add(begin, Sentence.class);
+		builder.add(" ");
+
+		begin = builder.getPosition();
+		builder.add("Ein", Token.class);
+		builder.add(" ");
+		Token compound = builder.add("Bananenbrot", Token.class);
+		builder.add(".", Token.class);
+		builder.add(begin, Sentence.class);
+		builder.close();
+
+		NamedEntity entity = new NamedEntity(jcas, merkel.getBegin(), merkel.getEnd());
+		entity.setValue("PER");
+		entity.addToIndexes();
+
+		int split = compound.getBegin() + "Banane".length();
+		FSArray splits = new FSArray(jcas, 3);
+		splits.set(0, new CompoundPart(jcas, compound.getBegin(), split));
+		splits.set(1, new LinkingMorpheme(jcas, split, split + 1));
+		splits.set(2, new CompoundPart(jcas, split + 1, compound.getEnd()));
+		Compound annotation = new Compound(jcas, compound.getBegin(), compound.getEnd());
+		annotation.setSplits(splits);
+		annotation.addToIndexes();
+
+		return jcas;
+	}
+
+	private List<String> texts(JCas jcas, Class<? extends Annotation> type) {
+		List<String> texts = new ArrayList<>();
+		JCasUtil.select(jcas, type).forEach(annotation -> texts.add(annotation.getCoveredText()));
+		return texts;
+	}
+}
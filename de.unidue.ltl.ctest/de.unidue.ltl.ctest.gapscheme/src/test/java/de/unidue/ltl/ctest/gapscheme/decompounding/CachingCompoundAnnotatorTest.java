@@ -0,0 +1,173 @@
+package de.unidue.ltl.ctest.gapscheme.decompounding;
+
+import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngine;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.uima.UIMAException;
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.fit.factory.JCasBuilder;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.apache.uima.jcas.cas.FSArray;
+import org.junit.Test;
+
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Compound;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.CompoundPart;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.LinkingMorpheme;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Split;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+import de.tudarmstadt.ukp.dkpro.core.tokit.BreakIteratorSegmenter;
+import de.unidue.ltl.ctest.gapscheme.preprocessing.CompoundGapFinder;
+import junit.framework.TestCase;
+
+public class CachingCompoundAnnotatorTest extends TestCase {
+
+	private static final String TEXT_FILE = "src/test/resources/texts/deNews.txt";
+	
+	private AnalysisEngine segmenter;
+
+	@Override
+	protected void tearDown() {
+		DecompoundingCache.removeNamedInstance(getName());
+	}
+
+	@Test
+	public void testSameAsCompoundAnnotator() throws Exception {
+		DecompoundingCache cache = DecompoundingCache.getNamedInstance(getName());
+		AnalysisEngine splitter = createEngine(CachingCompoundAnnotator.getSplitterDescription());
+		AnalysisEngine cachingSplitter = createEngine(CachingCompoundAnnotator.class, 
+				CachingCompoundAnnotator.PARAM_CACHE_NAME, getName());
+
+		JCas expected = segment(readText());
+		splitter.process(expected);
+
+		for (int i = 0; i < 2; i++) {
+			JCas jcas = segment(readText());
+			cachingSplitter.process(jcas);
+			assertEquals(describe(expected), describe(jcas));
+		}
+		assertTrue(cache.getHitCount() > 0);
+	}
+
+	@Test
+	public void testBenchmark() throws Exception {
+		// each sentence of the news text is processed as a text of its own, so words recur only as they do across texts
+		List<String> texts = new ArrayList<>();
+		for (Sentence sentence : JCasUtil.select(segment(readText()), Sentence.class))
+			texts.add(sentence.getCoveredText());
+		AnalysisEngine splitter = createEngine(CachingCompoundAnnotator.getSplitterDescription());
+		AnalysisEngine cachingSplitter = createEngine(CachingCompoundAnnotator.class, 
+				CachingCompoundAnnotator.PARAM_CACHE_NAME, getName());
+		DecompoundingCache cache = DecompoundingCache.getNamedInstance(getName());
+
+		long tokens = 0;
+		List<String> expected = new ArrayList<>();
+		long start = System.nanoTime();
+		for (String text : texts) {
+			JCas jcas = segment(text);
+			tokens += JCasUtil.select(jcas, Token.class).size();
+			splitter.process(jcas);
+			expected.addAll(describe(jcas));
+		}
+		long uncachedTime = System.nanoTime() - start;
+
+		List<String> actual = new ArrayList<>();
+		start = System.nanoTime();
+		for (String text : texts) {
+			JCas jcas = segment(text);
+			cachingSplitter.process(jcas);
+			actual.addAll(describe(jcas));
+		}
+		long cachedTime = System.nanoTime() - start;
+
+		System.out.println(String.format("%d texts, %d tokens", texts.size(), tokens));
+		System.out.println(String.format("CompoundAnnotator:        %8.1f tokens/s", tokens / (uncachedTime / 1e9)));
+		System.out.println(String.format("CachingCompoundAnnotator: %8.1f tokens/s", tokens / (cachedTime / 1e9)));
+		System.out.println(cache);
+
+		assertEquals(expected, actual);
+		assertEquals(tokens, cache.getHitCount() + cache.getMissCount());
+		// only words recurring in a later text are cache hits
+		assertTrue(cache.getHitCount() > 0);
+		assertTrue(cache.getMissCount() > 0);
+	}
+
+	@Test
+	public void testEviction() {
+		DecompoundingCache cache = new DecompoundingCache(2);
+		cache.put("Haus", CompoundSplit.NO_COMPOUND);
+		cache.put("Garten", CompoundSplit.NO_COMPOUND);
+		cache.get("haus");
+		cache.put("Baum", CompoundSplit.NO_COMPOUND);
+
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getEvictionCount());
+		assertNotNull(cache.peek("HAUS"));
+		assertNull(cache.peek("Garten"));
+		assertNotNull(cache.peek("Baum"));
+		assertEquals(1, cache.getHitCount());
+		assertEquals(0, cache.getMissCount());
+	}
+
+	@Test
+	public void testCompoundGapFinder() throws UIMAException {
+		JCas annotated = JCasFactory.createJCas();
+		JCasBuilder builder = new JCasBuilder(annotated);
+		Token compound = builder.add("Bananenbrot", Token.class);
+		builder.close();
+
+		int split = compound.getBegin() + "Banane".length();
+		FSArray splits = new FSArray(annotated, 3);
+		splits.set(0, new CompoundPart(annotated, compound.getBegin(), split));
+		splits.set(1, new LinkingMorpheme(annotated, split, split + 1));
+		splits.set(2, new CompoundPart(annotated, split + 1, compound.getEnd()));
+		Compound annotation = new Compound(annotated, compound.getBegin(), compound.getEnd());
+		annotation.setSplits(splits);
+
+		// only the annotations of the JCas count, whatever the cache contains
+		DecompoundingCache cache = new DecompoundingCache(10);
+		cache.put("Bananenbrot", CompoundSplit.fromCompound(annotation, compound.getBegin()));
+		assertEquals(7, cache.peek("Bananenbrot").getLastPartBegin());
+		CompoundGapFinder finder = new CompoundGapFinder();
+		finder.initialise(annotated);
+		assertFalse(finder.test(compound));
+
+		annotation.addToIndexes();
+		finder.initialise(annotated);
+		assertTrue(finder.test(compound));
+		assertEquals(7, finder.getGapIndex(compound));
+	}
+
+	private String readText() throws IOException {
+		return new String(Files.readAllBytes(Paths.get(TEXT_FILE)), StandardCharsets.UTF_8);
+	}
+
+	private JCas segment(String text) throws UIMAException {
+		if (segmenter == null)
+			segmenter = createEngine(BreakIteratorSegmenter.class);
+		JCas jcas = JCasFactory.createText(text, "de");
+		segmenter.process(jcas);
+		return jcas;
+	}
+
+	private List<String> describe(JCas jcas) {
+		List<String> compounds = new ArrayList<>();
+		for (Compound compound : JCasUtil.select(jcas, Compound.class)) {
+			StringBuilder description = new StringBuilder(compound.getCoveredText());
+			for (int i = 0; i < compound.getSplits().size(); i++) {
+				Split split = (Split) compound.getSplits().get(i);
+				description.append(split instanceof LinkingMorpheme ? "+" : "|").append(split.getCoveredText());
+			}
+			compounds.add(description.toString());
+		}
+		return compounds;
+	}
+}
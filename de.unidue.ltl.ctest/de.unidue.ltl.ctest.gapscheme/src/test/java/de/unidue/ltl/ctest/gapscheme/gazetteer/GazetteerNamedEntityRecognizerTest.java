@@ -0,0 +1,149 @@
+package de.unidue.ltl.ctest.gapscheme.gazetteer;
+
+import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngine;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.uima.UIMAException;
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.junit.Test;
+
+import de.tudarmstadt.ukp.dkpro.core.api.ner.type.NamedEntity;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
+import de.tudarmstadt.ukp.dkpro.core.tokit.BreakIteratorSegmenter;
+import de.unidue.ltl.ctest.gapscheme.CTestResourceProvider;
+import de.unidue.ltl.ctest.gapscheme.GenerationProfile;
+import de.unidue.ltl.ctest.gapscheme.preprocessing.Criterion;
+import de.unidue.ltl.ctest.gapscheme.preprocessing.IsNamedEntity;
+import junit.framework.TestCase;
+
+public class GazetteerNamedEntityRecognizerTest extends TestCase {
+
+	// news texts, in which the named entities are common names, as in the bundled gazetteers.
+	// The entities are annotated by hand in brackets, following the CoNLL conventions.
+	private static final String DE_GOLD_FILE = "src/test/resources/texts/deNamedEntities.gold.txt";
+	private static final String EN_GOLD_FILE = "src/test/resources/texts/enNamedEntities.gold.txt";
+
+	@Test
+	public void testRecognize() throws UIMAException {
+		AnalysisEngine recognizer = createEngine(GazetteerNamedEntityRecognizer.class,
+				GazetteerNamedEntityRecognizer.PARAM_LANGUAGE, "de");
+		JCas jcas = segment("Frank zog von Frankfurt am Main nach Berlin. Die Bundesregierung tagt in Bonn.", "de");
+		recognizer.process(jcas);
+
+		// no matches within tokens, the longest of overlapping matches
+		assertEquals("[person:Frank, location:Frankfurt am Main, location:Berlin, "
+				+ "organization:Bundesregierung, location:Bonn]", describe(jcas).toString());
+	}
+
+	@Test
+	public void testCapitalization() throws UIMAException {
+		AnalysisEngine recognizer = createEngine(GazetteerNamedEntityRecognizer.class,
+				GazetteerNamedEntityRecognizer.PARAM_LANGUAGE, "en",
+				GazetteerNamedEntityRecognizer.PARAM_CAPITALIZATION, true);
+		JCas jcas = segment("Yesterday the Acme Corporation opened an office in London. It employs Ada.", "en");
+		recognizer.process(jcas);
+
+		assertEquals("[misc:Acme Corporation, location:London, misc:Ada]", describe(jcas).toString());
+	}
+
+	/**
+	 * Compares the named entity tokens of {@code GenerationProfile.FAST} to a hand annotation of news texts.
+	 * The thresholds are just below the measured values: for German, a token agreement of 0.958 and an entity F1 of 0.900,
+	 * missing inflected names such as "Deutschen Bank", for English 0.986 and 0.974, 
+	 * where the capitalisation heuristic also marks "Monday" and "December".
+	 */
+	@Test
+	public void testAgreement() throws Exception {
+		compare(DE_GOLD_FILE, "de", 0.95, 0.89);
+		compare(EN_GOLD_FILE, "en", 0.98, 0.97);
+	}
+
+	private void compare(String goldFile, String language, double minAgreement, double minF1) throws Exception {
+		String annotated = new String(Files.readAllBytes(Paths.get(goldFile)), StandardCharsets.UTF_8);
+		StringBuilder text = new StringBuilder();
+		List<int[]> spans = new ArrayList<>();
+		for (int i = 0; i < annotated.length(); i++) {
+			char c = annotated.charAt(i);
+			if (c == '[')
+				spans.add(new int[] { text.length(), -1 });
+			else if (c == ']')
+				spans.get(spans.size() - 1)[1] = text.length();
+			else
+				text.append(c);
+		}
+
+		JCas jcas = segment(text.toString(), language);
+		boolean[] fast = recognize(jcas, language);
+		List<Token> tokens = new ArrayList<>(JCasUtil.select(jcas, Token.class));
+
+		int agreeing = 0;
+		int both = 0;
+		int goldOnly = 0;
+		int fastOnly = 0;
+		for (int i = 0; i < tokens.size(); i++) {
+			boolean gold = false;
+			for (int[] span : spans) {
+				if (tokens.get(i).getBegin() >= span[0] && tokens.get(i).getEnd() <= span[1])
+					gold = true;
+			}
+			if (gold == fast[i])
+				agreeing++;
+			if (gold && fast[i])
+				both++;
+			else if (gold)
+				goldOnly++;
+			else if (fast[i])
+				fastOnly++;
+		}
+		double agreement = (double) agreeing / tokens.size();
+		// the F1 score of the gazetteers on the entity tokens
+		double f1 = 2.0 * both / (2 * both + goldOnly + fastOnly);
+
+		assertTrue(both > 0);
+		assertTrue(language + ": token agreement " + agreement, agreement >= minAgreement);
+		assertTrue(language + ": entity F1 " + f1, f1 >= minF1);
+	}
+
+	/**
+	 * Runs the named entity recognizers of {@code GenerationProfile.FAST} and returns for each token, whether it is a named entity.
+	 */
+	private boolean[] recognize(JCas jcas, String language) throws Exception {
+		IsNamedEntity criterion = null;
+		for (Criterion exclusionCriterion : CTestResourceProvider.getExclusionCriteria(language, GenerationProfile.FAST)) {
+			if (exclusionCriterion instanceof IsNamedEntity)
+				criterion = (IsNamedEntity) exclusionCriterion;
+		}
+
+		for (AnalysisEngine engine : CTestResourceProvider.getCriterionEngines(language, Collections.singletonList(criterion)))
+			engine.process(jcas);
+
+		criterion.initialise(jcas);
+		List<Token> tokens = new ArrayList<>(JCasUtil.select(jcas, Token.class));
+		boolean[] entities = new boolean[tokens.size()];
+		for (int i = 0; i < tokens.size(); i++)
+			entities[i] = criterion.test(tokens.get(i));
+		return entities;
+	}
+
+	private JCas segment(String text, String language) throws UIMAException {
+		JCas jcas = JCasFactory.createText(text, language);
+		createEngine(BreakIteratorSegmenter.class).process(jcas);
+		return jcas;
+	}
+
+	private List<String> describe(JCas jcas) {
+		List<String> entities = new ArrayList<>();
+		for (NamedEntity entity : JCasUtil.select(jcas, NamedEntity.class))
+			entities.add(entity.getValue() + ":" + entity.getCoveredText());
+		return entities;
+	}
+}
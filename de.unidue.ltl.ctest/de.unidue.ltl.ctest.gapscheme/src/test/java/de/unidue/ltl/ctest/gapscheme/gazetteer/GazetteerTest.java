@@ -0,0 +1,73 @@
+package de.unidue.ltl.ctest.gapscheme.gazetteer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+
+public class GazetteerTest extends TestCase {
+
+	@Test
+	public void testFindOverlapping() {
+		Map<String, String> names = new LinkedHashMap<>();
+		names.put("New York", "location");
+		names.put("York", "location");
+		names.put("New York Times", "organization");
+		names.put("Times", "organization");
+		Gazetteer gazetteer = new Gazetteer(names);
+
+		List<String> matches = new ArrayList<>();
+		for (Gazetteer.Match match : gazetteer.find("the New York Times"))
+			matches.add(match.toString());
+
+		assertEquals(5, matches.size());
+		assertTrue(matches.contains("location[4,12]"));
+		assertTrue(matches.contains("location[8,12]"));
+		assertTrue(matches.contains("organization[4,18]"));
+		assertTrue(matches.contains("organization[13,18]"));
+		assertEquals(4, gazetteer.size());
+	}
+
+	@Test
+	public void testGetType() {
+		Map<String, String> names = new LinkedHashMap<>();
+		names.put("Berlin", "location");
+		Gazetteer gazetteer = new Gazetteer(names);
+
+		assertEquals("location", gazetteer.getType("Berlin"));
+		assertNull(gazetteer.getType("Berli"));
+		assertNull(gazetteer.getType("berlin"));
+	}
+
+	@Test
+	public void testSharedInstance() {
+		Gazetteer gazetteer = Gazetteer.getSharedInstance("de");
+
+		assertSame(gazetteer, Gazetteer.getSharedInstance("de"));
+		assertEquals("location", gazetteer.getType("Berlin"));
+		assertEquals("person", gazetteer.getType("Angela Merkel"));
+		assertEquals(0, Gazetteer.getSharedInstance("fi").size());
+	}
+
+	@Test
+	public void testUserInstance() {
+		Map<String, String> names = new LinkedHashMap<>();
+		names.put("Helsinki", "location");
+		Gazetteer gazetteer = new Gazetteer(names);
+
+		assertFalse(Gazetteer.isAvailable("fi"));
+		Gazetteer.setSharedInstance("fi", gazetteer);
+		try {
+			assertTrue(Gazetteer.isAvailable("fi"));
+			assertSame(gazetteer, Gazetteer.getSharedInstance("fi"));
+		} finally {
+			Gazetteer.setSharedInstance("fi", null);
+		}
+		assertFalse(Gazetteer.isAvailable("fi"));
+		assertEquals(0, Gazetteer.getSharedInstance("fi").size());
+	}
+}
@@ -7,6 +7,7 @@ import org.apache.uima.jcas.JCas;
 import org.junit.Test;
 
 import de.tudarmstadt.ukp.dkpro.core.api.ner.type.NamedEntity;
+import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Sentence;
 import de.tudarmstadt.ukp.dkpro.core.api.segmentation.type.Token;
 import junit.framework.TestCase;
 
@@ -30,4 +31,39 @@ public class IsNamedEntityTest extends TestCase {
 		assertTrue(criterion.test(jude));
 	}
 	
+	@Test
+	public void testExtend() throws UIMAException {
+		JCas jcas = JCasFactory.createJCas();
+		JCasBuilder jcasBuilder = new JCasBuilder(jcas);
+
+		int first = jcasBuilder.getPosition();
+		Token hey = jcasBuilder.add("Hey", Token.class);
+		jcasBuilder.add(" ");
+		Token jude = jcasBuilder.add("Jude", Token.class);
+		Sentence sentence1 = jcasBuilder.add(first, Sentence.class);
+		jcasBuilder.add(" ");
+		int second = jcasBuilder.getPosition();
+		Token dont = jcasBuilder.add("Don't", Token.class);
+		jcasBuilder.add(" ");
+		Token paul = jcasBuilder.add("Paul", Token.class);
+		Sentence sentence2 = jcasBuilder.add(second, Sentence.class);
+		
+		jcasBuilder.close();
+		
+		IsNamedEntity criterion = new IsNamedEntity(jcas);
+		assertFalse(criterion.test(jude));
+		
+		new NamedEntity(jcas, jude.getBegin(), jude.getEnd()).addToIndexes();
+		criterion.extend(jcas, sentence1);
+		assertFalse(criterion.test(hey));
+		assertTrue(criterion.test(jude));
+		assertFalse(criterion.test(paul));
+		
+		new NamedEntity(jcas, paul.getBegin(), paul.getEnd()).addToIndexes();
+		criterion.extend(jcas, sentence2);
+		assertTrue(criterion.test(jude));
+		assertFalse(criterion.test(dont));
+		assertTrue(criterion.test(paul));
+	}
+	
 }
@@ -0,0 +1,72 @@
+package de.unidue.ltl.ctest.gapscheme.preprocessing;
+
+import static org.apache.uima.fit.factory.AnalysisEngineFactory.createEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.uima.UIMAException;
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.fit.util.JCasUtil;
+import org.apache.uima.jcas.JCas;
+import org.junit.Test;
+
+import de.tudarmstadt.ukp.dkpro.core.api.ner.type.NamedEntity;
+import de.tudarmstadt.ukp.dkpro.core.opennlp.OpenNlpNamedEntityRecognizer;
+import de.tudarmstadt.ukp.dkpro.core.tokit.BreakIteratorSegmenter;
+import junit.framework.TestCase;
+
+public class ParallelNamedEntityRecognizerTest extends TestCase {
+
+	private static final String TEXT = "Mary had a little birthday party on June 6th for 420$ in London. "
+			+ "She works for the United Nations in New York since 2010. Her brother Peter lives in Paris.";
+	private static final String[] VARIANTS = new String[] { "date", "money", "organization", "location", "person" };
+
+	@Test
+	public void testSameAsSequential() throws UIMAException {
+		JCas sequential = segment();
+		for (String variant : VARIANTS) {
+			createEngine(OpenNlpNamedEntityRecognizer.class, 
+					OpenNlpNamedEntityRecognizer.PARAM_VARIANT, variant, 
+					OpenNlpNamedEntityRecognizer.PARAM_LANGUAGE, "en").process(sequential);
+		}
+		
+		AnalysisEngine parallel = createEngine(ParallelNamedEntityRecognizer.class, 
+				ParallelNamedEntityRecognizer.PARAM_VARIANTS, VARIANTS, 
+				ParallelNamedEntityRecognizer.PARAM_LANGUAGE, "en");
+		JCas jcas = segment();
+		parallel.process(jcas);
+		
+		assertFalse(JCasUtil.select(jcas, NamedEntity.class).isEmpty());
+		assertEquals(describe(sequential), describe(jcas));
+		
+		// engines and their scratch CASes are reused for subsequent documents
+		JCas other = segment();
+		parallel.process(other);
+		assertEquals(describe(sequential), describe(other));
+		parallel.destroy();
+		
+		AnalysisEngine inSequence = createEngine(ParallelNamedEntityRecognizer.class, 
+				ParallelNamedEntityRecognizer.PARAM_VARIANTS, VARIANTS, 
+				ParallelNamedEntityRecognizer.PARAM_LANGUAGE, "en",
+				ParallelNamedEntityRecognizer.PARAM_CONCURRENT, false);
+		jcas = segment();
+		inSequence.process(jcas);
+		assertEquals(describe(sequential), describe(jcas));
+		inSequence.destroy();
+	}
+	
+	private JCas segment() throws UIMAException {
+		JCas jcas = JCasFactory.createText(TEXT, "en");
+		createEngine(BreakIteratorSegmenter.class).process(jcas);
+		return jcas;
+	}
+	
+	private List<String> describe(JCas jcas) {
+		List<String> entities = new ArrayList<>();
+		for (NamedEntity entity : JCasUtil.select(jcas, NamedEntity.class))
+			entities.add(entity.getType().getShortName() + ":" + entity.getValue() + ":" + entity.getCoveredText());
+		return entities;
+	}
+}
@@ -0,0 +1,118 @@
+package de.unidue.ltl.ctest.gapscheme.search;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.fit.factory.JCasFactory;
+import org.apache.uima.jcas.JCas;
+import org.junit.Test;
+
+import de.unidue.ltl.ctest.core.CTestObject;
+import de.unidue.ltl.ctest.gapscheme.CTestGenerator;
+import de.unidue.ltl.ctest.gapscheme.CTestResourceProvider;
+import de.unidue.ltl.ctest.gapscheme.GenerationProfile;
+import de.unidue.ltl.ctest.gapscheme.preprocessing.Criterion;
+import junit.framework.TestCase;
+
+public class PassageMinerTest extends TestCase {
+
+	private static final String TEXT_FILE = "src/test/resources/texts/deNews.txt";
+	private static final String LANGUAGE = "de";
+
+	@Test
+	public void testFindWindows() {
+		PassageMiner miner = new PassageMiner(3, 2, true, true);
+		// candidates 1, 3 and 5 of the middle sentences are gapped
+		List<int[]> windows = miner.findWindows(new int[] { 4, 2, 2, 2, 2, 0, 3 });
+
+		assertEquals(2, windows.size());
+		assertTrue(Arrays.equals(new int[] { 0, 4 }, windows.get(0)));
+		assertTrue(Arrays.equals(new int[] { 1, 5 }, windows.get(1)));
+	}
+
+	@Test
+	public void testMinedPassagesAreReady() throws Exception {
+		CTestGenerator generator = new CTestGenerator();
+		generator.setProfile(GenerationProfile.RULES_ONLY);
+		PassageMiner miner = new PassageMiner(generator);
+		miner.setThreads(2);
+
+		List<JCas> documents = Arrays.asList(segment(), segment());
+		List<Passage> passages = miner.mine(documents);
+
+		assertFalse(passages.isEmpty());
+		for (Passage passage : passages) {
+			JCas jcas = documents.get(passage.getDocument());
+			CTestObject ctest = generator.generateCTest(jcas, passage.getFirstSentence(), passage.getLastSentence());
+			assertEquals(generator.getGapLimit(), ctest.getGapCount());
+			assertFalse(generator.getWarnings().stream().anyMatch(warning -> warning.startsWith("INSUFFICIENT")));
+			assertEquals(jcas.getDocumentText().substring(passage.getBegin(), passage.getEnd()), generator.getText());
+
+			// the passage is the shortest with the first sentence
+			generator.generateCTest(jcas, passage.getFirstSentence(), passage.getLastSentence() - 1);
+			assertTrue(generator.getGapCount() < generator.getGapLimit());
+		}
+
+		// both documents yield the same passages, ranked by length
+		assertEquals(0, passages.size() % 2);
+		for (int i = 1; i < passages.size(); i++)
+			assertTrue(passages.get(i - 1).getTokenCount() <= passages.get(i).getTokenCount());
+	}
+
+	@Test
+	public void testPassagesShareInitialisation() throws Exception {
+		CTestGenerator generator = new CTestGenerator();
+		generator.setProfile(GenerationProfile.RULES_ONLY);
+		PassageMiner miner = new PassageMiner(generator);
+		JCas jcas = segment();
+
+		List<Criterion> exclusionCriteria = CTestResourceProvider.getExclusionCriteria(LANGUAGE, GenerationProfile.RULES_ONLY);
+		for (Criterion criterion : exclusionCriteria)
+			criterion.initialise(jcas);
+		List<int[]> windows = miner.findWindows(PassageMiner.countCandidates(jcas, exclusionCriteria));
+		List<CTestObject> ctests = generator.generateCTests(jcas, windows);
+
+		assertEquals(windows.size(), ctests.size());
+		for (int i = 0; i < windows.size(); i++) {
+			CTestObject ctest = generator.generateCTest(jcas, windows.get(i)[0], windows.get(i)[1]);
+			assertEquals(ctest.getGapCount(), ctests.get(i).getGapCount());
+			assertEquals(ctest.getTokens().toString(), ctests.get(i).getTokens().toString());
+		}
+	}
+
+	@Test
+	public void testPredictorRanking() throws Exception {
+		PassageMiner miner = new PassageMiner(10, 2, true, true);
+		miner.setProfile(GenerationProfile.RULES_ONLY);
+		// shorter passages are harder
+		miner.setPredictor(ctest -> Collections.nCopies(ctest.getGapCount(), 10.0 / ctest.getTokens().size()), 0.0);
+		miner.setResultLimit(3);
+
+		List<Passage> passages = miner.mine(Collections.singletonList(segment()));
+
+		assertEquals(3, passages.size());
+		List<Double> difficulties = new ArrayList<>();
+		for (Passage passage : passages) {
+			assertNotNull(passage.getCTest());
+			assertEquals(10, passage.getCTest().getGapCount());
+			difficulties.add(passage.getDifficulty());
+		}
+		List<Double> sorted = new ArrayList<>(difficulties);
+		Collections.sort(sorted);
+		assertEquals(sorted, difficulties);
+	}
+
+	private JCas segment() throws Exception {
+		String text = new String(Files.readAllBytes(Paths.get(TEXT_FILE)), StandardCharsets.UTF_8);
+		JCas jcas = JCasFactory.createText(text, LANGUAGE);
+		for (AnalysisEngine engine : CTestResourceProvider.getSegmentationEngines())
+			engine.process(jcas);
+		return jcas;
+	}
+}
@@ -0,0 +1,129 @@
+package de.unidue.ltl.ctest.gapscheme.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import de.unidue.ltl.ctest.core.CTestObject;
+import de.unidue.ltl.ctest.core.CTestToken;
+import junit.framework.TestCase;
+
+public class TargetDifficultySearchTest extends TestCase {
+
+	private static final String[] WORDS = { "at", "house", "on", "garden", "tree", "telephone", "is", "window",
+			"cat", "mountain", "by", "table", "sun", "newspaper", "do", "river", "car", "chocolate", "up", "letter" };
+
+	@Test
+	public void testSearchReachesBand() {
+		CTestObject ctest = createCTest(2);
+		TargetDifficultySearch search = new TargetDifficultySearch(TargetDifficultySearchTest::predict);
+		search.setThreads(2);
+		search.setSeed(7);
+
+		List<GapPlacement> placements = search.search(ctest, 0.6, 0.7, 2000);
+
+		assertFalse(placements.isEmpty());
+		GapPlacement best = placements.get(0);
+		assertEquals(0.0, best.getDistance(), 0.0);
+		assertTrue(best.getDifficulty() >= 0.6 && best.getDifficulty() <= 0.7);
+		assertEquals(ctest.getGapCount(), best.getCTest().getGapCount());
+		assertEquals(ctest.getTokens().size(), best.getCTest().getTokens().size());
+		assertEquals(best.getDifficulty(), best.getCTest().getOverallDifficulty(), 0.0001);
+		assertTrue(best.getCTest().getGappedTokens().stream().allMatch(CTestToken::isCandidate));
+
+		// results are ordered by distance
+		for (int i = 1; i < placements.size(); i++) {
+			assertTrue(placements.get(i - 1).getDistance() <= placements.get(i).getDistance());
+		}
+	}
+
+	@Test
+	public void testSearchReusesPredictions() {
+		CTestObject ctest = createCTest(2);
+		TargetDifficultySearch search = new TargetDifficultySearch(TargetDifficultySearchTest::predict);
+		search.setThreads(1);
+		search.setResultLimit(1000);
+
+		search.search(ctest, 0.0, 0.0, 500);
+
+		assertTrue(search.getPredictorCalls() > 0);
+		assertTrue(search.getCachedEvaluations() + search.getPrunedMoves() > search.getPredictorCalls());
+	}
+
+	@Test
+	public void testOriginalIsNotModified() {
+		CTestObject ctest = createCTest(2);
+		List<Boolean> gaps = ctest.getTokens().stream().map(CTestToken::isGap).collect(Collectors.toList());
+
+		new TargetDifficultySearch(TargetDifficultySearchTest::predict).search(ctest, 0.8, 200);
+
+		assertEquals(gaps, ctest.getTokens().stream().map(CTestToken::isGap).collect(Collectors.toList()));
+	}
+
+	@Test
+	public void testResultsArePredictedAnew() {
+		CTestObject ctest = createCTest(2);
+		ctest.getTokens().forEach(token -> token.setErrorRate(0.5));
+		TargetDifficultySearch search = new TargetDifficultySearch(TargetDifficultySearchTest::predict);
+		search.setThreads(4);
+		search.setResultLimit(10);
+
+		for (GapPlacement placement : search.search(ctest, 0.2, 0.3, 500)) {
+			List<CTestToken> tokens = placement.getCTest().getTokens();
+			// the predictor regards gaps outside of the context window, so cached predictions may differ
+			List<Double> expected = predict(placement.getCTest());
+			List<Double> actual = placement.getCTest().getGappedTokens().stream()
+					.map(CTestToken::getPrediction).collect(Collectors.toList());
+			assertEquals(expected, actual);
+
+			for (int i = 0; i < tokens.size(); i++) {
+				assertFalse(i > 0 && tokens.get(i).isGap() && tokens.get(i - 1).isGap());
+				assertEquals(ctest.getTokens().get(i).getPrompt(), tokens.get(i).getPrompt());
+				assertEquals(0.5, tokens.get(i).getErrorRate(), 0.0);
+			}
+		}
+	}
+
+	@Test
+	public void testInvalidPredictor() {
+		CTestObject ctest = createCTest(2);
+		TargetDifficultySearch search = new TargetDifficultySearch(c -> new ArrayList<>());
+		try {
+			search.search(ctest, 0.5, 200);
+			fail("Expected an IllegalStateException.");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * A predictor, estimating the difficulty of a gap by its length, increased by gapped neighbours.
+	 */
+	private static List<Double> predict(CTestObject ctest) {
+		List<Double> predictions = new ArrayList<>();
+		List<CTestToken> tokens = ctest.getTokens();
+		for (int i = 0; i < tokens.size(); i++) {
+			CTestToken token = tokens.get(i);
+			if (!token.isGap())
+				continue;
+			double difficulty = Math.min(1.0, token.getText().length() / 10.0);
+			if (i > 1 && tokens.get(i - 2).isGap())
+				difficulty = Math.min(1.0, difficulty + 0.05);
+			predictions.add(difficulty);
+		}
+		return predictions;
+	}
+
+	private CTestObject createCTest(int gapInterval) {
+		CTestObject ctest = new CTestObject("en");
+		for (int i = 0; i < WORDS.length; i++) {
+			CTestToken token = new CTestToken(WORDS[i]);
+			token.setGapIndex(WORDS[i].length() / 2);
+			token.setGap(i % gapInterval == 1);
+			ctest.addToken(token);
+		}
+		return ctest;
+	}
+}
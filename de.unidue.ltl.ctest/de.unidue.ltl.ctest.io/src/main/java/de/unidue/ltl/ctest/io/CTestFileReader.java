@@ -55,27 +55,45 @@ public class CTestFileReader implements CTestReader {
 		
 		this.path = filePath;
 		this.lines = Files.lines(filePath).toArray(String[]::new);
-		
+		return this.extractCTest();
+	}
+	
+	public CTestObject read(String filePath) throws IOException {
+		return this.read(Paths.get(filePath));
+	}
+	
+	public CTestObject read(File file) throws IOException {
+		return this.read(file.getAbsolutePath());
+	}
+	
+	/**
+	 * Reads a {@code CTestObject} from the given lines, e.g. the content of a request.
+	 * Without a header, the language is unknown and the id is the one generated by the {@code CTestObject}.
+	 */
+	public CTestObject read(List<String> contentLines) {
+		this.path = null;
+		this.lines = contentLines.toArray(new String[contentLines.size()]);
+		return this.extractCTest();
+	}
+	
+	private CTestObject extractCTest() {
 		String language = this.extractLanguage();
 		String id = this.extractId();
 		List<CTestToken> tokens = this.extractTokens();
 		
 		CTestObject ctest = new CTestObject(language);
-		ctest.setId(id);
+		if (id != null)
+			ctest.setId(id);
 		tokens.forEach(token -> ctest.addToken(token));
 		return ctest;
 	}
 	
-	public CTestObject read(String filePath) throws IOException {
-		return this.read(Paths.get(filePath));
-	}
-	
-	public CTestObject read(File file) throws IOException {
-		return this.read(file.getAbsolutePath());
+	private boolean hasHeader() {
+		return lines.length > 1 && lines[1].startsWith(CTestObject.COMMENT);
 	}
 	
 	private String extractLanguage() {
-		if (lines[1].startsWith(CTestObject.COMMENT))
+		if (this.hasHeader())
 			return this.lines[0]
 					.substring(CTestObject.COMMENT.length())
 					.split("\\t")[0]
@@ -84,12 +102,12 @@ public class CTestFileReader implements CTestReader {
 	}
 	
 	private String extractId() {
-		if (lines[1].startsWith(CTestObject.COMMENT))
+		if (this.hasHeader())
 			return this.lines[1]
 					.substring(CTestObject.COMMENT.length())
 					.trim();
 		
-		return this.path.getFileName().toString();
+		return this.path != null ? this.path.getFileName().toString() : null;
 	}
 	
 	private List<CTestToken> extractTokens() {
@@ -103,11 +121,12 @@ public class CTestFileReader implements CTestReader {
 		for (int i = 0; i < lines.length; i++) {
 			line = lines[i];			
 
-			if (line.startsWith(CTestObject.COMMENT)) 
+			if (line.isEmpty() || line.startsWith(CTestObject.COMMENT)) 
 				continue;
 
 			if (line.startsWith(CTestObject.SENT_BOUNDARY)) {
-				tokens.get(tokens.size() - 1).setLastTokenInSentence(true);
+				if (!tokens.isEmpty())
+					tokens.get(tokens.size() - 1).setLastTokenInSentence(true);
 				continue;
 			}
 			
@@ -0,0 +1,54 @@
+package de.unidue.ltl.ctest.io;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.unidue.ltl.ctest.core.CTestObject;
+import de.unidue.ltl.ctest.core.CTestToken;
+import junit.framework.TestCase;
+
+public class CTestFileReaderTest extends TestCase {
+
+	@Test
+	public void testReadLines() {
+		CTestObject original = new CTestObject("en");
+		original.setId("test");
+		original.addToken(new CTestToken("A"));
+		CTestToken gap = new CTestToken("test", true);
+		gap.setGapIndex(2);
+		gap.setErrorRate(0.5);
+		original.addToken(gap);
+		CTestToken last = new CTestToken(".");
+		last.setLastTokenInSentence(true);
+		original.addToken(last);
+
+		CTestObject ctest = new CTestFileReader().read(Arrays.asList(original.toString().split("\n")));
+
+		assertEquals("en", ctest.getLanguage());
+		assertEquals("test", ctest.getId());
+		assertEquals(original.toString(), ctest.toString());
+	}
+
+	@Test
+	public void testReadLinesWithoutHeader() {
+		List<String> lines = Arrays.asList(
+				CTestObject.SENT_BOUNDARY,
+				"A",
+				"",
+				"test",
+				".",
+				CTestObject.SENT_BOUNDARY,
+				"");
+		CTestObject ctest = new CTestFileReader().read(lines);
+		List<CTestToken> tokens = ctest.getTokens();
+
+		assertEquals("UNKNOWN", ctest.getLanguage());
+		assertNotNull(ctest.getId());
+		assertEquals(3, tokens.size());
+		assertEquals("test", tokens.get(1).getText());
+		assertFalse(tokens.get(0).isLastTokenInSentence());
+		assertTrue(tokens.get(2).isLastTokenInSentence());
+	}
+}
@@ -0,0 +1,384 @@
+package de.unidue.ltl.ctest.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonStructure;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import de.unidue.ltl.ctest.core.CTestObject;
+import de.unidue.ltl.ctest.difficulty.experiments.Model;
+import de.unidue.ltl.ctest.difficulty.train.DefaultTrainer;
+import de.unidue.ltl.ctest.gapscheme.CTestGenerator;
+import de.unidue.ltl.ctest.gapscheme.CTestResourceProvider;
+import de.unidue.ltl.ctest.gapscheme.GenerationProfile;
+import de.unidue.ltl.ctest.io.CTestFileReader;
+import de.unidue.ltl.ctest.util.Transformation;
+
+/**
+ * A local HTTP service for C-Test generation, difficulty prediction and format conversion.
+ * <p>
+ * The server only listens on the loopback interface and offers the following endpoints:
+ * <ul>
+ * <li>{@code POST /generate?language=xx[&ner=fast|accurate]}: generates a C-Test from the plain text in the request body.
+ * Responds with the output of {@link Transformation#toJSON(CTestObject, List)}.
+ * Named entities are recognised by statistical models, unless {@code ner=fast} selects the gazetteers of {@link GenerationProfile#FAST}.</li>
+ * <li>{@code POST /predict?language=xx}: predicts the gap difficulties of the C-Test in the request body,
+ * given in the JSON format of {@code /generate}, using the model registered for the language.</li>
+ * <li>{@code POST /transform}: converts a C-Test in the C-Test File Format, as read by {@link CTestFileReader}, to JSON.</li>
+ * <li>{@code GET /stats}: reports queue sizes and latency histograms.</li>
+ * </ul>
+ * Generation and prediction requests are batched by language through a {@link RequestBatcher},
+ * so that the generators and models are only loaded once and stay warm between requests.
+ * Each batch is processed by a single call to {@link CTestGenerator#generateCTests(List, String)} 
+ * or {@link Model#predictAll(List)}, respectively.
+ * If a queue is full, the server responds with {@code 503} and a {@code Retry-After} header.
+ * If a request is not answered within the request timeout, the server responds with {@code 504}.
+ */
+public class CTestServer {
+
+	public static final int DEFAULT_QUEUE_CAPACITY = 64;
+	public static final int DEFAULT_BATCH_SIZE = 8;
+	public static final long DEFAULT_REQUEST_TIMEOUT_MILLIS = 60_000;
+
+	private static final String[] ENDPOINTS = { "/generate", "/predict", "/transform", "/stats" };
+	private static final String FAST_SUFFIX = "/fast";
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final RequestBatcher<String, JsonObject> generation;
+	private final RequestBatcher<CTestObject, List<Double>> prediction;
+	private final Map<String, CTestGenerator> generators = new HashMap<>();
+	private final Map<String, Model> models = new ConcurrentHashMap<>();
+	private final Map<String, LatencyHistogram> latencies = new LinkedHashMap<>();
+	private volatile long requestTimeoutMillis = DEFAULT_REQUEST_TIMEOUT_MILLIS;
+
+	/**
+	 * Creates a new server on the given port, using the default queue capacity and batch size.
+	 * The server is started with {@link #start()}.
+	 *
+	 * @param  port The port, or 0 for any free port.
+	 */
+	public CTestServer(int port) throws IOException {
+		this(port, DEFAULT_QUEUE_CAPACITY, DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * Creates a new server on the given port.
+	 * The server is started with {@link #start()}.
+	 *
+	 * @param  port The port, or 0 for any free port.
+	 * @param  queueCapacity The maximum number of queued generation and prediction requests, respectively.
+	 * @param  maxBatchSize The maximum number of requests of the same language processed at once.
+	 */
+	public CTestServer(int port, int queueCapacity, int maxBatchSize) throws IOException {
+		this.generation = new RequestBatcher<>("ctest-generation", queueCapacity, maxBatchSize, this::generate);
+		this.prediction = new RequestBatcher<>("ctest-prediction", queueCapacity, maxBatchSize, this::predict);
+		for (String endpoint : ENDPOINTS)
+			latencies.put(endpoint, new LatencyHistogram());
+
+		this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		this.executor = Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, "ctest-http");
+			thread.setDaemon(true);
+			return thread;
+		});
+		server.setExecutor(executor);
+		for (String endpoint : ENDPOINTS)
+			server.createContext(endpoint, this::handle);
+	}
+
+	/**
+	 * Starts a server.
+	 * <p>
+	 * Usage: {@code CTestServer [port] [language=modelPath ...]}, where each model is loaded with the {@link DefaultTrainer}.
+	 * Each model gets one estimator per available processor, so that the predictions of a batch are spread across the cores.
+	 */
+	public static void main(String[] args) throws Exception {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+		int estimators = Runtime.getRuntime().availableProcessors();
+		CTestServer server = new CTestServer(port);
+		for (int i = 1; i < args.length; i++) {
+			String[] model = args[i].split("=", 2);
+			if (model.length != 2) {
+				throw new IllegalArgumentException("Models must be given as language=modelPath.");
+			}
+			server.setModel(model[0], new DefaultTrainer().loadModel(model[1], estimators));
+		}
+		server.start();
+		System.out.println("C-Test server listening on http://localhost:" + server.getPort());
+	}
+
+	/**
+	 * Registers the model used for difficulty prediction in the given language.
+	 */
+	public void setModel(String language, Model model) {
+		models.put(language, model);
+	}
+
+	/**
+	 * Returns the model used for difficulty prediction in the given language, or null if there is none.
+	 */
+	public Model getModel(String language) {
+		return models.get(language);
+	}
+
+	/**
+	 * Returns the time in milliseconds, after which queued generation and prediction requests are answered with {@code 504}.
+	 */
+	public long getRequestTimeout() {
+		return requestTimeoutMillis;
+	}
+
+	/**
+	 * Sets the time in milliseconds, after which queued generation and prediction requests are answered with {@code 504}.
+	 * Defaults to {@link #DEFAULT_REQUEST_TIMEOUT_MILLIS}.
+	 */
+	public void setRequestTimeout(long requestTimeoutMillis) {
+		if (requestTimeoutMillis < 1) {
+			throw new IllegalArgumentException("The request timeout must be positive.");
+		}
+		this.requestTimeoutMillis = requestTimeoutMillis;
+	}
+
+	public void start() {
+		server.start();
+	}
+
+	/**
+	 * Stops the server, waiting at most the given number of seconds for running exchanges.
+	 */
+	public void stop(int delay) {
+		server.stop(delay);
+		generation.close();
+		prediction.close();
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Returns the port the server is bound to.
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Returns the latency histogram of the given endpoint, e.g. {@code "/generate"}.
+	 */
+	public LatencyHistogram getLatency(String endpoint) {
+		return latencies.get(endpoint);
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		long start = System.nanoTime();
+		String endpoint = exchange.getHttpContext().getPath();
+		try {
+			Map<String, String> parameters = getParameters(exchange.getRequestURI().getRawQuery());
+			String method = exchange.getRequestMethod();
+			if (endpoint.equals("/stats")) {
+				respond(exchange, 200, getStats());
+				return;
+			}
+			if (!method.equals("POST")) {
+				respondError(exchange, 405, "Use POST.");
+				return;
+			}
+
+			String body = readBody(exchange);
+			String language = parameters.get("language");
+			if (endpoint.equals("/transform")) {
+				respond(exchange, 200, Transformation.toJSON(new CTestFileReader().read(Arrays.asList(body.split("\\r?\\n"))), new ArrayList<>()));
+			}
+			else if (language == null) {
+				respondError(exchange, 400, "Missing parameter: language");
+			}
+			else if (endpoint.equals("/generate")) {
+				respond(exchange, 200, await(generation.submit(getGenerationKey(language, parameters.get("ner")), body)));
+			}
+			else if (!models.containsKey(language)) {
+				respondError(exchange, 404, "No model for language: " + language);
+			}
+			else {
+				List<Double> difficulties = await(prediction.submit(language, parseCTest(body)));
+				JsonArrayBuilder array = Json.createArrayBuilder();
+				for (double difficulty : difficulties)
+					array.add(difficulty);
+				respond(exchange, 200, Json.createObjectBuilder().add("difficulties", array).build());
+			}
+		} catch (RejectedExecutionException e) {
+			exchange.getResponseHeaders().add("Retry-After", "1");
+			respondError(exchange, 503, e.getMessage());
+		} catch (IllegalArgumentException | IllegalStateException | JsonException e) {
+			respondError(exchange, 400, "Invalid request: " + e.getMessage());
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IllegalArgumentException || cause instanceof JsonException)
+				respondError(exchange, 400, "Invalid request: " + cause.getMessage());
+			else
+				respondError(exchange, 500, String.valueOf(cause));
+		} catch (TimeoutException e) {
+			respondError(exchange, 504, "The request was not processed within " + requestTimeoutMillis + " ms.");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			respondError(exchange, 503, "Interrupted.");
+		} catch (RuntimeException e) {
+			respondError(exchange, 500, e.toString());
+		} finally {
+			latencies.get(endpoint).record(System.nanoTime() - start);
+			exchange.close();
+		}
+	}
+
+	/**
+	 * Waits for the result of a queued request, at most for the request timeout.
+	 * Requests which time out are cancelled, though a batch which is already processed is not interrupted.
+	 */
+	private <T> T await(Future<T> result) throws InterruptedException, ExecutionException, TimeoutException {
+		try {
+			return result.get(requestTimeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			result.cancel(false);
+			throw e;
+		}
+	}
+
+	/**
+	 * Parses a C-Test in the JSON format of {@code /generate}.
+	 *
+	 * @throws IllegalArgumentException if the body is not such a C-Test.
+	 */
+	private static CTestObject parseCTest(String body) {
+		try {
+			return Transformation.fromJSONString(body);
+		} catch (IOException | RuntimeException e) {
+			throw new IllegalArgumentException("The body is not a C-Test in JSON format: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Returns the key, by which generation requests are batched: the language, followed by a suffix for fast recognition.
+	 *
+	 * @throws IllegalArgumentException if the language is not supported by the generator.
+	 */
+	private static String getGenerationKey(String language, String ner) {
+		if (!CTestResourceProvider.getSupportedLanguages().contains(language))
+			throw new IllegalArgumentException("Unsupported language: " + language);
+		if (ner == null || ner.equals("accurate"))
+			return language;
+		if (ner.equals("fast"))
+			return language + FAST_SUFFIX;
+		throw new IllegalArgumentException("The parameter ner must be fast or accurate.");
+	}
+
+	/**
+	 * Generates the C-Tests of a batch in one run of the generator of the language and profile, which is reused between batches.
+	 * Runs on the generation worker only.
+	 */
+	private List<JsonObject> generate(String key, List<String> texts) throws Exception {
+		boolean fast = key.endsWith(FAST_SUFFIX);
+		String language = fast ? key.substring(0, key.length() - FAST_SUFFIX.length()) : key;
+		CTestGenerator generator = generators.computeIfAbsent(key, k -> {
+			CTestGenerator newGenerator = new CTestGenerator();
+			newGenerator.setProfile(fast ? GenerationProfile.FAST : GenerationProfile.DEFAULT);
+			return newGenerator;
+		});
+		List<CTestObject> ctests = generator.generateCTests(texts, language);
+		List<List<String>> warnings = generator.getBatchWarnings();
+		List<JsonObject> results = new ArrayList<>();
+		for (int i = 0; i < ctests.size(); i++)
+			results.add(Transformation.toJSON(ctests.get(i), new ArrayList<>(warnings.get(i))));
+		return results;
+	}
+
+	/**
+	 * Predicts the difficulties of a batch with the model of the language.
+	 * Runs on the prediction worker only.
+	 */
+	private List<List<Double>> predict(String language, List<CTestObject> ctests) {
+		return models.get(language).predictAll(ctests);
+	}
+
+	private JsonStructure getStats() {
+		JsonObjectBuilder endpoints = Json.createObjectBuilder();
+		for (Map.Entry<String, LatencyHistogram> entry : latencies.entrySet())
+			endpoints.add(entry.getKey(), entry.getValue().toJSON());
+
+		return Json.createObjectBuilder()
+				.add("endpoints", endpoints)
+				.add("generation", getStats(generation))
+				.add("prediction", getStats(prediction))
+				.build();
+	}
+
+	private JsonObjectBuilder getStats(RequestBatcher<?, ?> batcher) {
+		return Json.createObjectBuilder()
+				.add("queued", batcher.getQueueSize())
+				.add("rejected", batcher.getRejectedCount())
+				.add("batches", batcher.getBatchCount())
+				.add("queueLatency", batcher.getQueueLatency().toJSON())
+				.add("batchLatency", batcher.getBatchLatency().toJSON());
+	}
+
+	private static String readBody(HttpExchange exchange) throws IOException {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		try (InputStream in = exchange.getRequestBody()) {
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) != -1)
+				body.write(buffer, 0, read);
+		}
+		return new String(body.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static Map<String, String> getParameters(String query) throws UnsupportedEncodingException {
+		Map<String, String> parameters = new HashMap<>();
+		if (query == null)
+			return parameters;
+		for (String parameter : query.split("&")) {
+			String[] pair = parameter.split("=", 2);
+			parameters.put(URLDecoder.decode(pair[0], "UTF-8"), pair.length > 1 ? URLDecoder.decode(pair[1], "UTF-8") : "");
+		}
+		return parameters;
+	}
+
+	private static void respondError(HttpExchange exchange, int status, String message) throws IOException {
+		respond(exchange, status, Json.createObjectBuilder().add("error", String.valueOf(message)).build());
+	}
+
+	private static void respond(HttpExchange exchange, int status, JsonStructure json) throws IOException {
+		byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package de.unidue.ltl.ctest.server;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+
+/**
+ * A thread-safe histogram of latencies, using exponentially growing buckets.
+ * <p>
+ * The upper bound of bucket {@code i} is {@code 2^i} milliseconds. The last bucket collects all larger latencies.
+ * Percentiles are therefore reported as the upper bound of the bucket they fall into.
+ */
+public class LatencyHistogram {
+
+	/**
+	 * The number of buckets. The largest bounded bucket ends at {@code 2^(BUCKETS - 2)} milliseconds.
+	 */
+	public static final int BUCKETS = 19;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final AtomicLong totalNanos = new AtomicLong();
+	private final AtomicLong maxNanos = new AtomicLong();
+
+	/**
+	 * Records a single latency.
+	 *
+	 * @param  nanos The latency in nanoseconds.
+	 */
+	public void record(long nanos) {
+		counts.incrementAndGet(getBucket(nanos));
+		totalNanos.addAndGet(nanos);
+		maxNanos.accumulateAndGet(nanos, Math::max);
+	}
+
+	/**
+	 * Returns the number of recorded latencies.
+	 */
+	public long getCount() {
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++)
+			count += counts.get(i);
+		return count;
+	}
+
+	/**
+	 * Returns the mean latency in milliseconds, or 0 if nothing was recorded.
+	 */
+	public double getMean() {
+		long count = getCount();
+		if (count == 0)
+			return 0.0;
+		return totalNanos.get() / 1e6 / count;
+	}
+
+	/**
+	 * Returns the largest recorded latency in milliseconds.
+	 */
+	public double getMax() {
+		return maxNanos.get() / 1e6;
+	}
+
+	/**
+	 * Returns the upper bound in milliseconds of the bucket containing the given percentile,
+	 * or 0 if nothing was recorded. The percentile of the unbounded last bucket is the maximum latency.
+	 *
+	 * @param  percentile The percentile, between 0 and 100.
+	 */
+	public double getPercentile(double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("The percentile must be between 0 and 100.");
+		}
+		long count = getCount();
+		if (count == 0)
+			return 0.0;
+
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS - 1; i++) {
+			seen += counts.get(i);
+			if (seen >= rank)
+				return getUpperBound(i);
+		}
+		return getMax();
+	}
+
+	/**
+	 * Returns the number of latencies recorded in each bucket.
+	 */
+	public long[] getBucketCounts() {
+		long[] result = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++)
+			result[i] = counts.get(i);
+		return result;
+	}
+
+	/**
+	 * Returns the upper bound of the given bucket in milliseconds.
+	 */
+	public static long getUpperBound(int bucket) {
+		return 1L << bucket;
+	}
+
+	/**
+	 * Converts the histogram to a JSON object, containing summary statistics and the non-empty buckets.
+	 */
+	public JsonObject toJSON() {
+		JsonArrayBuilder buckets = Json.createArrayBuilder();
+		for (int i = 0; i < BUCKETS; i++) {
+			long count = counts.get(i);
+			if (count == 0)
+				continue;
+			buckets.add(Json.createObjectBuilder()
+					.add("upperBoundMs", i < BUCKETS - 1 ? Long.toString(getUpperBound(i)) : "inf")
+					.add("count", count));
+		}
+		return Json.createObjectBuilder()
+				.add("count", getCount())
+				.add("meanMs", getMean())
+				.add("p50Ms", getPercentile(50))
+				.add("p90Ms", getPercentile(90))
+				.add("p99Ms", getPercentile(99))
+				.add("maxMs", getMax())
+				.add("buckets", buckets)
+				.build();
+	}
+
+	private static int getBucket(long nanos) {
+		long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+		for (int i = 0; i < BUCKETS - 1; i++) {
+			if (millis < getUpperBound(i))
+				return i;
+		}
+		return BUCKETS - 1;
+	}
+}
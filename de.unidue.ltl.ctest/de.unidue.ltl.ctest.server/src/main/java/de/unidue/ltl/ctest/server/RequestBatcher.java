@@ -0,0 +1,232 @@
+package de.unidue.ltl.ctest.server;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Collects concurrent requests in a bounded queue and processes them in batches of the same language.
+ * <p>
+ * A single worker thread repeatedly takes the language with the longest waiting request and passes up to
+ * {@code maxBatchSize} queued requests of that language to the {@link BatchProcessor} at once.
+ * Since the UIMA engines of the generator and the models are not thread-safe, all batches are processed by this worker.
+ * <p>
+ * If the queue is full, new requests are rejected immediately, so that callers can back off
+ * instead of piling up unbounded work.
+ *
+ * @param <I> The type of the request inputs.
+ * @param <O> The type of the results.
+ */
+public class RequestBatcher<I, O> {
+
+	/**
+	 * Processes a batch of inputs of the same language.
+	 */
+	@FunctionalInterface
+	public interface BatchProcessor<I, O> {
+		/**
+		 * Returns one result per input, in the order of the inputs.
+		 */
+		public List<O> process(String language, List<I> inputs) throws Exception;
+	}
+
+	private static class Pending<I, O> {
+		final I input;
+		final long enqueued = System.nanoTime();
+		final CompletableFuture<O> result = new CompletableFuture<>();
+
+		Pending(I input) {
+			this.input = input;
+		}
+	}
+
+	private final BatchProcessor<I, O> processor;
+	private final int capacity;
+	private final int maxBatchSize;
+	private final Map<String, ArrayDeque<Pending<I, O>>> queues = new LinkedHashMap<>();
+	private final LatencyHistogram queueLatency = new LatencyHistogram();
+	private final LatencyHistogram batchLatency = new LatencyHistogram();
+	private final Thread worker;
+
+	private int size;
+	private long rejected;
+	private long batches;
+	private boolean closed;
+
+	/**
+	 * Creates a new {@code RequestBatcher} and starts its worker thread.
+	 *
+	 * @param  name The name of the worker thread.
+	 * @param  capacity The maximum number of queued requests.
+	 * @param  maxBatchSize The maximum number of requests processed at once.
+	 * @param  processor The processor of the batches.
+	 */
+	public RequestBatcher(String name, int capacity, int maxBatchSize, BatchProcessor<I, O> processor) {
+		if (capacity < 1 || maxBatchSize < 1) {
+			throw new IllegalArgumentException("Capacity and batch size must be positive.");
+		}
+		this.processor = processor;
+		this.capacity = capacity;
+		this.maxBatchSize = maxBatchSize;
+		this.worker = new Thread(this::run, name);
+		this.worker.setDaemon(true);
+		this.worker.start();
+	}
+
+	/**
+	 * Queues the given input for processing.
+	 *
+	 * @param  language The language of the input, which determines the batch.
+	 * @param  input The input.
+	 * @return The future result.
+	 *
+	 * @throws RejectedExecutionException if the queue is full or the batcher is closed.
+	 */
+	public synchronized CompletableFuture<O> submit(String language, I input) {
+		if (closed) {
+			throw new RejectedExecutionException("The batcher is closed.");
+		}
+		if (size >= capacity) {
+			rejected++;
+			throw new RejectedExecutionException("The queue is full.");
+		}
+		Pending<I, O> pending = new Pending<>(input);
+		queues.computeIfAbsent(language, key -> new ArrayDeque<>()).add(pending);
+		size++;
+		notifyAll();
+		return pending.result;
+	}
+
+	/**
+	 * Stops the worker thread. Queued requests fail with a {@code RejectedExecutionException}.
+	 */
+	public void close() {
+		synchronized (this) {
+			closed = true;
+			for (ArrayDeque<Pending<I, O>> queue : queues.values()) {
+				for (Pending<I, O> pending : queue)
+					pending.result.completeExceptionally(new RejectedExecutionException("The batcher is closed."));
+			}
+			queues.clear();
+			size = 0;
+			notifyAll();
+		}
+		try {
+			worker.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Returns the number of queued requests.
+	 */
+	public synchronized int getQueueSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of requests rejected because of a full queue.
+	 */
+	public synchronized long getRejectedCount() {
+		return rejected;
+	}
+
+	/**
+	 * Returns the number of processed batches.
+	 */
+	public synchronized long getBatchCount() {
+		return batches;
+	}
+
+	/**
+	 * Returns the time requests spent in the queue.
+	 */
+	public LatencyHistogram getQueueLatency() {
+		return queueLatency;
+	}
+
+	/**
+	 * Returns the processing time of whole batches.
+	 */
+	public LatencyHistogram getBatchLatency() {
+		return batchLatency;
+	}
+
+	private void run() {
+		while (true) {
+			String language;
+			List<Pending<I, O>> batch = new ArrayList<>();
+			synchronized (this) {
+				while (size == 0 && !closed) {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+				if (closed)
+					return;
+
+				language = getOldestLanguage();
+				Iterator<Pending<I, O>> queue = queues.get(language).iterator();
+				int taken = 0;
+				while (queue.hasNext() && batch.size() < maxBatchSize) {
+					Pending<I, O> pending = queue.next();
+					queue.remove();
+					taken++;
+					// requests cancelled by their callers, e.g. after a timeout, are dropped
+					if (!pending.result.isCancelled())
+						batch.add(pending);
+				}
+				if (queues.get(language).isEmpty())
+					queues.remove(language);
+				size -= taken;
+				if (!batch.isEmpty())
+					batches++;
+			}
+			if (!batch.isEmpty())
+				process(language, batch);
+		}
+	}
+
+	private void process(String language, List<Pending<I, O>> batch) {
+		long start = System.nanoTime();
+		List<I> inputs = new ArrayList<>();
+		for (Pending<I, O> pending : batch) {
+			queueLatency.record(start - pending.enqueued);
+			inputs.add(pending.input);
+		}
+
+		try {
+			List<O> results = processor.process(language, inputs);
+			for (int i = 0; i < batch.size(); i++)
+				batch.get(i).result.complete(results.get(i));
+		} catch (Throwable e) {
+			for (Pending<I, O> pending : batch)
+				pending.result.completeExceptionally(e);
+		}
+		batchLatency.record(System.nanoTime() - start);
+	}
+
+	/**
+	 * Returns the language of the longest waiting request.
+	 */
+	private String getOldestLanguage() {
+		String oldest = null;
+		long enqueued = Long.MAX_VALUE;
+		for (Map.Entry<String, ArrayDeque<Pending<I, O>>> entry : queues.entrySet()) {
+			long first = entry.getValue().peek().enqueued;
+			if (oldest == null || first - enqueued < 0) {
+				oldest = entry.getKey();
+				enqueued = first;
+			}
+		}
+		return oldest;
+	}
+}
@@ -0,0 +1,165 @@
+package de.unidue.ltl.ctest.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+
+import org.junit.Test;
+
+import de.unidue.ltl.ctest.core.CTestObject;
+import de.unidue.ltl.ctest.core.CTestToken;
+import de.unidue.ltl.ctest.util.Transformation;
+import junit.framework.TestCase;
+
+public class CTestServerTest extends TestCase {
+
+	private static final String TEXT = "Received shutters expenses ye he pleasant. Mary had a little birthday party on June 6th in London. Drift as blind above at up. No up simple county stairs do should praise as. Drawings sir gay together landlord had law smallest. Formerly welcomed attended declared met say unlocked. Jennings outlived no dwelling denoting in peculiar as he believed. Behaviour excellent middleton be as it curiosity departure ourselves. ";
+
+	private CTestServer server;
+	private int status;
+
+	@Override
+	protected void setUp() throws Exception {
+		server = new CTestServer(0);
+		server.setModel("en", ctest -> {
+			List<Double> difficulties = new ArrayList<>();
+			for (CTestToken token : ctest.getGappedTokens())
+				difficulties.add(token.getText().length() / 10.0);
+			return difficulties;
+		});
+		server.start();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		server.stop(0);
+	}
+
+	@Test
+	public void testGenerateAndPredict() throws Exception {
+		JsonObject ctest = post("/generate?language=en", TEXT);
+		assertEquals(200, status);
+		assertFalse(ctest.getJsonArray("words").isEmpty());
+
+		JsonObject prediction = post("/predict?language=en", ctest.toString());
+		assertEquals(200, status);
+		assertEquals(Transformation.fromJSONString(ctest.toString()).getGappedTokens().size(),
+				prediction.getJsonArray("difficulties").size());
+
+		post("/predict?language=de", ctest.toString());
+		assertEquals(404, status);
+		assertEquals(1, server.getLatency("/generate").getCount());
+		assertEquals(2, server.getLatency("/predict").getCount());
+	}
+
+	@Test
+	public void testFastGeneration() throws Exception {
+		JsonObject ctest = post("/generate?language=en&ner=fast", TEXT);
+		assertEquals(200, status);
+		assertFalse(ctest.getJsonArray("words").isEmpty());
+
+		post("/generate?language=en&ner=fastest", TEXT);
+		assertEquals(400, status);
+	}
+
+	@Test
+	public void testTransform() throws Exception {
+		CTestObject ctest = new CTestObject("en");
+		for (int i = 0; i < 3; i++) {
+			CTestToken token = new CTestToken("token" + i);
+			token.setId(Integer.toString(i));
+			token.setGap(i == 1);
+			token.setGapIndex(3);
+			ctest.addToken(token);
+		}
+
+		StringBuilder body = new StringBuilder();
+		for (CTestToken token : ctest.getTokens())
+			body.append(Transformation.toCTestFileFormat(token)).append("\n");
+		body.append(CTestObject.SENT_BOUNDARY).append("\n");
+
+		JsonObject json = post("/transform", body.toString());
+		assertEquals(200, status);
+		assertEquals(3, json.getJsonArray("words").size());
+		assertTrue(json.getJsonArray("words").getJsonObject(1).getBoolean("gapStatus"));
+		assertTrue(json.getJsonArray("words").getJsonObject(2).getBoolean("isLastTokenInSentence"));
+	}
+
+	@Test
+	public void testInvalidRequests() throws Exception {
+		post("/generate", TEXT);
+		assertEquals(400, status);
+		post("/predict?language=en", "not json");
+		assertEquals(400, status);
+
+		JsonObject stats = get("/stats");
+		assertEquals(200, status);
+		assertEquals(2, stats.getJsonObject("endpoints").getJsonObject("/generate").getInt("count")
+				+ stats.getJsonObject("endpoints").getJsonObject("/predict").getInt("count"));
+	}
+
+	@Test
+	public void testFailingRequests() throws Exception {
+		JsonObject ctest = post("/generate?language=en", TEXT);
+		post("/generate?language=xx", TEXT);
+		assertEquals(400, status);
+
+		server.setModel("de", c -> {
+			throw new IllegalArgumentException("No gaps.");
+		});
+		post("/predict?language=de", ctest.toString());
+		assertEquals(400, status);
+
+		server.setModel("fr", c -> {
+			try {
+				Thread.sleep(1000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return new ArrayList<>();
+		});
+		server.setRequestTimeout(100);
+		post("/predict?language=fr", ctest.toString());
+		assertEquals(504, status);
+	}
+
+	private JsonObject post(String path, String body) throws IOException {
+		HttpURLConnection connection = open(path);
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		try (OutputStream out = connection.getOutputStream()) {
+			out.write(body.getBytes(StandardCharsets.UTF_8));
+		}
+		return read(connection);
+	}
+
+	private JsonObject get(String path) throws IOException {
+		return read(open(path));
+	}
+
+	private HttpURLConnection open(String path) throws IOException {
+		return (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path).openConnection();
+	}
+
+	private JsonObject read(HttpURLConnection connection) throws IOException {
+		status = connection.getResponseCode();
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) != -1)
+				body.write(buffer, 0, read);
+		}
+		return Json.createReader(new StringReader(new String(body.toByteArray(), StandardCharsets.UTF_8))).readObject();
+	}
+}
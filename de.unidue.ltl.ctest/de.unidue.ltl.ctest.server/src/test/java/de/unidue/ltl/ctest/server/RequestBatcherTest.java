@@ -0,0 +1,108 @@
+package de.unidue.ltl.ctest.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+
+public class RequestBatcherTest extends TestCase {
+
+	@Test
+	public void testBatchesByLanguage() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<String> batches = new ArrayList<>();
+		RequestBatcher<String, String> batcher = new RequestBatcher<>("test", 10, 10, (language, inputs) -> {
+			started.countDown();
+			release.await();
+			synchronized (batches) {
+				batches.add(language + inputs);
+			}
+			List<String> results = new ArrayList<>();
+			for (String input : inputs)
+				results.add(input.toUpperCase());
+			return results;
+		});
+
+		CompletableFuture<String> first = batcher.submit("de", "a");
+		started.await();
+		CompletableFuture<String> second = batcher.submit("en", "b");
+		CompletableFuture<String> third = batcher.submit("de", "c");
+		CompletableFuture<String> fourth = batcher.submit("en", "d");
+		release.countDown();
+
+		assertEquals("A", first.get());
+		assertEquals("B", second.get());
+		assertEquals("C", third.get());
+		assertEquals("D", fourth.get());
+		assertEquals(3, batcher.getBatchCount());
+		synchronized (batches) {
+			assertEquals("[de[a], en[b, d], de[c]]", batches.toString());
+		}
+		assertEquals(4, batcher.getQueueLatency().getCount());
+		batcher.close();
+	}
+
+	@Test
+	public void testBackpressure() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		RequestBatcher<String, String> batcher = new RequestBatcher<>("test", 2, 1, (language, inputs) -> {
+			started.countDown();
+			release.await();
+			return inputs;
+		});
+
+		CompletableFuture<String> running = batcher.submit("de", "a");
+		started.await();
+		batcher.submit("de", "b");
+		batcher.submit("de", "c");
+		try {
+			batcher.submit("de", "d");
+			fail("The queue should be full.");
+		} catch (RejectedExecutionException e) {
+			// expected
+		}
+		assertEquals(1, batcher.getRejectedCount());
+		assertEquals(2, batcher.getQueueSize());
+
+		release.countDown();
+		assertEquals("a", running.get());
+		batcher.close();
+	}
+
+	@Test
+	public void testCancelledRequests() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<String> batches = new ArrayList<>();
+		RequestBatcher<String, String> batcher = new RequestBatcher<>("test", 10, 10, (language, inputs) -> {
+			started.countDown();
+			release.await();
+			synchronized (batches) {
+				batches.add(language + inputs);
+			}
+			return inputs;
+		});
+
+		CompletableFuture<String> running = batcher.submit("de", "a");
+		started.await();
+		batcher.submit("de", "b").cancel(false);
+		CompletableFuture<String> queued = batcher.submit("de", "c");
+		release.countDown();
+
+		assertEquals("a", running.get());
+		assertEquals("c", queued.get());
+		synchronized (batches) {
+			assertEquals("[de[a], de[c]]", batches.toString());
+		}
+		assertEquals(2, batcher.getBatchCount());
+		assertEquals(0, batcher.getQueueSize());
+		batcher.close();
+	}
+}